@@ -0,0 +1,26 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway;
+
+/**
+ * Type of block events requested from peer event services. Each type includes all the information of the types
+ * declared before it.
+ * @see Gateway.Builder#commitEventType(BlockEventType)
+ * @see Gateway.Builder#listenerEventType(BlockEventType)
+ */
+public enum BlockEventType {
+    /**
+     * Filtered blocks, containing only transaction IDs, validation codes and chaincode event names without payloads.
+     * These are much smaller to transfer and parse than full blocks, and are sufficient to observe transaction
+     * commits.
+     */
+    FILTERED,
+    /** Full blocks, including transaction read/write sets and chaincode event payloads. */
+    FULL,
+    /** Full blocks, together with any private data that the client is authorized to receive. */
+    FULL_WITH_PRIVATE_DATA
+}
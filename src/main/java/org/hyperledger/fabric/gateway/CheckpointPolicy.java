@@ -0,0 +1,111 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Controls how often a checkpointed listener persists its position to the checkpointer.
+ * <p>By default, contract listeners checkpoint each transaction as soon as it has been processed, and block listeners
+ * checkpoint each block. This minimizes the events that are redelivered after an application failure, but requires
+ * one checkpointer update for every transaction. The batched policies instead deliver all the events in a block and
+ * then update the checkpointer once, either for every block or less often.</p>
+ * <p>With a batched policy, events delivered since the last checkpoint may be delivered again after an application
+ * failure. If a listener throws an exception part way through a block, the transactions already processed within that
+ * block are checkpointed together, so they are not redelivered when the block is retried.</p>
+ * @see Network#addBlockListener(org.hyperledger.fabric.gateway.spi.Checkpointer, CheckpointPolicy, java.util.function.Consumer)
+ * @see Contract#addContractListener(org.hyperledger.fabric.gateway.spi.Checkpointer, CheckpointPolicy, java.util.function.Consumer)
+ */
+public final class CheckpointPolicy {
+    private static final CheckpointPolicy PER_TRANSACTION = new CheckpointPolicy(0, 0);
+    private static final CheckpointPolicy PER_BLOCK = new CheckpointPolicy(1, 0);
+
+    private final int blockInterval;
+    private final long timeIntervalNanos;
+
+    private CheckpointPolicy(final int blockInterval, final long timeIntervalNanos) {
+        this.blockInterval = blockInterval;
+        this.timeIntervalNanos = timeIntervalNanos;
+    }
+
+    /**
+     * Checkpoint each transaction as soon as it has been processed. This is the default.
+     * @return A checkpoint policy.
+     */
+    public static CheckpointPolicy perTransaction() {
+        return PER_TRANSACTION;
+    }
+
+    /**
+     * Checkpoint once all the events in a block have been processed.
+     * @return A checkpoint policy.
+     */
+    public static CheckpointPolicy perBlock() {
+        return PER_BLOCK;
+    }
+
+    /**
+     * Checkpoint once all the events in a given number of blocks have been processed.
+     * @param blockCount Number of blocks processed between checkpoints.
+     * @return A checkpoint policy.
+     */
+    public static CheckpointPolicy everyBlocks(final int blockCount) {
+        if (blockCount < 1) {
+            throw new IllegalArgumentException("Block count must be at least 1: " + blockCount);
+        }
+        return blockCount == 1 ? PER_BLOCK : new CheckpointPolicy(blockCount, 0);
+    }
+
+    /**
+     * Checkpoint at the end of the first block processed after the given time period has elapsed since the previous
+     * checkpoint. Any outstanding position is also checkpointed when the listener is removed.
+     * @param period Minimum time between checkpoints.
+     * @param unit Time unit for the period.
+     * @return A checkpoint policy.
+     */
+    public static CheckpointPolicy every(final long period, final TimeUnit unit) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Period must be positive: " + period);
+        }
+        if (null == unit) {
+            throw new IllegalArgumentException("Time unit must not be null");
+        }
+        return new CheckpointPolicy(0, unit.toNanos(period));
+    }
+
+    /**
+     * Whether each transaction is checkpointed individually.
+     * @return true for the per-transaction policy; otherwise false.
+     */
+    public boolean isPerTransaction() {
+        return blockInterval == 0 && timeIntervalNanos == 0;
+    }
+
+    /**
+     * Whether a checkpoint should be made after a block has been processed.
+     * @param uncheckpointedBlocks Number of blocks processed since the last checkpoint, including the current block.
+     * @param nanosSinceCheckpoint Time since the last checkpoint.
+     * @return true if a checkpoint should be made; otherwise false.
+     */
+    public boolean isCheckpointRequired(final int uncheckpointedBlocks, final long nanosSinceCheckpoint) {
+        if (timeIntervalNanos > 0) {
+            return nanosSinceCheckpoint >= timeIntervalNanos;
+        }
+        return uncheckpointedBlocks >= blockInterval;
+    }
+
+    @Override
+    public String toString() {
+        if (isPerTransaction()) {
+            return getClass().getSimpleName() + "(perTransaction)";
+        }
+        if (timeIntervalNanos > 0) {
+            return getClass().getSimpleName() + "(every=" + TimeUnit.NANOSECONDS.toMillis(timeIntervalNanos) + "ms)";
+        }
+        return getClass().getSimpleName() + "(everyBlocks=" + blockInterval + ")";
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Controls when a file-based checkpointer forces its writes to the storage device. Checkpoint data is always written
+ * to the operating system before a checkpointer method returns; this policy determines how much of that data might be
+ * lost if the host, rather than just the application, fails.
+ * @see DefaultCheckpointers#file(java.nio.file.Path, CheckpointSyncPolicy)
+ * @see DefaultCheckpointers#mappedFile(java.nio.file.Path, CheckpointSyncPolicy)
+ * @see DefaultCheckpointers#sharedStore(java.nio.file.Path, CheckpointSyncPolicy)
+ */
+public final class CheckpointSyncPolicy {
+    private enum Mode {
+        NONE,
+        PER_BLOCK,
+        INTERVAL
+    }
+
+    private static final CheckpointSyncPolicy NONE = new CheckpointSyncPolicy(Mode.NONE, 0);
+    private static final CheckpointSyncPolicy PER_BLOCK = new CheckpointSyncPolicy(Mode.PER_BLOCK, 0);
+
+    private final Mode mode;
+    private final long intervalNanos;
+
+    private CheckpointSyncPolicy(final Mode mode, final long intervalNanos) {
+        this.mode = mode;
+        this.intervalNanos = intervalNanos;
+    }
+
+    /**
+     * Never explicitly force writes to the storage device, leaving it to the operating system. This is the default.
+     * @return A sync policy.
+     */
+    public static CheckpointSyncPolicy none() {
+        return NONE;
+    }
+
+    /**
+     * Force writes to the storage device when the checkpointed block number changes and after each group of
+     * transaction IDs is written.
+     * @return A sync policy.
+     */
+    public static CheckpointSyncPolicy perBlock() {
+        return PER_BLOCK;
+    }
+
+    /**
+     * Force writes to the storage device at most once in the given time period. Writes are forced by the first
+     * checkpoint update after the period has elapsed, and when the checkpointer is closed.
+     * @param interval Minimum time between forced writes.
+     * @param unit Time unit for the interval.
+     * @return A sync policy.
+     */
+    public static CheckpointSyncPolicy interval(final long interval, final TimeUnit unit) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("Interval must be positive: " + interval);
+        }
+        if (null == unit) {
+            throw new IllegalArgumentException("Time unit must not be null");
+        }
+        return new CheckpointSyncPolicy(Mode.INTERVAL, unit.toNanos(interval));
+    }
+
+    /**
+     * Whether writes should be forced following a change to the block number or a group of transaction IDs.
+     * @param nanosSinceLastSync Time since writes were last forced.
+     * @return true if writes should be forced; otherwise false.
+     */
+    public boolean isSyncRequired(final long nanosSinceLastSync) {
+        switch (mode) {
+            case PER_BLOCK:
+                return true;
+            case INTERVAL:
+                return nanosSinceLastSync >= intervalNanos;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Whether any writes might be left unforced after a checkpoint update.
+     * @return true if writes should be forced on close; otherwise false.
+     */
+    public boolean isSyncOnClose() {
+        return mode == Mode.INTERVAL;
+    }
+
+    @Override
+    public String toString() {
+        if (mode == Mode.INTERVAL) {
+            return getClass().getSimpleName() + "(interval=" + TimeUnit.NANOSECONDS.toMillis(intervalNanos) + "ms)";
+        }
+        return getClass().getSimpleName() + "(" + mode + ")";
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Options for per-peer circuit breakers, which stop queries and endorsements being sent to peers that are not
+ * responding. Each peer's circuit breaker is in one of three states:
+ * <ul>
+ *     <li><em>Closed</em> - requests are sent to the peer. After the failure threshold of consecutive requests fail
+ *     to get a response from the peer, the circuit opens.</li>
+ *     <li><em>Open</em> - the peer is skipped, so requests do not wait for it to time out. Once the probe interval
+ *     has elapsed, the circuit becomes half-open.</li>
+ *     <li><em>Half-open</em> - a single request is allowed through to the peer as a probe each probe interval. If the
+ *     peer responds the circuit closes, otherwise it opens again.</li>
+ * </ul>
+ * Error responses from chaincode do not count as failures, since the peer did respond.
+ * @see Gateway.Builder#peerCircuitBreaker(CircuitBreakerOptions)
+ */
+public final class CircuitBreakerOptions {
+    private final int failureThreshold;
+    private final long probeIntervalNanos;
+
+    private CircuitBreakerOptions(final int failureThreshold, final long probeIntervalNanos) {
+        this.failureThreshold = failureThreshold;
+        this.probeIntervalNanos = probeIntervalNanos;
+    }
+
+    /**
+     * Open a peer's circuit after the specified number of consecutive failures, and probe the peer at the specified
+     * interval while it is open.
+     * @param failureThreshold Consecutive failures after which the circuit opens.
+     * @param probeInterval Time between probe requests to a peer whose circuit is open.
+     * @param timeUnit Time unit for the probe interval.
+     * @return Circuit breaker options.
+     */
+    public static CircuitBreakerOptions of(final int failureThreshold, final long probeInterval, final TimeUnit timeUnit) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("Failure threshold must be at least 1: " + failureThreshold);
+        }
+        if (probeInterval <= 0) {
+            throw new IllegalArgumentException("Probe interval must be positive: " + probeInterval);
+        }
+        if (null == timeUnit) {
+            throw new IllegalArgumentException("Time unit must not be null");
+        }
+        return new CircuitBreakerOptions(failureThreshold, timeUnit.toNanos(probeInterval));
+    }
+
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    public long getProbeInterval(final TimeUnit timeUnit) {
+        return timeUnit.convert(probeIntervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(failureThreshold=" + failureThreshold
+                + ", probeIntervalNanos=" + probeIntervalNanos + ")";
+    }
+}
@@ -7,7 +7,12 @@
 package org.hyperledger.fabric.gateway;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
 import java.util.regex.Pattern;
@@ -45,6 +50,18 @@ public interface Contract {
      */
     Transaction createTransaction(String name);
 
+    /**
+     * Get a prepared transaction for a transaction function implemented by this contract, using the default settings
+     * of the gateway. Prepared transactions are thread-safe and can be invoked repeatedly, avoiding the per-invocation
+     * cost of creating and configuring a new transaction object. Calls to this method for the same transaction name
+     * may return the same instance.
+     * <p>To prepare a transaction with non-default settings, use {@link #createTransaction(String)} followed by
+     * {@link Transaction#prepare()}.</p>
+     * @param name Transaction function name.
+     * @return A prepared transaction.
+     */
+    PreparedTransaction prepareTransaction(String name);
+
     /**
      * Submit a transaction to the ledger. The transaction function {@code name}
      * will be evaluated on the endorsing peers and then submitted to the ordering service
@@ -87,6 +104,120 @@ public interface Contract {
 	 */
 	TransactionResponse submitTransaction(UUID correlationId, String name, User userContext, String... args) throws ContractException, TimeoutException, InterruptedException;
 
+    /**
+     * Submit a transaction to the ledger, passing binary arguments to the transaction function without any string or
+     * character set conversion.
+     * This function is equivalent to calling {@code createTransaction(name).submit()}.
+     * @param correlationId an ID known by the caller to correlate responses to requests
+     * @param name Transaction function name.
+     * @param args Transaction function arguments.
+     * @return Payload response from the transaction function.
+     * @throws ContractException if the transaction is rejected.
+     * @throws TimeoutException if the transaction was successfully submitted to the orderer but
+     * timed out before a commit event was received from peers.
+     * @throws InterruptedException if the current thread is interrupted while waiting.
+     * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+     * @see Transaction#submit(UUID, byte[][])
+     */
+    TransactionResponse submitTransaction(UUID correlationId, String name, byte[][] args) throws ContractException, TimeoutException, InterruptedException;
+
+    /**
+     * Submit a transaction to the ledger, passing the remaining bytes of each buffer as an argument to the transaction
+     * function. Buffer positions are not changed.
+     * This function is equivalent to calling {@code createTransaction(name).submit()}.
+     * @param correlationId an ID known by the caller to correlate responses to requests
+     * @param name Transaction function name.
+     * @param args Transaction function arguments.
+     * @return Payload response from the transaction function.
+     * @throws ContractException if the transaction is rejected.
+     * @throws TimeoutException if the transaction was successfully submitted to the orderer but
+     * timed out before a commit event was received from peers.
+     * @throws InterruptedException if the current thread is interrupted while waiting.
+     * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+     * @see Transaction#submit(UUID, ByteBuffer[])
+     */
+    TransactionResponse submitTransaction(UUID correlationId, String name, ByteBuffer[] args) throws ContractException, TimeoutException, InterruptedException;
+
+    /**
+     * Submit a transaction to the ledger asynchronously, without blocking the calling thread while waiting for the
+     * transaction to be endorsed, ordered and committed.
+     * This function is equivalent to calling {@code createTransaction(name).submitAsync()}.
+     * @param correlationId an ID known by the caller to correlate responses to requests
+     * @param name Transaction function name.
+     * @param args Transaction function arguments.
+     * @return A future that completes with the payload response from the transaction function.
+     * @see Transaction#submitAsync(UUID, String...)
+     */
+    CompletableFuture<TransactionResponse> submitTransactionAsync(UUID correlationId, String name, String... args);
+
+    /**
+     * Submit a transaction to the ledger asynchronously, without blocking the calling thread while waiting for the
+     * transaction to be endorsed, ordered and committed.
+     * This function is equivalent to calling {@code createTransaction(name).submitAsync()}.
+     * @param correlationId an ID known by the caller to correlate responses to requests
+     * @param name Transaction function name.
+     * @param userContext User context for this request.
+     * @param args Transaction function arguments.
+     * @return A future that completes with the payload response from the transaction function.
+     * @see Transaction#submitAsync(UUID, User, String...)
+     */
+    CompletableFuture<TransactionResponse> submitTransactionAsync(UUID correlationId, String name, User userContext, String... args);
+
+    /**
+     * Submit a transaction to the ledger asynchronously, passing binary arguments to the transaction function.
+     * This function is equivalent to calling {@code createTransaction(name).submitAsync()}.
+     * @param correlationId an ID known by the caller to correlate responses to requests
+     * @param name Transaction function name.
+     * @param args Transaction function arguments.
+     * @return A future that completes with the payload response from the transaction function.
+     * @see Transaction#submitAsync(UUID, byte[][])
+     */
+    CompletableFuture<TransactionResponse> submitTransactionAsync(UUID correlationId, String name, byte[][] args);
+
+    /**
+     * Submit a transaction to the ledger asynchronously, passing binary arguments to the transaction function.
+     * This function is equivalent to calling {@code createTransaction(name).submitAsync()}.
+     * @param correlationId an ID known by the caller to correlate responses to requests
+     * @param name Transaction function name.
+     * @param args Transaction function arguments.
+     * @return A future that completes with the payload response from the transaction function.
+     * @see Transaction#submitAsync(UUID, ByteBuffer[])
+     */
+    CompletableFuture<TransactionResponse> submitTransactionAsync(UUID correlationId, String name, ByteBuffer[] args);
+
+    /**
+     * Submit a batch of independent transactions to the ledger. Proposals are sent to endorsing peers concurrently,
+     * with at most a default number of endorsements in progress at any time. Each transaction is sent to the ordering
+     * service as soon as it has been endorsed, without waiting for earlier transactions in the batch to be committed.
+     * @param requests Transaction invocations.
+     * @return Futures, in the same order as the requests, that complete with the payload responses from the
+     * transaction functions or complete exceptionally if the corresponding transaction fails.
+     * @see #submitTransactions(List, int)
+     */
+    List<CompletableFuture<TransactionResponse>> submitTransactions(List<TransactionRequestSpec> requests);
+
+    /**
+     * Submit a batch of independent transactions to the ledger, with at most {@code maxParallelism} endorsements in
+     * progress at any time. Commit waits do not count towards this limit.
+     * @param requests Transaction invocations.
+     * @param maxParallelism Maximum number of concurrent endorsements.
+     * @return Futures, in the same order as the requests, that complete with the payload responses from the
+     * transaction functions or complete exceptionally if the corresponding transaction fails.
+     * @throws IllegalArgumentException if {@code maxParallelism} is less than 1.
+     * @see #submitTransactions(List)
+     */
+    List<CompletableFuture<TransactionResponse>> submitTransactions(List<TransactionRequestSpec> requests, int maxParallelism);
+
+    /**
+     * Submit a batch of previously endorsed transactions to the ordering service. All the transactions are sent
+     * without waiting for earlier transactions in the batch to be committed. The returned futures are in the same
+     * order as the supplied transactions, and each completes when the corresponding transaction is committed.
+     * @param endorsedTransactions Transactions obtained from {@link Transaction#endorse(UUID, String...)}.
+     * @return Futures that complete with the payload responses from the transaction functions.
+     * @see EndorsedTransaction#submitAsync()
+     */
+    List<CompletableFuture<TransactionResponse>> submitEndorsedTransactions(Collection<? extends EndorsedTransaction> endorsedTransactions);
+
     /**
      * Evaluate a transaction function and return its results.
      * The transaction function {@code name}
@@ -122,6 +253,32 @@ public interface Contract {
 	 */
 	TransactionResponse evaluateTransaction(UUID correlationId, String name, User userContext, String... args) throws ContractException;
 
+    /**
+     * Evaluate a transaction function and return its results, passing binary arguments to the transaction function
+     * without any string or character set conversion.
+     * This function is equivalent to calling {@code createTransaction(name).evaluate()}.
+     * @param correlationId an ID known by the caller to correlate responses to requests
+     * @param name Transaction function name.
+     * @param args Transaction function arguments.
+     * @return Payload response from the transaction function.
+     * @throws ContractException if no peers are reachable or an error response is returned.
+     * @see Transaction#evaluate(UUID, byte[][])
+     */
+    TransactionResponse evaluateTransaction(UUID correlationId, String name, byte[][] args) throws ContractException;
+
+    /**
+     * Evaluate a transaction function and return its results, passing the remaining bytes of each buffer as an
+     * argument to the transaction function. Buffer positions are not changed.
+     * This function is equivalent to calling {@code createTransaction(name).evaluate()}.
+     * @param correlationId an ID known by the caller to correlate responses to requests
+     * @param name Transaction function name.
+     * @param args Transaction function arguments.
+     * @return Payload response from the transaction function.
+     * @throws ContractException if no peers are reachable or an error response is returned.
+     * @see Transaction#evaluate(UUID, ByteBuffer[])
+     */
+    TransactionResponse evaluateTransaction(UUID correlationId, String name, ByteBuffer[] args) throws ContractException;
+
     /**
      * Add a listener to receive all contract events emitted by transactions.
      * @param listener A contract listener.
@@ -147,6 +304,35 @@ public interface Contract {
      */
     Consumer<ContractEvent> addContractListener(Consumer<ContractEvent> listener, Pattern eventNamePattern);
 
+    /**
+     * Add a listener to receive all contract events emitted by transactions, with the specified delivery options.
+     * @param delivery Event delivery options.
+     * @param listener A contract listener.
+     * @return The contract listener argument.
+     */
+    Consumer<ContractEvent> addContractListener(ListenerDelivery delivery, Consumer<ContractEvent> listener);
+
+    /**
+     * Add a listener to receive all contract events emitted by transactions with checkpointing, with the specified
+     * delivery options. Positions are checkpointed as events are delivered to the listener, so a listener
+     * disconnected because of a full event queue resumes from the last event it processed.
+     * @param checkpointer Checkpointer to persist block and transaction position.
+     * @param delivery Event delivery options.
+     * @param listener A contract listener.
+     * @return The contract listener argument.
+     * @throws IOException if an error occurs establishing checkpointing.
+     * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+     */
+    Consumer<ContractEvent> addContractListener(Checkpointer checkpointer, ListenerDelivery delivery, Consumer<ContractEvent> listener)
+            throws IOException;
+
+    /**
+     * Get delivery metrics for a contract listener added with asynchronous delivery options.
+     * @param listener A contract listener.
+     * @return Listener metrics, or empty if the listener is not registered for asynchronous delivery.
+     */
+    Optional<ListenerMetrics> getContractListenerMetrics(Consumer<ContractEvent> listener);
+
     /**
      * Add a listener to receive all contract events emitted by transactions with checkpointing. Re-adding a listener
      * with the same checkpointer on subsequent application invocations will resume listening from the previous block
@@ -187,6 +373,52 @@ public interface Contract {
      */
     Consumer<ContractEvent> addContractListener(Checkpointer checkpointer, Consumer<ContractEvent> listener, Pattern eventNamePattern) throws IOException;
 
+    /**
+     * Add a listener to receive all contract events emitted by transactions with checkpointing, using the specified
+     * checkpoint policy to control how often the block and transaction position is persisted. With a batched policy,
+     * all the events in a block are delivered before the position is checkpointed once, instead of once for each
+     * transaction. Re-adding a listener with the same checkpointer on subsequent application invocations will resume
+     * listening from the last checkpointed position.
+     * @param checkpointer Checkpointer to persist block and transaction position.
+     * @param policy Policy controlling how often the position is checkpointed.
+     * @param listener A contract listener.
+     * @return The contract listener argument.
+     * @throws IOException if an error occurs establishing checkpointing.
+     * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+     */
+    Consumer<ContractEvent> addContractListener(Checkpointer checkpointer, CheckpointPolicy policy, Consumer<ContractEvent> listener)
+            throws IOException;
+
+    /**
+     * Add a listener to receive contract events emitted by transactions with checkpointing, using the specified
+     * checkpoint policy. The listener is only notified of events with names that exactly match the given pattern.
+     * @param checkpointer Checkpointer to persist block and transaction position.
+     * @param policy Policy controlling how often the position is checkpointed.
+     * @param listener A contract listener.
+     * @param eventName Event name.
+     * @return The contract listener argument.
+     * @throws IOException if an error occurs establishing checkpointing.
+     * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+     * @see #addContractListener(Checkpointer, CheckpointPolicy, Consumer)
+     */
+    Consumer<ContractEvent> addContractListener(Checkpointer checkpointer, CheckpointPolicy policy, Consumer<ContractEvent> listener,
+                                                String eventName) throws IOException;
+
+    /**
+     * Add a listener to receive contract events emitted by transactions with checkpointing, using the specified
+     * checkpoint policy. The listener is only notified of events with names that entirely match the given pattern.
+     * @param checkpointer Checkpointer to persist block and transaction position.
+     * @param policy Policy controlling how often the position is checkpointed.
+     * @param listener A contract listener.
+     * @param eventNamePattern Event name pattern.
+     * @return The contract listener argument.
+     * @throws IOException if an error occurs establishing checkpointing.
+     * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+     * @see #addContractListener(Checkpointer, CheckpointPolicy, Consumer)
+     */
+    Consumer<ContractEvent> addContractListener(Checkpointer checkpointer, CheckpointPolicy policy, Consumer<ContractEvent> listener,
+                                                Pattern eventNamePattern) throws IOException;
+
     /**
      * Add a listener to replay contract events emitted by transactions.
      * @param startBlock The number of the block from which events should be replayed.
@@ -6,6 +6,7 @@
 
 package org.hyperledger.fabric.gateway;
 
+import java.nio.ByteBuffer;
 import java.util.Optional;
 
 import org.hyperledger.fabric.sdk.BlockEvent;
@@ -37,4 +38,13 @@ public interface ContractEvent {
      * @return A binary payload.
      */
     Optional<byte[]> getPayload();
+
+    /**
+     * Read-only view of any binary data associated with this event by the chaincode. Unlike {@link #getPayload()},
+     * repeated calls do not copy the payload data.
+     * @return A read-only binary payload.
+     */
+    default Optional<ByteBuffer> getPayloadBuffer() {
+        return getPayload().map(payload -> ByteBuffer.wrap(payload).asReadOnlyBuffer());
+    }
 }
@@ -10,7 +10,10 @@ import java.io.IOException;
 import java.nio.file.Path;
 
 import org.hyperledger.fabric.gateway.impl.FileCheckpointer;
+import org.hyperledger.fabric.gateway.impl.MappedFileCheckpointer;
+import org.hyperledger.fabric.gateway.impl.SharedCheckpointStore;
 import org.hyperledger.fabric.gateway.spi.Checkpointer;
+import org.hyperledger.fabric.gateway.spi.CheckpointerFactory;
 
 /**
  * Provides static factory methods used to create instances of default {@link Checkpointer} implementations.
@@ -30,5 +33,87 @@ public final class DefaultCheckpointers {
         return new FileCheckpointer(path);
     }
 
+    /**
+     * Checkpointer implementation that persists state to a given file, forcing writes to the storage device according
+     * to the specified policy. In all other respects this is the same as {@link #file(Path)}.
+     * <p>State is stored as an append-only log so that each update writes only a small record, and all the
+     * transaction IDs passed in a single call are written together. Files written by earlier versions are migrated to
+     * the current format when opened.</p>
+     * @param path A file path.
+     * @param syncPolicy Policy for forcing writes to the storage device.
+     * @return A checkpointer.
+     * @throws IOException if an error occurs creating the checkpointer.
+     */
+    public static Checkpointer file(final Path path, final CheckpointSyncPolicy syncPolicy) throws IOException {
+        if (null == syncPolicy) {
+            throw new IllegalArgumentException("Sync policy must not be null");
+        }
+        return new FileCheckpointer(path, syncPolicy);
+    }
+
+    /**
+     * Checkpointer implementation that persists state to a given memory-mapped file. Checkpoint updates and
+     * transaction ID lookups are memory operations that do not require a system call, which suits listeners that
+     * checkpoint every transaction. If the file exists, it must contain valid persistent state written by this
+     * checkpointer. If the file does not exist, the checkpointer will be created with default initial state, which will
+     * start listening from the current block.
+     * <p>Updates are written to the storage device by the operating system in its own time. Use
+     * {@link #mappedFile(Path, CheckpointSyncPolicy)} to force writes more often.</p>
+     * <p>The checkpointer will attempt to obtain an exclusive lock on the file so there can only be a single
+     * checkpointer instance for a given file at any point in time.</p>
+     * @param path A file path.
+     * @return A checkpointer.
+     * @throws IOException if an error occurs creating the checkpointer.
+     */
+    public static Checkpointer mappedFile(final Path path) throws IOException {
+        return new MappedFileCheckpointer(path);
+    }
+
+    /**
+     * Checkpointer implementation that persists state to a given memory-mapped file, forcing writes to the storage
+     * device according to the specified policy. In all other respects this is the same as {@link #mappedFile(Path)}.
+     * @param path A file path.
+     * @param syncPolicy Policy for forcing writes to the storage device.
+     * @return A checkpointer.
+     * @throws IOException if an error occurs creating the checkpointer.
+     */
+    public static Checkpointer mappedFile(final Path path, final CheckpointSyncPolicy syncPolicy) throws IOException {
+        if (null == syncPolicy) {
+            throw new IllegalArgumentException("Sync policy must not be null");
+        }
+        return new MappedFileCheckpointer(path, syncPolicy);
+    }
+
+    /**
+     * Checkpointer factory that persists the state of any number of named checkpointers in a single store within a
+     * given directory. Obtaining a checkpointer is an inexpensive in-memory operation, and updates from all the
+     * checkpointers are written to the store together, so this suits applications with many checkpointed listeners.
+     * If the directory does not exist, it will be created.
+     * <p>The factory will attempt to obtain an exclusive lock on the store so there can only be a single factory
+     * instance for a given directory at any point in time. Close the factory to release the store.</p>
+     * @param directory A directory path.
+     * @return A checkpointer factory.
+     * @throws IOException if an error occurs opening the store.
+     */
+    public static CheckpointerFactory sharedStore(final Path directory) throws IOException {
+        return sharedStore(directory, CheckpointSyncPolicy.none());
+    }
+
+    /**
+     * Checkpointer factory that persists the state of any number of named checkpointers in a single store within a
+     * given directory, forcing writes to the storage device according to the specified policy. In all other respects
+     * this is the same as {@link #sharedStore(Path)}.
+     * @param directory A directory path.
+     * @param syncPolicy Policy for forcing writes to the storage device.
+     * @return A checkpointer factory.
+     * @throws IOException if an error occurs opening the store.
+     */
+    public static CheckpointerFactory sharedStore(final Path directory, final CheckpointSyncPolicy syncPolicy) throws IOException {
+        if (null == syncPolicy) {
+            throw new IllegalArgumentException("Sync policy must not be null");
+        }
+        return new SharedCheckpointStore(directory, syncPolicy);
+    }
+
     private DefaultCheckpointers() { }
 }
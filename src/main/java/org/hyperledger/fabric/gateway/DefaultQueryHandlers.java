@@ -9,6 +9,8 @@ package org.hyperledger.fabric.gateway;
 import java.util.Collection;
 import java.util.EnumSet;
 
+import org.hyperledger.fabric.gateway.impl.query.AdaptiveQueryHandler;
+import org.hyperledger.fabric.gateway.impl.query.HedgingQueryHandler;
 import org.hyperledger.fabric.gateway.impl.query.RoundRobinQueryHandler;
 import org.hyperledger.fabric.gateway.impl.query.SingleQueryHandler;
 import org.hyperledger.fabric.gateway.spi.QueryHandler;
@@ -37,6 +39,29 @@ public enum DefaultQueryHandlers implements QueryHandlerFactory {
     MSPID_SCOPE_ROUND_ROBIN(network -> {
         Collection<Peer> peers = getChaincodeQueryPeersForOrganization(network);
         return new RoundRobinQueryHandler(peers);
+    }),
+
+    /**
+     * Each query is sent to the healthier of two randomly chosen peers, based on weighted averages of their response
+     * latency and error rate and the number of requests currently outstanding to each. If a peer fails then all
+     * other peers will be tried in order of health until one provides a successful response. If no peers respond
+     * then an exception is thrown. Peer health can be monitored using {@link Network#getQueryPeerHealth()}.
+     */
+    MSPID_SCOPE_ADAPTIVE(network -> {
+        Collection<Peer> peers = getChaincodeQueryPeersForOrganization(network);
+        return new AdaptiveQueryHandler(peers);
+    }),
+
+    /**
+     * For each subsequent query, the next peer in the list is used. If the peer has not responded within the 95th
+     * percentile of recent response times, the query is also sent to the following peer and the first response is
+     * used. Additional requests are limited to 10% of queries. If a peer fails then all other peers will be tried in
+     * turn until one provides a successful response. If no peers respond then an exception is thrown.
+     * @see #hedged(double, double)
+     */
+    MSPID_SCOPE_HEDGED(network -> {
+        Collection<Peer> peers = getChaincodeQueryPeersForOrganization(network);
+        return new HedgingQueryHandler(peers);
     });
 
     private static final EnumSet<Peer.PeerRole> QUERY_ROLES = EnumSet.of(Peer.PeerRole.CHAINCODE_QUERY);
@@ -68,6 +93,22 @@ public enum DefaultQueryHandlers implements QueryHandlerFactory {
         }
     }
 
+    /**
+     * Create a query handler factory that hedges queries in the same way as {@link #MSPID_SCOPE_HEDGED}, with the
+     * specified settings.
+     * @param hedgePercentile Percentile of recent response times, between 0 and 1, after which a query is also sent
+     *                        to a second peer.
+     * @param budgetPercent Maximum additional requests as a percentage of queries.
+     * @return A query handler factory. Creating a query handler throws {@link IllegalArgumentException} if either
+     * argument is out of range.
+     */
+    public static QueryHandlerFactory hedged(final double hedgePercentile, final double budgetPercent) {
+        return network -> {
+            Collection<Peer> peers = getChaincodeQueryPeersForOrganization(network);
+            return new HedgingQueryHandler(peers, hedgePercentile, budgetPercent);
+        };
+    }
+
     @Override
     public QueryHandler create(final Network network) {
         return factory.create(network);
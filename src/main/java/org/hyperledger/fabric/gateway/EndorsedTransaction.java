@@ -0,0 +1,62 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway;
+
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+import org.hyperledger.fabric.sdk.ProposalResponse;
+
+/**
+ * A transaction that has been successfully endorsed by peers but not yet sent to the ordering service. Applications
+ * obtain instances using the {@link Transaction#endorse(UUID, String...) endorse} method of a Transaction.
+ * <p>
+ * Separating endorsement from ordering allows applications to endorse further transactions while previously endorsed
+ * transactions are being ordered and committed. If sending to the ordering service fails, the endorsed transaction
+ * can be submitted again without being re-endorsed. Note that if a previous submit did reach the ordering service,
+ * the resubmitted transaction will be rejected by peers as a duplicate transaction ID.
+ * </p>
+ */
+public interface EndorsedTransaction {
+    /**
+     * Get the ID that will be used to correlate the submit response with the original request.
+     * @return A correlation ID.
+     */
+    UUID getCorrelationId();
+
+    /**
+     * Get the transaction ID.
+     * @return A transaction ID.
+     */
+    String getTransactionId();
+
+    /**
+     * Get the proposal responses received from the endorsing peers, including any unsuccessful responses.
+     * @return Proposal responses.
+     */
+    Collection<ProposalResponse> getProposalResponses();
+
+    /**
+     * Submit the endorsed transaction to the ordering service and wait for it to be committed.
+     * @return Payload response from the transaction function.
+     * @throws ContractException if the transaction is rejected.
+     * @throws TimeoutException if the transaction was successfully submitted to the orderer but
+     * timed out before a commit event was received from peers.
+     * @throws InterruptedException if the current thread is interrupted while waiting.
+     * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+     */
+    TransactionResponse submit() throws ContractException, TimeoutException, InterruptedException;
+
+    /**
+     * Submit the endorsed transaction to the ordering service asynchronously. The returned future completes once the
+     * transaction is committed, and completes exceptionally in the same cases that {@link #submit()} throws.
+     * @return A future that completes with the payload response from the transaction function.
+     */
+    CompletableFuture<TransactionResponse> submitAsync();
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway;
+
+/**
+ * Statistics for the cache of evaluated transaction results for a network.
+ * @see EvaluateCacheOptions
+ * @see Network#getEvaluateCacheMetrics()
+ */
+public interface EvaluateCacheMetrics {
+    /**
+     * Get the number of evaluations answered from the cache.
+     * @return Hit count.
+     */
+    long getHitCount();
+
+    /**
+     * Get the number of evaluations sent to peers because no cached result was available.
+     * @return Miss count.
+     */
+    long getMissCount();
+
+    /**
+     * Get the number of cached results discarded because the cache was full, the time to live elapsed or the maximum
+     * number of blocks was reached.
+     * @return Eviction count.
+     */
+    long getEvictionCount();
+
+    /**
+     * Get the number of cached results discarded because a committed transaction invoked their chaincode.
+     * @return Invalidation count.
+     */
+    long getInvalidationCount();
+
+    /**
+     * Get the number of results currently cached.
+     * @return Cache size.
+     */
+    int getSize();
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Options for caching the results of evaluated transactions. Cached results are keyed by chaincode, transaction
+ * function, arguments and transient data, and are discarded when:
+ * <ul>
+ *     <li>a block is committed containing a valid transaction that invokes the same chaincode;</li>
+ *     <li>a transaction submitted through the same network that invokes the same chaincode has committed;</li>
+ *     <li>the time to live has elapsed;</li>
+ *     <li>the configured maximum number of blocks have been committed since the result was cached; or</li>
+ *     <li>the cache is full and the result is the least recently used.</li>
+ * </ul>
+ * Evaluations that specify a user context are never cached, since their results may depend on the caller's identity.
+ * @see Gateway.Builder#evaluateCache(EvaluateCacheOptions)
+ */
+public final class EvaluateCacheOptions {
+    private final int maxEntries;
+    private final long timeToLiveNanos;
+    private final long maxBlocks;
+
+    private EvaluateCacheOptions(final int maxEntries, final long timeToLiveNanos, final long maxBlocks) {
+        this.maxEntries = maxEntries;
+        this.timeToLiveNanos = timeToLiveNanos;
+        this.maxBlocks = maxBlocks;
+    }
+
+    /**
+     * Cache up to {@code maxEntries} results, each for at most the specified time. Results are not discarded based
+     * on the number of committed blocks unless {@link #withMaxBlocks(long)} is also used.
+     * @param maxEntries Maximum number of cached results.
+     * @param timeToLive Maximum time a result is cached.
+     * @param timeUnit Time unit for the time to live.
+     * @return Cache options.
+     */
+    public static EvaluateCacheOptions of(final int maxEntries, final long timeToLive, final TimeUnit timeUnit) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Maximum entries must be at least 1: " + maxEntries);
+        }
+        if (timeToLive <= 0) {
+            throw new IllegalArgumentException("Time to live must be positive: " + timeToLive);
+        }
+        if (null == timeUnit) {
+            throw new IllegalArgumentException("Time unit must not be null");
+        }
+        return new EvaluateCacheOptions(maxEntries, timeUnit.toNanos(timeToLive), Long.MAX_VALUE);
+    }
+
+    /**
+     * Discard cached results once the specified number of blocks have been committed since they were cached, even if
+     * those blocks do not invoke the chaincode.
+     * @param maxBlocks Maximum number of blocks.
+     * @return New cache options with the specified block limit.
+     */
+    public EvaluateCacheOptions withMaxBlocks(final long maxBlocks) {
+        if (maxBlocks < 1) {
+            throw new IllegalArgumentException("Maximum blocks must be at least 1: " + maxBlocks);
+        }
+        return new EvaluateCacheOptions(maxEntries, timeToLiveNanos, maxBlocks);
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public long getTimeToLive(final TimeUnit timeUnit) {
+        return timeUnit.convert(timeToLiveNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Get the maximum number of blocks committed after a result is cached before it is discarded.
+     * @return Maximum number of blocks, or {@link Long#MAX_VALUE} if there is no limit.
+     */
+    public long getMaxBlocks() {
+        return maxBlocks;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(maxEntries=" + maxEntries
+                + ", timeToLiveNanos=" + timeToLiveNanos
+                + ", maxBlocks=" + maxBlocks + ")";
+    }
+}
@@ -9,6 +9,7 @@ package org.hyperledger.fabric.gateway;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Path;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 import org.hyperledger.fabric.gateway.impl.GatewayImpl;
@@ -77,6 +78,14 @@ public interface Gateway extends AutoCloseable {
      */
     Identity getIdentity();
 
+    /**
+     * Get statistics for the queue of transactions being sent to the ordering service by this gateway.
+     *
+     * @return Orderer queue metrics.
+     * @see Builder#ordererQueue(int, boolean)
+     */
+    OrdererQueueMetrics getOrdererQueueMetrics();
+
     /**
      * Creates a gateway builder which is used to configure the gateway options
      * prior to connecting to the Fabric network.
@@ -167,6 +176,69 @@ public interface Gateway extends AutoCloseable {
          */
         Builder commitTimeout(long timeout, TimeUnit timeUnit);
 
+        /**
+         * <em>Optional</em> - Set the type of block events received from peers to observe commit of submitted
+         * transactions. The default is {@link BlockEventType#FILTERED}, which avoids transferring and parsing full
+         * blocks only to read transaction validation codes. The event type is only applied to channels created by the
+         * gateway; peers of a channel that already exists in the client are not changed.
+         * @param eventType A block event type.
+         * @return The builder instance, allowing multiple configuration options to be chained.
+         */
+        Builder commitEventType(BlockEventType eventType);
+
+        /**
+         * <em>Optional</em> - Set the type of block events delivered to block and contract listeners. The default is
+         * {@link BlockEventType#FULL}. Contract event payloads are only available with full blocks. If this type
+         * requires more information than the commit event type, listeners receive events using a separate connection
+         * to peers, which is opened when the first listener is added.
+         * @param eventType A block event type.
+         * @return The builder instance, allowing multiple configuration options to be chained.
+         */
+        Builder listenerEventType(BlockEventType eventType);
+
+        /**
+         * <em>Optional</em> - Set an executor used to decode received blocks in parallel before they are delivered to
+         * block and contract listeners, for example a {@link java.util.concurrent.ForkJoinPool}. Blocks are still
+         * delivered to listeners in order. This allows block decoding to scale with available processors when
+         * listeners process a large number of blocks, such as when replaying events from an old block. By default
+         * blocks are decoded by listeners on the thread receiving events from peers.
+         * @param executor An executor.
+         * @return The builder instance, allowing multiple configuration options to be chained.
+         */
+        Builder blockDecodeExecutor(Executor executor);
+
+        /**
+         * <em>Optional</em> - Cache the results of evaluated transactions. Repeated evaluation of the same transaction
+         * function with the same arguments and transient data returns the cached result without sending a proposal
+         * to peers, until a committed block invokes the same chaincode or the result expires. This is intended for
+         * lookups of slowly changing reference data. By default results are not cached.
+         * @param options Cache options.
+         * @return The builder instance, allowing multiple configuration options to be chained.
+         */
+        Builder evaluateCache(EvaluateCacheOptions options);
+
+        /**
+         * <em>Optional</em> - Enable or disable sharing of in-flight evaluations. When enabled, concurrent evaluations
+         * of the same transaction function with the same arguments and transient data send a single proposal to
+         * peers, and all callers receive its result. Each caller's response has its own correlation ID but the same
+         * transaction ID. Evaluations that specify a user context are never shared. Disabled by default.
+         * @param enabled - true to share concurrent identical evaluations
+         * @return The builder instance, allowing multiple configuration options to be chained.
+         */
+        Builder evaluateCoalescing(boolean enabled);
+
+        /**
+         * <em>Optional</em> - Use a circuit breaker for each peer, shared by queries and endorsements on a network.
+         * Peers that repeatedly fail to respond are skipped, so requests do not wait for them to time out, and are
+         * periodically probed to detect when they recover. The default query handlers skip peers whose circuit is
+         * open; custom query handlers can use {@link org.hyperledger.fabric.gateway.spi.Query#isCircuitOpen}. Endorsing
+         * peers are filtered unless peers are specified explicitly for the transaction or service discovery is
+         * enabled. By default circuit breakers are not used.
+         * @param options Circuit breaker options.
+         * @return The builder instance, allowing multiple configuration options to be chained.
+         */
+        Builder peerCircuitBreaker(CircuitBreakerOptions options);
+
         /**
          * <em>Optional</em> - Enable or disable service discovery for all transaction submissions for this gateway.
          * Service discovery is disabled by default.
@@ -175,6 +247,54 @@ public interface Gateway extends AutoCloseable {
          */
         Builder discovery(boolean enabled);
 
+        /**
+         * <em>Optional</em> - Set the executor used to run blocking client operations, such as sending endorsement
+         * proposals to peers, when transactions are submitted asynchronously using
+         * {@link Transaction#submitAsync(java.util.UUID, String...)}. By default a shared pool of daemon threads is
+         * used.
+         * @param executor An executor.
+         * @return The builder instance, allowing multiple configuration options to be chained.
+         */
+        Builder executor(Executor executor);
+
+        /**
+         * <em>Optional</em> - Set the default maximum time to wait for the ordering service to accept a submitted
+         * transaction. The default is 60 seconds.
+         * @param timeout the maximum time to wait.
+         * @param timeUnit the time unit of the timeout argument.
+         * @return The builder instance, allowing multiple configuration options to be chained.
+         * @see Transaction#setOrdererTimeout(long, TimeUnit)
+         */
+        Builder ordererTimeout(long timeout, TimeUnit timeUnit);
+
+        /**
+         * <em>Optional</em> - Limit the number of transactions that can be in the process of being sent to the
+         * ordering service at any time. When the limit is reached, further submits either fail immediately with an
+         * {@link OrdererQueueFullException}, or wait in turn for space to become available. Time spent waiting counts
+         * towards the orderer timeout. By default the number of concurrent sends is not limited.
+         * @param capacity Maximum number of concurrent sends to the ordering service.
+         * @param failFast {@code true} to fail immediately when the limit is reached; {@code false} to wait.
+         * @return The builder instance, allowing multiple configuration options to be chained.
+         */
+        Builder ordererQueue(int capacity, boolean failFast);
+
+        /**
+         * <em>Optional</em> - Set the executor used to send transactions to the ordering service. By default the
+         * executor specified using {@link #executor(Executor)} is used.
+         * @param executor An executor.
+         * @return The builder instance, allowing multiple configuration options to be chained.
+         */
+        Builder ordererExecutor(Executor executor);
+
+        /**
+         * <em>Optional</em> - Set the maximum number of blocks ahead of the next expected block that are held while
+         * waiting for a missing block, so that block and contract listeners receive blocks in order. Blocks received
+         * further ahead are discarded and logged. The default is 256.
+         * @param windowSize Maximum number of blocks held ahead of the next expected block.
+         * @return The builder instance, allowing multiple configuration options to be chained.
+         */
+        Builder blockReorderWindow(int windowSize);
+
         /**
          * Connects to the gateway using the specified options.
          * @return The connected {@link Gateway} object.
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway;
+
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+/**
+ * Options controlling how events are delivered to a block or contract listener.
+ * <p>
+ * By default listeners are notified synchronously on the thread that receives events from peers, so a slow listener
+ * delays event delivery to every other listener on the same network. With asynchronous delivery, each listener has
+ * its own bounded queue of pending events that is drained on an executor, and the overflow policy determines what
+ * happens if the listener does not keep up.
+ * </p>
+ * @see Network#addBlockListener(ListenerDelivery, java.util.function.Consumer)
+ * @see Contract#addContractListener(ListenerDelivery, java.util.function.Consumer)
+ */
+public final class ListenerDelivery {
+    /**
+     * Action taken when an event is received for a listener whose queue is full.
+     */
+    public enum OverflowPolicy {
+        /** Block the thread receiving events until there is space in the queue. */
+        BLOCK,
+        /** Discard the oldest queued event to make space for the new event. */
+        DROP_OLDEST,
+        /**
+         * Discard all queued events and reconnect the listener. Checkpointed listeners resume from their last
+         * checkpointed position, so no events are lost; other listeners resume from the current block.
+         */
+        DISCONNECT
+    }
+
+    private static final ListenerDelivery SYNCHRONOUS = new ListenerDelivery(0, null, null);
+
+    private final int queueCapacity;
+    private final OverflowPolicy overflowPolicy;
+    private final Executor executor;
+
+    private ListenerDelivery(final int queueCapacity, final OverflowPolicy overflowPolicy, final Executor executor) {
+        this.queueCapacity = queueCapacity;
+        this.overflowPolicy = overflowPolicy;
+        this.executor = executor;
+    }
+
+    /**
+     * Listeners are notified on the thread receiving events from peers. This is the default.
+     * @return Delivery options.
+     */
+    public static ListenerDelivery synchronous() {
+        return SYNCHRONOUS;
+    }
+
+    /**
+     * Events are queued for each listener and delivered on a separate thread. Virtual threads are used where
+     * available; otherwise a shared pool of daemon threads.
+     * @param queueCapacity Maximum number of events queued for the listener.
+     * @param overflowPolicy Action taken when the queue is full.
+     * @return Delivery options.
+     */
+    public static ListenerDelivery asynchronous(final int queueCapacity, final OverflowPolicy overflowPolicy) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Queue capacity must be at least 1: " + queueCapacity);
+        }
+        if (null == overflowPolicy) {
+            throw new IllegalArgumentException("Overflow policy must not be null");
+        }
+        return new ListenerDelivery(queueCapacity, overflowPolicy, null);
+    }
+
+    /**
+     * Use a specific executor to deliver events asynchronously. Events are still delivered to each listener one at a
+     * time and in order.
+     * @param executor An executor.
+     * @return New delivery options with the specified executor.
+     * @throws IllegalStateException if these options are for synchronous delivery.
+     */
+    public ListenerDelivery withExecutor(final Executor executor) {
+        if (!isAsynchronous()) {
+            throw new IllegalStateException("Executor can only be specified for asynchronous delivery");
+        }
+        if (null == executor) {
+            throw new IllegalArgumentException("Executor must not be null");
+        }
+        return new ListenerDelivery(queueCapacity, overflowPolicy, executor);
+    }
+
+    public boolean isAsynchronous() {
+        return overflowPolicy != null;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public Optional<Executor> getExecutor() {
+        return Optional.ofNullable(executor);
+    }
+
+    @Override
+    public String toString() {
+        if (!isAsynchronous()) {
+            return getClass().getSimpleName() + "(synchronous)";
+        }
+        return getClass().getSimpleName() + "(queueCapacity=" + queueCapacity + ", overflowPolicy=" + overflowPolicy + ")";
+    }
+}
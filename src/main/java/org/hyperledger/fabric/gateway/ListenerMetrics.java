@@ -0,0 +1,48 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delivery statistics for a listener using asynchronous delivery. These can be used to identify listeners that are
+ * not keeping up with the rate at which events are received.
+ * @see ListenerDelivery
+ */
+public interface ListenerMetrics {
+    /**
+     * Get the number of events currently queued for delivery to the listener.
+     * @return Queued event count.
+     */
+    int getQueueSize();
+
+    /**
+     * Get the length of time the oldest undelivered event, including any event currently being processed by the
+     * listener, has been waiting.
+     * @param timeUnit Time unit for the result.
+     * @return Lag time, or zero if there are no undelivered events.
+     */
+    long getLag(TimeUnit timeUnit);
+
+    /**
+     * Get the total number of events delivered to the listener.
+     * @return Delivered event count.
+     */
+    long getDeliveredCount();
+
+    /**
+     * Get the total number of events discarded because the listener's queue was full.
+     * @return Dropped event count.
+     */
+    long getDroppedCount();
+
+    /**
+     * Get the number of times the listener has been disconnected because its queue was full.
+     * @return Disconnect count.
+     */
+    long getDisconnectCount();
+}
@@ -8,6 +8,7 @@ package org.hyperledger.fabric.gateway;
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.Optional;
 import java.util.function.Consumer;
 
 import org.hyperledger.fabric.gateway.spi.Checkpointer;
@@ -80,6 +81,65 @@ public interface Network {
      */
     Consumer<BlockEvent> addBlockListener(Checkpointer checkpointer, Consumer<BlockEvent> listener) throws IOException;
 
+    /**
+     * Add a listener to receive block events from the network with checkpointing, using the specified checkpoint
+     * policy to control how often the block position is persisted. Re-adding a listener with the same checkpointer on
+     * subsequent application invocations will resume listening from the last checkpointed block position, so blocks
+     * processed since the last checkpoint may be received again.
+     * @param checkpointer Checkpointer to persist block position.
+     * @param policy Policy controlling how often the block position is checkpointed.
+     * @param listener A block listener.
+     * @return The block listener argument.
+     * @throws IOException if an error occurs establishing checkpointing.
+     * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+     */
+    Consumer<BlockEvent> addBlockListener(Checkpointer checkpointer, CheckpointPolicy policy, Consumer<BlockEvent> listener)
+            throws IOException;
+
+    /**
+     * Add a listener to receive block events from the network, with the specified delivery options. Events are
+     * received in order and without duplication.
+     * @param delivery Event delivery options.
+     * @param listener A block listener.
+     * @return The block listener argument.
+     */
+    Consumer<BlockEvent> addBlockListener(ListenerDelivery delivery, Consumer<BlockEvent> listener);
+
+    /**
+     * Add a listener to receive block events from the network with checkpointing, with the specified delivery
+     * options. Block positions are checkpointed as events are delivered to the listener, so a listener disconnected
+     * because of a full event queue resumes from the last event it processed.
+     * @param checkpointer Checkpointer to persist block position.
+     * @param delivery Event delivery options.
+     * @param listener A block listener.
+     * @return The block listener argument.
+     * @throws IOException if an error occurs establishing checkpointing.
+     * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+     */
+    Consumer<BlockEvent> addBlockListener(Checkpointer checkpointer, ListenerDelivery delivery, Consumer<BlockEvent> listener)
+            throws IOException;
+
+    /**
+     * Get delivery metrics for a block listener added with asynchronous delivery options.
+     * @param listener A block listener.
+     * @return Listener metrics, or empty if the listener is not registered for asynchronous delivery.
+     */
+    Optional<ListenerMetrics> getBlockListenerMetrics(Consumer<BlockEvent> listener);
+
+    /**
+     * Get health statistics for the peers used to evaluate transactions. Statistics are only available if the query
+     * handler tracks peer health, such as {@link DefaultQueryHandlers#MSPID_SCOPE_ADAPTIVE}.
+     * @return Peer health, or an empty collection if the query handler does not track peer health.
+     */
+    Collection<PeerHealth> getQueryPeerHealth();
+
+    /**
+     * Get statistics for the cache of evaluated transaction results.
+     * @return Cache metrics, or empty if evaluate caching is not enabled.
+     * @see Gateway.Builder#evaluateCache(EvaluateCacheOptions)
+     */
+    Optional<EvaluateCacheMetrics> getEvaluateCacheMetrics();
+
     /**
      * Add a listener to replay block events from the network. Events are received in order and without duplication.
      * @param startBlock The number of the block from which events should be replayed.
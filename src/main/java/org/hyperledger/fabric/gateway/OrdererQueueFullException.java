@@ -0,0 +1,25 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway;
+
+/**
+ * Thrown when a transaction can not be sent to the ordering service because the gateway's orderer send queue is
+ * full. This indicates back-pressure from the ordering service; the transaction was endorsed but not sent, so it can
+ * be submitted again later.
+ * @see Gateway.Builder#ordererQueue(int, boolean)
+ */
+public class OrdererQueueFullException extends GatewayRuntimeException {
+    private static final long serialVersionUID = 6120938417745306471L;
+
+    /**
+     * Constructs a new exception with the specified detail message.
+     * @param message the detail message.
+     */
+    public OrdererQueueFullException(final String message) {
+        super(message);
+    }
+}
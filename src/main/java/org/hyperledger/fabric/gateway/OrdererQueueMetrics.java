@@ -0,0 +1,39 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway;
+
+/**
+ * Statistics for the queue of transactions being sent to the ordering service by a gateway.
+ * @see Gateway.Builder#ordererQueue(int, boolean)
+ * @see Gateway#getOrdererQueueMetrics()
+ */
+public interface OrdererQueueMetrics {
+    /**
+     * Get the maximum number of sends that can be in progress.
+     * @return Queue capacity.
+     */
+    int getCapacity();
+
+    /**
+     * Get the number of sends currently in progress.
+     * @return Queue depth.
+     */
+    int getDepth();
+
+    /**
+     * Get the number of sends currently waiting for space in the queue.
+     * @return Waiting send count.
+     */
+    int getWaitingCount();
+
+    /**
+     * Get the total number of sends rejected because the queue was full, or because space did not become available
+     * before the orderer timeout.
+     * @return Rejected send count.
+     */
+    long getRejectedCount();
+}
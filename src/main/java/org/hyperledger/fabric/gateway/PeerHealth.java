@@ -0,0 +1,50 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Health statistics for a peer used to evaluate transactions. Latency and error rate are exponentially weighted
+ * moving averages, so recent requests have more influence than older ones. Values reflect the current state of the
+ * peer each time they are read.
+ * @see DefaultQueryHandlers#MSPID_SCOPE_ADAPTIVE
+ * @see Network#getQueryPeerHealth()
+ */
+public interface PeerHealth {
+    /**
+     * Get the name of the peer.
+     * @return Peer name.
+     */
+    String getPeerName();
+
+    /**
+     * Get the weighted average time taken by the peer to respond to evaluate requests.
+     * @param timeUnit Time unit for the result.
+     * @return Latency, or zero if the peer has not yet responded to any requests.
+     */
+    long getLatency(TimeUnit timeUnit);
+
+    /**
+     * Get the weighted proportion of evaluate requests for which no response was received from the peer.
+     * @return Error rate between 0 and 1.
+     */
+    double getErrorRate();
+
+    /**
+     * Get the number of evaluate requests currently in progress for the peer.
+     * @return Outstanding request count.
+     */
+    int getOutstandingRequests();
+
+    /**
+     * Get the cost used to choose between peers, combining latency, error rate and outstanding requests. Lower
+     * values indicate a healthier peer.
+     * @return Peer cost.
+     */
+    double getScore();
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A transaction function prepared for repeated invocation. Everything that does not change between invocations, such
+ * as the chaincode ID, qualified function name, endorsing peers, timeouts and the handlers used to evaluate and commit
+ * transactions, is resolved once when the prepared transaction is created. Each invocation binds only its arguments
+ * and optional transient data.
+ * <p>Unlike {@link Transaction}, a prepared transaction is immutable and thread-safe, and can be invoked any number of
+ * times, including concurrently.</p>
+ * @see Contract#prepareTransaction(String)
+ * @see Transaction#prepare()
+ */
+public interface PreparedTransaction {
+    /**
+     * Get the fully qualified name of the transaction function.
+     * @return Transaction name.
+     */
+    String getName();
+
+    /**
+     * Submit a transaction to the ledger.
+     * @param correlationId an ID known by the caller to correlate responses to requests
+     * @param args Transaction function arguments.
+     * @return Payload response from the transaction function.
+     * @throws ContractException if the transaction is rejected.
+     * @throws TimeoutException if the transaction was successfully submitted to the orderer but
+     * timed out before a commit event was received from peers.
+     * @throws InterruptedException if the current thread is interrupted while waiting.
+     * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+     * @see Transaction#submit(UUID, String...)
+     */
+    TransactionResponse submit(UUID correlationId, String... args) throws ContractException, TimeoutException, InterruptedException;
+
+    /**
+     * Submit a transaction to the ledger, passing transient data to the transaction function.
+     * @param correlationId an ID known by the caller to correlate responses to requests
+     * @param transientData Transient data that is not stored on the ledger.
+     * @param args Transaction function arguments.
+     * @return Payload response from the transaction function.
+     * @throws ContractException if the transaction is rejected.
+     * @throws TimeoutException if the transaction was successfully submitted to the orderer but
+     * timed out before a commit event was received from peers.
+     * @throws InterruptedException if the current thread is interrupted while waiting.
+     * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+     */
+    TransactionResponse submit(UUID correlationId, Map<String, byte[]> transientData, String... args)
+            throws ContractException, TimeoutException, InterruptedException;
+
+    /**
+     * Submit a transaction to the ledger, passing binary arguments to the transaction function without conversion.
+     * @param correlationId an ID known by the caller to correlate responses to requests
+     * @param args Transaction function arguments.
+     * @return Payload response from the transaction function.
+     * @throws ContractException if the transaction is rejected.
+     * @throws TimeoutException if the transaction was successfully submitted to the orderer but
+     * timed out before a commit event was received from peers.
+     * @throws InterruptedException if the current thread is interrupted while waiting.
+     * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+     * @see Transaction#submit(UUID, byte[][])
+     */
+    TransactionResponse submit(UUID correlationId, byte[][] args) throws ContractException, TimeoutException, InterruptedException;
+
+    /**
+     * Submit a transaction to the ledger asynchronously.
+     * @param correlationId an ID known by the caller to correlate responses to requests
+     * @param args Transaction function arguments.
+     * @return A future that completes with the payload response from the transaction function.
+     * @see Transaction#submitAsync(UUID, String...)
+     */
+    CompletableFuture<TransactionResponse> submitAsync(UUID correlationId, String... args);
+
+    /**
+     * Submit a transaction to the ledger asynchronously, passing transient data to the transaction function.
+     * @param correlationId an ID known by the caller to correlate responses to requests
+     * @param transientData Transient data that is not stored on the ledger.
+     * @param args Transaction function arguments.
+     * @return A future that completes with the payload response from the transaction function.
+     * @see Transaction#submitAsync(UUID, String...)
+     */
+    CompletableFuture<TransactionResponse> submitAsync(UUID correlationId, Map<String, byte[]> transientData, String... args);
+
+    /**
+     * Submit a transaction to the ledger asynchronously, passing binary arguments to the transaction function without
+     * conversion.
+     * @param correlationId an ID known by the caller to correlate responses to requests
+     * @param args Transaction function arguments.
+     * @return A future that completes with the payload response from the transaction function.
+     * @see Transaction#submitAsync(UUID, byte[][])
+     */
+    CompletableFuture<TransactionResponse> submitAsync(UUID correlationId, byte[][] args);
+
+    /**
+     * Endorse a transaction without sending it to the ordering service.
+     * @param correlationId an ID known by the caller to correlate responses to requests
+     * @param args Transaction function arguments.
+     * @return An endorsed transaction.
+     * @throws ContractException if no valid endorsements are received.
+     * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+     * @see Transaction#endorse(UUID, String...)
+     */
+    EndorsedTransaction endorse(UUID correlationId, String... args) throws ContractException;
+
+    /**
+     * Endorse a transaction without sending it to the ordering service, passing binary arguments to the transaction
+     * function without conversion.
+     * @param correlationId an ID known by the caller to correlate responses to requests
+     * @param args Transaction function arguments.
+     * @return An endorsed transaction.
+     * @throws ContractException if no valid endorsements are received.
+     * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+     * @see Transaction#endorse(UUID, byte[][])
+     */
+    EndorsedTransaction endorse(UUID correlationId, byte[][] args) throws ContractException;
+
+    /**
+     * Evaluate a transaction function and return its results. The transaction is not sent to the ordering service.
+     * @param correlationId an ID known by the caller to correlate responses to requests
+     * @param args Transaction function arguments.
+     * @return Payload response from the transaction function.
+     * @throws ContractException if no peers are reachable or an error response is returned.
+     * @see Transaction#evaluate(UUID, String...)
+     */
+    TransactionResponse evaluate(UUID correlationId, String... args) throws ContractException;
+
+    /**
+     * Evaluate a transaction function and return its results, passing transient data to the transaction function.
+     * @param correlationId an ID known by the caller to correlate responses to requests
+     * @param transientData Transient data that is not stored on the ledger.
+     * @param args Transaction function arguments.
+     * @return Payload response from the transaction function.
+     * @throws ContractException if no peers are reachable or an error response is returned.
+     */
+    TransactionResponse evaluate(UUID correlationId, Map<String, byte[]> transientData, String... args) throws ContractException;
+
+    /**
+     * Evaluate a transaction function and return its results, passing binary arguments to the transaction function
+     * without conversion.
+     * @param correlationId an ID known by the caller to correlate responses to requests
+     * @param args Transaction function arguments.
+     * @return Payload response from the transaction function.
+     * @throws ContractException if no peers are reachable or an error response is returned.
+     * @see Transaction#evaluate(UUID, byte[][])
+     */
+    TransactionResponse evaluate(UUID correlationId, byte[][] args) throws ContractException;
+}
@@ -8,9 +8,11 @@ package org.hyperledger.fabric.gateway;
 
 import org.hyperledger.fabric.sdk.User;
 
+import java.nio.ByteBuffer;
 import java.util.Collection;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -52,6 +54,15 @@ public interface Transaction {
      */
     Transaction setCommitTimeout(long timeout, TimeUnit timeUnit);
 
+    /**
+     * Set the maximum length of time to wait for the ordering service to accept the transaction when it is submitted.
+     * Overrides the default set using {@link Gateway.Builder#ordererTimeout(long, TimeUnit)}.
+     * @param timeout the maximum time to wait.
+     * @param timeUnit the time unit of the timeout argument.
+     * @return this transaction object to allow method chaining.
+     */
+    Transaction setOrdererTimeout(long timeout, TimeUnit timeUnit);
+
     /**
      * Set the peers that should be used for endorsement of transaction submitted to the ledger using
      * {@link #submit(String...)}.
@@ -60,6 +71,14 @@ public interface Transaction {
      */
     Transaction setEndorsingPeers(Collection<Peer> peers);
 
+    /**
+     * Create a prepared transaction that captures the current settings of this transaction, including transient
+     * data, timeouts and endorsing peers, for repeated invocation. Later changes to this transaction do not affect
+     * the prepared transaction.
+     * @return A prepared transaction.
+     */
+    PreparedTransaction prepare();
+
 	/**
 	 * Submit a transaction to the ledger. The transaction function represented by this object
 	 * will be evaluated on the endorsing peers and then submitted to the ordering service
@@ -94,6 +113,130 @@ public interface Transaction {
      */
 	TransactionResponse submit(UUID correlationId, User userContext, String... args) throws ContractException, TimeoutException, InterruptedException;
 
+    /**
+     * Submit a transaction to the ledger, passing binary arguments to the transaction function. Argument bytes are
+     * sent to the peers without any string or character set conversion, which avoids the need to encode binary data
+     * such as serialized protocol buffer messages as strings.
+     * @param correlationId an ID known by the caller to correlate responses to requests
+     * @param args Transaction function arguments.
+     * @return Payload response from the transaction function.
+     * @throws ContractException if the transaction is rejected.
+     * @throws TimeoutException if the transaction was successfully submitted to the orderer but
+     * timed out before a commit event was received from peers.
+     * @throws InterruptedException if the current thread is interrupted while waiting.
+     * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+     * @see #submit(UUID, String...)
+     */
+    TransactionResponse submit(UUID correlationId, byte[][] args) throws ContractException, TimeoutException, InterruptedException;
+
+    /**
+     * Submit a transaction to the ledger, passing binary arguments to the transaction function. The remaining bytes of
+     * each buffer are used as an argument; buffer positions are not changed.
+     * @param correlationId an ID known by the caller to correlate responses to requests
+     * @param args Transaction function arguments.
+     * @return Payload response from the transaction function.
+     * @throws ContractException if the transaction is rejected.
+     * @throws TimeoutException if the transaction was successfully submitted to the orderer but
+     * timed out before a commit event was received from peers.
+     * @throws InterruptedException if the current thread is interrupted while waiting.
+     * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+     * @see #submit(UUID, byte[][])
+     */
+    TransactionResponse submit(UUID correlationId, ByteBuffer[] args) throws ContractException, TimeoutException, InterruptedException;
+
+    /**
+     * Submit a transaction to the ledger asynchronously. Behaves the same as {@link #submit(UUID, String...)} except
+     * that the calling thread is not blocked while waiting for the endorsement, ordering and commit of the
+     * transaction. The returned future completes exceptionally with a {@link ContractException} if the transaction
+     * is rejected, a {@link TimeoutException} if a commit event was not received in time, or a
+     * {@link GatewayRuntimeException} if an underlying infrastructure failure occurs.
+     * @param correlationId an ID known by the caller to correlate responses to requests
+     * @param args Transaction function arguments.
+     * @return A future that completes with the payload response from the transaction function.
+     */
+    CompletableFuture<TransactionResponse> submitAsync(UUID correlationId, String... args);
+
+    /**
+     * Submit a transaction to the ledger asynchronously. Behaves the same as {@link #submit(UUID, User, String...)}
+     * except that the calling thread is not blocked while waiting for the endorsement, ordering and commit of the
+     * transaction.
+     * @param correlationId an ID known by the caller to correlate responses to requests
+     * @param userContext User context for this request.
+     * @param args Transaction function arguments.
+     * @return A future that completes with the payload response from the transaction function.
+     * @see #submitAsync(UUID, String...)
+     */
+    CompletableFuture<TransactionResponse> submitAsync(UUID correlationId, User userContext, String... args);
+
+    /**
+     * Submit a transaction to the ledger asynchronously, passing binary arguments to the transaction function.
+     * @param correlationId an ID known by the caller to correlate responses to requests
+     * @param args Transaction function arguments.
+     * @return A future that completes with the payload response from the transaction function.
+     * @see #submit(UUID, byte[][])
+     * @see #submitAsync(UUID, String...)
+     */
+    CompletableFuture<TransactionResponse> submitAsync(UUID correlationId, byte[][] args);
+
+    /**
+     * Submit a transaction to the ledger asynchronously, passing binary arguments to the transaction function.
+     * @param correlationId an ID known by the caller to correlate responses to requests
+     * @param args Transaction function arguments.
+     * @return A future that completes with the payload response from the transaction function.
+     * @see #submit(UUID, ByteBuffer[])
+     * @see #submitAsync(UUID, String...)
+     */
+    CompletableFuture<TransactionResponse> submitAsync(UUID correlationId, ByteBuffer[] args);
+
+    /**
+     * Endorse a transaction without sending it to the ordering service. The transaction function represented by this
+     * object will be evaluated on the endorsing peers, and the returned endorsed transaction can later be submitted
+     * to the ordering service for committing to the ledger. This allows endorsement of further transactions to
+     * proceed while previously endorsed transactions are being ordered and committed.
+     * @param correlationId an ID known by the caller to correlate responses to requests
+     * @param args Transaction function arguments.
+     * @return An endorsed transaction.
+     * @throws ContractException if no valid endorsements are received.
+     * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+     */
+    EndorsedTransaction endorse(UUID correlationId, String... args) throws ContractException;
+
+    /**
+     * Endorse a transaction without sending it to the ordering service.
+     * @param correlationId an ID known by the caller to correlate responses to requests
+     * @param userContext User context for this request.
+     * @param args Transaction function arguments.
+     * @return An endorsed transaction.
+     * @throws ContractException if no valid endorsements are received.
+     * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+     * @see #endorse(UUID, String...)
+     */
+    EndorsedTransaction endorse(UUID correlationId, User userContext, String... args) throws ContractException;
+
+    /**
+     * Endorse a transaction without sending it to the ordering service, passing binary arguments to the transaction
+     * function.
+     * @param correlationId an ID known by the caller to correlate responses to requests
+     * @param args Transaction function arguments.
+     * @return An endorsed transaction.
+     * @throws ContractException if no valid endorsements are received.
+     * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+     * @see #endorse(UUID, String...)
+     */
+    EndorsedTransaction endorse(UUID correlationId, byte[][] args) throws ContractException;
+
+    /**
+     * Endorse a transaction without sending it to the ordering service, passing binary arguments to the transaction
+     * function.
+     * @param correlationId an ID known by the caller to correlate responses to requests
+     * @param args Transaction function arguments.
+     * @return An endorsed transaction.
+     * @throws ContractException if no valid endorsements are received.
+     * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+     * @see #endorse(UUID, String...)
+     */
+    EndorsedTransaction endorse(UUID correlationId, ByteBuffer[] args) throws ContractException;
+
     /**
      * Evaluate a transaction function and return its results.
      * The transaction function will be evaluated on the endorsing peers but
@@ -123,4 +266,28 @@ public interface Transaction {
 	 * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
 	 */
 	TransactionResponse evaluate(UUID correlationId, User userContext, String... args) throws ContractException;
+
+    /**
+     * Evaluate a transaction function and return its results, passing binary arguments to the transaction function.
+     * Argument bytes are sent to the peers without any string or character set conversion.
+     * @param correlationId an ID known by the caller to correlate responses to requests
+     * @param args Transaction function arguments.
+     * @return Payload response from the transaction function.
+     * @throws ContractException if no peers are reachable or an error response is returned.
+     * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+     * @see #evaluate(UUID, String...)
+     */
+    TransactionResponse evaluate(UUID correlationId, byte[][] args) throws ContractException;
+
+    /**
+     * Evaluate a transaction function and return its results, passing binary arguments to the transaction function.
+     * The remaining bytes of each buffer are used as an argument; buffer positions are not changed.
+     * @param correlationId an ID known by the caller to correlate responses to requests
+     * @param args Transaction function arguments.
+     * @return Payload response from the transaction function.
+     * @throws ContractException if no peers are reachable or an error response is returned.
+     * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+     * @see #evaluate(UUID, byte[][])
+     */
+    TransactionResponse evaluate(UUID correlationId, ByteBuffer[] args) throws ContractException;
 }
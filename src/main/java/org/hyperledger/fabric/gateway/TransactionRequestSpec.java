@@ -0,0 +1,80 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.hyperledger.fabric.sdk.User;
+
+/**
+ * Specification of a single transaction invocation within a batch submitted using
+ * {@link Contract#submitTransactions(java.util.List)}.
+ */
+public final class TransactionRequestSpec {
+    private final UUID correlationId;
+    private final String name;
+    private final User userContext;
+    private final String[] args;
+    private Map<String, byte[]> transientData = null;
+
+    /**
+     * Specify a transaction invocation using the gateway client user context.
+     * @param correlationId an ID known by the caller to correlate responses to requests
+     * @param name Transaction function name.
+     * @param args Transaction function arguments.
+     */
+    public TransactionRequestSpec(final UUID correlationId, final String name, final String... args) {
+        this(correlationId, name, null, args);
+    }
+
+    /**
+     * Specify a transaction invocation using a specific user context.
+     * @param correlationId an ID known by the caller to correlate responses to requests
+     * @param name Transaction function name.
+     * @param userContext User context for this request, or {@code null} to use the gateway client user context.
+     * @param args Transaction function arguments.
+     */
+    public TransactionRequestSpec(final UUID correlationId, final String name, final User userContext, final String... args) {
+        this.correlationId = correlationId;
+        this.name = name;
+        this.userContext = userContext;
+        this.args = Arrays.copyOf(args, args.length);
+    }
+
+    /**
+     * Set transient data that will be passed to the transaction function but will not be stored on the ledger.
+     * @param transientData A Map containing the transient data.
+     * @return this specification to allow method chaining.
+     */
+    public TransactionRequestSpec setTransient(final Map<String, byte[]> transientData) {
+        this.transientData = transientData;
+        return this;
+    }
+
+    public UUID getCorrelationId() {
+        return correlationId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Optional<User> getUserContext() {
+        return Optional.ofNullable(userContext);
+    }
+
+    public String[] getArgs() {
+        return Arrays.copyOf(args, args.length);
+    }
+
+    public Optional<Map<String, byte[]>> getTransient() {
+        return Optional.ofNullable(transientData);
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hyperledger.fabric.gateway.ContractException;
+import org.hyperledger.fabric.gateway.EndorsedTransaction;
+import org.hyperledger.fabric.gateway.TransactionRequestSpec;
+import org.hyperledger.fabric.gateway.TransactionResponse;
+
+/**
+ * Submits a batch of transactions. At most a fixed number of endorsements are in progress at any time; as each
+ * endorsement completes, the endorsed transaction is sent to the orderer and endorsement of the next transaction in
+ * the batch begins. Commit waits do not count towards the endorsement limit, so ordering and commit of earlier
+ * transactions overlaps with endorsement of later ones.
+ */
+final class BatchSubmitter {
+    private final ContractImpl contract;
+    private final Executor executor;
+    private final List<TransactionRequestSpec> requests;
+    private final List<CompletableFuture<TransactionResponse>> results;
+    private final AtomicInteger nextIndex = new AtomicInteger(0);
+
+    BatchSubmitter(final ContractImpl contract, final List<TransactionRequestSpec> requests) {
+        this.contract = contract;
+        this.executor = contract.getNetwork().getGateway().getExecutor();
+        this.requests = new ArrayList<>(requests);
+
+        List<CompletableFuture<TransactionResponse>> futures = new ArrayList<>(requests.size());
+        requests.forEach(request -> futures.add(new CompletableFuture<>()));
+        this.results = Collections.unmodifiableList(futures);
+    }
+
+    List<CompletableFuture<TransactionResponse>> submit(final int maxParallelism) {
+        if (maxParallelism < 1) {
+            throw new IllegalArgumentException("maxParallelism must be at least 1: " + maxParallelism);
+        }
+
+        int initialCount = Math.min(maxParallelism, requests.size());
+        for (int i = 0; i < initialCount; i++) {
+            endorseNext();
+        }
+
+        return results;
+    }
+
+    private void endorseNext() {
+        int index = nextIndex.getAndIncrement();
+        if (index >= requests.size()) {
+            return;
+        }
+
+        TransactionRequestSpec request = requests.get(index);
+        CompletableFuture<TransactionResponse> result = results.get(index);
+
+        CompletableFuture.supplyAsync(() -> endorse(request), executor)
+                .whenComplete((endorsedTransaction, failure) -> {
+                    endorseNext();
+                    if (failure != null) {
+                        result.completeExceptionally(CompletableFutures.unwrap(failure));
+                    } else {
+                        endorsedTransaction.submitAsync().whenComplete((response, commitFailure) -> {
+                            if (commitFailure != null) {
+                                result.completeExceptionally(CompletableFutures.unwrap(commitFailure));
+                            } else {
+                                result.complete(response);
+                            }
+                        });
+                    }
+                });
+    }
+
+    private EndorsedTransaction endorse(final TransactionRequestSpec request) {
+        PreparedTransactionImpl transaction = contract.newPreparedTransaction(request.getName());
+        try {
+            return transaction.endorse(request.getCorrelationId(), request.getUserContext().orElse(null), request.getTransient().orElse(null),
+                    PreparedTransactionImpl.stringArgs(request.getArgs()));
+        } catch (ContractException e) {
+            throw new CompletionException(e);
+        }
+    }
+}
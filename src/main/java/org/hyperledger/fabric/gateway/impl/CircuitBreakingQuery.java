@@ -0,0 +1,65 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.util.Collection;
+import java.util.Map;
+
+import org.hyperledger.fabric.gateway.spi.Query;
+import org.hyperledger.fabric.sdk.Peer;
+import org.hyperledger.fabric.sdk.ProposalResponse;
+
+/**
+ * Query that records the outcome of each peer request with the network's circuit breakers, and reports peers whose
+ * circuit is open to the query handler.
+ */
+final class CircuitBreakingQuery implements Query {
+    private final Query query;
+    private final PeerCircuitBreakers circuitBreakers;
+
+    CircuitBreakingQuery(final Query query, final PeerCircuitBreakers circuitBreakers) {
+        this.query = query;
+        this.circuitBreakers = circuitBreakers;
+    }
+
+    @Override
+    public ProposalResponse evaluate(final Peer peer) {
+        ProposalResponse response;
+        try {
+            response = query.evaluate(peer);
+        } catch (RuntimeException e) {
+            record(peer, null);
+            throw e;
+        }
+        record(peer, response);
+        return response;
+    }
+
+    @Override
+    public Map<Peer, ProposalResponse> evaluate(final Collection<Peer> peers) {
+        Map<Peer, ProposalResponse> responses = query.evaluate(peers);
+        responses.forEach(this::record);
+        return responses;
+    }
+
+    private void record(final Peer peer, final ProposalResponse response) {
+        if (Thread.currentThread().isInterrupted()) {
+            // Request abandoned by the query handler, such as a hedged request that lost the race
+            return;
+        }
+        if (response != null) {
+            circuitBreakers.record(peer, response);
+        } else {
+            circuitBreakers.recordFailure(peer);
+        }
+    }
+
+    @Override
+    public boolean isCircuitOpen(final Peer peer) {
+        return circuitBreakers.isOpen(peer);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Utility functions for working with {@link CompletableFuture} instances, which are not all available in Java 8.
+ */
+public final class CompletableFutures {
+    private static final ScheduledThreadPoolExecutor TIMEOUT_SCHEDULER = newTimeoutScheduler();
+
+    private static ScheduledThreadPoolExecutor newTimeoutScheduler() {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1,
+                GatewayUtils.newDaemonThreadFactory("fabric-gateway-timeout"));
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    // Private constructor to prevent instantiation
+    private CompletableFutures() { }
+
+    /**
+     * Create a future that has already completed exceptionally with the given exception.
+     * @param cause Failure cause.
+     * @param <T> Result type.
+     * @return A completed future.
+     */
+    public static <T> CompletableFuture<T> failed(final Throwable cause) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(cause);
+        return future;
+    }
+
+    /**
+     * Create a future that completes with the same result as the given future, or completes exceptionally with a
+     * {@link TimeoutException} if the given future does not complete within the timeout period. The given future is
+     * not itself completed or cancelled on timeout.
+     * @param future A future.
+     * @param timeout Maximum time to wait for the future to complete.
+     * @param timeoutMessage Message for the timeout exception.
+     * @param <T> Result type.
+     * @return A future.
+     */
+    public static <T> CompletableFuture<T> withTimeout(final CompletableFuture<T> future, final TimePeriod timeout,
+                                                       final String timeoutMessage) {
+        if (future.isDone()) {
+            return future;
+        }
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        ScheduledFuture<?> timer = TIMEOUT_SCHEDULER.schedule(
+                () -> result.completeExceptionally(new TimeoutException(timeoutMessage)),
+                timeout.getTime(), timeout.getTimeUnit());
+        future.whenComplete((value, failure) -> {
+            timer.cancel(false);
+            if (failure != null) {
+                result.completeExceptionally(unwrap(failure));
+            } else {
+                result.complete(value);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Remove any {@link CompletionException} or {@link ExecutionException} wrappers to obtain the underlying cause of
+     * a future failure.
+     * @param failure A failure.
+     * @return The underlying cause.
+     */
+    public static Throwable unwrap(final Throwable failure) {
+        Throwable cause = failure;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
@@ -7,19 +7,32 @@
 package org.hyperledger.fabric.gateway.impl;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
+import org.hyperledger.fabric.gateway.CheckpointPolicy;
 import org.hyperledger.fabric.gateway.Contract;
 import org.hyperledger.fabric.gateway.ContractEvent;
 import org.hyperledger.fabric.gateway.ContractException;
+import org.hyperledger.fabric.gateway.EndorsedTransaction;
+import org.hyperledger.fabric.gateway.ListenerDelivery;
+import org.hyperledger.fabric.gateway.ListenerMetrics;
+import org.hyperledger.fabric.gateway.PreparedTransaction;
 import org.hyperledger.fabric.gateway.Transaction;
+import org.hyperledger.fabric.gateway.TransactionRequestSpec;
 import org.hyperledger.fabric.gateway.TransactionResponse;
-import org.hyperledger.fabric.gateway.impl.event.BlockListenerSession;
+import org.hyperledger.fabric.gateway.impl.event.BatchCheckpointListener;
 import org.hyperledger.fabric.gateway.impl.event.ListenerSession;
 import org.hyperledger.fabric.gateway.impl.event.Listeners;
 import org.hyperledger.fabric.gateway.impl.event.ReplayListenerSession;
@@ -28,10 +41,13 @@ import org.hyperledger.fabric.sdk.BlockEvent;
 import org.hyperledger.fabric.sdk.User;
 
 public final class ContractImpl implements Contract, AutoCloseable {
+    private static final int DEFAULT_BATCH_PARALLELISM = 16;
+
     private final NetworkImpl network;
     private final String chaincodeId;
     private final String name;
     private final Map<Consumer<ContractEvent>, ListenerSession> contractListenerSessions = new HashMap<>();
+    private final Map<String, PreparedTransactionImpl> preparedTransactions = new ConcurrentHashMap<>();
 
     ContractImpl(final NetworkImpl network, final String chaincodeId, final String name) {
         this.network = network;
@@ -41,47 +57,130 @@ public final class ContractImpl implements Contract, AutoCloseable {
 
     @Override
     public Transaction createTransaction(final String name) {
+        checkTransactionName(name);
+        String qualifiedName = getQualifiedName(name);
+        return new TransactionImpl(this, qualifiedName);
+    }
+
+    @Override
+    public PreparedTransaction prepareTransaction(final String name) {
+        checkTransactionName(name);
+        // Only transactions explicitly prepared by the caller are retained
+        return preparedTransactions.computeIfAbsent(name, this::newPreparedTransaction);
+    }
+
+    /**
+     * Create a prepared transaction with the default settings of the gateway. These are cheap to create, so are not
+     * retained for single invocations to avoid holding one for every transaction name ever invoked.
+     * @param name Transaction function name.
+     * @return A prepared transaction.
+     */
+    PreparedTransactionImpl newPreparedTransaction(final String name) {
+        checkTransactionName(name);
+        GatewayImpl gateway = network.getGateway();
+        return new PreparedTransactionImpl(this, getQualifiedName(name), gateway.getCommitTimeout(), gateway.getOrdererTimeout(), null, null);
+    }
+
+    private static void checkTransactionName(final String name) {
         if (name == null || name.isEmpty()) {
             throw new IllegalArgumentException("Transaction must be a non-empty string");
         }
-        String qualifiedName = getQualifiedName(name);
-        return new TransactionImpl(this, qualifiedName);
     }
 
     @Override
     public TransactionResponse submitTransaction(final UUID correlationId, final String name, final String... args) throws ContractException, TimeoutException, InterruptedException {
-        return createTransaction(name).submit(correlationId, args);
+        return newPreparedTransaction(name).submit(correlationId, args);
     }
 
     @Override
     public TransactionResponse evaluateTransaction(final UUID correlationId, final String name, final String... args) throws ContractException {
-        return createTransaction(name).evaluate(correlationId, args);
+        return newPreparedTransaction(name).evaluate(correlationId, args);
     }
 
     @Override
     public TransactionResponse submitTransaction(final UUID correlationId, final String name, final User userContext, final String... args) throws ContractException, TimeoutException, InterruptedException {
-        return createTransaction(name).submit(correlationId, userContext, args);
+        return newPreparedTransaction(name).submit(correlationId, userContext, null, PreparedTransactionImpl.stringArgs(args));
+    }
+
+    @Override
+    public CompletableFuture<TransactionResponse> submitTransactionAsync(final UUID correlationId, final String name, final String... args) {
+        return newPreparedTransaction(name).submitAsync(correlationId, args);
+    }
+
+    @Override
+    public CompletableFuture<TransactionResponse> submitTransactionAsync(final UUID correlationId, final String name, final User userContext,
+                                                                         final String... args) {
+        return newPreparedTransaction(name).submitAsync(correlationId, userContext, null, PreparedTransactionImpl.stringArgs(args));
+    }
+
+    @Override
+    public TransactionResponse submitTransaction(final UUID correlationId, final String name, final byte[][] args)
+            throws ContractException, TimeoutException, InterruptedException {
+        return newPreparedTransaction(name).submit(correlationId, args);
+    }
+
+    @Override
+    public TransactionResponse submitTransaction(final UUID correlationId, final String name, final ByteBuffer[] args)
+            throws ContractException, TimeoutException, InterruptedException {
+        return newPreparedTransaction(name).submit(correlationId, GatewayUtils.toByteArrays(args));
+    }
+
+    @Override
+    public CompletableFuture<TransactionResponse> submitTransactionAsync(final UUID correlationId, final String name, final byte[][] args) {
+        return newPreparedTransaction(name).submitAsync(correlationId, args);
+    }
+
+    @Override
+    public CompletableFuture<TransactionResponse> submitTransactionAsync(final UUID correlationId, final String name, final ByteBuffer[] args) {
+        return newPreparedTransaction(name).submitAsync(correlationId, GatewayUtils.toByteArrays(args));
+    }
+
+    @Override
+    public TransactionResponse evaluateTransaction(final UUID correlationId, final String name, final byte[][] args) throws ContractException {
+        return newPreparedTransaction(name).evaluate(correlationId, args);
+    }
+
+    @Override
+    public TransactionResponse evaluateTransaction(final UUID correlationId, final String name, final ByteBuffer[] args) throws ContractException {
+        return newPreparedTransaction(name).evaluate(correlationId, GatewayUtils.toByteArrays(args));
+    }
+
+    @Override
+    public List<CompletableFuture<TransactionResponse>> submitTransactions(final List<TransactionRequestSpec> requests) {
+        return submitTransactions(requests, DEFAULT_BATCH_PARALLELISM);
+    }
+
+    @Override
+    public List<CompletableFuture<TransactionResponse>> submitTransactions(final List<TransactionRequestSpec> requests, final int maxParallelism) {
+        return new BatchSubmitter(this, requests).submit(maxParallelism);
+    }
+
+    @Override
+    public List<CompletableFuture<TransactionResponse>> submitEndorsedTransactions(final Collection<? extends EndorsedTransaction> endorsedTransactions) {
+        return endorsedTransactions.stream()
+                .map(EndorsedTransaction::submitAsync)
+                .collect(Collectors.toList());
     }
 
     @Override
     public TransactionResponse evaluateTransaction(final UUID correlationId, final String name, final User userContext, final String... args) throws ContractException {
-        return createTransaction(name).evaluate(correlationId, userContext, args);
+        return newPreparedTransaction(name).evaluate(correlationId, userContext, null, PreparedTransactionImpl.stringArgs(args));
     }
 
     @Override
     public Consumer<ContractEvent> addContractListener(final Consumer<ContractEvent> listener) {
         synchronized (contractListenerSessions) {
-            contractListenerSessions.computeIfAbsent(listener, k -> {
-                Consumer<ContractEvent> contractListener = Listeners.contract(listener, chaincodeId);
-                return new BlockListenerSession(network.getBlockSource(), Listeners.fromContract(contractListener));
-            });
+            contractListenerSessions.computeIfAbsent(listener, k -> network.getContractEventRouter().addListener(chaincodeId, listener));
         }
         return listener;
     }
 
     @Override
     public Consumer<ContractEvent> addContractListener(final Consumer<ContractEvent> listener, final String eventName) {
-        return addContractListener(listener, getEventNamePattern(eventName));
+        synchronized (contractListenerSessions) {
+            contractListenerSessions.computeIfAbsent(listener, k -> network.getContractEventRouter().addListener(chaincodeId, eventName, listener));
+        }
+        return listener;
     }
 
     private Pattern getEventNamePattern(final String eventName) {
@@ -90,15 +189,47 @@ public final class ContractImpl implements Contract, AutoCloseable {
 
     @Override
     public Consumer<ContractEvent> addContractListener(final Consumer<ContractEvent> listener, final Pattern eventNamePattern) {
+        synchronized (contractListenerSessions) {
+            contractListenerSessions.computeIfAbsent(listener,
+                    k -> network.getContractEventRouter().addListener(chaincodeId, eventNamePattern, listener));
+        }
+        return listener;
+    }
+
+    @Override
+    public Consumer<ContractEvent> addContractListener(final ListenerDelivery delivery, final Consumer<ContractEvent> listener) {
         synchronized (contractListenerSessions) {
             contractListenerSessions.computeIfAbsent(listener, k -> {
-                Consumer<ContractEvent> contractListener = Listeners.contract(listener, chaincodeId, eventNamePattern);
-                return new BlockListenerSession(network.getBlockSource(), Listeners.fromContract(contractListener));
+                Consumer<ContractEvent> contractListener = Listeners.contract(listener, chaincodeId);
+                return network.newListenerSession(delivery, Listeners.fromContract(contractListener));
             });
         }
         return listener;
     }
 
+    @Override
+    public Consumer<ContractEvent> addContractListener(final Checkpointer checkpointer, final ListenerDelivery delivery,
+                                                       final Consumer<ContractEvent> listener) throws IOException {
+        synchronized (contractListenerSessions) {
+            if (!contractListenerSessions.containsKey(listener)) {
+                Consumer<ContractEvent> contractListener = Listeners.contract(listener, chaincodeId);
+                Consumer<BlockEvent> checkpointListener = Listeners.checkpointContract(checkpointer, contractListener);
+                ListenerSession session = network.newCheckpointListenerSession(checkpointer, delivery, checkpointListener);
+                contractListenerSessions.put(listener, session);
+            }
+        }
+        return listener;
+    }
+
+    @Override
+    public Optional<ListenerMetrics> getContractListenerMetrics(final Consumer<ContractEvent> listener) {
+        final ListenerSession session;
+        synchronized (contractListenerSessions) {
+            session = contractListenerSessions.get(listener);
+        }
+        return NetworkImpl.getListenerMetrics(session);
+    }
+
     @Override
     public Consumer<ContractEvent> addContractListener(final Checkpointer checkpointer, final Consumer<ContractEvent> listener) throws IOException {
         synchronized (contractListenerSessions) {
@@ -138,6 +269,44 @@ public final class ContractImpl implements Contract, AutoCloseable {
         return listener;
     }
 
+    @Override
+    public Consumer<ContractEvent> addContractListener(final Checkpointer checkpointer, final CheckpointPolicy policy,
+                                                       final Consumer<ContractEvent> listener) throws IOException {
+        return addCheckpointContractListener(checkpointer, policy, listener, Listeners.contract(listener, chaincodeId));
+    }
+
+    @Override
+    public Consumer<ContractEvent> addContractListener(final Checkpointer checkpointer, final CheckpointPolicy policy,
+                                                       final Consumer<ContractEvent> listener,
+                                                       final String eventName) throws IOException {
+        return addContractListener(checkpointer, policy, listener, getEventNamePattern(eventName));
+    }
+
+    @Override
+    public Consumer<ContractEvent> addContractListener(final Checkpointer checkpointer, final CheckpointPolicy policy,
+                                                       final Consumer<ContractEvent> listener,
+                                                       final Pattern eventNamePattern) throws IOException {
+        return addCheckpointContractListener(checkpointer, policy, listener, Listeners.contract(listener, chaincodeId, eventNamePattern));
+    }
+
+    private Consumer<ContractEvent> addCheckpointContractListener(final Checkpointer checkpointer, final CheckpointPolicy policy,
+                                                                  final Consumer<ContractEvent> listener,
+                                                                  final Consumer<ContractEvent> contractListener) throws IOException {
+        synchronized (contractListenerSessions) {
+            if (!contractListenerSessions.containsKey(listener)) {
+                final ListenerSession session;
+                if (policy.isPerTransaction()) {
+                    session = newCheckpointListenerSession(checkpointer, contractListener);
+                } else {
+                    BatchCheckpointListener checkpointListener = Listeners.checkpointContract(checkpointer, policy, contractListener);
+                    session = network.newBatchCheckpointListenerSession(checkpointer, checkpointListener);
+                }
+                contractListenerSessions.put(listener, session);
+            }
+        }
+        return listener;
+    }
+
     @Override
     public Consumer<ContractEvent> addContractListener(final long startBlock, final Consumer<ContractEvent> listener) {
         synchronized (contractListenerSessions) {
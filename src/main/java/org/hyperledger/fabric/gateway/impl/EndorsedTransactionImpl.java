@@ -0,0 +1,196 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import org.hyperledger.fabric.gateway.ContractException;
+import org.hyperledger.fabric.gateway.EndorsedTransaction;
+import org.hyperledger.fabric.gateway.GatewayRuntimeException;
+import org.hyperledger.fabric.gateway.OrdererQueueFullException;
+import org.hyperledger.fabric.gateway.TransactionResponse;
+import org.hyperledger.fabric.gateway.spi.CommitHandler;
+import org.hyperledger.fabric.gateway.spi.CommitHandlerFactory;
+import org.hyperledger.fabric.sdk.Channel;
+import org.hyperledger.fabric.sdk.ProposalResponse;
+import org.hyperledger.fabric.sdk.exception.InvalidArgumentException;
+
+public final class EndorsedTransactionImpl implements EndorsedTransaction {
+    private final NetworkImpl network;
+    private final String chaincodeId;
+    private final Channel channel;
+    private final CommitHandlerFactory commitHandlerFactory;
+    private final OrdererQueue ordererQueue;
+    private final TimePeriod ordererTimeout;
+    private final TimePeriod commitTimeout;
+    private final UUID correlationId;
+    private final Collection<ProposalResponse> proposalResponses;
+    private final Collection<ProposalResponse> validResponses;
+    private final String transactionId;
+
+    EndorsedTransactionImpl(final NetworkImpl network, final String chaincodeId, final TimePeriod ordererTimeout,
+                            final TimePeriod commitTimeout, final UUID correlationId,
+                            final Collection<ProposalResponse> proposalResponses,
+                            final Collection<ProposalResponse> validResponses) {
+        this.network = network;
+        this.chaincodeId = chaincodeId;
+        this.channel = network.getChannel();
+        this.commitHandlerFactory = network.getGateway().getCommitHandlerFactory();
+        this.ordererQueue = network.getGateway().getOrdererQueue();
+        this.ordererTimeout = ordererTimeout;
+        this.commitTimeout = commitTimeout;
+        this.correlationId = correlationId;
+        this.proposalResponses = Collections.unmodifiableCollection(proposalResponses);
+        this.validResponses = validResponses;
+        this.transactionId = validResponses.iterator().next().getTransactionID();
+    }
+
+    @Override
+    public UUID getCorrelationId() {
+        return correlationId;
+    }
+
+    @Override
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    @Override
+    public Collection<ProposalResponse> getProposalResponses() {
+        return proposalResponses;
+    }
+
+    @Override
+    public TransactionResponse submit() throws ContractException, TimeoutException, InterruptedException {
+        try {
+            byte[] result = commitTransaction();
+            return newTransactionResponse(result);
+        } catch (ContractException e) {
+            e.setProposalResponses(proposalResponses);
+            throw e;
+        }
+    }
+
+    @Override
+    public CompletableFuture<TransactionResponse> submitAsync() {
+        return commitTransactionAsync()
+                .thenApply(this::newTransactionResponse)
+                .whenComplete((response, failure) -> {
+                    Throwable cause = failure != null ? CompletableFutures.unwrap(failure) : null;
+                    if (cause instanceof ContractException) {
+                        ((ContractException) cause).setProposalResponses(proposalResponses);
+                    }
+                });
+    }
+
+    private TransactionResponse newTransactionResponse(final byte[] result) {
+        return new TransactionResponse(correlationId, transactionId, result);
+    }
+
+    private byte[] commitTransaction() throws TimeoutException, ContractException, InterruptedException {
+        CommitHandler commitHandler = commitHandlerFactory.create(transactionId, network);
+        commitHandler.startListening();
+
+        try {
+            sendToOrderer().get();
+        } catch (ExecutionException e) {
+            commitHandler.cancelListening();
+            Throwable cause = CompletableFutures.unwrap(e);
+            if (cause instanceof TimeoutException) {
+                throw (TimeoutException) cause;
+            }
+            if (cause instanceof OrdererQueueFullException) {
+                throw (OrdererQueueFullException) cause;
+            }
+            throw new ContractException("Failed to send transaction to the orderer", cause);
+        } catch (InterruptedException e) {
+            commitHandler.cancelListening();
+            throw e;
+        }
+
+        commitHandler.waitForEvents(commitTimeout.getTime(), commitTimeout.getTimeUnit());
+        invalidateCachedResults();
+
+        return getResponsePayload();
+    }
+
+    private CompletableFuture<byte[]> commitTransactionAsync() {
+        CommitHandler commitHandler = commitHandlerFactory.create(transactionId, network);
+        commitHandler.startListening();
+
+        CompletableFuture<?> ordererFuture = sendToOrderer();
+
+        return ordererFuture
+                .handle((result, failure) -> {
+                    if (failure != null) {
+                        commitHandler.cancelListening();
+                        Throwable cause = CompletableFutures.unwrap(failure);
+                        if (cause instanceof TimeoutException || cause instanceof OrdererQueueFullException) {
+                            throw new CompletionException(cause);
+                        }
+                        throw new CompletionException(new ContractException("Failed to send transaction to the orderer", cause));
+                    }
+                    return commitHandler;
+                })
+                .thenCompose(handler -> CompletableFutures.withTimeout(
+                        handler.whenCommitted(commitTimeout.getTime(), commitTimeout.getTimeUnit(), network.getGateway().getExecutor()),
+                        commitTimeout,
+                        "Timeout waiting for commit of transaction " + transactionId))
+                .whenComplete((result, failure) -> {
+                    if (failure != null) {
+                        commitHandler.cancelListening();
+                    }
+                })
+                .thenApply(result -> {
+                    invalidateCachedResults();
+                    return getResponsePayload();
+                });
+    }
+
+    /**
+     * Discard cached evaluation results for the chaincode once this transaction has committed, so that subsequent
+     * evaluations by this client observe its writes without waiting for the block to be received.
+     */
+    private void invalidateCachedResults() {
+        EvaluateCache evaluateCache = network.getEvaluateCache();
+        if (evaluateCache != null) {
+            evaluateCache.invalidate(chaincodeId);
+        }
+    }
+
+    private CompletableFuture<?> sendToOrderer() {
+        return ordererQueue.send(() -> channel.sendTransaction(validResponses, newTransactionOptions()), ordererTimeout,
+                "Timeout sending transaction " + transactionId + " to the orderer");
+    }
+
+    private static Channel.TransactionOptions newTransactionOptions() {
+        return Channel.TransactionOptions.createTransactionOptions()
+                .nOfEvents(Channel.NOfEvents.createNoEvents()); // Disable default commit wait behaviour
+    }
+
+    private byte[] getResponsePayload() {
+        try {
+            return validResponses.iterator().next().getChaincodeActionResponsePayload();
+        } catch (InvalidArgumentException e) {
+            throw new GatewayRuntimeException(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this,
+                "correlationId=" + correlationId,
+                "transactionId=" + transactionId,
+                "channel=" + channel.getName());
+    }
+}
@@ -0,0 +1,294 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.hyperledger.fabric.gateway.ContractException;
+import org.hyperledger.fabric.gateway.EvaluateCacheMetrics;
+import org.hyperledger.fabric.gateway.EvaluateCacheOptions;
+import org.hyperledger.fabric.gateway.TransactionResponse;
+import org.hyperledger.fabric.gateway.impl.event.BlockEventSource;
+import org.hyperledger.fabric.sdk.BlockEvent;
+import org.hyperledger.fabric.sdk.BlockInfo;
+import org.hyperledger.fabric.sdk.ChaincodeEvent;
+
+/**
+ * Least recently used cache of evaluated transaction results for a network. Results for a chaincode are discarded
+ * when a block containing a valid transaction for that chaincode is received from the network's block source. The
+ * block source is only attached once the cache is first used.
+ * <p>Each chaincode has a version that changes whenever its results are invalidated. A result is only added to the
+ * cache if the version has not changed since its evaluation started, so results of evaluations that overlap a block
+ * commit are not cached.</p>
+ * <p>This implementation is thread-safe.</p>
+ */
+final class EvaluateCache implements EvaluateCacheMetrics, AutoCloseable {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final long UNKNOWN_BLOCK_NUMBER = -1;
+
+    private final BlockEventSource blockSource;
+    private final Consumer<BlockEvent> blockListener = this::receivedBlock;
+    private final int maxEntries;
+    private final long timeToLiveNanos;
+    private final long maxBlocks;
+
+    private final Object lock = new Object();
+    private final Map<EvaluationKey, Entry> entries; // Guarded by lock
+    private final Map<String, Long> chaincodeVersions = new HashMap<>(); // Guarded by lock
+    private long globalVersion = 0; // Guarded by lock
+    private long blockNumber = UNKNOWN_BLOCK_NUMBER; // Guarded by lock
+    private boolean isAttached = false; // Guarded by lock
+    private boolean isClosed = false; // Guarded by lock
+    private long hitCount = 0; // Guarded by lock
+    private long missCount = 0; // Guarded by lock
+    private long evictionCount = 0; // Guarded by lock
+    private long invalidationCount = 0; // Guarded by lock
+
+    EvaluateCache(final BlockEventSource blockSource, final EvaluateCacheOptions options) {
+        this.blockSource = blockSource;
+        this.maxEntries = options.getMaxEntries();
+        this.timeToLiveNanos = options.getTimeToLive(TimeUnit.NANOSECONDS);
+        this.maxBlocks = options.getMaxBlocks();
+        this.entries = new LinkedHashMap<EvaluationKey, Entry>(INITIAL_CAPACITY, LOAD_FACTOR, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<EvaluationKey, Entry> eldest) {
+                if (size() > maxEntries) {
+                    evictionCount++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Get a cached result, or evaluate and cache the result if none is available.
+     * @param key Cache key.
+     * @param correlationId Correlation ID for the returned response.
+     * @param evaluation Evaluation to perform if no result is cached.
+     * @return Transaction response.
+     * @throws ContractException if evaluation fails.
+     */
+    TransactionResponse evaluate(final EvaluationKey key, final UUID correlationId, final Evaluation evaluation) throws ContractException {
+        final long version;
+        synchronized (lock) {
+            attach();
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (!isExpired(entry, System.nanoTime())) {
+                    hitCount++;
+                    return entry.toResponse(correlationId);
+                }
+                entries.remove(key);
+                evictionCount++;
+            }
+            missCount++;
+            version = getVersion(key.getChaincodeId());
+        }
+
+        TransactionResponse response = evaluation.evaluate();
+
+        synchronized (lock) {
+            if (!isClosed && getVersion(key.getChaincodeId()) == version) {
+                entries.put(key, new Entry(response, System.nanoTime(), blockNumber));
+            }
+        }
+        return response;
+    }
+
+    private void attach() {
+        if (!isAttached && !isClosed) {
+            blockSource.addBlockListener(blockListener);
+            isAttached = true;
+        }
+    }
+
+    private long getVersion(final String chaincodeId) {
+        // Both parts only increase so the sum changes whenever either does
+        return globalVersion + chaincodeVersions.getOrDefault(chaincodeId, 0L);
+    }
+
+    private boolean isExpired(final Entry entry, final long now) {
+        return now - entry.createdNanos >= timeToLiveNanos || isBlockExpired(entry);
+    }
+
+    private boolean isBlockExpired(final Entry entry) {
+        if (entry.blockNumber == UNKNOWN_BLOCK_NUMBER) {
+            // Cached before any block was received, so its age in blocks is unknown once one is
+            return blockNumber != UNKNOWN_BLOCK_NUMBER;
+        }
+        return blockNumber - entry.blockNumber >= maxBlocks;
+    }
+
+    private void receivedBlock(final BlockEvent blockEvent) {
+        Set<String> chaincodeIds = new HashSet<>();
+        boolean isUnknownChaincode = false;
+        for (BlockEvent.TransactionEvent transactionEvent : blockEvent.getTransactionEvents()) {
+            if (!transactionEvent.isValid()) {
+                continue;
+            }
+            for (BlockInfo.TransactionEnvelopeInfo.TransactionActionInfo actionInfo : transactionEvent.getTransactionActionInfos()) {
+                String chaincodeId = getChaincodeId(actionInfo);
+                if (chaincodeId != null) {
+                    chaincodeIds.add(chaincodeId);
+                } else {
+                    isUnknownChaincode = true;
+                }
+            }
+        }
+
+        synchronized (lock) {
+            blockNumber = Math.max(blockNumber, blockEvent.getBlockNumber());
+            if (isUnknownChaincode) {
+                invalidationCount += entries.size();
+                entries.clear();
+                globalVersion++;
+            } else if (!chaincodeIds.isEmpty()) {
+                invalidate(chaincodeIds);
+            }
+            removeExpired();
+        }
+    }
+
+    /**
+     * Get the chaincode invoked by a transaction action. Filtered blocks do not include the chaincode ID for actions
+     * so the chaincode ID of any chaincode event is used instead.
+     * @param actionInfo Transaction action.
+     * @return A chaincode ID, or null if it cannot be determined.
+     */
+    private static String getChaincodeId(final BlockInfo.TransactionEnvelopeInfo.TransactionActionInfo actionInfo) {
+        try {
+            String chaincodeId = actionInfo.getChaincodeIDName();
+            if (chaincodeId != null && !chaincodeId.isEmpty()) {
+                return chaincodeId;
+            }
+        } catch (RuntimeException e) {
+            // Not available from filtered blocks
+        }
+        ChaincodeEvent event = actionInfo.getEvent();
+        return event != null ? event.getChaincodeId() : null;
+    }
+
+    /**
+     * Discard cached results for a chaincode. Used when a transaction submitted by this client that invoked the
+     * chaincode has committed, since the block containing it may not yet have been received.
+     * @param chaincodeId Chaincode ID.
+     */
+    void invalidate(final String chaincodeId) {
+        synchronized (lock) {
+            invalidate(Collections.singleton(chaincodeId));
+        }
+    }
+
+    private void invalidate(final Set<String> chaincodeIds) {
+        chaincodeIds.forEach(chaincodeId -> chaincodeVersions.merge(chaincodeId, 1L, Long::sum));
+        Iterator<EvaluationKey> keys = entries.keySet().iterator();
+        while (keys.hasNext()) {
+            if (chaincodeIds.contains(keys.next().getChaincodeId())) {
+                keys.remove();
+                invalidationCount++;
+            }
+        }
+    }
+
+    private void removeExpired() {
+        long now = System.nanoTime();
+        Iterator<Entry> values = entries.values().iterator();
+        while (values.hasNext()) {
+            if (isExpired(values.next(), now)) {
+                values.remove();
+                evictionCount++;
+            }
+        }
+    }
+
+    @Override
+    public long getHitCount() {
+        synchronized (lock) {
+            return hitCount;
+        }
+    }
+
+    @Override
+    public long getMissCount() {
+        synchronized (lock) {
+            return missCount;
+        }
+    }
+
+    @Override
+    public long getEvictionCount() {
+        synchronized (lock) {
+            return evictionCount;
+        }
+    }
+
+    @Override
+    public long getInvalidationCount() {
+        synchronized (lock) {
+            return invalidationCount;
+        }
+    }
+
+    @Override
+    public int getSize() {
+        synchronized (lock) {
+            return entries.size();
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (lock) {
+            isClosed = true;
+            entries.clear();
+            if (isAttached) {
+                blockSource.removeBlockListener(blockListener);
+                isAttached = false;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        synchronized (lock) {
+            return GatewayUtils.toString(this,
+                    "size=" + entries.size(),
+                    "maxEntries=" + maxEntries,
+                    "hitCount=" + hitCount,
+                    "missCount=" + missCount);
+        }
+    }
+
+    private static final class Entry {
+        private final String transactionId;
+        private final byte[] payload;
+        private final long createdNanos;
+        private final long blockNumber;
+
+        Entry(final TransactionResponse response, final long createdNanos, final long blockNumber) {
+            this.transactionId = response.getTransactionId();
+            this.payload = response.getPayload() != null ? response.getPayload().clone() : null;
+            this.createdNanos = createdNanos;
+            this.blockNumber = blockNumber;
+        }
+
+        TransactionResponse toResponse(final UUID correlationId) {
+            return new TransactionResponse(correlationId, transactionId, payload != null ? payload.clone() : null);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hyperledger.fabric.gateway.ContractException;
+import org.hyperledger.fabric.gateway.GatewayRuntimeException;
+import org.hyperledger.fabric.gateway.TransactionResponse;
+
+/**
+ * Shares a single in-flight evaluation between concurrent callers evaluating the same transaction function with the
+ * same arguments and transient data. The first caller performs the evaluation; callers arriving before it completes
+ * wait for and receive the same result, or the same failure. Nothing is retained once the evaluation completes, so
+ * later callers always perform a new evaluation.
+ * <p>This implementation is thread-safe.</p>
+ */
+final class EvaluateCoalescer {
+    private final Map<EvaluationKey, CompletableFuture<TransactionResponse>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong coalescedCount = new AtomicLong(0);
+
+    /**
+     * Perform an evaluation, or wait for the result of an identical evaluation already in progress.
+     * @param key Evaluation key.
+     * @param correlationId Correlation ID for the returned response.
+     * @param evaluation Evaluation to perform if no identical evaluation is in progress.
+     * @return Transaction response.
+     * @throws ContractException if evaluation fails.
+     */
+    TransactionResponse evaluate(final EvaluationKey key, final UUID correlationId, final Evaluation evaluation) throws ContractException {
+        CompletableFuture<TransactionResponse> future = new CompletableFuture<>();
+        CompletableFuture<TransactionResponse> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            coalescedCount.incrementAndGet();
+            return await(existing, correlationId);
+        }
+
+        try {
+            TransactionResponse response = evaluation.evaluate();
+            future.complete(response);
+            return response;
+        } catch (ContractException | RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    private static TransactionResponse await(final CompletableFuture<TransactionResponse> future, final UUID correlationId)
+            throws ContractException {
+        TransactionResponse response;
+        try {
+            response = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GatewayRuntimeException("Interrupted waiting for concurrent evaluation", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ContractException) {
+                throw (ContractException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new GatewayRuntimeException(cause);
+        }
+
+        // Each caller gets its own correlation ID and payload array
+        byte[] payload = response.getPayload();
+        return new TransactionResponse(correlationId, response.getTransactionId(), payload != null ? payload.clone() : null);
+    }
+
+    /**
+     * Get the number of evaluations that waited for an identical evaluation already in progress instead of sending
+     * their own proposal to peers.
+     * @return Coalesced evaluation count.
+     */
+    long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this,
+                "inFlight=" + inFlight.size(),
+                "coalescedCount=" + coalescedCount.get());
+    }
+}
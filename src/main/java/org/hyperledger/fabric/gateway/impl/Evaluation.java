@@ -0,0 +1,19 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import org.hyperledger.fabric.gateway.ContractException;
+import org.hyperledger.fabric.gateway.TransactionResponse;
+
+/**
+ * Evaluation of a transaction function on peers, performed when a result cannot be obtained from an earlier or
+ * concurrent evaluation.
+ */
+@FunctionalInterface
+interface Evaluation {
+    TransactionResponse evaluate() throws ContractException;
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Identifies evaluations that produce the same result: the same transaction function invoked with equal arguments
+ * and transient data. Argument and transient data values are copied so the key is not affected by later changes to
+ * the caller's arrays.
+ */
+final class EvaluationKey {
+    private final String chaincodeId;
+    private final String name;
+    private final Object[] args;
+    private final Object[] transientData;
+    private final int hashCode;
+
+    private EvaluationKey(final String chaincodeId, final String name, final Object[] args, final Object[] transientData) {
+        this.chaincodeId = chaincodeId;
+        this.name = name;
+        this.args = args;
+        this.transientData = transientData;
+        this.hashCode = Arrays.deepHashCode(new Object[] {chaincodeId, name, args, transientData});
+    }
+
+    static EvaluationKey of(final String chaincodeId, final String name, final TransactionArgs args, final Map<String, byte[]> transientData) {
+        return new EvaluationKey(chaincodeId, name, args.copyValues(), transientValues(transientData));
+    }
+
+    private static Object[] transientValues(final Map<String, byte[]> transientData) {
+        if (transientData == null || transientData.isEmpty()) {
+            return new Object[0];
+        }
+        Object[] values = new Object[transientData.size() * 2];
+        int i = 0;
+        for (Map.Entry<String, byte[]> entry : new TreeMap<>(transientData).entrySet()) {
+            values[i++] = entry.getKey();
+            values[i++] = entry.getValue() != null ? entry.getValue().clone() : null;
+        }
+        return values;
+    }
+
+    String getChaincodeId() {
+        return chaincodeId;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof EvaluationKey)) {
+            return false;
+        }
+        EvaluationKey that = (EvaluationKey) other;
+        return hashCode == that.hashCode
+                && chaincodeId.equals(that.chaincodeId)
+                && name.equals(that.name)
+                && Arrays.deepEquals(args, that.args)
+                && Arrays.deepEquals(transientData, that.transientData);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this,
+                "chaincodeId=" + chaincodeId,
+                "name=" + name);
+    }
+}
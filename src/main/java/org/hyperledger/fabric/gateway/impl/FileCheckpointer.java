@@ -8,20 +8,23 @@ package org.hyperledger.fabric.gateway.impl;
 
 import java.io.IOException;
 import java.io.Reader;
-import java.io.Writer;
+import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
 import java.nio.channels.OverlappingFileLockException;
 import java.nio.charset.CharsetDecoder;
-import java.nio.charset.CharsetEncoder;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
@@ -29,52 +32,91 @@ import javax.json.Json;
 import javax.json.JsonObject;
 import javax.json.JsonReader;
 import javax.json.JsonString;
-import javax.json.JsonWriter;
 
+import org.hyperledger.fabric.gateway.CheckpointSyncPolicy;
 import org.hyperledger.fabric.gateway.spi.Checkpointer;
 
+/**
+ * Checkpointer that persists state to a file as an append-only log of block and transaction records. Each update
+ * appends a small record rather than rewriting the file, and the log is compacted back to just its header when the
+ * block number advances once it has grown beyond a threshold size.
+ * <p>Version 2 binary format:</p>
+ * <pre>
+ * header:      magic (int), version (int), block number (long)
+ * block:       type = 1 (byte), block number (long)
+ * transaction: type = 2 (byte), block number (long), ID length (int), UTF-8 ID bytes
+ * </pre>
+ * <p>State is recovered by replaying the records over the header block number. Replay stops at the first incomplete or
+ * unrecognised record, which can only be left at the end of the log by an interrupted write, and the log is truncated
+ * there. Compaction and migration of files in the version 1 JSON format write a complete new file alongside the log,
+ * which then atomically replaces it, so an interrupted rewrite leaves the previous file intact.</p>
+ */
 public final class FileCheckpointer implements Checkpointer {
     private static final Set<OpenOption> OPEN_OPTIONS = Collections.unmodifiableSet(EnumSet.of(
             StandardOpenOption.CREATE,
             StandardOpenOption.READ,
             StandardOpenOption.WRITE
     ));
-    private static final int VERSION = 1;
+    private static final int MAGIC = 0x46434B50; // "FCKP"
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = Integer.BYTES + Integer.BYTES + Long.BYTES;
+    private static final byte RECORD_TYPE_BLOCK = 1;
+    private static final byte RECORD_TYPE_TRANSACTION = 2;
+    private static final int BLOCK_RECORD_SIZE = Byte.BYTES + Long.BYTES;
+    private static final int TRANSACTION_RECORD_HEADER_SIZE = Byte.BYTES + Long.BYTES + Integer.BYTES;
+    private static final long DEFAULT_COMPACTION_THRESHOLD = 1024 * 1024;
     private static final String CONFIG_KEY_VERSION = "version";
     private static final String CONFIG_KEY_BLOCK = "block";
     private static final String CONFIG_KEY_TRANSACTIONS = "transactions";
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
 
     private final Path filePath;
-    private final FileChannel fileChannel;
-    private final Reader fileReader;
-    private final Writer fileWriter;
+    private final Path tempFilePath;
+    private FileChannel fileChannel;
+    private final CheckpointSyncPolicy syncPolicy;
+    private final long compactionThreshold;
     private final AtomicLong blockNumber = new AtomicLong(Checkpointer.UNSET_BLOCK_NUMBER);
     private final Set<String> transactionIds = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private long logSize;
+    private long lastSyncNanos = System.nanoTime();
+    private boolean isSyncPending = false;
 
     public FileCheckpointer(final Path checkpointFile) throws IOException {
+        this(checkpointFile, CheckpointSyncPolicy.none());
+    }
+
+    public FileCheckpointer(final Path checkpointFile, final CheckpointSyncPolicy syncPolicy) throws IOException {
+        this(checkpointFile, syncPolicy, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    FileCheckpointer(final Path checkpointFile, final CheckpointSyncPolicy syncPolicy, final long compactionThreshold)
+            throws IOException {
         boolean isFileAlreadyPresent = Files.exists(checkpointFile);
 
         filePath = checkpointFile;
+        tempFilePath = checkpointFile.resolveSibling(checkpointFile.getFileName() + TEMP_FILE_SUFFIX);
+        this.syncPolicy = syncPolicy;
+        this.compactionThreshold = compactionThreshold;
         fileChannel = FileChannel.open(filePath, OPEN_OPTIONS);
-        lockFile();
 
-        CharsetDecoder utf8Decoder = StandardCharsets.UTF_8.newDecoder();
-        fileReader = Channels.newReader(fileChannel, utf8Decoder, -1);
-
-        CharsetEncoder utf8Encoder = StandardCharsets.UTF_8.newEncoder();
-        fileWriter = Channels.newWriter(fileChannel, utf8Encoder, -1);
-
-        if (isFileAlreadyPresent) {
-            load();
-        } else {
-            save();
+        try {
+            lockFile(fileChannel);
+            Files.deleteIfExists(tempFilePath); // Left by interrupted rewrite
+            if (isFileAlreadyPresent) {
+                load();
+            } else {
+                rewrite();
+            }
+        } catch (IOException | RuntimeException e) {
+            fileChannel.close();
+            throw e;
         }
     }
 
-    private void lockFile() throws IOException {
+    private void lockFile(final FileChannel channel) throws IOException {
         final FileLock fileLock;
         try {
-            fileLock = fileChannel.tryLock();
+            fileLock = channel.tryLock();
         } catch (OverlappingFileLockException e) {
             throw new IOException("File is already locked: " + filePath, e);
         }
@@ -84,17 +126,96 @@ public final class FileCheckpointer implements Checkpointer {
     }
 
     private synchronized void load() throws IOException {
-        fileChannel.position(0);
-        JsonObject savedData = loadJson();
-        final int version = savedData.getInt(CONFIG_KEY_VERSION, 0);
-        if (version == 1) {
-            parseDataV1(savedData);
+        if (isLogFormat()) {
+            loadLog();
         } else {
+            JsonObject savedData = loadJson();
+            final int version = savedData.getInt(CONFIG_KEY_VERSION, 0);
+            if (version == 1) {
+                parseDataV1(savedData);
+            } else {
+                throw new IOException("Unsupported checkpoint data version " + version + " from file: " + filePath);
+            }
+            rewrite(); // Migrate to current format
+        }
+    }
+
+    private boolean isLogFormat() throws IOException {
+        if (fileChannel.size() < HEADER_SIZE) {
+            return false;
+        }
+        ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES);
+        readFully(magic, 0);
+        return magic.getInt(0) == MAGIC;
+    }
+
+    private void loadLog() throws IOException {
+        long fileSize = fileChannel.size();
+        if (fileSize > Integer.MAX_VALUE) {
+            throw new IOException("Checkpoint file too large: " + filePath);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) fileSize);
+        readFully(buffer, 0);
+        buffer.flip();
+
+        buffer.getInt(); // Magic
+        final int version = buffer.getInt();
+        if (version != VERSION) {
             throw new IOException("Unsupported checkpoint data version " + version + " from file: " + filePath);
         }
+
+        blockNumber.set(buffer.getLong());
+        transactionIds.clear();
+
+        int validSize = buffer.position();
+        while (buffer.hasRemaining() && readRecord(buffer)) {
+            validSize = buffer.position();
+        }
+
+        logSize = validSize;
+        if (logSize < fileSize) {
+            fileChannel.truncate(logSize); // Discard partially written record
+        }
+    }
+
+    /**
+     * Apply the next record in a buffer.
+     * @param buffer Buffer positioned at the start of a record.
+     * @return true if a complete record was applied; false if the record is incomplete or not recognised.
+     */
+    private boolean readRecord(final ByteBuffer buffer) {
+        final byte type = buffer.get();
+        if (type == RECORD_TYPE_BLOCK) {
+            if (buffer.remaining() < Long.BYTES) {
+                return false;
+            }
+            blockNumber.set(buffer.getLong());
+            transactionIds.clear();
+        } else if (type == RECORD_TYPE_TRANSACTION) {
+            if (buffer.remaining() < Long.BYTES + Integer.BYTES) {
+                return false;
+            }
+            long recordBlockNumber = buffer.getLong();
+            int length = buffer.getInt();
+            if (length < 0 || buffer.remaining() < length) {
+                return false;
+            }
+            byte[] idBytes = new byte[length];
+            buffer.get(idBytes);
+            if (recordBlockNumber == blockNumber.get()) {
+                transactionIds.add(new String(idBytes, StandardCharsets.UTF_8));
+            }
+        } else {
+            return false;
+        }
+        return true;
     }
 
     private JsonObject loadJson() throws IOException {
+        fileChannel.position(0);
+        CharsetDecoder utf8Decoder = StandardCharsets.UTF_8.newDecoder();
+        Reader fileReader = Channels.newReader(fileChannel, utf8Decoder, -1);
         JsonReader jsonReader = Json.createReader(fileReader);
         try {
             return jsonReader.readObject();
@@ -121,29 +242,98 @@ public final class FileCheckpointer implements Checkpointer {
         }
     }
 
-    private synchronized void save() throws IOException {
-        JsonObject jsonData = buildJson();
-        fileChannel.position(0);
-        saveJson(jsonData);
-        fileChannel.truncate(fileChannel.position());
+    /**
+     * Replace the file with one containing a header and records for the current transaction IDs. The new content is
+     * written and forced to a temporary file, which is locked before it atomically replaces the checkpoint file so that
+     * the lock is held on the checkpoint file throughout.
+     */
+    private void rewrite() throws IOException {
+        long currentBlockNumber = blockNumber.get();
+        List<byte[]> ids = encode(transactionIds);
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + transactionRecordsSize(ids));
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(currentBlockNumber);
+        putTransactionRecords(buffer, currentBlockNumber, ids);
+        buffer.flip();
+
+        FileChannel newChannel = FileChannel.open(tempFilePath, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            lockFile(newChannel);
+            while (buffer.hasRemaining()) {
+                newChannel.write(buffer);
+            }
+            newChannel.force(false);
+            Files.move(tempFilePath, filePath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            newChannel.close();
+            Files.deleteIfExists(tempFilePath);
+            throw e;
+        }
+
+        fileChannel.close(); // Releases lock on the replaced file
+        fileChannel = newChannel;
+        logSize = buffer.limit();
+
+        GatewayUtils.forceDirectory(filePath.toAbsolutePath().getParent());
+        lastSyncNanos = System.nanoTime();
+        isSyncPending = false;
     }
 
-    private JsonObject buildJson() {
-        return Json.createObjectBuilder()
-                    .add(CONFIG_KEY_VERSION, VERSION)
-                    .add(CONFIG_KEY_BLOCK, blockNumber.get())
-                    .add(CONFIG_KEY_TRANSACTIONS, Json.createArrayBuilder(transactionIds))
-                    .build();
+    private static List<byte[]> encode(final Collection<String> values) {
+        List<byte[]> results = new ArrayList<>(values.size());
+        values.forEach(value -> results.add(value.getBytes(StandardCharsets.UTF_8)));
+        return results;
     }
 
-    private void saveJson(final JsonObject json) throws IOException {
-        JsonWriter jsonWriter = Json.createWriter(fileWriter);
-        try {
-            jsonWriter.writeObject(json);
-        } catch (RuntimeException e) {
-            throw new IOException("Failed to write checkpoint data to file: " + filePath, e);
+    private static int transactionRecordsSize(final List<byte[]> ids) {
+        return ids.stream()
+                .mapToInt(id -> TRANSACTION_RECORD_HEADER_SIZE + id.length)
+                .sum();
+    }
+
+    private static void putTransactionRecords(final ByteBuffer buffer, final long recordBlockNumber, final List<byte[]> ids) {
+        ids.forEach(id -> buffer.put(RECORD_TYPE_TRANSACTION)
+                .putLong(recordBlockNumber)
+                .putInt(id.length)
+                .put(id));
+    }
+
+    private void append(final ByteBuffer records) throws IOException {
+        writeFully(records, logSize);
+        logSize += records.limit();
+    }
+
+    private void readFully(final ByteBuffer buffer, final long position) throws IOException {
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            int count = fileChannel.read(buffer, offset);
+            if (count < 0) {
+                throw new IOException("Unexpected end of checkpoint file: " + filePath);
+            }
+            offset += count;
+        }
+    }
+
+    private void writeFully(final ByteBuffer buffer, final long position) throws IOException {
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            offset += fileChannel.write(buffer, offset);
+        }
+    }
+
+    private void syncIfRequired() throws IOException {
+        if (syncPolicy.isSyncRequired(System.nanoTime() - lastSyncNanos)) {
+            sync();
+        } else {
+            isSyncPending = true;
         }
-        fileWriter.flush();
+    }
+
+    private void sync() throws IOException {
+        fileChannel.force(false);
+        lastSyncNanos = System.nanoTime();
+        isSyncPending = false;
     }
 
     @Override
@@ -153,9 +343,19 @@ public final class FileCheckpointer implements Checkpointer {
 
     @Override
     public synchronized void setBlockNumber(final long blockNumber) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(BLOCK_RECORD_SIZE);
+        record.put(RECORD_TYPE_BLOCK).putLong(blockNumber);
+        record.flip();
+        append(record);
+
         this.blockNumber.set(blockNumber);
         transactionIds.clear();
-        save();
+
+        if (logSize >= compactionThreshold) {
+            rewrite(); // Compact to just a header, since there are no transaction IDs for the new block
+        } else {
+            syncIfRequired();
+        }
     }
 
     @Override
@@ -164,20 +364,56 @@ public final class FileCheckpointer implements Checkpointer {
     }
 
     @Override
-    public synchronized void addTransactionId(final String transactionId) throws IOException {
-        transactionIds.add(transactionId);
-        save();
+    public void addTransactionId(final String transactionId) throws IOException {
+        addTransactionIds(Collections.singleton(transactionId));
+    }
+
+    @Override
+    public boolean containsTransactionId(final String transactionId) {
+        return transactionIds.contains(transactionId);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>All the transaction IDs are written to the file in a single operation.</p>
+     */
     @Override
-    public void close() throws IOException {
-        fileChannel.close(); // Also releases lock
+    public synchronized void addTransactionIds(final Collection<String> newTransactionIds) throws IOException {
+        List<String> additions = new ArrayList<>(newTransactionIds.size());
+        newTransactionIds.stream()
+                .filter(transactionId -> !transactionIds.contains(transactionId))
+                .distinct()
+                .forEach(additions::add);
+        if (additions.isEmpty()) {
+            return;
+        }
+
+        List<byte[]> ids = encode(additions);
+        ByteBuffer records = ByteBuffer.allocate(transactionRecordsSize(ids));
+        putTransactionRecords(records, blockNumber.get(), ids);
+        records.flip();
+        append(records);
+
+        transactionIds.addAll(additions);
+        syncIfRequired();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            if (isSyncPending && syncPolicy.isSyncOnClose() && fileChannel.isOpen()) {
+                sync();
+            }
+        } finally {
+            fileChannel.close(); // Also releases lock
+        }
     }
 
     @Override
     public String toString() {
         return GatewayUtils.toString(this,
                 "file=" + filePath,
+                "syncPolicy=" + syncPolicy,
                 "blockNumber=" + blockNumber.get(),
                 "transactionIds=" + transactionIds);
     }
@@ -23,19 +23,28 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.hyperledger.fabric.gateway.BlockEventType;
 import org.hyperledger.fabric.gateway.DefaultCommitHandlers;
 import org.hyperledger.fabric.gateway.DefaultQueryHandlers;
+import org.hyperledger.fabric.gateway.CircuitBreakerOptions;
+import org.hyperledger.fabric.gateway.EvaluateCacheOptions;
 import org.hyperledger.fabric.gateway.Gateway;
 import org.hyperledger.fabric.gateway.GatewayRuntimeException;
 import org.hyperledger.fabric.gateway.Identities;
 import org.hyperledger.fabric.gateway.Identity;
 import org.hyperledger.fabric.gateway.Network;
+import org.hyperledger.fabric.gateway.OrdererQueueMetrics;
 import org.hyperledger.fabric.gateway.Wallet;
 import org.hyperledger.fabric.gateway.X509Identity;
+import org.hyperledger.fabric.gateway.impl.event.EventPeers;
+import org.hyperledger.fabric.gateway.impl.event.OrderedBlockEventSource;
 import org.hyperledger.fabric.gateway.impl.identity.X509IdentityProvider;
 import org.hyperledger.fabric.gateway.spi.CommitHandlerFactory;
 import org.hyperledger.fabric.gateway.spi.QueryHandlerFactory;
@@ -55,6 +64,10 @@ public final class GatewayImpl implements Gateway {
 
     private static final long DEFAULT_COMMIT_TIMEOUT = 5;
     private static final TimeUnit DEFAULT_COMMIT_TIMEOUT_UNIT = TimeUnit.MINUTES;
+    private static final long DEFAULT_ORDERER_TIMEOUT = 60;
+    private static final TimeUnit DEFAULT_ORDERER_TIMEOUT_UNIT = TimeUnit.SECONDS;
+    private static final ExecutorService DEFAULT_EXECUTOR =
+            Executors.newCachedThreadPool(GatewayUtils.newDaemonThreadFactory("fabric-gateway"));
 
     private final HFClient client;
     private final NetworkConfig networkConfig;
@@ -64,6 +77,16 @@ public final class GatewayImpl implements Gateway {
     private final TimePeriod commitTimeout;
     private final QueryHandlerFactory queryHandlerFactory;
     private final boolean discovery;
+    private final Executor executor;
+    private final TimePeriod ordererTimeout;
+    private final OrdererQueue ordererQueue;
+    private final int blockReorderWindow;
+    private final BlockEventType commitEventType;
+    private final BlockEventType listenerEventType;
+    private final Executor blockDecodeExecutor;
+    private final EvaluateCacheOptions evaluateCacheOptions;
+    private final boolean evaluateCoalescing;
+    private final CircuitBreakerOptions circuitBreakerOptions;
 
     public static final class Builder implements Gateway.Builder {
         private CommitHandlerFactory commitHandlerFactory = DefaultCommitHandlers.MSPID_SCOPE_ALLFORTX;
@@ -73,6 +96,18 @@ public final class GatewayImpl implements Gateway {
         private Identity identity = null;
         private HFClient client;
         private boolean discovery = false;
+        private Executor executor = DEFAULT_EXECUTOR;
+        private TimePeriod ordererTimeout = new TimePeriod(DEFAULT_ORDERER_TIMEOUT, DEFAULT_ORDERER_TIMEOUT_UNIT);
+        private int ordererQueueCapacity = Integer.MAX_VALUE;
+        private boolean ordererQueueFailFast = false;
+        private Executor ordererExecutor = null;
+        private int blockReorderWindow = OrderedBlockEventSource.DEFAULT_WINDOW_SIZE;
+        private BlockEventType commitEventType = BlockEventType.FILTERED;
+        private BlockEventType listenerEventType = BlockEventType.FULL;
+        private Executor blockDecodeExecutor = null;
+        private EvaluateCacheOptions evaluateCacheOptions = null;
+        private boolean evaluateCoalescing = false;
+        private CircuitBreakerOptions circuitBreakerOptions = null;
 
         private static final class ExposedByteArrayOutputStream extends ByteArrayOutputStream {
             public byte[] getInternalBuffer() {
@@ -148,12 +183,106 @@ public final class GatewayImpl implements Gateway {
             return this;
         }
 
+        @Override
+        public Builder commitEventType(final BlockEventType eventType) {
+            if (null == eventType) {
+                throw new IllegalArgumentException("Commit event type must not be null");
+            }
+            this.commitEventType = eventType;
+            return this;
+        }
+
+        @Override
+        public Builder listenerEventType(final BlockEventType eventType) {
+            if (null == eventType) {
+                throw new IllegalArgumentException("Listener event type must not be null");
+            }
+            this.listenerEventType = eventType;
+            return this;
+        }
+
+        @Override
+        public Builder blockDecodeExecutor(final Executor executor) {
+            if (null == executor) {
+                throw new IllegalArgumentException("Executor must not be null");
+            }
+            this.blockDecodeExecutor = executor;
+            return this;
+        }
+
+        @Override
+        public Builder evaluateCache(final EvaluateCacheOptions options) {
+            if (null == options) {
+                throw new IllegalArgumentException("Evaluate cache options must not be null");
+            }
+            this.evaluateCacheOptions = options;
+            return this;
+        }
+
+        @Override
+        public Builder evaluateCoalescing(final boolean enabled) {
+            this.evaluateCoalescing = enabled;
+            return this;
+        }
+
+        @Override
+        public Builder peerCircuitBreaker(final CircuitBreakerOptions options) {
+            if (null == options) {
+                throw new IllegalArgumentException("Circuit breaker options must not be null");
+            }
+            this.circuitBreakerOptions = options;
+            return this;
+        }
+
         @Override
         public Builder discovery(final boolean enabled) {
             this.discovery = enabled;
             return this;
         }
 
+        @Override
+        public Builder executor(final Executor executor) {
+            if (null == executor) {
+                throw new IllegalArgumentException("Executor must not be null");
+            }
+            this.executor = executor;
+            return this;
+        }
+
+        @Override
+        public Builder ordererTimeout(final long timeout, final TimeUnit timeUnit) {
+            this.ordererTimeout = new TimePeriod(timeout, timeUnit);
+            return this;
+        }
+
+        @Override
+        public Builder ordererQueue(final int capacity, final boolean failFast) {
+            if (capacity < 1) {
+                throw new IllegalArgumentException("Orderer queue capacity must be at least 1: " + capacity);
+            }
+            this.ordererQueueCapacity = capacity;
+            this.ordererQueueFailFast = failFast;
+            return this;
+        }
+
+        @Override
+        public Builder ordererExecutor(final Executor executor) {
+            if (null == executor) {
+                throw new IllegalArgumentException("Executor must not be null");
+            }
+            this.ordererExecutor = executor;
+            return this;
+        }
+
+        @Override
+        public Builder blockReorderWindow(final int windowSize) {
+            if (windowSize < 1) {
+                throw new IllegalArgumentException("Block reorder window must be at least 1: " + windowSize);
+            }
+            this.blockReorderWindow = windowSize;
+            return this;
+        }
+
         public Builder client(final HFClient client) {
             this.client = client;
             return this;
@@ -170,6 +299,17 @@ public final class GatewayImpl implements Gateway {
         this.commitTimeout = builder.commitTimeout;
         this.queryHandlerFactory = builder.queryHandlerFactory;
         this.discovery = builder.discovery;
+        this.executor = builder.executor;
+        this.ordererTimeout = builder.ordererTimeout;
+        Executor ordererExecutor = builder.ordererExecutor != null ? builder.ordererExecutor : builder.executor;
+        this.ordererQueue = new OrdererQueue(builder.ordererQueueCapacity, builder.ordererQueueFailFast, ordererExecutor);
+        this.blockReorderWindow = builder.blockReorderWindow;
+        this.commitEventType = builder.commitEventType;
+        this.listenerEventType = builder.listenerEventType;
+        this.blockDecodeExecutor = builder.blockDecodeExecutor;
+        this.evaluateCacheOptions = builder.evaluateCacheOptions;
+        this.evaluateCoalescing = builder.evaluateCoalescing;
+        this.circuitBreakerOptions = builder.circuitBreakerOptions;
 
         if (builder.client != null) {
             // Only for testing!
@@ -202,6 +342,16 @@ public final class GatewayImpl implements Gateway {
         this.commitTimeout = that.commitTimeout;
         this.queryHandlerFactory = that.queryHandlerFactory;
         this.discovery = that.discovery;
+        this.executor = that.executor;
+        this.ordererTimeout = that.ordererTimeout;
+        this.ordererQueue = that.ordererQueue;
+        this.blockReorderWindow = that.blockReorderWindow;
+        this.commitEventType = that.commitEventType;
+        this.listenerEventType = that.listenerEventType;
+        this.blockDecodeExecutor = that.blockDecodeExecutor;
+        this.evaluateCacheOptions = that.evaluateCacheOptions;
+        this.evaluateCoalescing = that.evaluateCoalescing;
+        this.circuitBreakerOptions = that.circuitBreakerOptions;
         this.networkConfig = that.networkConfig;
         this.identity = that.identity;
 
@@ -229,9 +379,19 @@ public final class GatewayImpl implements Gateway {
         NetworkImpl network = networks.get(networkName);
         if (network == null) {
             Channel channel = client.getChannel(networkName);
-            if (channel == null && networkConfig != null) {
+            BlockEventType channelEventType = BlockEventType.FULL;
+            if (channel != null) {
+                if (commitEventType != BlockEventType.FULL) {
+                    LOG.info("Commit event type " + commitEventType + " not applied to existing channel " + networkName);
+                }
+            } else if (networkConfig != null) {
                 try {
                     channel = client.loadChannelFromConfig(networkName, networkConfig);
+                    // Peers were created for this channel and are not yet visible to callers, so can safely be replaced
+                    if (commitEventType != BlockEventType.FULL) {
+                        EventPeers.setEventType(client, channel, commitEventType);
+                        channelEventType = commitEventType;
+                    }
                 } catch (InvalidArgumentException | NetworkConfigurationException ex) {
                     LOG.info("Unable to load channel configuration from connection profile: " + ex.getLocalizedMessage());
                 }
@@ -244,8 +404,9 @@ public final class GatewayImpl implements Gateway {
                     for (Peer peer : getPeersForOrg()) {
                         PeerOptions peerOptions = PeerOptions.createPeerOptions()
                                 .setPeerRoles(EnumSet.allOf(PeerRole.class));
-                        channel.addPeer(peer, peerOptions);
+                        channel.addPeer(peer, withCommitEventType(peerOptions));
                     }
+                    channelEventType = commitEventType;
                 } catch (InvalidArgumentException e) {
                     // we've already checked the channel status
                     throw new GatewayRuntimeException(e);
@@ -281,7 +442,7 @@ public final class GatewayImpl implements Gateway {
                     LOG.warn("Mutual TLS service discovery properties not set on channel.");
                 }
             }
-            network = new NetworkImpl(channel, this);
+            network = new NetworkImpl(channel, this, channelEventType);
             networks.put(networkName, network);
         }
         return network;
@@ -292,6 +453,11 @@ public final class GatewayImpl implements Gateway {
         return identity;
     }
 
+    @Override
+    public OrdererQueueMetrics getOrdererQueueMetrics() {
+        return ordererQueue;
+    }
+
     public HFClient getClient() {
         return client;
     }
@@ -312,10 +478,55 @@ public final class GatewayImpl implements Gateway {
         return discovery;
     }
 
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    public TimePeriod getOrdererTimeout() {
+        return ordererTimeout;
+    }
+
+    public OrdererQueue getOrdererQueue() {
+        return ordererQueue;
+    }
+
+    public int getBlockReorderWindow() {
+        return blockReorderWindow;
+    }
+
+    public BlockEventType getCommitEventType() {
+        return commitEventType;
+    }
+
+    public BlockEventType getListenerEventType() {
+        return listenerEventType;
+    }
+
+    public Optional<Executor> getBlockDecodeExecutor() {
+        return Optional.ofNullable(blockDecodeExecutor);
+    }
+
+    public Optional<EvaluateCacheOptions> getEvaluateCacheOptions() {
+        return Optional.ofNullable(evaluateCacheOptions);
+    }
+
+    public boolean isEvaluateCoalescingEnabled() {
+        return evaluateCoalescing;
+    }
+
+    public Optional<CircuitBreakerOptions> getCircuitBreakerOptions() {
+        return Optional.ofNullable(circuitBreakerOptions);
+    }
+
     public GatewayImpl newInstance() {
         return new GatewayImpl(this);
     }
 
+    private PeerOptions withCommitEventType(final PeerOptions options) {
+        // Leave peer options unchanged unless a different commit event type has been requested
+        return commitEventType == BlockEventType.FULL ? options : EventPeers.withEventType(options, commitEventType);
+    }
+
     private Collection<Peer> getPeersForOrg() {
         Collection<Peer> peers = new ArrayList<>();
         List<String> peerNames = networkConfig.getClientOrganization().getPeerNames();
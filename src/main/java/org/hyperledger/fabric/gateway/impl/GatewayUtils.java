@@ -9,7 +9,14 @@ package org.hyperledger.fabric.gateway.impl;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 /**
@@ -28,9 +35,65 @@ public final class GatewayUtils {
                 .collect(Collectors.joining(", ", "(", ")"));
     }
 
+    /**
+     * Create a thread factory that produces daemon threads, so that background work does not prevent JVM exit.
+     * @param namePrefix Prefix for thread names.
+     * @return A thread factory.
+     */
+    public static ThreadFactory newDaemonThreadFactory(final String namePrefix) {
+        ThreadFactory defaultFactory = Executors.defaultThreadFactory();
+        AtomicInteger threadCount = new AtomicInteger(0);
+        return runnable -> {
+            Thread thread = defaultFactory.newThread(runnable);
+            thread.setName(namePrefix + '-' + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Get the remaining bytes of each buffer without changing buffer positions. A buffer's backing array is used
+     * directly, without copying, when it contains exactly the remaining bytes.
+     * @param buffers Byte buffers.
+     * @return Byte arrays.
+     */
+    public static byte[][] toByteArrays(final ByteBuffer[] buffers) {
+        byte[][] results = new byte[buffers.length][];
+        for (int i = 0; i < buffers.length; i++) {
+            results[i] = toByteArray(buffers[i]);
+        }
+        return results;
+    }
+
+    private static byte[] toByteArray(final ByteBuffer buffer) {
+        if (buffer.hasArray() && buffer.arrayOffset() == 0 && buffer.position() == 0 && buffer.remaining() == buffer.array().length) {
+            return buffer.array();
+        }
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
     public static void copy(final InputStream input, final OutputStream output) throws IOException {
         for (int b; (b = input.read()) >= 0; ) { // checkstyle:ignore-line:InnerAssignment
             output.write(b);
         }
     }
+
+    /**
+     * Force changes to a directory, such as a file being renamed into it, to the storage device.
+     * @param directory A directory.
+     * @throws IOException if the directory could not be forced to the storage device.
+     */
+    public static void forceDirectory(final Path directory) throws IOException {
+        final FileChannel channel;
+        try {
+            channel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (IOException e) {
+            return; // Directories cannot be opened on some platforms, such as Windows, which persist renames anyway
+        }
+        try (FileChannel directoryChannel = channel) {
+            directoryChannel.force(true);
+        }
+    }
 }
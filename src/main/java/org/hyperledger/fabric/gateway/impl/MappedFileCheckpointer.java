@@ -0,0 +1,443 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import org.hyperledger.fabric.gateway.CheckpointSyncPolicy;
+import org.hyperledger.fabric.gateway.spi.Checkpointer;
+
+/**
+ * Checkpointer that persists state in a memory-mapped file, so checkpoint updates are memory writes rather than
+ * system calls. The file has a fixed header followed by an open-addressed hash table of transaction IDs:
+ * <pre>
+ * header: magic (int), version (int), block number (long), epoch (long), count (int), capacity (int)
+ * slot:   epoch (long), fingerprint (long), ID length (int), ID characters (char[MAX_TRANSACTION_ID_LENGTH])
+ * </pre>
+ * <p>A slot is occupied only if its epoch matches the header epoch. Changing the block number increments the epoch,
+ * which empties the table without touching the slots. When the table becomes too full, a table of double the size is
+ * populated in a separate file, which then atomically replaces the checkpoint file, so an interrupted resize leaves
+ * the previous table intact.</p>
+ * <p>Looking up or adding a transaction ID does not allocate, including through the {@link Set} returned by
+ * {@link #getTransactionIds()}. Changes are forced to the storage device according to the supplied
+ * {@link CheckpointSyncPolicy}; otherwise the operating system writes them back in its own time.</p>
+ */
+public final class MappedFileCheckpointer implements Checkpointer {
+    /** Maximum length of transaction IDs that can be stored. Fabric transaction IDs are 64 characters. */
+    public static final int MAX_TRANSACTION_ID_LENGTH = 118;
+
+    private static final Set<OpenOption> OPEN_OPTIONS = Collections.unmodifiableSet(EnumSet.of(
+            StandardOpenOption.CREATE,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE
+    ));
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+    private static final int MAGIC = 0x46434B4D; // "FCKM"
+    private static final int VERSION = 1;
+
+    private static final int HEADER_MAGIC_OFFSET = 0;
+    private static final int HEADER_VERSION_OFFSET = 4;
+    private static final int HEADER_BLOCK_OFFSET = 8;
+    private static final int HEADER_EPOCH_OFFSET = 16;
+    private static final int HEADER_COUNT_OFFSET = 24;
+    private static final int HEADER_CAPACITY_OFFSET = 28;
+    private static final int HEADER_SIZE = 32;
+
+    private static final int SLOT_EPOCH_OFFSET = 0;
+    private static final int SLOT_FINGERPRINT_OFFSET = 8;
+    private static final int SLOT_LENGTH_OFFSET = 16;
+    private static final int SLOT_CHARS_OFFSET = 20;
+    private static final int SLOT_SIZE = SLOT_CHARS_OFFSET + MAX_TRANSACTION_ID_LENGTH * Character.BYTES;
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MAX_CAPACITY = (Integer.MAX_VALUE - HEADER_SIZE) / SLOT_SIZE;
+    private static final int LOAD_FACTOR_DIVISOR = 4;
+    private static final int LOAD_FACTOR_MULTIPLIER = 3;
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final int HALF_LONG_BITS = 32;
+
+    private final Path filePath;
+    private final Path tempFilePath;
+    private FileChannel fileChannel;
+    private final CheckpointSyncPolicy syncPolicy;
+    private final Set<String> transactionIdsView = new TransactionIdSet();
+    private MappedByteBuffer buffer;
+    private int capacity;
+    private long epoch;
+    private long lastSyncNanos = System.nanoTime();
+    private boolean isSyncPending = false;
+
+    public MappedFileCheckpointer(final Path checkpointFile) throws IOException {
+        this(checkpointFile, CheckpointSyncPolicy.none());
+    }
+
+    public MappedFileCheckpointer(final Path checkpointFile, final CheckpointSyncPolicy syncPolicy) throws IOException {
+        boolean isFileAlreadyPresent = Files.exists(checkpointFile);
+
+        filePath = checkpointFile;
+        tempFilePath = checkpointFile.resolveSibling(checkpointFile.getFileName() + TEMP_FILE_SUFFIX);
+        this.syncPolicy = syncPolicy;
+        fileChannel = FileChannel.open(filePath, OPEN_OPTIONS);
+
+        try {
+            lockFile(fileChannel);
+            Files.deleteIfExists(tempFilePath); // Left by interrupted resize
+            if (isFileAlreadyPresent) {
+                load();
+            } else {
+                initialize(INITIAL_CAPACITY, 1, Checkpointer.UNSET_BLOCK_NUMBER);
+            }
+        } catch (IOException | RuntimeException e) {
+            fileChannel.close();
+            throw e;
+        }
+    }
+
+    private void lockFile(final FileChannel channel) throws IOException {
+        final FileLock fileLock;
+        try {
+            fileLock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            throw new IOException("File is already locked: " + filePath, e);
+        }
+        if (fileLock == null) {
+            throw new IOException("Another process holds an overlapping lock for file: " + filePath);
+        }
+    }
+
+    private void initialize(final int slotCount, final long initialEpoch, final long blockNumber) throws IOException {
+        capacity = slotCount;
+        epoch = initialEpoch;
+        buffer = map(capacity);
+        buffer.putInt(HEADER_MAGIC_OFFSET, MAGIC);
+        buffer.putInt(HEADER_VERSION_OFFSET, VERSION);
+        buffer.putLong(HEADER_BLOCK_OFFSET, blockNumber);
+        buffer.putLong(HEADER_EPOCH_OFFSET, epoch);
+        buffer.putInt(HEADER_COUNT_OFFSET, 0);
+        buffer.putInt(HEADER_CAPACITY_OFFSET, capacity);
+        buffer.force();
+    }
+
+    private void load() throws IOException {
+        long fileSize = fileChannel.size();
+        if (fileSize < HEADER_SIZE) {
+            throw new IOException("Bad format of checkpoint data from file: " + filePath);
+        }
+
+        buffer = fileChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+        if (buffer.getInt(HEADER_MAGIC_OFFSET) != MAGIC) {
+            throw new IOException("Bad format of checkpoint data from file: " + filePath);
+        }
+        final int version = buffer.getInt(HEADER_VERSION_OFFSET);
+        if (version != VERSION) {
+            throw new IOException("Unsupported checkpoint data version " + version + " from file: " + filePath);
+        }
+        final int savedCapacity = buffer.getInt(HEADER_CAPACITY_OFFSET);
+        if (savedCapacity <= 0 || Integer.bitCount(savedCapacity) != 1 || savedCapacity > MAX_CAPACITY
+                || fileSize < fileSize(savedCapacity)) {
+            throw new IOException("Bad format of checkpoint data from file: " + filePath);
+        }
+
+        capacity = savedCapacity;
+        epoch = buffer.getLong(HEADER_EPOCH_OFFSET);
+        buffer = map(capacity);
+    }
+
+    private MappedByteBuffer map(final int slotCount) throws IOException {
+        return fileChannel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize(slotCount));
+    }
+
+    private static long fileSize(final int slotCount) {
+        return HEADER_SIZE + (long) slotCount * SLOT_SIZE;
+    }
+
+    private static void checkLength(final String transactionId) {
+        if (transactionId.length() > MAX_TRANSACTION_ID_LENGTH) {
+            throw new IllegalArgumentException("Transaction ID exceeds maximum length of " + MAX_TRANSACTION_ID_LENGTH
+                    + " characters: " + transactionId);
+        }
+    }
+
+    private static long fingerprint(final String transactionId) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0, n = transactionId.length(); i < n; i++) {
+            hash ^= transactionId.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private int slotOffset(final int index) {
+        return HEADER_SIZE + index * SLOT_SIZE;
+    }
+
+    private int firstIndex(final long fingerprint) {
+        return (int) (fingerprint ^ (fingerprint >>> HALF_LONG_BITS)) & (capacity - 1);
+    }
+
+    private boolean isOccupied(final int offset) {
+        return buffer.getLong(offset + SLOT_EPOCH_OFFSET) == epoch;
+    }
+
+    private boolean slotEquals(final int offset, final long fingerprint, final String transactionId) {
+        if (buffer.getLong(offset + SLOT_FINGERPRINT_OFFSET) != fingerprint) {
+            return false;
+        }
+        final int length = transactionId.length();
+        if (buffer.getInt(offset + SLOT_LENGTH_OFFSET) != length) {
+            return false;
+        }
+        final int charsOffset = offset + SLOT_CHARS_OFFSET;
+        for (int i = 0; i < length; i++) {
+            if (buffer.getChar(charsOffset + i * Character.BYTES) != transactionId.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String readSlot(final int offset) {
+        final int length = buffer.getInt(offset + SLOT_LENGTH_OFFSET);
+        final int charsOffset = offset + SLOT_CHARS_OFFSET;
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = buffer.getChar(charsOffset + i * Character.BYTES);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Find the slot containing the transaction ID, or the empty slot where it should be inserted.
+     * @return Slot offset.
+     */
+    private int findSlot(final String transactionId, final long fingerprint) {
+        for (int index = firstIndex(fingerprint); ; index = (index + 1) & (capacity - 1)) {
+            final int offset = slotOffset(index);
+            if (!isOccupied(offset) || slotEquals(offset, fingerprint, transactionId)) {
+                return offset;
+            }
+        }
+    }
+
+    private synchronized boolean contains(final String transactionId) {
+        if (transactionId.length() > MAX_TRANSACTION_ID_LENGTH) {
+            return false;
+        }
+        return isOccupied(findSlot(transactionId, fingerprint(transactionId)));
+    }
+
+    private synchronized int count() {
+        return buffer.getInt(HEADER_COUNT_OFFSET);
+    }
+
+    private synchronized List<String> snapshot() {
+        List<String> results = new ArrayList<>(count());
+        for (int index = 0; index < capacity; index++) {
+            final int offset = slotOffset(index);
+            if (isOccupied(offset)) {
+                results.add(readSlot(offset));
+            }
+        }
+        return results;
+    }
+
+    private boolean insert(final String transactionId) throws IOException {
+        final long fingerprint = fingerprint(transactionId);
+        final int offset = findSlot(transactionId, fingerprint);
+        if (isOccupied(offset)) {
+            return false;
+        }
+
+        final int count = count();
+        if ((count + 1) * LOAD_FACTOR_DIVISOR > capacity * LOAD_FACTOR_MULTIPLIER) {
+            grow();
+            return insert(transactionId);
+        }
+
+        final int length = transactionId.length();
+        final int charsOffset = offset + SLOT_CHARS_OFFSET;
+        for (int i = 0; i < length; i++) {
+            buffer.putChar(charsOffset + i * Character.BYTES, transactionId.charAt(i));
+        }
+        buffer.putInt(offset + SLOT_LENGTH_OFFSET, length);
+        buffer.putLong(offset + SLOT_FINGERPRINT_OFFSET, fingerprint);
+        buffer.putLong(offset + SLOT_EPOCH_OFFSET, epoch); // Marks slot as occupied so must be written last
+        buffer.putInt(HEADER_COUNT_OFFSET, count + 1);
+        return true;
+    }
+
+    private void grow() throws IOException {
+        if (capacity >= MAX_CAPACITY / 2) {
+            throw new IOException("Too many transaction IDs for checkpoint file: " + filePath);
+        }
+
+        List<String> existingIds = snapshot();
+        final long blockNumber = buffer.getLong(HEADER_BLOCK_OFFSET);
+        final FileChannel oldChannel = fileChannel;
+        final MappedByteBuffer oldBuffer = buffer;
+        final int oldCapacity = capacity;
+        final long oldEpoch = epoch;
+
+        // Populate the enlarged table in a new file, locked before it replaces the checkpoint file
+        fileChannel = FileChannel.open(tempFilePath, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            lockFile(fileChannel);
+            initialize(oldCapacity * 2, oldEpoch, blockNumber);
+            for (String transactionId : existingIds) {
+                insert(transactionId);
+            }
+            buffer.force();
+            Files.move(tempFilePath, filePath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            fileChannel.close();
+            Files.deleteIfExists(tempFilePath);
+            fileChannel = oldChannel;
+            buffer = oldBuffer;
+            capacity = oldCapacity;
+            epoch = oldEpoch;
+            throw e;
+        }
+
+        oldChannel.close(); // Releases lock on the replaced file
+        GatewayUtils.forceDirectory(filePath.toAbsolutePath().getParent());
+        lastSyncNanos = System.nanoTime();
+        isSyncPending = false;
+    }
+
+    private void clear() {
+        epoch++;
+        buffer.putLong(HEADER_EPOCH_OFFSET, epoch);
+        buffer.putInt(HEADER_COUNT_OFFSET, 0);
+    }
+
+    private void syncIfRequired() {
+        if (syncPolicy.isSyncRequired(System.nanoTime() - lastSyncNanos)) {
+            sync();
+        } else {
+            isSyncPending = true;
+        }
+    }
+
+    private void sync() {
+        buffer.force();
+        lastSyncNanos = System.nanoTime();
+        isSyncPending = false;
+    }
+
+    @Override
+    public synchronized long getBlockNumber() {
+        return buffer.getLong(HEADER_BLOCK_OFFSET);
+    }
+
+    @Override
+    public synchronized void setBlockNumber(final long blockNumber) {
+        clear();
+        buffer.putLong(HEADER_BLOCK_OFFSET, blockNumber);
+        syncIfRequired();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>The returned set is a read-only view of the checkpointer's current state.</p>
+     */
+    @Override
+    public Set<String> getTransactionIds() {
+        return transactionIdsView;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws IllegalArgumentException if the transaction ID is longer than {@link #MAX_TRANSACTION_ID_LENGTH}.
+     */
+    @Override
+    public synchronized void addTransactionId(final String transactionId) throws IOException {
+        checkLength(transactionId);
+        if (insert(transactionId)) {
+            syncIfRequired();
+        }
+    }
+
+    @Override
+    public boolean containsTransactionId(final String transactionId) {
+        return contains(transactionId);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Writes are forced to the storage device at most once for all the transaction IDs.</p>
+     * @throws IllegalArgumentException if any transaction ID is longer than {@link #MAX_TRANSACTION_ID_LENGTH}.
+     */
+    @Override
+    public synchronized void addTransactionIds(final Collection<String> transactionIds) throws IOException {
+        transactionIds.forEach(MappedFileCheckpointer::checkLength);
+
+        boolean isModified = false;
+        for (String transactionId : transactionIds) {
+            isModified |= insert(transactionId);
+        }
+        if (isModified) {
+            syncIfRequired();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            if (isSyncPending && syncPolicy.isSyncOnClose() && fileChannel.isOpen()) {
+                sync();
+            }
+        } finally {
+            fileChannel.close(); // Also releases lock
+        }
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this,
+                "file=" + filePath,
+                "syncPolicy=" + syncPolicy,
+                "blockNumber=" + getBlockNumber(),
+                "transactionIds=" + transactionIdsView);
+    }
+
+    private final class TransactionIdSet extends AbstractSet<String> {
+        @Override
+        public boolean contains(final Object o) {
+            return o instanceof String && MappedFileCheckpointer.this.contains((String) o);
+        }
+
+        @Override
+        public int size() {
+            return count();
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            return Collections.unmodifiableList(snapshot()).iterator();
+        }
+    }
+}
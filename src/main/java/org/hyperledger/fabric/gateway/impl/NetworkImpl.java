@@ -7,23 +7,41 @@
 package org.hyperledger.fabric.gateway.impl;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.hyperledger.fabric.gateway.BlockEventType;
+import org.hyperledger.fabric.gateway.CheckpointPolicy;
 import org.hyperledger.fabric.gateway.Contract;
+import org.hyperledger.fabric.gateway.EvaluateCacheMetrics;
 import org.hyperledger.fabric.gateway.GatewayRuntimeException;
+import org.hyperledger.fabric.gateway.ListenerDelivery;
+import org.hyperledger.fabric.gateway.ListenerMetrics;
 import org.hyperledger.fabric.gateway.Network;
+import org.hyperledger.fabric.gateway.PeerHealth;
+import org.hyperledger.fabric.gateway.impl.event.AsyncListenerSession;
+import org.hyperledger.fabric.gateway.impl.event.BatchCheckpointListener;
 import org.hyperledger.fabric.gateway.impl.event.BlockEventSource;
 import org.hyperledger.fabric.gateway.impl.event.BlockEventSourceFactory;
 import org.hyperledger.fabric.gateway.impl.event.BlockListenerSession;
-import org.hyperledger.fabric.gateway.impl.event.CommitListenerSession;
+import org.hyperledger.fabric.gateway.impl.event.CommitDispatcher;
+import org.hyperledger.fabric.gateway.impl.event.ContractEventRouter;
+import org.hyperledger.fabric.gateway.impl.event.IsolatedBlockEventSource;
 import org.hyperledger.fabric.gateway.impl.event.ListenerSession;
 import org.hyperledger.fabric.gateway.impl.event.Listeners;
 import org.hyperledger.fabric.gateway.impl.event.OrderedBlockEventSource;
+import org.hyperledger.fabric.gateway.impl.event.ParallelDecodeBlockEventSource;
 import org.hyperledger.fabric.gateway.impl.event.ReplayListenerSession;
+import org.hyperledger.fabric.gateway.impl.event.ReplayMultiplexer;
+import org.hyperledger.fabric.gateway.impl.query.AdaptiveQueryHandler;
 import org.hyperledger.fabric.gateway.spi.Checkpointer;
 import org.hyperledger.fabric.gateway.spi.CommitListener;
 import org.hyperledger.fabric.gateway.spi.QueryHandler;
@@ -34,24 +52,68 @@ import org.hyperledger.fabric.sdk.exception.InvalidArgumentException;
 import org.hyperledger.fabric.sdk.exception.TransactionException;
 
 public final class NetworkImpl implements Network, AutoCloseable {
+    private static final Log LOG = LogFactory.getLog(NetworkImpl.class);
+
     private final Channel channel;
     private final GatewayImpl gateway;
     private final Map<String, Contract> contracts = new ConcurrentHashMap<>();
     private final BlockEventSource channelBlockSource;
     private final BlockEventSource orderedBlockSource;
+    private final BlockEventSource cacheBlockSource;
+    private final CommitDispatcher commitDispatcher;
+    private final ReplayMultiplexer replayMultiplexer;
+    private final ContractEventRouter contractEventRouter;
     private final QueryHandler queryHandler;
+    private final EvaluateCache evaluateCache;
+    private final EvaluateCoalescer evaluateCoalescer;
+    private final PeerCircuitBreakers circuitBreakers;
     private final Map<Consumer<BlockEvent>, ListenerSession> blockListenerSessions = new HashMap<>();
-    private final Map<CommitListener, CommitListenerSession> commitListenerSessions = new ConcurrentHashMap<>();
+    private final Map<CommitListener, ListenerSession> commitListenerSessions = new ConcurrentHashMap<>();
 
-    NetworkImpl(final Channel channel, final GatewayImpl gateway) {
+    NetworkImpl(final Channel channel, final GatewayImpl gateway, final BlockEventType channelEventType) {
         this.channel = channel;
         this.gateway = gateway;
 
         initializeChannel();
 
+        // Channel peers deliver blocks of the channel event type, which are used for commit handling
+        BlockEventType listenerEventType = gateway.getListenerEventType();
         channelBlockSource = BlockEventSourceFactory.getInstance().newBlockEventSource(channel);
-        orderedBlockSource = new OrderedBlockEventSource(channelBlockSource);
+        if (channelEventType.compareTo(listenerEventType) >= 0) {
+            orderedBlockSource = new OrderedBlockEventSource(newDecodingBlockSource(channelBlockSource), -1, gateway.getBlockReorderWindow());
+            cacheBlockSource = orderedBlockSource;
+        } else {
+            // Listeners need more information than the channel peers deliver so use a separate connection, which is
+            // only opened when a block or contract listener is added
+            orderedBlockSource = new IsolatedBlockEventSource(this, listenerEventType);
+            // The evaluate cache only needs transaction validity and chaincode IDs so uses the channel peers' blocks
+            cacheBlockSource = gateway.getEvaluateCacheOptions().isPresent()
+                    ? new OrderedBlockEventSource(channelBlockSource, -1, gateway.getBlockReorderWindow())
+                    : null;
+        }
+        commitDispatcher = new CommitDispatcher(channelBlockSource);
+        replayMultiplexer = new ReplayMultiplexer(this);
+        contractEventRouter = new ContractEventRouter(orderedBlockSource);
         queryHandler = gateway.getQueryHandlerFactory().create(this);
+        evaluateCache = gateway.getEvaluateCacheOptions()
+                .map(options -> new EvaluateCache(cacheBlockSource, options))
+                .orElse(null);
+        evaluateCoalescer = gateway.isEvaluateCoalescingEnabled() ? new EvaluateCoalescer() : null;
+        circuitBreakers = gateway.getCircuitBreakerOptions()
+                .map(PeerCircuitBreakers::new)
+                .orElse(null);
+    }
+
+    /**
+     * Wrap a block event source to decode blocks in parallel if a decode executor is configured. The result must be
+     * closed or discarded along with the wrapped source.
+     * @param blockSource A block event source.
+     * @return A block event source delivering the same blocks in the same order.
+     */
+    public BlockEventSource newDecodingBlockSource(final BlockEventSource blockSource) {
+        return gateway.getBlockDecodeExecutor()
+                .<BlockEventSource>map(executor -> new ParallelDecodeBlockEventSource(blockSource, executor))
+                .orElse(blockSource);
     }
 
     private void initializeChannel() {
@@ -111,6 +173,92 @@ public final class NetworkImpl implements Network, AutoCloseable {
         return listener;
     }
 
+    @Override
+    public Consumer<BlockEvent> addBlockListener(final Checkpointer checkpointer, final CheckpointPolicy policy,
+                                                 final Consumer<BlockEvent> listener) throws IOException {
+        if (policy.isPerTransaction()) {
+            return addBlockListener(checkpointer, listener);
+        }
+
+        synchronized (blockListenerSessions) {
+            if (!blockListenerSessions.containsKey(listener)) {
+                BatchCheckpointListener checkpointListener = Listeners.checkpointBlock(checkpointer, policy, listener);
+                ListenerSession session = newBatchCheckpointListenerSession(checkpointer, checkpointListener);
+                blockListenerSessions.put(listener, session);
+            }
+        }
+
+        return listener;
+    }
+
+    @Override
+    public Consumer<BlockEvent> addBlockListener(final ListenerDelivery delivery, final Consumer<BlockEvent> listener) {
+        synchronized (blockListenerSessions) {
+            blockListenerSessions.computeIfAbsent(listener, k -> newListenerSession(delivery, listener));
+        }
+        return listener;
+    }
+
+    @Override
+    public Consumer<BlockEvent> addBlockListener(final Checkpointer checkpointer, final ListenerDelivery delivery,
+                                                 final Consumer<BlockEvent> listener) throws IOException {
+        synchronized (blockListenerSessions) {
+            if (!blockListenerSessions.containsKey(listener)) {
+                Consumer<BlockEvent> checkpointListener = Listeners.checkpointBlock(checkpointer, listener);
+                ListenerSession session = newCheckpointListenerSession(checkpointer, delivery, checkpointListener);
+                blockListenerSessions.put(listener, session);
+            }
+        }
+
+        return listener;
+    }
+
+    @Override
+    public Optional<ListenerMetrics> getBlockListenerMetrics(final Consumer<BlockEvent> listener) {
+        final ListenerSession session;
+        synchronized (blockListenerSessions) {
+            session = blockListenerSessions.get(listener);
+        }
+        return getListenerMetrics(session);
+    }
+
+    @Override
+    public Collection<PeerHealth> getQueryPeerHealth() {
+        if (queryHandler instanceof AdaptiveQueryHandler) {
+            return ((AdaptiveQueryHandler) queryHandler).getPeerHealth();
+        }
+        return Collections.emptyList();
+    }
+
+    @Override
+    public Optional<EvaluateCacheMetrics> getEvaluateCacheMetrics() {
+        return Optional.ofNullable(evaluateCache);
+    }
+
+    /**
+     * Get the cache of evaluated transaction results.
+     * @return The cache, or null if evaluate caching is not enabled.
+     */
+    EvaluateCache getEvaluateCache() {
+        return evaluateCache;
+    }
+
+    /**
+     * Get the coalescer used to share concurrent identical evaluations.
+     * @return The coalescer, or null if evaluate coalescing is not enabled.
+     */
+    EvaluateCoalescer getEvaluateCoalescer() {
+        return evaluateCoalescer;
+    }
+
+    /**
+     * Get the circuit breakers for peers of this network.
+     * @return The circuit breakers, or null if circuit breakers are not enabled.
+     */
+    PeerCircuitBreakers getPeerCircuitBreakers() {
+        return circuitBreakers;
+    }
+
     @Override
     public Consumer<BlockEvent> addBlockListener(final long startBlock, final Consumer<BlockEvent> listener) {
         synchronized (blockListenerSessions) {
@@ -131,6 +279,55 @@ public final class NetworkImpl implements Network, AutoCloseable {
         return new ReplayListenerSession(this, listener, blockNumber);
     }
 
+    /**
+     * Create a checkpoint listener session that checkpoints any outstanding position when it is closed.
+     * @param checkpointer Checkpointer.
+     * @param listener Batch checkpoint listener.
+     * @return A listener session.
+     * @throws IOException if an error occurs establishing checkpointing.
+     */
+    public ListenerSession newBatchCheckpointListenerSession(final Checkpointer checkpointer,
+                                                             final BatchCheckpointListener listener) throws IOException {
+        ListenerSession session = newCheckpointListenerSession(checkpointer, (Consumer<BlockEvent>) listener);
+        return () -> {
+            session.close();
+            try {
+                listener.flush();
+            } catch (IOException e) {
+                LOG.warn("Failed to checkpoint on close: " + listener, e);
+            }
+        };
+    }
+
+    public ListenerSession newListenerSession(final ListenerDelivery delivery, final Consumer<BlockEvent> listener) {
+        try {
+            return newListenerSession(delivery, listener, sessionListener -> new BlockListenerSession(orderedBlockSource, sessionListener));
+        } catch (IOException e) {
+            // Not thrown when attaching to the shared block source
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public ListenerSession newCheckpointListenerSession(final Checkpointer checkpointer, final ListenerDelivery delivery,
+                                                        final Consumer<BlockEvent> listener) throws IOException {
+        return newListenerSession(delivery, listener, sessionListener -> newCheckpointListenerSession(checkpointer, sessionListener));
+    }
+
+    private static ListenerSession newListenerSession(final ListenerDelivery delivery, final Consumer<BlockEvent> listener,
+                                                      final AsyncListenerSession.SessionFactory sessionFactory) throws IOException {
+        if (!delivery.isAsynchronous()) {
+            return sessionFactory.newSession(listener);
+        }
+        return new AsyncListenerSession(listener, delivery, sessionFactory);
+    }
+
+    public static Optional<ListenerMetrics> getListenerMetrics(final ListenerSession session) {
+        if (session instanceof AsyncListenerSession) {
+            return Optional.of(((AsyncListenerSession) session).getMetrics());
+        }
+        return Optional.empty();
+    }
+
     @Override
     public void removeBlockListener(final Consumer<BlockEvent> listener) {
         final ListenerSession session;
@@ -147,13 +344,13 @@ public final class NetworkImpl implements Network, AutoCloseable {
                                             final Collection<Peer> peers,
                                             final String transactionId) {
         commitListenerSessions.computeIfAbsent(listener, k ->
-                new CommitListenerSession(channelBlockSource, listener, peers, transactionId));
+                commitDispatcher.addCommitListener(listener, peers, transactionId));
         return listener;
     }
 
     @Override
     public void removeCommitListener(final CommitListener listener) {
-        CommitListenerSession session = commitListenerSessions.remove(listener);
+        ListenerSession session = commitListenerSessions.remove(listener);
         if (session != null) {
             session.close();
         }
@@ -167,6 +364,14 @@ public final class NetworkImpl implements Network, AutoCloseable {
         return orderedBlockSource;
     }
 
+    public ReplayMultiplexer getReplayMultiplexer() {
+        return replayMultiplexer;
+    }
+
+    public ContractEventRouter getContractEventRouter() {
+        return contractEventRouter;
+    }
+
     @Override
     public void close() {
         synchronized (blockListenerSessions) {
@@ -176,6 +381,15 @@ public final class NetworkImpl implements Network, AutoCloseable {
         commitListenerSessions.values().forEach(ListenerSession::close);
         commitListenerSessions.clear();
 
+        commitDispatcher.close();
+        replayMultiplexer.close();
+        contractEventRouter.close();
+        if (evaluateCache != null) {
+            evaluateCache.close();
+        }
+        if (cacheBlockSource != null && cacheBlockSource != orderedBlockSource) {
+            cacheBlockSource.close();
+        }
         orderedBlockSource.close();
         channelBlockSource.close();
 
@@ -187,8 +401,10 @@ public final class NetworkImpl implements Network, AutoCloseable {
         return GatewayUtils.toString(this,
                 "name=" + channel.getName(),
                 "channelBlockSource=" + channelBlockSource,
-                "commitListenerSessions=" + commitListenerSessions,
+                "commitDispatcher=" + commitDispatcher,
                 "orderedBlockSource=" + orderedBlockSource,
+                "replayMultiplexer=" + replayMultiplexer,
+                "contractEventRouter=" + contractEventRouter,
                 "blockListenerSessions=" + blockListenerSessions);
     }
 }
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.hyperledger.fabric.gateway.OrdererQueueFullException;
+import org.hyperledger.fabric.gateway.OrdererQueueMetrics;
+
+/**
+ * Bounded queue of transactions being sent to the ordering service. Sends are run on a dedicated executor so that
+ * the caller is not blocked by a slow orderer. The queue capacity limits the number of sends that are in progress at
+ * any time; a transaction occupies a place in the queue until the orderer has responded. When the queue is full,
+ * new sends either fail immediately with an {@link OrdererQueueFullException} or wait, in the order they were
+ * queued, for space to become available, depending on configuration. Waiting sends do not block any thread.
+ * <p>
+ * This implementation is thread-safe.
+ * </p>
+ */
+public final class OrdererQueue implements OrdererQueueMetrics {
+    private final int capacity;
+    private final boolean failFast;
+    private final Executor executor;
+    private final Semaphore permits;
+    private final Queue<CompletableFuture<Void>> waiters = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger(0);
+    private final AtomicInteger waitingCount = new AtomicInteger(0);
+    private final AtomicLong rejectedCount = new AtomicLong(0);
+
+    /**
+     * Constructor.
+     * @param capacity Maximum number of sends in progress.
+     * @param failFast {@code true} to reject sends immediately when the queue is full; {@code false} to wait for
+     *                 space to become available.
+     * @param executor Executor used to run sends.
+     */
+    public OrdererQueue(final int capacity, final boolean failFast, final Executor executor) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Orderer queue capacity must be at least 1: " + capacity);
+        }
+
+        this.capacity = capacity;
+        this.failFast = failFast;
+        this.executor = executor;
+        this.permits = new Semaphore(capacity);
+    }
+
+    /**
+     * Queue a send to the orderer.
+     * @param sender Function that sends to the orderer, returning a future that completes when the orderer responds.
+     * @param timeout Maximum time to wait for the orderer to respond, including any time spent waiting for space in
+     *                the queue.
+     * @param timeoutMessage Message for the timeout exception.
+     * @param <T> Send result type.
+     * @return A future that completes with the result of the send. Completes exceptionally with an
+     * {@link OrdererQueueFullException} if the queue is full and configured to fail fast, or a
+     * {@link TimeoutException} if the orderer did not respond in time.
+     */
+    public <T> CompletableFuture<T> send(final Supplier<CompletableFuture<T>> sender, final TimePeriod timeout,
+                                         final String timeoutMessage) {
+        CompletableFuture<Void> permit = acquire();
+        CompletableFuture<T> result = CompletableFutures.withTimeout(permit.thenCompose(ignored -> start(sender)),
+                timeout, timeoutMessage);
+
+        if (!permit.isDone()) {
+            result.whenComplete((value, failure) -> {
+                // Stop waiting if the send failed before space became available
+                if (failure != null && permit.completeExceptionally(CompletableFutures.unwrap(failure))) {
+                    if (waiters.remove(permit)) {
+                        waitingCount.decrementAndGet();
+                    }
+                    rejectedCount.incrementAndGet();
+                }
+            });
+        }
+        return result;
+    }
+
+    private CompletableFuture<Void> acquire() {
+        if (waiters.isEmpty() && permits.tryAcquire()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        if (failFast) {
+            rejectedCount.incrementAndGet();
+            return CompletableFutures.failed(new OrdererQueueFullException("Orderer send queue is full: capacity " + capacity));
+        }
+
+        CompletableFuture<Void> waiter = new CompletableFuture<>();
+        waitingCount.incrementAndGet();
+        waiters.add(waiter);
+        // Space may have become available before the waiter was queued
+        grantWaiters();
+        return waiter;
+    }
+
+    private void grantWaiters() {
+        while (!waiters.isEmpty() && permits.tryAcquire()) {
+            CompletableFuture<Void> waiter = waiters.poll();
+            if (waiter != null) {
+                waitingCount.decrementAndGet();
+            }
+            if (waiter == null || !waiter.complete(null)) {
+                // No waiter to receive the permit, or it has already given up waiting
+                permits.release();
+            }
+        }
+    }
+
+    private <T> CompletableFuture<T> start(final Supplier<CompletableFuture<T>> sender) {
+        depth.incrementAndGet();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> run(sender, result));
+        } catch (RejectedExecutionException e) {
+            release();
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    private <T> void run(final Supplier<CompletableFuture<T>> sender, final CompletableFuture<T> result) {
+        CompletableFuture<T> sendFuture;
+        try {
+            sendFuture = sender.get();
+        } catch (RuntimeException e) {
+            sendFuture = CompletableFutures.failed(e);
+        }
+
+        sendFuture.whenComplete((value, failure) -> {
+            release();
+            if (failure != null) {
+                result.completeExceptionally(CompletableFutures.unwrap(failure));
+            } else {
+                result.complete(value);
+            }
+        });
+    }
+
+    private void release() {
+        depth.decrementAndGet();
+        permits.release();
+        grantWaiters();
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public int getDepth() {
+        return depth.get();
+    }
+
+    @Override
+    public int getWaitingCount() {
+        return waitingCount.get();
+    }
+
+    @Override
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this,
+                "capacity=" + capacity,
+                "failFast=" + failFast,
+                "depth=" + depth.get(),
+                "waitingCount=" + waitingCount.get(),
+                "rejectedCount=" + rejectedCount.get());
+    }
+}
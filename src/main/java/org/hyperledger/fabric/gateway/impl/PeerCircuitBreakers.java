@@ -0,0 +1,165 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.hyperledger.fabric.gateway.CircuitBreakerOptions;
+import org.hyperledger.fabric.sdk.ChaincodeResponse;
+import org.hyperledger.fabric.sdk.Peer;
+import org.hyperledger.fabric.sdk.ProposalResponse;
+
+/**
+ * Circuit breakers for the peers of a network, shared by queries and endorsements so that a peer found to be
+ * unresponsive by either is skipped by both.
+ * <p>This implementation is thread-safe.</p>
+ * @see CircuitBreakerOptions
+ */
+final class PeerCircuitBreakers {
+    private static final Log LOG = LogFactory.getLog(PeerCircuitBreakers.class);
+
+    /**
+     * Circuit breaker state.
+     */
+    enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long probeIntervalNanos;
+    private final Map<Peer, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    PeerCircuitBreakers(final CircuitBreakerOptions options) {
+        this.failureThreshold = options.getFailureThreshold();
+        this.probeIntervalNanos = options.getProbeInterval(TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Check whether requests to a peer should be skipped. If the peer is due a probe request, this call allows the
+     * probe and returns false, so it should only be made immediately before sending a request to the peer.
+     * @param peer A peer.
+     * @return true if the peer should be skipped; otherwise false.
+     */
+    boolean isOpen(final Peer peer) {
+        CircuitBreaker breaker = breakers.get(peer);
+        return breaker != null && !breaker.allowRequest(System.nanoTime());
+    }
+
+    /**
+     * Get the peers to which requests should be sent.
+     * @param peers Candidate peers.
+     * @return Peers whose circuits are not open.
+     * @see #isOpen(Peer)
+     */
+    Collection<Peer> getAvailablePeers(final Collection<Peer> peers) {
+        return peers.stream()
+                .filter(peer -> !isOpen(peer))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Record the outcome of a request to a peer. A response from the peer is a success, even if chaincode returned an
+     * error, while a failure to get any response is a failure.
+     * @param peer Peer to which the request was sent.
+     * @param response Response to the request.
+     */
+    void record(final Peer peer, final ProposalResponse response) {
+        if (isPeerResponse(response)) {
+            recordSuccess(peer);
+        } else {
+            recordFailure(peer);
+        }
+    }
+
+    private static boolean isPeerResponse(final ProposalResponse response) {
+        return response.getStatus().equals(ChaincodeResponse.Status.SUCCESS) || response.getProposalResponse() != null;
+    }
+
+    void recordSuccess(final Peer peer) {
+        CircuitBreaker breaker = breakers.get(peer);
+        if (breaker != null) {
+            breaker.recordSuccess();
+        }
+    }
+
+    void recordFailure(final Peer peer) {
+        breakers.computeIfAbsent(peer, CircuitBreaker::new).recordFailure(System.nanoTime());
+    }
+
+    State getState(final Peer peer) {
+        CircuitBreaker breaker = breakers.get(peer);
+        return breaker != null ? breaker.getState() : State.CLOSED;
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this,
+                "failureThreshold=" + failureThreshold,
+                "probeIntervalNanos=" + probeIntervalNanos,
+                "breakers=" + breakers.values());
+    }
+
+    private final class CircuitBreaker {
+        private final Peer peer;
+        private State state = State.CLOSED; // Guarded by this
+        private int consecutiveFailures = 0; // Guarded by this
+        private long nextProbeNanos = 0; // Guarded by this
+
+        CircuitBreaker(final Peer peer) {
+            this.peer = peer;
+        }
+
+        synchronized boolean allowRequest(final long now) {
+            if (state == State.CLOSED) {
+                return true;
+            }
+            if (now - nextProbeNanos < 0) {
+                return false;
+            }
+            // Allow one probe; if its outcome is never recorded another is allowed after the next interval
+            state = State.HALF_OPEN;
+            nextProbeNanos = now + probeIntervalNanos;
+            return true;
+        }
+
+        synchronized void recordSuccess() {
+            if (state != State.CLOSED) {
+                LOG.info("Closing circuit for peer " + peer.getName());
+            }
+            state = State.CLOSED;
+            consecutiveFailures = 0;
+        }
+
+        synchronized void recordFailure(final long now) {
+            consecutiveFailures++;
+            if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+                if (state == State.CLOSED) {
+                    LOG.warn("Opening circuit for peer " + peer.getName() + " after " + consecutiveFailures + " consecutive failures");
+                }
+                state = State.OPEN;
+                nextProbeNanos = now + probeIntervalNanos;
+            }
+        }
+
+        synchronized State getState() {
+            return state;
+        }
+
+        @Override
+        public synchronized String toString() {
+            return peer.getName() + "=" + state;
+        }
+    }
+}
@@ -0,0 +1,345 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.hyperledger.fabric.gateway.ContractException;
+import org.hyperledger.fabric.gateway.EndorsedTransaction;
+import org.hyperledger.fabric.gateway.GatewayRuntimeException;
+import org.hyperledger.fabric.gateway.PreparedTransaction;
+import org.hyperledger.fabric.gateway.TransactionResponse;
+import org.hyperledger.fabric.gateway.impl.query.QueryImpl;
+import org.hyperledger.fabric.gateway.spi.Query;
+import org.hyperledger.fabric.gateway.spi.QueryHandler;
+import org.hyperledger.fabric.sdk.ChaincodeResponse;
+import org.hyperledger.fabric.sdk.Channel;
+import org.hyperledger.fabric.sdk.HFClient;
+import org.hyperledger.fabric.sdk.Peer;
+import org.hyperledger.fabric.sdk.ProposalResponse;
+import org.hyperledger.fabric.sdk.QueryByChaincodeRequest;
+import org.hyperledger.fabric.sdk.ServiceDiscovery;
+import org.hyperledger.fabric.sdk.TransactionProposalRequest;
+import org.hyperledger.fabric.sdk.TransactionRequest;
+import org.hyperledger.fabric.sdk.User;
+import org.hyperledger.fabric.sdk.exception.InvalidArgumentException;
+import org.hyperledger.fabric.sdk.exception.ProposalException;
+import org.hyperledger.fabric.sdk.exception.ServiceDiscoveryException;
+
+import javax.annotation.Nullable;
+
+import static org.hyperledger.fabric.sdk.Channel.DiscoveryOptions.createDiscoveryOptions;
+
+/**
+ * Immutable transaction function invocation settings. Everything except the arguments and transient data is resolved
+ * when the prepared transaction is created. SDK request objects are mutable, so a new request is populated from the
+ * resolved settings for each invocation.
+ * <p>This implementation is thread-safe.</p>
+ */
+public final class PreparedTransactionImpl implements PreparedTransaction {
+    private static final Log LOG = LogFactory.getLog(PreparedTransactionImpl.class);
+    private static final EnumSet<Peer.PeerRole> ENDORSING_ROLES = EnumSet.of(Peer.PeerRole.ENDORSING_PEER);
+
+    private final String chaincodeId;
+    private final String name;
+    private final NetworkImpl network;
+    private final Channel channel;
+    private final HFClient client;
+    private final Executor executor;
+    private final QueryHandler queryHandler;
+    private final EvaluateCache evaluateCache;
+    private final EvaluateCoalescer evaluateCoalescer;
+    private final PeerCircuitBreakers circuitBreakers;
+    private final TimePeriod commitTimeout;
+    private final TimePeriod ordererTimeout;
+    private final Map<String, byte[]> transientData;
+    private final Collection<Peer> endorsingPeers;
+    private final Channel.DiscoveryOptions discoveryOptions;
+
+    PreparedTransactionImpl(final ContractImpl contract, final String name, final TimePeriod commitTimeout, final TimePeriod ordererTimeout,
+                            @Nullable final Map<String, byte[]> transientData, @Nullable final Collection<Peer> endorsingPeers) {
+        this.chaincodeId = contract.getChaincodeId();
+        this.name = name;
+        this.network = contract.getNetwork();
+        this.channel = network.getChannel();
+        GatewayImpl gateway = network.getGateway();
+        this.client = gateway.getClient();
+        this.executor = gateway.getExecutor();
+        this.queryHandler = network.getQueryHandler();
+        this.evaluateCache = network.getEvaluateCache();
+        this.evaluateCoalescer = network.getEvaluateCoalescer();
+        this.circuitBreakers = network.getPeerCircuitBreakers();
+        this.commitTimeout = commitTimeout;
+        this.ordererTimeout = ordererTimeout;
+        this.transientData = transientData;
+        this.endorsingPeers = endorsingPeers;
+        this.discoveryOptions = endorsingPeers == null && gateway.isDiscoveryEnabled() ? newDiscoveryOptions() : null;
+    }
+
+    private static Channel.DiscoveryOptions newDiscoveryOptions() {
+        return createDiscoveryOptions()
+                .setEndorsementSelector(ServiceDiscovery.EndorsementSelector.ENDORSEMENT_SELECTION_RANDOM)
+                .setInspectResults(true)
+                .setForceDiscovery(true);
+    }
+
+    /**
+     * Create a prepared transaction that captures a snapshot of the supplied settings.
+     * @param contract Contract.
+     * @param name Qualified transaction name.
+     * @param commitTimeout Commit timeout.
+     * @param ordererTimeout Orderer timeout.
+     * @param transientData Default transient data, or null.
+     * @param endorsingPeers Endorsing peers, or null to use discovery or the channel's endorsing peers.
+     * @return A prepared transaction.
+     */
+    static PreparedTransactionImpl snapshot(final ContractImpl contract, final String name, final TimePeriod commitTimeout,
+                                            final TimePeriod ordererTimeout, @Nullable final Map<String, byte[]> transientData,
+                                            @Nullable final Collection<Peer> endorsingPeers) {
+        Map<String, byte[]> transientCopy = transientData != null ? Collections.unmodifiableMap(new HashMap<>(transientData)) : null;
+        Collection<Peer> peersCopy = endorsingPeers != null ? Collections.unmodifiableList(new ArrayList<>(endorsingPeers)) : null;
+        return new PreparedTransactionImpl(contract, name, commitTimeout, ordererTimeout, transientCopy, peersCopy);
+    }
+
+    static TransactionArgs stringArgs(final String... args) {
+        return TransactionArgs.of(args);
+    }
+
+    static TransactionArgs byteArgs(final byte[][] args) {
+        return TransactionArgs.of(args);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public TransactionResponse submit(final UUID correlationId, final byte[][] args) throws ContractException, TimeoutException, InterruptedException {
+        return submit(correlationId, null, transientData, byteArgs(args));
+    }
+
+    @Override
+    public CompletableFuture<TransactionResponse> submitAsync(final UUID correlationId, final byte[][] args) {
+        return submitAsync(correlationId, null, transientData, byteArgs(args));
+    }
+
+    @Override
+    public EndorsedTransaction endorse(final UUID correlationId, final byte[][] args) throws ContractException {
+        return endorse(correlationId, null, transientData, byteArgs(args));
+    }
+
+    @Override
+    public TransactionResponse evaluate(final UUID correlationId, final byte[][] args) throws ContractException {
+        return evaluate(correlationId, null, transientData, byteArgs(args));
+    }
+
+    @Override
+    public TransactionResponse submit(final UUID correlationId, final String... args) throws ContractException, TimeoutException, InterruptedException {
+        return submit(correlationId, null, transientData, stringArgs(args));
+    }
+
+    @Override
+    public TransactionResponse submit(final UUID correlationId, final Map<String, byte[]> transientData, final String... args)
+            throws ContractException, TimeoutException, InterruptedException {
+        return submit(correlationId, null, transientData, stringArgs(args));
+    }
+
+    TransactionResponse submit(final UUID correlationId, @Nullable final User userContext, @Nullable final Map<String, byte[]> transientData,
+                               final TransactionArgs args) throws ContractException, TimeoutException, InterruptedException {
+        return endorse(correlationId, userContext, transientData, args).submit();
+    }
+
+    @Override
+    public CompletableFuture<TransactionResponse> submitAsync(final UUID correlationId, final String... args) {
+        return submitAsync(correlationId, null, transientData, stringArgs(args));
+    }
+
+    @Override
+    public CompletableFuture<TransactionResponse> submitAsync(final UUID correlationId, final Map<String, byte[]> transientData, final String... args) {
+        return submitAsync(correlationId, null, transientData, stringArgs(args));
+    }
+
+    CompletableFuture<TransactionResponse> submitAsync(final UUID correlationId, @Nullable final User userContext,
+                                                       @Nullable final Map<String, byte[]> transientData, final TransactionArgs args) {
+        // The SDK only provides a blocking call to send proposals so endorsement must use an executor thread
+        return CompletableFuture.supplyAsync(() -> endorseTransaction(userContext, transientData, args), executor)
+                .thenCompose(proposalResponses -> {
+                    try {
+                        return newEndorsedTransaction(correlationId, proposalResponses).submitAsync();
+                    } catch (ContractException e) {
+                        return CompletableFutures.failed(e);
+                    }
+                });
+    }
+
+    @Override
+    public EndorsedTransaction endorse(final UUID correlationId, final String... args) throws ContractException {
+        return endorse(correlationId, null, transientData, stringArgs(args));
+    }
+
+    EndorsedTransaction endorse(final UUID correlationId, @Nullable final User userContext, @Nullable final Map<String, byte[]> transientData,
+                                final TransactionArgs args) throws ContractException {
+        Collection<ProposalResponse> proposalResponses = endorseTransaction(userContext, transientData, args);
+        return newEndorsedTransaction(correlationId, proposalResponses);
+    }
+
+    @Override
+    public TransactionResponse evaluate(final UUID correlationId, final String... args) throws ContractException {
+        return evaluate(correlationId, null, transientData, stringArgs(args));
+    }
+
+    @Override
+    public TransactionResponse evaluate(final UUID correlationId, final Map<String, byte[]> transientData, final String... args) throws ContractException {
+        return evaluate(correlationId, null, transientData, stringArgs(args));
+    }
+
+    TransactionResponse evaluate(final UUID correlationId, @Nullable final User userContext, @Nullable final Map<String, byte[]> transientData,
+                                 final TransactionArgs args) throws ContractException {
+        if (userContext != null || (evaluateCache == null && evaluateCoalescer == null)) {
+            return evaluateOnPeers(correlationId, userContext, transientData, args);
+        }
+
+        EvaluationKey key = EvaluationKey.of(chaincodeId, name, args, transientData);
+        Evaluation evaluation = () -> evaluateOnPeers(correlationId, null, transientData, args);
+        if (evaluateCoalescer != null) {
+            Evaluation peerEvaluation = evaluation;
+            evaluation = () -> evaluateCoalescer.evaluate(key, correlationId, peerEvaluation);
+        }
+        return evaluateCache != null ? evaluateCache.evaluate(key, correlationId, evaluation) : evaluation.evaluate();
+    }
+
+    private TransactionResponse evaluateOnPeers(final UUID correlationId, @Nullable final User userContext,
+                                                @Nullable final Map<String, byte[]> transientData, final TransactionArgs args)
+            throws ContractException {
+        QueryByChaincodeRequest request = client.newQueryProposalRequest();
+        configureRequest(request, userContext, transientData, args);
+        Query query = new QueryImpl(channel, request);
+        if (circuitBreakers != null) {
+            query = new CircuitBreakingQuery(query, circuitBreakers);
+        }
+
+        ProposalResponse response = queryHandler.evaluate(query);
+
+        try {
+            return new TransactionResponse(correlationId, response.getTransactionID(), response.getChaincodeActionResponsePayload());
+        } catch (InvalidArgumentException e) {
+            throw new ContractException(response.getMessage(), e);
+        }
+    }
+
+    private EndorsedTransaction newEndorsedTransaction(final UUID correlationId, final Collection<ProposalResponse> proposalResponses)
+            throws ContractException {
+        Collection<ProposalResponse> validResponses = validatePeerResponses(proposalResponses);
+        return new EndorsedTransactionImpl(network, chaincodeId, ordererTimeout, commitTimeout, correlationId, proposalResponses, validResponses);
+    }
+
+    private Collection<ProposalResponse> endorseTransaction(@Nullable final User userContext, @Nullable final Map<String, byte[]> transientData,
+                                                            final TransactionArgs args) {
+        try {
+            TransactionProposalRequest request = client.newTransactionProposalRequest();
+            configureRequest(request, userContext, transientData, args);
+            Collection<ProposalResponse> responses = sendTransactionProposal(request);
+            if (circuitBreakers != null) {
+                responses.stream()
+                        .filter(response -> response.getPeer() != null)
+                        .forEach(response -> circuitBreakers.record(response.getPeer(), response));
+            }
+            return responses;
+        } catch (InvalidArgumentException | ProposalException | ServiceDiscoveryException e) {
+            throw new GatewayRuntimeException(e);
+        }
+    }
+
+    private Collection<ProposalResponse> sendTransactionProposal(final TransactionProposalRequest request)
+            throws ProposalException, InvalidArgumentException, ServiceDiscoveryException {
+        if (endorsingPeers != null) {
+            return channel.sendTransactionProposal(request, endorsingPeers);
+        } else if (discoveryOptions != null) {
+            return channel.sendTransactionProposalToEndorsers(request, discoveryOptions);
+        } else if (circuitBreakers != null) {
+            return sendTransactionProposalToAvailablePeers(request);
+        } else {
+            return channel.sendTransactionProposal(request);
+        }
+    }
+
+    private Collection<ProposalResponse> sendTransactionProposalToAvailablePeers(final TransactionProposalRequest request)
+            throws ProposalException, InvalidArgumentException {
+        Collection<Peer> peers = circuitBreakers.getAvailablePeers(channel.getPeers(ENDORSING_ROLES));
+        if (peers.isEmpty()) {
+            // Fails endorsement validation without waiting for unresponsive peers
+            LOG.warn("No endorsing peers available. Circuit breakers are open for all peers");
+            return Collections.emptyList();
+        }
+        return channel.sendTransactionProposal(request, peers);
+    }
+
+    private void configureRequest(final TransactionRequest request, @Nullable final User userContext,
+                                  @Nullable final Map<String, byte[]> transientData, final TransactionArgs args) {
+        request.setChaincodeName(chaincodeId);
+        request.setFcn(name);
+        args.applyTo(request);
+        if (userContext != null) {
+            request.setUserContext(userContext);
+        }
+        if (transientData != null) {
+            try {
+                request.setTransientMap(transientData);
+            } catch (InvalidArgumentException e) {
+                // Only happens if transientData is null
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private Collection<ProposalResponse> validatePeerResponses(final Collection<ProposalResponse> proposalResponses)
+            throws ContractException {
+        final Collection<ProposalResponse> validResponses = new ArrayList<>();
+        final Collection<String> invalidResponseMsgs = new ArrayList<>();
+        proposalResponses.forEach(response -> {
+            String peerUrl = response.getPeer() != null ? response.getPeer().getUrl() : "<unknown>";
+            if (response.getStatus().equals(ChaincodeResponse.Status.SUCCESS)) {
+                LOG.debug(String.format("validatePeerResponses: valid response from peer %s", peerUrl));
+                validResponses.add(response);
+            } else {
+                LOG.warn(String.format("validatePeerResponses: invalid response from peer %s, message %s", peerUrl, response.getMessage()));
+                invalidResponseMsgs.add(response.getMessage());
+            }
+        });
+
+        if (validResponses.size() < 1) {
+            String msg = String.format("No valid proposal responses received. %d peer error responses: %s",
+                    invalidResponseMsgs.size(), String.join("; ", invalidResponseMsgs));
+            LOG.error(msg);
+            throw new ContractException(msg, proposalResponses);
+        }
+
+        return validResponses;
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this,
+                "chaincodeId=" + chaincodeId,
+                "name=" + name,
+                "commitTimeout=" + commitTimeout,
+                "ordererTimeout=" + ordererTimeout,
+                "endorsingPeers=" + endorsingPeers);
+    }
+}
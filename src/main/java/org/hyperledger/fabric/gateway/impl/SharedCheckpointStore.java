@@ -0,0 +1,569 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hyperledger.fabric.gateway.CheckpointSyncPolicy;
+import org.hyperledger.fabric.gateway.spi.Checkpointer;
+import org.hyperledger.fabric.gateway.spi.CheckpointerFactory;
+
+/**
+ * Checkpoint store that persists the state of any number of named checkpointers in a single append-only log file
+ * within a store directory. An exclusive lock on a separate lock file in the same directory ensures only one store
+ * instance uses the directory at a time.
+ * <p>Log format:</p>
+ * <pre>
+ * header:      magic (int), version (int)
+ * namespace:   type = 3 (byte), namespace ID (int), name length (int), UTF-8 name bytes
+ * block:       type = 1 (byte), namespace ID (int), block number (long)
+ * transaction: type = 2 (byte), namespace ID (int), block number (long), ID length (int), UTF-8 ID bytes
+ * </pre>
+ * <p>Updates from all checkpointers are group committed: records queued by concurrent callers are written, and
+ * optionally forced to the storage device, together by whichever caller first obtains the write lock. Obtaining a
+ * checkpointer only creates in-memory state; nothing is written until its first update. The log is compacted by
+ * writing the live state of every checkpointer to a new file that atomically replaces the log.</p>
+ */
+public final class SharedCheckpointStore implements CheckpointerFactory {
+    private static final String LOG_FILE_NAME = "checkpoints.log";
+    private static final String COMPACT_FILE_NAME = "checkpoints.log.compact";
+    private static final String LOCK_FILE_NAME = "checkpoints.lock";
+    private static final int MAGIC = 0x46434B53; // "FCKS"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = Integer.BYTES + Integer.BYTES;
+    private static final byte RECORD_TYPE_BLOCK = 1;
+    private static final byte RECORD_TYPE_TRANSACTION = 2;
+    private static final byte RECORD_TYPE_NAMESPACE = 3;
+    private static final int BLOCK_RECORD_SIZE = Byte.BYTES + Integer.BYTES + Long.BYTES;
+    private static final int TRANSACTION_RECORD_HEADER_SIZE = Byte.BYTES + Integer.BYTES + Long.BYTES + Integer.BYTES;
+    private static final int NAMESPACE_RECORD_HEADER_SIZE = Byte.BYTES + Integer.BYTES + Integer.BYTES;
+    private static final long DEFAULT_COMPACTION_THRESHOLD = 16 * 1024 * 1024;
+
+    private final Path storeDirectory;
+    private final Path logFile;
+    private final CheckpointSyncPolicy syncPolicy;
+    private final long compactionThreshold;
+    private final FileChannel lockChannel;
+    private final Map<String, NamespaceCheckpointer> checkpointers = new ConcurrentHashMap<>();
+    private final AtomicInteger nextNamespaceId = new AtomicInteger(0);
+    private final Queue<PendingWrite> pendingWrites = new ConcurrentLinkedQueue<>();
+    private final Object writeLock = new Object();
+
+    // Guarded by writeLock
+    private FileChannel logChannel;
+    private long logSize;
+    private long nextCompactionSize;
+    private long lastSyncNanos = System.nanoTime();
+    private boolean isSyncPending = false;
+    private boolean isClosed = false;
+
+    public SharedCheckpointStore(final Path storeDirectory, final CheckpointSyncPolicy syncPolicy) throws IOException {
+        this(storeDirectory, syncPolicy, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    SharedCheckpointStore(final Path storeDirectory, final CheckpointSyncPolicy syncPolicy, final long compactionThreshold)
+            throws IOException {
+        this.storeDirectory = storeDirectory;
+        this.syncPolicy = syncPolicy;
+        this.compactionThreshold = compactionThreshold;
+        logFile = storeDirectory.resolve(LOG_FILE_NAME);
+
+        Files.createDirectories(storeDirectory);
+        lockChannel = FileChannel.open(storeDirectory.resolve(LOCK_FILE_NAME),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        lockStore();
+
+        try {
+            Files.deleteIfExists(storeDirectory.resolve(COMPACT_FILE_NAME)); // Left by interrupted compaction
+            boolean isLogPresent = Files.exists(logFile);
+            logChannel = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            if (isLogPresent) {
+                load();
+            } else {
+                ByteBuffer header = newHeader();
+                writeFully(logChannel, header, 0);
+                logSize = HEADER_SIZE;
+                logChannel.force(false);
+                GatewayUtils.forceDirectory(storeDirectory); // Persist the new file's directory entry
+            }
+            nextCompactionSize = Math.max(compactionThreshold, logSize * 2);
+        } catch (IOException | RuntimeException e) {
+            if (logChannel != null) {
+                logChannel.close();
+            }
+            lockChannel.close();
+            throw e;
+        }
+    }
+
+    private void lockStore() throws IOException {
+        final FileLock fileLock;
+        try {
+            fileLock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            throw new IOException("Checkpoint store is already locked: " + storeDirectory, e);
+        }
+        if (fileLock == null) {
+            throw new IOException("Another process holds a lock for checkpoint store: " + storeDirectory);
+        }
+    }
+
+    private static ByteBuffer newHeader() {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION);
+        header.flip();
+        return header;
+    }
+
+    private void load() throws IOException {
+        long fileSize = logChannel.size();
+        if (fileSize > Integer.MAX_VALUE) {
+            throw new IOException("Checkpoint file too large: " + logFile);
+        }
+        if (fileSize < HEADER_SIZE) {
+            throw new IOException("Bad format of checkpoint data from file: " + logFile);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) fileSize);
+        long offset = 0;
+        while (buffer.hasRemaining()) {
+            int count = logChannel.read(buffer, offset);
+            if (count < 0) {
+                throw new IOException("Unexpected end of checkpoint file: " + logFile);
+            }
+            offset += count;
+        }
+        buffer.flip();
+
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Bad format of checkpoint data from file: " + logFile);
+        }
+        final int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported checkpoint data version " + version + " from file: " + logFile);
+        }
+
+        Map<Integer, NamespaceCheckpointer> namespaces = new HashMap<>();
+        int validSize = buffer.position();
+        while (buffer.hasRemaining() && readRecord(buffer, namespaces)) {
+            validSize = buffer.position();
+        }
+
+        logSize = validSize;
+        if (logSize < fileSize) {
+            logChannel.truncate(logSize); // Discard partially written record
+        }
+    }
+
+    /**
+     * Read a record from the log. A record that is incomplete, or that cannot have been written by a previous append,
+     * marks the end of the valid log data. This is expected after a crash while appending, since the file length may
+     * be updated before the record data is written.
+     * @return true if a valid record was read; otherwise false.
+     */
+    private boolean readRecord(final ByteBuffer buffer, final Map<Integer, NamespaceCheckpointer> namespaces) {
+        final byte type = buffer.get();
+        if (type != RECORD_TYPE_BLOCK && type != RECORD_TYPE_TRANSACTION && type != RECORD_TYPE_NAMESPACE) {
+            return false;
+        }
+        if (buffer.remaining() < Integer.BYTES) {
+            return false;
+        }
+        final int namespaceId = buffer.getInt();
+
+        if (type == RECORD_TYPE_NAMESPACE) {
+            String name = readString(buffer);
+            if (name == null) {
+                return false;
+            }
+            NamespaceCheckpointer checkpointer = new NamespaceCheckpointer(name, namespaceId);
+            checkpointer.isDefined = true;
+            namespaces.put(namespaceId, checkpointer);
+            checkpointers.put(name, checkpointer);
+            nextNamespaceId.set(Math.max(nextNamespaceId.get(), namespaceId + 1));
+            return true;
+        }
+
+        if (buffer.remaining() < Long.BYTES) {
+            return false;
+        }
+        final long blockNumber = buffer.getLong();
+
+        NamespaceCheckpointer checkpointer = namespaces.get(namespaceId);
+        if (checkpointer == null) {
+            // Namespaces are always defined before use, so this is not a complete record
+            return false;
+        }
+
+        if (type == RECORD_TYPE_BLOCK) {
+            checkpointer.applyBlockNumber(blockNumber);
+        } else {
+            String transactionId = readString(buffer);
+            if (transactionId == null) {
+                return false;
+            }
+            if (blockNumber == checkpointer.blockNumber.get()) {
+                checkpointer.transactionIds.add(transactionId);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Read a length-prefixed string.
+     * @return The string, or null if the buffer does not contain a valid string.
+     */
+    private static String readString(final ByteBuffer buffer) {
+        if (buffer.remaining() < Integer.BYTES) {
+            return null;
+        }
+        final int length = buffer.getInt();
+        if (length < 0 || buffer.remaining() < length) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeFully(final FileChannel channel, final ByteBuffer buffer, final long position) throws IOException {
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            offset += channel.write(buffer, offset);
+        }
+    }
+
+    @Override
+    public Checkpointer getCheckpointer(final String name) throws IOException {
+        if (isClosed) {
+            throw new IOException("Checkpoint store is closed: " + storeDirectory);
+        }
+        return checkpointers.computeIfAbsent(name, k -> new NamespaceCheckpointer(name, nextNamespaceId.getAndIncrement()));
+    }
+
+    /**
+     * Write records to the log, along with those from any other concurrent callers, and apply the associated state
+     * change once they have been written.
+     */
+    private void commit(final ByteBuffer records, final Runnable stateChange) throws IOException {
+        PendingWrite write = new PendingWrite(records, stateChange);
+        pendingWrites.add(write);
+
+        synchronized (writeLock) {
+            if (!write.isDone) {
+                writePending();
+            }
+            if (write.failure != null) {
+                throw new IOException("Failed to write checkpoint data to file: " + logFile, write.failure);
+            }
+        }
+    }
+
+    private void writePending() {
+        List<PendingWrite> writes = new ArrayList<>();
+        for (PendingWrite write = pendingWrites.poll(); write != null; write = pendingWrites.poll()) {
+            writes.add(write);
+        }
+
+        IOException failure = null;
+        try {
+            if (isClosed) {
+                throw new IOException("Checkpoint store is closed: " + storeDirectory);
+            }
+
+            ByteBuffer[] buffers = writes.stream()
+                    .map(write -> write.records)
+                    .toArray(ByteBuffer[]::new);
+            long size = writes.stream()
+                    .mapToLong(write -> write.records.remaining())
+                    .sum();
+            logChannel.position(logSize);
+            long written = 0;
+            while (written < size) {
+                written += logChannel.write(buffers);
+            }
+            logSize += size;
+
+            syncIfRequired();
+        } catch (IOException e) {
+            failure = e;
+        }
+
+        for (PendingWrite write : writes) {
+            if (failure == null) {
+                write.stateChange.run();
+            }
+            write.failure = failure;
+            write.isDone = true;
+        }
+
+        if (failure == null && logSize >= nextCompactionSize) {
+            try {
+                compact();
+            } catch (IOException e) {
+                // Log remains valid, just larger than intended
+                nextCompactionSize = logSize * 2;
+            }
+        }
+    }
+
+    private void syncIfRequired() throws IOException {
+        if (syncPolicy.isSyncRequired(System.nanoTime() - lastSyncNanos)) {
+            sync();
+        } else {
+            isSyncPending = true;
+        }
+    }
+
+    private void sync() throws IOException {
+        logChannel.force(false);
+        lastSyncNanos = System.nanoTime();
+        isSyncPending = false;
+    }
+
+    private void compact() throws IOException {
+        List<ByteBuffer> buffers = new ArrayList<>();
+        buffers.add(newHeader());
+        checkpointers.values().stream()
+                .filter(checkpointer -> checkpointer.isDefined)
+                .forEach(checkpointer -> buffers.add(checkpointer.snapshotRecords()));
+        ByteBuffer[] content = buffers.toArray(new ByteBuffer[0]);
+        long size = buffers.stream().mapToLong(ByteBuffer::remaining).sum();
+
+        Path compactFile = storeDirectory.resolve(COMPACT_FILE_NAME);
+        try (FileChannel compactChannel = FileChannel.open(compactFile,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long written = 0;
+            while (written < size) {
+                written += compactChannel.write(content);
+            }
+            compactChannel.force(false);
+        }
+
+        Files.move(compactFile, logFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        logChannel.close();
+        logChannel = FileChannel.open(logFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        GatewayUtils.forceDirectory(storeDirectory); // Persist the rename
+        logSize = size;
+        nextCompactionSize = Math.max(compactionThreshold, size * 2);
+        isSyncPending = false;
+    }
+
+    private static ByteBuffer namespaceRecord(final int namespaceId, final byte[] name) {
+        ByteBuffer record = ByteBuffer.allocate(NAMESPACE_RECORD_HEADER_SIZE + name.length);
+        record.put(RECORD_TYPE_NAMESPACE).putInt(namespaceId).putInt(name.length).put(name);
+        record.flip();
+        return record;
+    }
+
+    private static void putBlockRecord(final ByteBuffer buffer, final int namespaceId, final long blockNumber) {
+        buffer.put(RECORD_TYPE_BLOCK).putInt(namespaceId).putLong(blockNumber);
+    }
+
+    private static void putTransactionRecord(final ByteBuffer buffer, final int namespaceId, final long blockNumber,
+                                             final byte[] transactionId) {
+        buffer.put(RECORD_TYPE_TRANSACTION)
+                .putInt(namespaceId)
+                .putLong(blockNumber)
+                .putInt(transactionId.length)
+                .put(transactionId);
+    }
+
+    private static List<byte[]> encode(final Collection<String> values) {
+        List<byte[]> results = new ArrayList<>(values.size());
+        values.forEach(value -> results.add(value.getBytes(StandardCharsets.UTF_8)));
+        return results;
+    }
+
+    private static int transactionRecordsSize(final List<byte[]> transactionIds) {
+        return transactionIds.stream()
+                .mapToInt(id -> TRANSACTION_RECORD_HEADER_SIZE + id.length)
+                .sum();
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (writeLock) {
+            if (isClosed) {
+                return;
+            }
+            isClosed = true;
+            try {
+                if (isSyncPending && syncPolicy.isSyncOnClose()) {
+                    sync();
+                }
+            } finally {
+                try {
+                    logChannel.close();
+                } finally {
+                    lockChannel.close(); // Also releases lock
+                }
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this,
+                "directory=" + storeDirectory,
+                "syncPolicy=" + syncPolicy,
+                "checkpointers=" + checkpointers.size());
+    }
+
+    private static final class PendingWrite {
+        final ByteBuffer records;
+        final Runnable stateChange;
+        // Guarded by writeLock
+        boolean isDone = false;
+        IOException failure;
+
+        PendingWrite(final ByteBuffer records, final Runnable stateChange) {
+            this.records = records;
+            this.stateChange = stateChange;
+        }
+    }
+
+    /**
+     * Checkpointer for a single namespace within the store. State is only modified while holding the store write lock,
+     * after the corresponding records have been written, so compaction always sees state consistent with the log.
+     */
+    private final class NamespaceCheckpointer implements Checkpointer {
+        private final String name;
+        private final int namespaceId;
+        private final AtomicLong blockNumber = new AtomicLong(Checkpointer.UNSET_BLOCK_NUMBER);
+        private final Set<String> transactionIds = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        private volatile boolean isDefined = false;
+
+        NamespaceCheckpointer(final String name, final int namespaceId) {
+            this.name = name;
+            this.namespaceId = namespaceId;
+        }
+
+        private void applyBlockNumber(final long newBlockNumber) {
+            blockNumber.set(newBlockNumber);
+            transactionIds.clear();
+        }
+
+        /**
+         * Prepend a namespace definition record if this namespace has not yet been written to the log.
+         */
+        private ByteBuffer withDefinition(final ByteBuffer records) {
+            if (isDefined) {
+                return records;
+            }
+            ByteBuffer definition = namespaceRecord(namespaceId, name.getBytes(StandardCharsets.UTF_8));
+            ByteBuffer result = ByteBuffer.allocate(definition.remaining() + records.remaining());
+            result.put(definition).put(records);
+            result.flip();
+            return result;
+        }
+
+        private ByteBuffer snapshotRecords() {
+            final long currentBlockNumber = blockNumber.get();
+            List<byte[]> ids = encode(transactionIds);
+            byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+
+            ByteBuffer buffer = ByteBuffer.allocate(NAMESPACE_RECORD_HEADER_SIZE + nameBytes.length + BLOCK_RECORD_SIZE
+                    + transactionRecordsSize(ids));
+            buffer.put(namespaceRecord(namespaceId, nameBytes));
+            putBlockRecord(buffer, namespaceId, currentBlockNumber);
+            ids.forEach(id -> putTransactionRecord(buffer, namespaceId, currentBlockNumber, id));
+            buffer.flip();
+            return buffer;
+        }
+
+        @Override
+        public long getBlockNumber() {
+            return blockNumber.get();
+        }
+
+        @Override
+        public synchronized void setBlockNumber(final long newBlockNumber) throws IOException {
+            ByteBuffer record = ByteBuffer.allocate(BLOCK_RECORD_SIZE);
+            putBlockRecord(record, namespaceId, newBlockNumber);
+            record.flip();
+
+            commit(withDefinition(record), () -> {
+                isDefined = true;
+                applyBlockNumber(newBlockNumber);
+            });
+        }
+
+        @Override
+        public Set<String> getTransactionIds() {
+            return Collections.unmodifiableSet(transactionIds);
+        }
+
+        @Override
+        public boolean containsTransactionId(final String transactionId) {
+            return transactionIds.contains(transactionId);
+        }
+
+        @Override
+        public void addTransactionId(final String transactionId) throws IOException {
+            addTransactionIds(Collections.singleton(transactionId));
+        }
+
+        @Override
+        public synchronized void addTransactionIds(final Collection<String> newTransactionIds) throws IOException {
+            List<String> additions = new ArrayList<>(newTransactionIds.size());
+            newTransactionIds.stream()
+                    .filter(transactionId -> !transactionIds.contains(transactionId))
+                    .distinct()
+                    .forEach(additions::add);
+            if (additions.isEmpty()) {
+                return;
+            }
+
+            final long currentBlockNumber = blockNumber.get();
+            List<byte[]> ids = encode(additions);
+            ByteBuffer records = ByteBuffer.allocate(transactionRecordsSize(ids));
+            ids.forEach(id -> putTransactionRecord(records, namespaceId, currentBlockNumber, id));
+            records.flip();
+
+            commit(withDefinition(records), () -> {
+                isDefined = true;
+                transactionIds.addAll(additions);
+            });
+        }
+
+        /**
+         * Has no effect. The checkpointer remains usable until the store is closed.
+         */
+        @Override
+        public void close() { }
+
+        @Override
+        public String toString() {
+            return GatewayUtils.toString(this,
+                    "name=" + name,
+                    "blockNumber=" + blockNumber.get(),
+                    "transactionIds=" + transactionIds);
+        }
+    }
+}
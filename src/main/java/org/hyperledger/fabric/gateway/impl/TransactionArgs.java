@@ -0,0 +1,54 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.util.Arrays;
+
+import org.hyperledger.fabric.sdk.TransactionRequest;
+
+/**
+ * Transaction function arguments, supplied either as strings or as bytes that are passed to the request without
+ * conversion.
+ */
+final class TransactionArgs {
+    private final String[] stringArgs;
+    private final byte[][] byteArgs;
+
+    private TransactionArgs(final String[] stringArgs, final byte[][] byteArgs) {
+        this.stringArgs = stringArgs;
+        this.byteArgs = byteArgs;
+    }
+
+    static TransactionArgs of(final String... args) {
+        return new TransactionArgs(args, null);
+    }
+
+    static TransactionArgs of(final byte[][] args) {
+        return new TransactionArgs(null, args);
+    }
+
+    void applyTo(final TransactionRequest request) {
+        if (byteArgs != null) {
+            request.setArgBytes(byteArgs);
+        } else {
+            request.setArgs(stringArgs);
+        }
+    }
+
+    /**
+     * Get a copy of the argument values that is not affected by later changes to the caller's arrays.
+     * @return Argument values.
+     */
+    Object[] copyValues() {
+        if (byteArgs != null) {
+            return Arrays.stream(byteArgs)
+                    .map(arg -> arg != null ? arg.clone() : null)
+                    .toArray();
+        }
+        return stringArgs != null ? stringArgs.clone() : new Object[0];
+    }
+}
@@ -6,67 +6,36 @@
 
 package org.hyperledger.fabric.gateway.impl;
 
-import java.util.ArrayList;
+import java.nio.ByteBuffer;
 import java.util.Collection;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
 import org.hyperledger.fabric.gateway.ContractException;
-import org.hyperledger.fabric.gateway.GatewayRuntimeException;
+import org.hyperledger.fabric.gateway.EndorsedTransaction;
+import org.hyperledger.fabric.gateway.PreparedTransaction;
 import org.hyperledger.fabric.gateway.Transaction;
-import org.hyperledger.fabric.gateway.impl.query.QueryImpl;
 import org.hyperledger.fabric.gateway.TransactionResponse;
-import org.hyperledger.fabric.gateway.spi.CommitHandler;
-import org.hyperledger.fabric.gateway.spi.CommitHandlerFactory;
-import org.hyperledger.fabric.gateway.spi.Query;
-import org.hyperledger.fabric.gateway.spi.QueryHandler;
-import org.hyperledger.fabric.sdk.ChaincodeResponse;
-import org.hyperledger.fabric.sdk.Channel;
 import org.hyperledger.fabric.sdk.Peer;
-import org.hyperledger.fabric.sdk.ProposalResponse;
-import org.hyperledger.fabric.sdk.QueryByChaincodeRequest;
-import org.hyperledger.fabric.sdk.ServiceDiscovery;
-import org.hyperledger.fabric.sdk.TransactionProposalRequest;
-import org.hyperledger.fabric.sdk.TransactionRequest;
 import org.hyperledger.fabric.sdk.User;
-import org.hyperledger.fabric.sdk.exception.InvalidArgumentException;
-import org.hyperledger.fabric.sdk.exception.ProposalException;
-import org.hyperledger.fabric.sdk.exception.ServiceDiscoveryException;
-
-import javax.annotation.Nullable;
-
-import static org.hyperledger.fabric.sdk.Channel.DiscoveryOptions.createDiscoveryOptions;
 
 public final class TransactionImpl implements Transaction {
-    private static final Log LOG = LogFactory.getLog(TransactionImpl.class);
-
-    private static final long DEFAULT_ORDERER_TIMEOUT = 60;
-    private static final TimeUnit DEFAULT_ORDERER_TIMEOUT_UNIT = TimeUnit.SECONDS;
-
     private final ContractImpl contract;
     private final String name;
-    private final NetworkImpl network;
-    private final Channel channel;
-    private final GatewayImpl gateway;
-    private final CommitHandlerFactory commitHandlerFactory;
     private TimePeriod commitTimeout;
-    private final QueryHandler queryHandler;
+    private TimePeriod ordererTimeout;
     private Map<String, byte[]> transientData = null;
     private Collection<Peer> endorsingPeers = null;
 
     TransactionImpl(final ContractImpl contract, final String name) {
         this.contract = contract;
         this.name = name;
-        network = contract.getNetwork();
-        channel = network.getChannel();
-        gateway = network.getGateway();
-        commitHandlerFactory = gateway.getCommitHandlerFactory();
+        GatewayImpl gateway = contract.getNetwork().getGateway();
         commitTimeout = gateway.getCommitTimeout();
-        queryHandler = network.getQueryHandler();
+        ordererTimeout = gateway.getOrdererTimeout();
     }
 
     @Override
@@ -86,171 +55,104 @@ public final class TransactionImpl implements Transaction {
         return this;
     }
 
+    @Override
+    public Transaction setOrdererTimeout(final long timeout, final TimeUnit timeUnit) {
+        ordererTimeout = new TimePeriod(timeout, timeUnit);
+        return this;
+    }
+
     @Override
     public Transaction setEndorsingPeers(final Collection<Peer> peers) {
         endorsingPeers = peers;
         return this;
     }
 
+    @Override
+    public PreparedTransaction prepare() {
+        return PreparedTransactionImpl.snapshot(contract, name, commitTimeout, ordererTimeout, transientData, endorsingPeers);
+    }
+
+    private PreparedTransactionImpl current() {
+        return new PreparedTransactionImpl(contract, name, commitTimeout, ordererTimeout, transientData, endorsingPeers);
+    }
+
     @Override
     public TransactionResponse submit(final UUID correlationId, final User userContext, final String... args) throws ContractException, TimeoutException, InterruptedException {
-        return createSubmit(correlationId, userContext, args);
+        return current().submit(correlationId, userContext, transientData, PreparedTransactionImpl.stringArgs(args));
     }
 
     @Override
     public TransactionResponse submit(final UUID correlationId, final String... args) throws ContractException, TimeoutException, InterruptedException {
-        return createSubmit(correlationId, null, args);
+        return current().submit(correlationId, null, transientData, PreparedTransactionImpl.stringArgs(args));
     }
 
-    private TransactionResponse createSubmit(final UUID correlationId, @Nullable final User userContext, final String... args) throws ContractException, TimeoutException, InterruptedException {
-            Collection<ProposalResponse> proposalResponses = endorseTransaction(userContext, args);
-            Collection<ProposalResponse> validResponses = validatePeerResponses(proposalResponses);
-
-        try {
-            byte[] result = commitTransaction(validResponses);
-            return new TransactionResponse(correlationId, proposalResponses.iterator().next().getTransactionID(), result);
-        } catch (ContractException e) {
-            e.setProposalResponses(proposalResponses);
-            throw e;
-        }
+    @Override
+    public CompletableFuture<TransactionResponse> submitAsync(final UUID correlationId, final String... args) {
+        return current().submitAsync(correlationId, null, transientData, PreparedTransactionImpl.stringArgs(args));
     }
 
-    private Collection<ProposalResponse> endorseTransaction(final User userContext, final String... args) {
-        try {
-            TransactionProposalRequest request = newProposalRequest(userContext, args);
-            return sendTransactionProposal(request);
-        } catch (InvalidArgumentException | ProposalException | ServiceDiscoveryException e) {
-            throw new GatewayRuntimeException(e);
-        }
+    @Override
+    public CompletableFuture<TransactionResponse> submitAsync(final UUID correlationId, final User userContext, final String... args) {
+        return current().submitAsync(correlationId, userContext, transientData, PreparedTransactionImpl.stringArgs(args));
     }
 
-    private Collection<ProposalResponse> sendTransactionProposal(final TransactionProposalRequest request)
-            throws ProposalException, InvalidArgumentException, ServiceDiscoveryException {
-        if (endorsingPeers != null) {
-            return channel.sendTransactionProposal(request, endorsingPeers);
-        } else if (network.getGateway().isDiscoveryEnabled()) {
-            Channel.DiscoveryOptions discoveryOptions = createDiscoveryOptions()
-                    .setEndorsementSelector(ServiceDiscovery.EndorsementSelector.ENDORSEMENT_SELECTION_RANDOM)
-                    .setInspectResults(true)
-                    .setForceDiscovery(true);
-            return channel.sendTransactionProposalToEndorsers(request, discoveryOptions);
-        } else {
-            return channel.sendTransactionProposal(request);
-        }
+    @Override
+    public EndorsedTransaction endorse(final UUID correlationId, final String... args) throws ContractException {
+        return current().endorse(correlationId, null, transientData, PreparedTransactionImpl.stringArgs(args));
     }
 
-    private byte[] commitTransaction(final Collection<ProposalResponse> validResponses)
-            throws TimeoutException, ContractException, InterruptedException {
-        ProposalResponse proposalResponse = validResponses.iterator().next();
-        String transactionId = proposalResponse.getTransactionID();
-
-        CommitHandler commitHandler = commitHandlerFactory.create(transactionId, network);
-        commitHandler.startListening();
-
-        try {
-            Channel.TransactionOptions transactionOptions = Channel.TransactionOptions.createTransactionOptions()
-                    .nOfEvents(Channel.NOfEvents.createNoEvents()); // Disable default commit wait behaviour
-            channel.sendTransaction(validResponses, transactionOptions)
-                    .get(DEFAULT_ORDERER_TIMEOUT, DEFAULT_ORDERER_TIMEOUT_UNIT);
-        } catch (TimeoutException e) {
-            commitHandler.cancelListening();
-            throw e;
-        } catch (Exception e) {
-            commitHandler.cancelListening();
-            throw new ContractException("Failed to send transaction to the orderer", e);
-        }
-
-        commitHandler.waitForEvents(commitTimeout.getTime(), commitTimeout.getTimeUnit());
-
-        try {
-            return proposalResponse.getChaincodeActionResponsePayload();
-        } catch (InvalidArgumentException e) {
-            throw new GatewayRuntimeException(e);
-        }
+    @Override
+    public EndorsedTransaction endorse(final UUID correlationId, final User userContext, final String... args) throws ContractException {
+        return current().endorse(correlationId, userContext, transientData, PreparedTransactionImpl.stringArgs(args));
     }
 
-    private TransactionProposalRequest newProposalRequest(@Nullable final User userContext, final String... args) {
-        TransactionProposalRequest request = network.getGateway().getClient().newTransactionProposalRequest();
-        configureRequest(userContext, request, args);
-        if (transientData != null) {
-            try {
-                request.setTransientMap(transientData);
-            } catch (InvalidArgumentException e) {
-                // Only happens if transientData is null
-                throw new IllegalStateException(e);
-            }
-        }
-        return request;
+    @Override
+    public TransactionResponse evaluate(final UUID correlationId, final User userContext, final String... args) throws ContractException {
+        return current().evaluate(correlationId, userContext, transientData, PreparedTransactionImpl.stringArgs(args));
     }
 
-    private void configureRequest(@Nullable final User userContext, final TransactionRequest request, final String... args) {
-        request.setChaincodeName(contract.getChaincodeId());
-        request.setFcn(name);
-        request.setArgs(args);
-        if (userContext != null) {
-            request.setUserContext(userContext);
-        }
+    @Override
+    public TransactionResponse evaluate(final UUID correlationId, final String... args) throws ContractException {
+        return current().evaluate(correlationId, null, transientData, PreparedTransactionImpl.stringArgs(args));
     }
 
-    private Collection<ProposalResponse> validatePeerResponses(final Collection<ProposalResponse> proposalResponses)
-            throws ContractException {
-        final Collection<ProposalResponse> validResponses = new ArrayList<>();
-        final Collection<String> invalidResponseMsgs = new ArrayList<>();
-        proposalResponses.forEach(response -> {
-            String peerUrl = response.getPeer() != null ? response.getPeer().getUrl() : "<unknown>";
-            if (response.getStatus().equals(ChaincodeResponse.Status.SUCCESS)) {
-                LOG.debug(String.format("validatePeerResponses: valid response from peer %s", peerUrl));
-                validResponses.add(response);
-            } else {
-                LOG.warn(String.format("validatePeerResponses: invalid response from peer %s, message %s", peerUrl, response.getMessage()));
-                invalidResponseMsgs.add(response.getMessage());
-            }
-        });
-
-        if (validResponses.size() < 1) {
-            String msg = String.format("No valid proposal responses received. %d peer error responses: %s",
-                    invalidResponseMsgs.size(), String.join("; ", invalidResponseMsgs));
-            LOG.error(msg);
-            throw new ContractException(msg, proposalResponses);
-        }
+    @Override
+    public TransactionResponse submit(final UUID correlationId, final byte[][] args) throws ContractException, TimeoutException, InterruptedException {
+        return current().submit(correlationId, null, transientData, PreparedTransactionImpl.byteArgs(args));
+    }
 
-        return validResponses;
+    @Override
+    public TransactionResponse submit(final UUID correlationId, final ByteBuffer[] args) throws ContractException, TimeoutException, InterruptedException {
+        return submit(correlationId, GatewayUtils.toByteArrays(args));
     }
 
     @Override
-    public TransactionResponse evaluate(final UUID correlationId, final User userContext, final String... args) throws ContractException {
-        return processEvaluate(correlationId, userContext, args);
+    public CompletableFuture<TransactionResponse> submitAsync(final UUID correlationId, final byte[][] args) {
+        return current().submitAsync(correlationId, null, transientData, PreparedTransactionImpl.byteArgs(args));
     }
 
     @Override
-    public TransactionResponse evaluate(final UUID correlationId, final String... args) throws ContractException {
-        return processEvaluate(correlationId, null, args);
+    public CompletableFuture<TransactionResponse> submitAsync(final UUID correlationId, final ByteBuffer[] args) {
+        return submitAsync(correlationId, GatewayUtils.toByteArrays(args));
     }
 
-    private TransactionResponse processEvaluate(final UUID correlationId, @Nullable final User userContext, final String... args) throws ContractException {
-        QueryByChaincodeRequest request = newQueryRequest(userContext, args);
-        Query query = new QueryImpl(network.getChannel(), request);
+    @Override
+    public EndorsedTransaction endorse(final UUID correlationId, final byte[][] args) throws ContractException {
+        return current().endorse(correlationId, null, transientData, PreparedTransactionImpl.byteArgs(args));
+    }
 
-        ProposalResponse response = queryHandler.evaluate(query);
+    @Override
+    public EndorsedTransaction endorse(final UUID correlationId, final ByteBuffer[] args) throws ContractException {
+        return endorse(correlationId, GatewayUtils.toByteArrays(args));
+    }
 
-        try {
-            return new TransactionResponse(correlationId, response.getTransactionID(), response.getChaincodeActionResponsePayload());
-        } catch (InvalidArgumentException e) {
-            throw new ContractException(response.getMessage(), e);
-        }
+    @Override
+    public TransactionResponse evaluate(final UUID correlationId, final byte[][] args) throws ContractException {
+        return current().evaluate(correlationId, null, transientData, PreparedTransactionImpl.byteArgs(args));
     }
 
-    private QueryByChaincodeRequest newQueryRequest(@Nullable final User userContext, final String... args) {
-        QueryByChaincodeRequest request = gateway.getClient().newQueryProposalRequest();
-        configureRequest(userContext, request, args);
-        if (transientData != null) {
-            try {
-                request.setTransientMap(transientData);
-            } catch (InvalidArgumentException e) {
-                // Only happens if transientData is null
-                throw new IllegalStateException(e);
-            }
-        }
-        return request;
+    @Override
+    public TransactionResponse evaluate(final UUID correlationId, final ByteBuffer[] args) throws ContractException {
+        return evaluate(correlationId, GatewayUtils.toByteArrays(args));
     }
 }
@@ -9,10 +9,11 @@ package org.hyperledger.fabric.gateway.impl.commit;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
-import java.util.concurrent.atomic.AtomicReference;
 
 import org.hyperledger.fabric.gateway.ContractException;
 import org.hyperledger.fabric.gateway.Network;
@@ -39,8 +40,7 @@ public final class CommitHandlerImpl implements CommitHandler {
         }
     };
     private final Set<Peer> peers;
-    private final CountDownLatch latch = new CountDownLatch(1);
-    private final AtomicReference<ContractException> error = new AtomicReference<>();
+    private final CompletableFuture<Void> commitFuture = new CompletableFuture<>();
 
     public CommitHandlerImpl(final String transactionId, final Network network, final CommitStrategy strategy) {
         this.transactionId = transactionId;
@@ -61,23 +61,26 @@ public final class CommitHandlerImpl implements CommitHandler {
     @Override
     public void waitForEvents(final long timeout, final TimeUnit timeUnit) throws ContractException, TimeoutException, InterruptedException {
         try {
-            boolean complete = latch.await(timeout, timeUnit);
-            if (!complete) {
-                throw new TimeoutException("Timeout waiting for commit of transaction " + transactionId);
-            }
+            commitFuture.get(timeout, timeUnit);
+        } catch (TimeoutException e) {
+            throw new TimeoutException("Timeout waiting for commit of transaction " + transactionId);
+        } catch (ExecutionException e) {
+            // Only ever completed exceptionally with a ContractException
+            throw (ContractException) e.getCause();
         } finally {
             cancelListening();
         }
+    }
 
-        ContractException cause = error.get();
-        if (cause != null) {
-            throw cause;
-        }
+    @Override
+    public CompletableFuture<Void> whenCommitted(final long timeout, final TimeUnit timeUnit, final Executor executor) {
+        // Dependent future so callers cannot complete our internal state
+        return commitFuture.thenApply(result -> result);
     }
 
     @Override
     public void cancelListening() {
-        latch.countDown();
+        commitFuture.complete(null);
         network.removeCommitListener(listener);
         peers.clear();
     }
@@ -124,7 +127,7 @@ public final class CommitHandlerImpl implements CommitHandler {
     }
 
     private void fail(final ContractException e) {
-        error.set(e);
+        commitFuture.completeExceptionally(e);
         cancelListening();
     }
 }
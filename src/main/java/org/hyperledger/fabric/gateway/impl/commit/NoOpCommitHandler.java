@@ -6,6 +6,8 @@
 
 package org.hyperledger.fabric.gateway.impl.commit;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 import org.hyperledger.fabric.gateway.spi.CommitHandler;
@@ -19,6 +21,11 @@ public enum NoOpCommitHandler implements CommitHandler {
     @Override
     public void waitForEvents(final long timeout, final TimeUnit timeUnit) { }
 
+    @Override
+    public CompletableFuture<Void> whenCommitted(final long timeout, final TimeUnit timeUnit, final Executor executor) {
+        return CompletableFuture.completedFuture(null);
+    }
+
     @Override
     public void cancelListening() { }
 }
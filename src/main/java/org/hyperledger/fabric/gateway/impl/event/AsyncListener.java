@@ -0,0 +1,214 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.event;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.hyperledger.fabric.gateway.ListenerDelivery;
+import org.hyperledger.fabric.gateway.impl.GatewayUtils;
+
+/**
+ * Wraps a listener so that events are placed in a bounded queue and delivered to the listener on an executor. Events
+ * are delivered one at a time and in the order they were received. The action taken when the queue is full is
+ * determined by the overflow policy.
+ * <p>
+ * This implementation is thread-safe.
+ * </p>
+ * @param <T> Event type.
+ */
+final class AsyncListener<T> implements Consumer<T> {
+    private static final Log LOG = LogFactory.getLog(AsyncListener.class);
+    private static final Executor DEFAULT_EXECUTOR = newDefaultExecutor();
+
+    private static final class Entry<T> {
+        private final T event;
+        private final long queuedNanos;
+
+        Entry(final T event) {
+            this.event = event;
+            this.queuedNanos = System.nanoTime();
+        }
+    }
+
+    private final Consumer<T> listener;
+    private final ListenerDelivery.OverflowPolicy overflowPolicy;
+    private final Executor executor;
+    private final ListenerMetricsImpl metrics;
+    private final Runnable overflowHandler;
+    private final BlockingQueue<Entry<T>> queue;
+    private final AtomicInteger drainRequests = new AtomicInteger(0);
+    private final AtomicBoolean overflowed = new AtomicBoolean(false);
+    private volatile long deliveringQueuedNanos = 0;
+    private volatile boolean delivering = false;
+    private volatile boolean closed = false;
+
+    /**
+     * Use virtual threads where the runtime provides them, otherwise a pool of daemon threads.
+     * @return An executor.
+     */
+    private static Executor newDefaultExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return Executors.newCachedThreadPool(GatewayUtils.newDaemonThreadFactory("fabric-gateway-listener"));
+        }
+    }
+
+    /**
+     * Constructor.
+     * @param listener Listener to which events are delivered.
+     * @param delivery Asynchronous delivery options.
+     * @param metrics Metrics to update.
+     * @param overflowHandler Invoked on the delivery executor after the queue overflows with the
+     * {@link ListenerDelivery.OverflowPolicy#DISCONNECT DISCONNECT} policy.
+     */
+    AsyncListener(final Consumer<T> listener, final ListenerDelivery delivery, final ListenerMetricsImpl metrics,
+                  final Runnable overflowHandler) {
+        this.listener = listener;
+        this.overflowPolicy = delivery.getOverflowPolicy();
+        this.executor = delivery.getExecutor().orElse(DEFAULT_EXECUTOR);
+        this.metrics = metrics;
+        this.overflowHandler = overflowHandler;
+        this.queue = new ArrayBlockingQueue<>(delivery.getQueueCapacity());
+    }
+
+    @Override
+    public void accept(final T event) {
+        if (closed || overflowed.get()) {
+            return;
+        }
+
+        Entry<T> entry = new Entry<>(event);
+        switch (overflowPolicy) {
+            case BLOCK:
+                try {
+                    queue.put(entry);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    metrics.dropped();
+                    return;
+                }
+                break;
+            case DROP_OLDEST:
+                while (!queue.offer(entry)) {
+                    if (queue.poll() != null) {
+                        metrics.dropped();
+                    }
+                }
+                break;
+            case DISCONNECT:
+            default:
+                if (!queue.offer(entry)) {
+                    metrics.dropped();
+                    if (overflowed.compareAndSet(false, true)) {
+                        LOG.warn("Disconnecting listener with full event queue: " + listener);
+                        metrics.disconnected();
+                    }
+                }
+                break;
+        }
+
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        if (drainRequests.getAndIncrement() != 0) {
+            return; // Already draining
+        }
+
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            drainRequests.set(0);
+            LOG.error("Failed to schedule event delivery for listener: " + listener, e);
+        }
+    }
+
+    private void drain() {
+        int missed = 1;
+        do {
+            deliverQueuedEvents();
+            missed = drainRequests.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void deliverQueuedEvents() {
+        while (!closed) {
+            if (overflowed.get()) {
+                int discarded = queue.size();
+                queue.clear();
+                metrics.dropped(discarded);
+                closed = true;
+                overflowHandler.run();
+                return;
+            }
+
+            Entry<T> entry = queue.poll();
+            if (null == entry) {
+                return;
+            }
+
+            deliver(entry);
+        }
+    }
+
+    private void deliver(final Entry<T> entry) {
+        deliveringQueuedNanos = entry.queuedNanos;
+        delivering = true;
+        try {
+            listener.accept(entry.event);
+            metrics.delivered();
+        } catch (RuntimeException e) {
+            LOG.error("Exception notifying listener", e);
+        } finally {
+            delivering = false;
+        }
+    }
+
+    /**
+     * Stop delivering events and discard any queued events.
+     */
+    void close() {
+        closed = true;
+        queue.clear(); // Releases any threads blocked adding to a full queue
+    }
+
+    int getQueueSize() {
+        return queue.size();
+    }
+
+    long getLagNanos() {
+        long now = System.nanoTime();
+        long lag = 0;
+        if (delivering) {
+            lag = now - deliveringQueuedNanos;
+        }
+        Entry<T> head = queue.peek();
+        if (head != null) {
+            lag = Math.max(lag, now - head.queuedNanos);
+        }
+        return lag;
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this,
+                "listener=" + listener,
+                "overflowPolicy=" + overflowPolicy,
+                "queueSize=" + queue.size());
+    }
+}
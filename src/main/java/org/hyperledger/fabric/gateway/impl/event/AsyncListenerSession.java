@@ -0,0 +1,104 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.event;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.hyperledger.fabric.gateway.ListenerDelivery;
+import org.hyperledger.fabric.gateway.ListenerMetrics;
+import org.hyperledger.fabric.gateway.impl.GatewayUtils;
+import org.hyperledger.fabric.sdk.BlockEvent;
+
+/**
+ * Delivers events to a listener asynchronously through a bounded queue. The underlying session is created by a
+ * supplied factory function, and is re-created if the listener is disconnected because its queue overflowed.
+ */
+public final class AsyncListenerSession implements ListenerSession {
+    private static final Log LOG = LogFactory.getLog(AsyncListenerSession.class);
+
+    /**
+     * Creates the underlying session for a listener.
+     */
+    @FunctionalInterface
+    public interface SessionFactory {
+        /**
+         * Create a session for the given listener.
+         * @param listener A block listener.
+         * @return A listener session.
+         * @throws IOException if an error occurs establishing the session.
+         */
+        ListenerSession newSession(Consumer<BlockEvent> listener) throws IOException;
+    }
+
+    private final Consumer<BlockEvent> listener;
+    private final ListenerDelivery delivery;
+    private final SessionFactory sessionFactory;
+    private final ListenerMetricsImpl metrics = new ListenerMetricsImpl();
+
+    // Non-threadsafe state synchronized by stateLock
+    private final Object stateLock = new Object();
+    private AsyncListener<BlockEvent> asyncListener;
+    private ListenerSession session;
+    private boolean closed = false;
+
+    public AsyncListenerSession(final Consumer<BlockEvent> listener, final ListenerDelivery delivery,
+                                final SessionFactory sessionFactory) throws IOException {
+        this.listener = listener;
+        this.delivery = delivery;
+        this.sessionFactory = sessionFactory;
+
+        synchronized (stateLock) {
+            connect();
+        }
+    }
+
+    private void connect() throws IOException {
+        asyncListener = new AsyncListener<>(listener, delivery, metrics, this::reconnect);
+        metrics.setListener(asyncListener);
+        session = sessionFactory.newSession(asyncListener);
+    }
+
+    private void reconnect() {
+        synchronized (stateLock) {
+            if (closed) {
+                return;
+            }
+
+            session.close();
+            asyncListener.close();
+            try {
+                connect();
+            } catch (IOException | RuntimeException e) {
+                LOG.error("Failed to reconnect listener after queue overflow: " + listener, e);
+            }
+        }
+    }
+
+    public ListenerMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void close() {
+        synchronized (stateLock) {
+            closed = true;
+            session.close();
+            asyncListener.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this,
+                "delivery=" + delivery,
+                "metrics=" + metrics,
+                "session=" + session);
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.event;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.hyperledger.fabric.gateway.CheckpointPolicy;
+import org.hyperledger.fabric.gateway.impl.GatewayUtils;
+import org.hyperledger.fabric.gateway.spi.Checkpointer;
+import org.hyperledger.fabric.sdk.BlockEvent;
+
+/**
+ * Block listener that delivers all the events in each block and then checkpoints according to a
+ * {@link CheckpointPolicy}, rather than checkpointing every transaction. The position reached is held in memory between
+ * checkpoints; {@link #flush()} checkpoints any outstanding position.
+ */
+public final class BatchCheckpointListener implements Consumer<BlockEvent> {
+    private static final Log LOG = LogFactory.getLog(BatchCheckpointListener.class);
+
+    private final Checkpointer checkpointer;
+    private final CheckpointPolicy policy;
+    private final Consumer<BlockEvent> blockListener;
+    private final Consumer<BlockEvent.TransactionEvent> transactionListener;
+
+    // Guarded by checkpointer
+    private long nextBlockNumber = Checkpointer.UNSET_BLOCK_NUMBER;
+    private int uncheckpointedBlocks = 0;
+    private long lastCheckpointNanos = System.nanoTime();
+
+    private BatchCheckpointListener(final Checkpointer checkpointer, final CheckpointPolicy policy,
+                                    final Consumer<BlockEvent> blockListener,
+                                    final Consumer<BlockEvent.TransactionEvent> transactionListener) {
+        this.checkpointer = checkpointer;
+        this.policy = policy;
+        this.blockListener = blockListener;
+        this.transactionListener = transactionListener;
+    }
+
+    /**
+     * Create a listener that delivers whole blocks.
+     * @param checkpointer Checkpointer.
+     * @param policy Checkpoint policy.
+     * @param listener Block listener.
+     * @return A block listener.
+     */
+    public static BatchCheckpointListener forBlocks(final Checkpointer checkpointer, final CheckpointPolicy policy,
+                                                    final Consumer<BlockEvent> listener) {
+        return new BatchCheckpointListener(checkpointer, policy, listener, null);
+    }
+
+    /**
+     * Create a listener that delivers the transactions within each block, skipping any already recorded by the
+     * checkpointer.
+     * @param checkpointer Checkpointer.
+     * @param policy Checkpoint policy.
+     * @param listener Transaction listener.
+     * @return A block listener.
+     */
+    public static BatchCheckpointListener forTransactions(final Checkpointer checkpointer, final CheckpointPolicy policy,
+                                                          final Consumer<BlockEvent.TransactionEvent> listener) {
+        return new BatchCheckpointListener(checkpointer, policy, null, listener);
+    }
+
+    @Override
+    public void accept(final BlockEvent blockEvent) {
+        final long eventBlockNumber = blockEvent.getBlockNumber();
+        try {
+            synchronized (checkpointer) {
+                if (Checkpointer.UNSET_BLOCK_NUMBER == nextBlockNumber) {
+                    nextBlockNumber = checkpointer.getBlockNumber();
+                }
+                if (Checkpointer.UNSET_BLOCK_NUMBER == nextBlockNumber) {
+                    // Record a starting block in case we don't complete handling and checkpoint below
+                    nextBlockNumber = eventBlockNumber;
+                    checkpointer.setBlockNumber(nextBlockNumber);
+                }
+
+                if (eventBlockNumber != nextBlockNumber) {
+                    LOG.debug("Reject block number " + eventBlockNumber + " for checkpointer " + checkpointer);
+                    return;
+                }
+
+                if (transactionListener != null) {
+                    processTransactions(blockEvent);
+                } else {
+                    blockListener.accept(blockEvent);
+                }
+
+                nextBlockNumber = eventBlockNumber + 1;
+                uncheckpointedBlocks++;
+                if (policy.isCheckpointRequired(uncheckpointedBlocks, System.nanoTime() - lastCheckpointNanos)) {
+                    checkpoint();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void processTransactions(final BlockEvent blockEvent) throws IOException {
+        final long eventBlockNumber = blockEvent.getBlockNumber();
+        final boolean isCheckpointedBlock = checkpointer.getBlockNumber() == eventBlockNumber;
+        final Set<String> processedIds = new LinkedHashSet<>();
+
+        try {
+            for (BlockEvent.TransactionEvent transactionEvent : blockEvent.getTransactionEvents()) {
+                String transactionId = transactionEvent.getTransactionID();
+                if (processedIds.contains(transactionId)
+                        || (isCheckpointedBlock && checkpointer.containsTransactionId(transactionId))) {
+                    LOG.debug("Reject transaction ID " + transactionId + " for checkpointer " + checkpointer);
+                    continue;
+                }
+                transactionListener.accept(transactionEvent);
+                processedIds.add(transactionId);
+            }
+        } catch (RuntimeException e) {
+            // Record progress within the block so processed transactions are not redelivered on retry
+            if (!processedIds.isEmpty()) {
+                if (!isCheckpointedBlock) {
+                    checkpointer.setBlockNumber(eventBlockNumber);
+                }
+                checkpointer.addTransactionIds(processedIds);
+                uncheckpointedBlocks = 0;
+                lastCheckpointNanos = System.nanoTime();
+            }
+            throw e;
+        }
+    }
+
+    private void checkpoint() throws IOException {
+        checkpointer.setBlockNumber(nextBlockNumber);
+        uncheckpointedBlocks = 0;
+        lastCheckpointNanos = System.nanoTime();
+    }
+
+    /**
+     * Checkpoint the position reached if it has not already been checkpointed.
+     * @throws IOException if the checkpointer fails to persist state.
+     */
+    public void flush() throws IOException {
+        synchronized (checkpointer) {
+            if (uncheckpointedBlocks > 0) {
+                checkpoint();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this,
+                "checkpointer=" + checkpointer,
+                "policy=" + policy);
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.event;
+
+import java.util.Collection;
+import java.util.EnumSet;
+
+import org.hyperledger.fabric.gateway.BlockEventType;
+import org.hyperledger.fabric.gateway.GatewayRuntimeException;
+import org.hyperledger.fabric.gateway.impl.GatewayImpl;
+import org.hyperledger.fabric.gateway.impl.GatewayUtils;
+import org.hyperledger.fabric.gateway.impl.NetworkImpl;
+import org.hyperledger.fabric.sdk.Channel;
+import org.hyperledger.fabric.sdk.HFClient;
+import org.hyperledger.fabric.sdk.Peer;
+import org.hyperledger.fabric.sdk.exception.InvalidArgumentException;
+
+/**
+ * Isolated client connection to the event source peers of a network's channel, delivering a specific type of block
+ * event. No events are received until {@link #connect()} is called, so listeners can be attached to the block source
+ * first without missing any events.
+ */
+final class ChannelEventConnection implements AutoCloseable {
+    private final BlockEventType eventType;
+    private final long startBlock;
+    private final GatewayImpl gateway;
+    private final Channel channel;
+    private final Collection<Peer> eventingPeers;
+    private final BlockEventSource channelBlockSource;
+    private final BlockEventSource blockSource;
+
+    /**
+     * Create a connection.
+     * @param network Network whose channel should be used.
+     * @param eventType Type of block events to receive.
+     * @param startBlock Block number from which to receive events, or a negative value to receive only new events.
+     */
+    ChannelEventConnection(final NetworkImpl network, final BlockEventType eventType, final long startBlock) {
+        this.eventType = eventType;
+        this.startBlock = startBlock;
+
+        gateway = network.getGateway().newInstance();
+        String channelName = network.getChannel().getName();
+        channel = gateway.getNetwork(channelName).getChannel();
+
+        // Remove old peers first to avoid receiving spurious events from them
+        eventingPeers = channel.getPeers(EnumSet.of(Peer.PeerRole.EVENT_SOURCE));
+        removeAllPeers();
+
+        channelBlockSource = BlockEventSourceFactory.getInstance().newBlockEventSource(channel);
+        blockSource = network.newDecodingBlockSource(channelBlockSource);
+    }
+
+    private void removeAllPeers() {
+        try {
+            for (Peer peer : channel.getPeers()) {
+                channel.removePeer(peer);
+            }
+        } catch (InvalidArgumentException e) {
+            throw new GatewayRuntimeException("Failed to remove peers from channel", e);
+        }
+    }
+
+    /**
+     * Block event source for this connection.
+     * @return A block event source.
+     */
+    BlockEventSource getBlockSource() {
+        return blockSource;
+    }
+
+    /**
+     * Start receiving events by connecting to the event source peers.
+     */
+    void connect() {
+        HFClient client = gateway.getClient();
+        try {
+            for (Peer originalPeer : eventingPeers) {
+                Peer eventPeer = client.newPeer(originalPeer.getName(), originalPeer.getUrl(), originalPeer.getProperties());
+                Channel.PeerOptions options = Channel.PeerOptions.createPeerOptions()
+                        .addPeerRole(Peer.PeerRole.EVENT_SOURCE);
+                if (startBlock >= 0) {
+                    options = options.startEvents(startBlock);
+                }
+                channel.addPeer(eventPeer, EventPeers.withEventType(options, eventType));
+            }
+        } catch (InvalidArgumentException e) {
+            throw new GatewayRuntimeException("Failed to add peers for event connection", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        blockSource.close();
+        channelBlockSource.close();
+        gateway.close();
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this,
+                "eventType=" + eventType,
+                "startBlock=" + startBlock,
+                "channel=" + channel);
+    }
+}
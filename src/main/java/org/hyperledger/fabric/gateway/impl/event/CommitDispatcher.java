@@ -0,0 +1,111 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.event;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.hyperledger.fabric.gateway.impl.GatewayUtils;
+import org.hyperledger.fabric.gateway.spi.CommitListener;
+import org.hyperledger.fabric.gateway.spi.PeerDisconnectEvent;
+import org.hyperledger.fabric.sdk.BlockEvent;
+import org.hyperledger.fabric.sdk.Peer;
+
+/**
+ * Routes transaction commit events from a block event source, and disconnect events from peers, to commit listeners
+ * registered for specific transactions. A single block listener is attached to the block event source and a single
+ * disconnect listener to each peer, regardless of the number of transactions awaiting commit. Transaction events are
+ * routed to listeners by a transaction ID lookup rather than every listener inspecting every transaction.
+ * <p>
+ * This implementation is thread-safe.
+ * </p>
+ */
+public final class CommitDispatcher implements AutoCloseable {
+    private final BlockEventSource blockSource;
+    private final Consumer<BlockEvent> blockListener;
+    private final Map<String, ListenerSet<CommitListenerSession>> transactionSessions = new ConcurrentHashMap<>();
+    private final Map<Peer, ListenerSet<CommitListenerSession>> peerSessions = new ConcurrentHashMap<>();
+    private final Map<Peer, PeerDisconnectListenerSession> disconnectListenerSessions = new ConcurrentHashMap<>();
+
+    public CommitDispatcher(final BlockEventSource blockSource) {
+        this.blockSource = blockSource;
+        this.blockListener = blockSource.addBlockListener(Listeners.fromTransaction(this::receivedTransaction));
+    }
+
+    /**
+     * Add a listener to receive commit events for a given transaction from a set of peers, and disconnect events for
+     * those peers.
+     * @param listener A commit listener.
+     * @param peers Peers from which to receive events.
+     * @param transactionId A transaction ID.
+     * @return A session that removes the listener when closed.
+     */
+    public CommitListenerSession addCommitListener(final CommitListener listener,
+                                                   final Collection<Peer> peers,
+                                                   final String transactionId) {
+        CommitListenerSession session = new CommitListenerSession(this, listener, peers, transactionId);
+
+        transactionSessions.compute(transactionId, (key, sessions) -> add(sessions, session));
+        peers.forEach(peer -> {
+            peerSessions.compute(peer, (key, sessions) -> add(sessions, session));
+            disconnectListenerSessions.computeIfAbsent(peer, key -> new PeerDisconnectListenerSession(peer, this::receivedDisconnect));
+        });
+
+        return session;
+    }
+
+    void removeCommitListener(final CommitListenerSession session) {
+        transactionSessions.computeIfPresent(session.getTransactionId(), (key, sessions) -> remove(sessions, session));
+        session.getPeers().forEach(peer -> peerSessions.computeIfPresent(peer, (key, sessions) -> remove(sessions, session)));
+    }
+
+    private static ListenerSet<CommitListenerSession> add(final ListenerSet<CommitListenerSession> sessions,
+                                                          final CommitListenerSession session) {
+        ListenerSet<CommitListenerSession> result = sessions != null ? sessions : new ListenerSet<>();
+        result.add(session);
+        return result;
+    }
+
+    private static ListenerSet<CommitListenerSession> remove(final ListenerSet<CommitListenerSession> sessions,
+                                                             final CommitListenerSession session) {
+        sessions.remove(session);
+        return sessions.isEmpty() ? null : sessions;
+    }
+
+    private void receivedTransaction(final BlockEvent.TransactionEvent transactionEvent) {
+        ListenerSet<CommitListenerSession> sessions = transactionSessions.get(transactionEvent.getTransactionID());
+        if (sessions != null) {
+            sessions.forEach(session -> session.acceptCommit(transactionEvent));
+        }
+    }
+
+    private void receivedDisconnect(final PeerDisconnectEvent disconnectEvent) {
+        ListenerSet<CommitListenerSession> sessions = peerSessions.get(disconnectEvent.getPeer());
+        if (sessions != null) {
+            sessions.forEach(session -> session.acceptDisconnect(disconnectEvent));
+        }
+    }
+
+    @Override
+    public void close() {
+        blockSource.removeBlockListener(blockListener);
+        disconnectListenerSessions.values().forEach(PeerDisconnectListenerSession::close);
+        disconnectListenerSessions.clear();
+        transactionSessions.clear();
+        peerSessions.clear();
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this,
+                "blockSource=" + blockSource,
+                "pendingTransactions=" + transactionSessions.size(),
+                "disconnectListenerSessions=" + disconnectListenerSessions.values());
+    }
+}
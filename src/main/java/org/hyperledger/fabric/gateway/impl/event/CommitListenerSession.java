@@ -7,8 +7,8 @@
 package org.hyperledger.fabric.gateway.impl.event;
 
 import java.util.Collection;
-import java.util.function.Consumer;
-import java.util.stream.Collectors;
+import java.util.HashSet;
+import java.util.Set;
 
 import org.hyperledger.fabric.gateway.impl.GatewayUtils;
 import org.hyperledger.fabric.gateway.spi.CommitListener;
@@ -17,37 +17,53 @@ import org.hyperledger.fabric.sdk.BlockEvent;
 import org.hyperledger.fabric.sdk.Peer;
 
 /**
- * Adds and removes listeners to transactions commit events (from a given block source) and disconnect events (from given
- * peers).
+ * Registration of a commit listener for a specific transaction and set of peers with a {@link CommitDispatcher}.
+ * Closing the session removes the listener from the dispatcher.
  */
 public final class CommitListenerSession implements ListenerSession {
-    private final BlockListenerSession blockListenerSession;
-    private final Collection<PeerDisconnectListenerSession> disconnectListenerSessions;
-
-    public CommitListenerSession(final BlockEventSource blockSource,
-                                 final CommitListener commitListener,
-                                 final Collection<Peer> peers,
-                                 final String transactionId) {
-        Consumer<BlockEvent.TransactionEvent> transactionListener = Listeners.transaction(commitListener, peers, transactionId);
-        Consumer<BlockEvent> blockListener = Listeners.fromTransaction(transactionListener);
-        blockListenerSession = new BlockListenerSession(blockSource, blockListener);
-
-        Consumer<PeerDisconnectEvent> disconnectListener = commitListener::acceptDisconnect;
-        disconnectListenerSessions = peers.stream()
-                .map(peer -> new PeerDisconnectListenerSession(peer, disconnectListener))
-                .collect(Collectors.toList());
+    private final CommitDispatcher dispatcher;
+    private final CommitListener listener;
+    private final Set<Peer> peers;
+    private final String transactionId;
+
+    CommitListenerSession(final CommitDispatcher dispatcher,
+                          final CommitListener listener,
+                          final Collection<Peer> peers,
+                          final String transactionId) {
+        this.dispatcher = dispatcher;
+        this.listener = listener;
+        this.peers = new HashSet<>(peers);
+        this.transactionId = transactionId;
+    }
+
+    String getTransactionId() {
+        return transactionId;
+    }
+
+    Set<Peer> getPeers() {
+        return peers;
+    }
+
+    void acceptCommit(final BlockEvent.TransactionEvent transactionEvent) {
+        if (peers.contains(transactionEvent.getPeer())) {
+            listener.acceptCommit(transactionEvent);
+        }
+    }
+
+    void acceptDisconnect(final PeerDisconnectEvent disconnectEvent) {
+        listener.acceptDisconnect(disconnectEvent);
     }
 
     @Override
     public void close() {
-        blockListenerSession.close();
-        disconnectListenerSessions.forEach(PeerDisconnectListenerSession::close);
+        dispatcher.removeCommitListener(this);
     }
 
     @Override
     public String toString() {
         return GatewayUtils.toString(this,
-                "blockListenerSession=" + blockListenerSession,
-                "disconnectListenerSessions=" + disconnectListenerSessions);
+                "transactionId=" + transactionId,
+                "peers=" + peers,
+                "listener=" + listener);
     }
 }
@@ -6,6 +6,7 @@
 
 package org.hyperledger.fabric.gateway.impl.event;
 
+import java.nio.ByteBuffer;
 import java.util.Optional;
 
 import org.hyperledger.fabric.gateway.ContractEvent;
@@ -13,11 +14,15 @@ import org.hyperledger.fabric.sdk.BlockEvent;
 import org.hyperledger.fabric.sdk.ChaincodeEvent;
 
 /**
- * Provides a contract event view of a chaincode event and associated data.
+ * Provides a contract event view of a chaincode event and associated data. Event data is read from the chaincode event
+ * only when requested, and the payload is extracted at most once.
  */
 public final class ContractEventImpl implements ContractEvent {
+    private static final byte[] NO_PAYLOAD = new byte[0];
+
     private final ChaincodeEvent chaincodeEvent;
     private final BlockEvent.TransactionEvent transactionEvent;
+    private volatile byte[] payload; // Lazily initialized; NO_PAYLOAD if the chaincode event has no payload
 
     public ContractEventImpl(final BlockEvent.TransactionEvent transactionEvent, final ChaincodeEvent chaincodeEvent) {
         this.chaincodeEvent = chaincodeEvent;
@@ -41,6 +46,28 @@ public final class ContractEventImpl implements ContractEvent {
 
     @Override
     public Optional<byte[]> getPayload() {
-        return Optional.ofNullable(chaincodeEvent.getPayload());
+        if (payload == null) {
+            // Chaincode event returns a new copy on each call
+            return Optional.ofNullable(chaincodeEvent.getPayload());
+        }
+        // Event may be shared by several listeners so each caller gets its own copy
+        return getPayloadBytes().map(byte[]::clone);
+    }
+
+    @Override
+    public Optional<ByteBuffer> getPayloadBuffer() {
+        return getPayloadBytes().map(bytes -> ByteBuffer.wrap(bytes).asReadOnlyBuffer());
+    }
+
+    private Optional<byte[]> getPayloadBytes() {
+        byte[] result = payload;
+        if (result == null) {
+            result = chaincodeEvent.getPayload();
+            if (result == null) {
+                result = NO_PAYLOAD;
+            }
+            payload = result;
+        }
+        return result != NO_PAYLOAD ? Optional.of(result) : Optional.empty();
     }
 }
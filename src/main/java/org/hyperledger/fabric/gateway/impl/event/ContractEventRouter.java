@@ -0,0 +1,229 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.hyperledger.fabric.gateway.ContractEvent;
+import org.hyperledger.fabric.gateway.impl.GatewayUtils;
+import org.hyperledger.fabric.sdk.BlockEvent;
+import org.hyperledger.fabric.sdk.BlockInfo;
+import org.hyperledger.fabric.sdk.ChaincodeEvent;
+
+/**
+ * Routes contract events from a block event source to contract listeners. Each block is scanned once, regardless of
+ * the number of listeners, and each chaincode event is dispatched only to listeners for its chaincode ID whose event
+ * name filter matches. Listeners are indexed by chaincode ID and then by exact event name, so regular expressions are
+ * only evaluated for listeners registered with an event name pattern.
+ * <p>Registration changes rebuild an immutable index, so event dispatch does not require any locking.</p>
+ */
+public final class ContractEventRouter implements AutoCloseable {
+    private static final Log LOG = LogFactory.getLog(ContractEventRouter.class);
+
+    private final BlockEventSource blockSource;
+    private final Consumer<BlockEvent> blockListener = this::receivedBlock;
+    private final Object lock = new Object();
+    private final List<Route> allRoutes = new ArrayList<>(); // Guarded by lock
+    private boolean isAttached = false; // Guarded by lock
+    private volatile Map<String, ChaincodeRoutes> routes = Collections.emptyMap();
+
+    public ContractEventRouter(final BlockEventSource blockSource) {
+        this.blockSource = blockSource;
+    }
+
+    /**
+     * Add a listener for all events emitted by a chaincode.
+     * @param chaincodeId Chaincode ID.
+     * @param listener Contract listener.
+     * @return A session that removes the listener when closed.
+     */
+    public ListenerSession addListener(final String chaincodeId, final Consumer<ContractEvent> listener) {
+        return addRoute(new Route(chaincodeId, null, null, listener));
+    }
+
+    /**
+     * Add a listener for events with a specific name emitted by a chaincode.
+     * @param chaincodeId Chaincode ID.
+     * @param eventName Event name.
+     * @param listener Contract listener.
+     * @return A session that removes the listener when closed.
+     */
+    public ListenerSession addListener(final String chaincodeId, final String eventName, final Consumer<ContractEvent> listener) {
+        return addRoute(new Route(chaincodeId, eventName, null, listener));
+    }
+
+    /**
+     * Add a listener for events emitted by a chaincode with names that entirely match a pattern.
+     * @param chaincodeId Chaincode ID.
+     * @param eventNamePattern Event name pattern.
+     * @param listener Contract listener.
+     * @return A session that removes the listener when closed.
+     */
+    public ListenerSession addListener(final String chaincodeId, final Pattern eventNamePattern, final Consumer<ContractEvent> listener) {
+        return addRoute(new Route(chaincodeId, null, eventNamePattern, listener));
+    }
+
+    private ListenerSession addRoute(final Route route) {
+        synchronized (lock) {
+            allRoutes.add(route);
+            rebuildIndex();
+            if (!isAttached) {
+                blockSource.addBlockListener(blockListener);
+                isAttached = true;
+            }
+        }
+        return () -> removeRoute(route);
+    }
+
+    private void removeRoute(final Route route) {
+        route.isClosed = true;
+        synchronized (lock) {
+            if (!allRoutes.remove(route)) {
+                return;
+            }
+            rebuildIndex();
+            if (allRoutes.isEmpty() && isAttached) {
+                blockSource.removeBlockListener(blockListener);
+                isAttached = false;
+            }
+        }
+    }
+
+    private void rebuildIndex() {
+        Map<String, ChaincodeRoutes> index = new HashMap<>();
+        allRoutes.forEach(route -> index.computeIfAbsent(route.chaincodeId, k -> new ChaincodeRoutes()).add(route));
+        routes = index;
+    }
+
+    /**
+     * Get the number of registered listeners.
+     * @return Listener count.
+     */
+    public int getListenerCount() {
+        synchronized (lock) {
+            return allRoutes.size();
+        }
+    }
+
+    private void receivedBlock(final BlockEvent blockEvent) {
+        final Map<String, ChaincodeRoutes> currentRoutes = routes;
+        if (currentRoutes.isEmpty()) {
+            return;
+        }
+
+        for (BlockEvent.TransactionEvent transactionEvent : blockEvent.getTransactionEvents()) {
+            for (BlockInfo.TransactionEnvelopeInfo.TransactionActionInfo actionInfo : transactionEvent.getTransactionActionInfos()) {
+                ChaincodeEvent chaincodeEvent = actionInfo.getEvent();
+                if (chaincodeEvent == null) {
+                    continue;
+                }
+                ChaincodeRoutes chaincodeRoutes = currentRoutes.get(chaincodeEvent.getChaincodeId());
+                if (chaincodeRoutes != null) {
+                    chaincodeRoutes.dispatch(transactionEvent, chaincodeEvent);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (lock) {
+            allRoutes.forEach(route -> route.isClosed = true);
+            allRoutes.clear();
+            routes = Collections.emptyMap();
+            if (isAttached) {
+                blockSource.removeBlockListener(blockListener);
+                isAttached = false;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this,
+                "blockSource=" + blockSource,
+                "listenerCount=" + getListenerCount());
+    }
+
+    private static final class Route {
+        final String chaincodeId;
+        final String eventName;
+        final Pattern eventNamePattern;
+        final Consumer<ContractEvent> listener;
+        volatile boolean isClosed = false;
+
+        Route(final String chaincodeId, final String eventName, final Pattern eventNamePattern,
+              final Consumer<ContractEvent> listener) {
+            this.chaincodeId = chaincodeId;
+            this.eventName = eventName;
+            this.eventNamePattern = eventNamePattern;
+            this.listener = listener;
+        }
+    }
+
+    /**
+     * Listeners for a single chaincode. Only modified while the index is being built.
+     */
+    private static final class ChaincodeRoutes {
+        private final List<Route> unfiltered = new ArrayList<>();
+        private final Map<String, List<Route>> byName = new HashMap<>();
+        private final List<Route> byPattern = new ArrayList<>();
+
+        void add(final Route route) {
+            if (route.eventName != null) {
+                byName.computeIfAbsent(route.eventName, k -> new ArrayList<>()).add(route);
+            } else if (route.eventNamePattern != null) {
+                byPattern.add(route);
+            } else {
+                unfiltered.add(route);
+            }
+        }
+
+        void dispatch(final BlockEvent.TransactionEvent transactionEvent, final ChaincodeEvent chaincodeEvent) {
+            final String name = chaincodeEvent.getEventName();
+            ContractEvent event = null;
+
+            for (Route route : unfiltered) {
+                event = notify(route, event, transactionEvent, chaincodeEvent);
+            }
+            for (Route route : byName.getOrDefault(name, Collections.emptyList())) {
+                event = notify(route, event, transactionEvent, chaincodeEvent);
+            }
+            for (Route route : byPattern) {
+                if (route.eventNamePattern.matcher(name).matches()) {
+                    event = notify(route, event, transactionEvent, chaincodeEvent);
+                }
+            }
+        }
+
+        /**
+         * Notify a listener, creating the contract event only once it is known to be required.
+         * @return The contract event.
+         */
+        private static ContractEvent notify(final Route route, final ContractEvent event,
+                                            final BlockEvent.TransactionEvent transactionEvent, final ChaincodeEvent chaincodeEvent) {
+            if (route.isClosed) {
+                return event;
+            }
+            ContractEvent result = event != null ? event : new ContractEventImpl(transactionEvent, chaincodeEvent);
+            try {
+                route.listener.accept(result);
+            } catch (RuntimeException e) {
+                LOG.error("Exception notifying contract listener", e);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.event;
+
+import java.util.EnumSet;
+
+import org.hyperledger.fabric.gateway.BlockEventType;
+import org.hyperledger.fabric.gateway.GatewayRuntimeException;
+import org.hyperledger.fabric.sdk.Channel;
+import org.hyperledger.fabric.sdk.HFClient;
+import org.hyperledger.fabric.sdk.Peer;
+import org.hyperledger.fabric.sdk.exception.InvalidArgumentException;
+
+/**
+ * Utility functions for configuring the type of block events delivered by channel peers.
+ */
+public final class EventPeers {
+    // Private constructor to prevent instantiation
+    private EventPeers() { }
+
+    /**
+     * Configure peer options to request a given type of block event.
+     * @param options Peer options.
+     * @param eventType Block event type.
+     * @return The peer options.
+     */
+    public static Channel.PeerOptions withEventType(final Channel.PeerOptions options, final BlockEventType eventType) {
+        switch (eventType) {
+            case FILTERED:
+                return options.registerEventsForFilteredBlocks();
+            case FULL_WITH_PRIVATE_DATA:
+                return options.registerEventsForPrivateData();
+            default:
+                return options.registerEventsForBlocks();
+        }
+    }
+
+    /**
+     * Replace the event source peers of an uninitialized channel with equivalent peers that request a given type of
+     * block event. Peer roles are unchanged. The SDK only allows the event type to be set when a peer is added to a
+     * channel, and a removed peer cannot be added again, so this must only be used on a channel whose peers have not
+     * been exposed to callers.
+     * @param client Client that owns the channel.
+     * @param channel An uninitialized channel created by the gateway.
+     * @param eventType Block event type.
+     */
+    public static void setEventType(final HFClient client, final Channel channel, final BlockEventType eventType) {
+        try {
+            for (Peer peer : channel.getPeers(EnumSet.of(Peer.PeerRole.EVENT_SOURCE))) {
+                Channel.PeerOptions options = channel.getPeersOptions(peer);
+                if (options == null || isEventType(options, eventType)) {
+                    continue;
+                }
+                channel.removePeer(peer);
+                Peer newPeer = client.newPeer(peer.getName(), peer.getUrl(), peer.getProperties());
+                channel.addPeer(newPeer, withEventType(options, eventType));
+            }
+        } catch (InvalidArgumentException e) {
+            throw new GatewayRuntimeException("Failed to configure event type for channel peers", e);
+        }
+    }
+
+    private static boolean isEventType(final Channel.PeerOptions options, final BlockEventType eventType) {
+        boolean isFiltered = Boolean.TRUE.equals(options.isRegisterEventsForFilteredBlocks());
+        return isFiltered == (eventType == BlockEventType.FILTERED) && eventType != BlockEventType.FULL_WITH_PRIVATE_DATA;
+    }
+}
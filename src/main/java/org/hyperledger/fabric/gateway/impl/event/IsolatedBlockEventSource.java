@@ -0,0 +1,90 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.event;
+
+import java.util.function.Consumer;
+
+import org.hyperledger.fabric.gateway.BlockEventType;
+import org.hyperledger.fabric.gateway.impl.GatewayUtils;
+import org.hyperledger.fabric.gateway.impl.NetworkImpl;
+import org.hyperledger.fabric.sdk.BlockEvent;
+
+/**
+ * Ordered block event source that receives a specific type of block event using its own connection to a network's
+ * event source peers. The connection is only opened when the first listener is added, and remains open until the
+ * event source is closed.
+ * <p>
+ * This implementation is thread-safe.
+ * </p>
+ */
+public final class IsolatedBlockEventSource implements BlockEventSource {
+    private final NetworkImpl network;
+    private final BlockEventType eventType;
+
+    // Non-threadsafe state synchronized by stateLock
+    private final Object stateLock = new Object();
+    private ChannelEventConnection connection = null;
+    private BlockEventSource blockSource = null;
+
+    public IsolatedBlockEventSource(final NetworkImpl network, final BlockEventType eventType) {
+        this.network = network;
+        this.eventType = eventType;
+    }
+
+    @Override
+    public Consumer<BlockEvent> addBlockListener(final Consumer<BlockEvent> listener) {
+        synchronized (stateLock) {
+            if (blockSource != null) {
+                return blockSource.addBlockListener(listener);
+            }
+
+            ChannelEventConnection newConnection = new ChannelEventConnection(network, eventType, -1);
+            try {
+                BlockEventSource newBlockSource = new OrderedBlockEventSource(newConnection.getBlockSource(), -1,
+                        network.getGateway().getBlockReorderWindow());
+                Consumer<BlockEvent> result = newBlockSource.addBlockListener(listener);
+                newConnection.connect();
+                connection = newConnection;
+                blockSource = newBlockSource;
+                return result;
+            } catch (RuntimeException e) {
+                newConnection.close();
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public void removeBlockListener(final Consumer<BlockEvent> listener) {
+        synchronized (stateLock) {
+            if (blockSource != null) {
+                blockSource.removeBlockListener(listener);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (stateLock) {
+            if (blockSource != null) {
+                blockSource.close();
+                connection.close();
+                blockSource = null;
+                connection = null;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        synchronized (stateLock) {
+            return GatewayUtils.toString(this,
+                    "eventType=" + eventType,
+                    "connection=" + connection);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.event;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hyperledger.fabric.gateway.ListenerMetrics;
+import org.hyperledger.fabric.gateway.impl.GatewayUtils;
+
+/**
+ * Delivery metrics for a listener, accumulated across any reconnections of the listener.
+ */
+final class ListenerMetricsImpl implements ListenerMetrics {
+    private final AtomicLong deliveredCount = new AtomicLong(0);
+    private final AtomicLong droppedCount = new AtomicLong(0);
+    private final AtomicLong disconnectCount = new AtomicLong(0);
+    private volatile AsyncListener<?> listener = null;
+
+    void setListener(final AsyncListener<?> listener) {
+        this.listener = listener;
+    }
+
+    void delivered() {
+        deliveredCount.incrementAndGet();
+    }
+
+    void dropped() {
+        droppedCount.incrementAndGet();
+    }
+
+    void dropped(final long count) {
+        droppedCount.addAndGet(count);
+    }
+
+    void disconnected() {
+        disconnectCount.incrementAndGet();
+    }
+
+    @Override
+    public int getQueueSize() {
+        AsyncListener<?> current = listener;
+        return current != null ? current.getQueueSize() : 0;
+    }
+
+    @Override
+    public long getLag(final TimeUnit timeUnit) {
+        AsyncListener<?> current = listener;
+        return current != null ? timeUnit.convert(current.getLagNanos(), TimeUnit.NANOSECONDS) : 0;
+    }
+
+    @Override
+    public long getDeliveredCount() {
+        return deliveredCount.get();
+    }
+
+    @Override
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    @Override
+    public long getDisconnectCount() {
+        return disconnectCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this,
+                "queueSize=" + getQueueSize(),
+                "lagMillis=" + getLag(TimeUnit.MILLISECONDS),
+                "deliveredCount=" + deliveredCount.get(),
+                "droppedCount=" + droppedCount.get(),
+                "disconnectCount=" + disconnectCount.get());
+    }
+}
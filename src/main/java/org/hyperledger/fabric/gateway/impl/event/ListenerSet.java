@@ -45,6 +45,14 @@ public final class ListenerSet<T> implements Iterable<T> {
         listeners.remove(listener);
     }
 
+    /**
+     * Check whether the set contains any listeners.
+     * @return {@code true} if there are no listeners; otherwise {@code false}.
+     */
+    public boolean isEmpty() {
+        return listeners.isEmpty();
+    }
+
     /**
      * Remove all listeners.
      */
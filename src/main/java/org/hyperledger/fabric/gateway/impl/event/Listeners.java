@@ -8,22 +8,20 @@ package org.hyperledger.fabric.gateway.impl.event;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
-import java.util.Collection;
-import java.util.HashSet;
-import java.util.Objects;
+import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
-import java.util.stream.StreamSupport;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.hyperledger.fabric.gateway.CheckpointPolicy;
 import org.hyperledger.fabric.gateway.ContractEvent;
 import org.hyperledger.fabric.gateway.spi.Checkpointer;
-import org.hyperledger.fabric.gateway.spi.CommitListener;
 import org.hyperledger.fabric.sdk.BlockEvent;
 import org.hyperledger.fabric.sdk.BlockInfo;
-import org.hyperledger.fabric.sdk.Peer;
+import org.hyperledger.fabric.sdk.ChaincodeEvent;
 
 public final class Listeners {
     private static final Log LOG = LogFactory.getLog(Listeners.class);
@@ -37,11 +35,26 @@ public final class Listeners {
     }
 
     private static Consumer<BlockEvent.TransactionEvent> transactionFromContract(final Consumer<ContractEvent> listener) {
-        return transactionEvent -> StreamSupport.stream(transactionEvent.getTransactionActionInfos().spliterator(), false)
-                .map(BlockInfo.TransactionEnvelopeInfo.TransactionActionInfo::getEvent)
-                .filter(Objects::nonNull)
-                .map(chaincodeEvent -> new ContractEventImpl(transactionEvent, chaincodeEvent))
-                .forEach(listener);
+        // Filter on the chaincode event so contract events are only created for events the listener wants
+        final Predicate<ChaincodeEvent> filter;
+        final Consumer<ContractEvent> target;
+        if (listener instanceof FilteredContractListener) {
+            FilteredContractListener filteredListener = (FilteredContractListener) listener;
+            filter = filteredListener::isMatch;
+            target = filteredListener.listener;
+        } else {
+            filter = chaincodeEvent -> true;
+            target = listener;
+        }
+
+        return transactionEvent -> {
+            for (BlockInfo.TransactionEnvelopeInfo.TransactionActionInfo actionInfo : transactionEvent.getTransactionActionInfos()) {
+                ChaincodeEvent chaincodeEvent = actionInfo.getEvent();
+                if (chaincodeEvent != null && filter.test(chaincodeEvent)) {
+                    target.accept(new ContractEventImpl(transactionEvent, chaincodeEvent));
+                }
+            }
+        };
     }
 
     public static Consumer<BlockEvent> checkpointBlock(final Checkpointer checkpointer, final Consumer<BlockEvent> listener) {
@@ -72,22 +85,44 @@ public final class Listeners {
 
     public static Consumer<BlockEvent> checkpointTransaction(final Checkpointer checkpointer,
                                                              final Consumer<BlockEvent.TransactionEvent> listener) {
-        Consumer<BlockEvent.TransactionEvent> transactionListener = transactionEvent -> {
-            String transactionId = transactionEvent.getTransactionID();
+        Consumer<BlockEvent> blockListener = blockEvent -> {
+            // Called by checkpointBlock while synchronized on the checkpointer
+            Set<String> processedIds = new LinkedHashSet<>();
             try {
-                synchronized (checkpointer) {
-                    if (!checkpointer.getTransactionIds().contains(transactionId)) {
+                for (BlockEvent.TransactionEvent transactionEvent : blockEvent.getTransactionEvents()) {
+                    String transactionId = transactionEvent.getTransactionID();
+                    if (!processedIds.contains(transactionId) && !checkpointer.containsTransactionId(transactionId)) {
                         listener.accept(transactionEvent); // Process event before checkpointing
-                        checkpointer.addTransactionId(transactionId);
+                        processedIds.add(transactionId);
                     } else {
                         LOG.debug("Reject transaction ID " + transactionId + " for checkpointer " + checkpointer);
                     }
                 }
             } catch (IOException e) {
                 throw new UncheckedIOException(e);
+            } catch (RuntimeException e) {
+                // Persist transactions already processed so only the remainder of the block is redelivered
+                addTransactionIds(checkpointer, processedIds, e);
+                throw e;
             }
+            addTransactionIds(checkpointer, processedIds, null);
         };
-        return checkpointBlock(checkpointer, fromTransaction(transactionListener));
+        return checkpointBlock(checkpointer, blockListener);
+    }
+
+    private static void addTransactionIds(final Checkpointer checkpointer, final Set<String> transactionIds,
+                                          final RuntimeException failure) {
+        if (transactionIds.isEmpty()) {
+            return;
+        }
+        try {
+            checkpointer.addTransactionIds(transactionIds);
+        } catch (IOException e) {
+            if (failure == null) {
+                throw new UncheckedIOException(e);
+            }
+            failure.addSuppressed(e);
+        }
     }
 
     public static Consumer<BlockEvent> checkpointContract(final Checkpointer checkpointer,
@@ -95,33 +130,55 @@ public final class Listeners {
         return checkpointTransaction(checkpointer, transactionFromContract(listener));
     }
 
+    public static BatchCheckpointListener checkpointBlock(final Checkpointer checkpointer, final CheckpointPolicy policy,
+                                                          final Consumer<BlockEvent> listener) {
+        return BatchCheckpointListener.forBlocks(checkpointer, policy, listener);
+    }
+
+    public static BatchCheckpointListener checkpointContract(final Checkpointer checkpointer, final CheckpointPolicy policy,
+                                                             final Consumer<ContractEvent> listener) {
+        return BatchCheckpointListener.forTransactions(checkpointer, policy, transactionFromContract(listener));
+    }
+
     public static Consumer<ContractEvent> contract(final Consumer<ContractEvent> listener, final String chaincodeId) {
-        return contractEvent -> {
-            if (contractEvent.getChaincodeId().equals(chaincodeId)) {
-                listener.accept(contractEvent);
-            }
-        };
+        return new FilteredContractListener(listener, chaincodeId, null);
     }
 
     public static Consumer<ContractEvent> contract(final Consumer<ContractEvent> listener,
                                                    final String chaincodeId,
                                                    final Pattern namePattern) {
-        return contract(contractEvent -> {
-            if (namePattern.matcher(contractEvent.getName()).matches()) {
-                listener.accept(contractEvent);
-            }
-        }, chaincodeId);
+        return new FilteredContractListener(listener, chaincodeId, namePattern);
     }
 
-    public static Consumer<BlockEvent.TransactionEvent> transaction(final CommitListener listener,
-                                                                    final Collection<Peer> peers,
-                                                                    final String transactionId) {
-        Set<Peer> peerSet = new HashSet<>(peers);
-        return transactionEvent -> {
-            if (transactionEvent.getTransactionID().equals(transactionId) && peerSet.contains(transactionEvent.getPeer())) {
-                listener.acceptCommit(transactionEvent);
+    /**
+     * Contract listener that only receives events for a specific chaincode, and optionally with names matching a
+     * pattern. The filter can also be applied to chaincode events before any contract event is created.
+     */
+    private static final class FilteredContractListener implements Consumer<ContractEvent> {
+        private final Consumer<ContractEvent> listener;
+        private final String chaincodeId;
+        private final Pattern namePattern;
+
+        FilteredContractListener(final Consumer<ContractEvent> listener, final String chaincodeId, final Pattern namePattern) {
+            this.listener = listener;
+            this.chaincodeId = chaincodeId;
+            this.namePattern = namePattern;
+        }
+
+        boolean isMatch(final ChaincodeEvent chaincodeEvent) {
+            return isMatch(chaincodeEvent.getChaincodeId(), chaincodeEvent.getEventName());
+        }
+
+        private boolean isMatch(final String eventChaincodeId, final String eventName) {
+            return chaincodeId.equals(eventChaincodeId) && (namePattern == null || namePattern.matcher(eventName).matches());
+        }
+
+        @Override
+        public void accept(final ContractEvent contractEvent) {
+            if (isMatch(contractEvent.getChaincodeId(), contractEvent.getName())) {
+                listener.accept(contractEvent);
             }
-        };
+        }
     }
 
     private Listeners() { }
@@ -6,43 +6,61 @@
 
 package org.hyperledger.fabric.gateway.impl.event;
 
-import java.util.Comparator;
-import java.util.Iterator;
-import java.util.SortedSet;
-import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.hyperledger.fabric.gateway.impl.GatewayUtils;
 import org.hyperledger.fabric.sdk.BlockEvent;
-import org.hyperledger.fabric.sdk.BlockInfo;
 
 /**
  * Listens to an existing block event source and ensures that its own listeners receive block events in order and
  * without duplicates.
+ * <p>
+ * Blocks received ahead of the next expected block are held in a fixed size reorder buffer, indexed by block number,
+ * until the missing blocks arrive. Blocks further ahead than the buffer size are discarded and logged, so memory use
+ * stays bounded if a block is never received. Received blocks are published to the buffer without locking, and a
+ * single thread at a time drains the buffer and notifies listeners without holding any lock, so threads delivering
+ * blocks are never blocked by slow listeners.
+ * </p>
  */
 public final class OrderedBlockEventSource implements BlockEventSource {
-    private static final Comparator<BlockEvent> EVENT_COMPARATOR = Comparator.comparingLong(BlockEvent::getBlockNumber);
+    private static final Log LOG = LogFactory.getLog(OrderedBlockEventSource.class);
+
+    /** Default maximum number of blocks ahead of the next expected block that are retained. */
+    public static final int DEFAULT_WINDOW_SIZE = 256;
 
     private final BlockEventSource blockSource;
     private final ListenerSet<Consumer<BlockEvent>> listeners = new ListenerSet<>();
     private final Consumer<BlockEvent> blockListener;
-
-    // Non-threadsafe state synchronized by stateLock
-    private final Object stateLock = new Object();
-    private long blockNumber;
-    private final SortedSet<BlockEvent> queuedEvents = new TreeSet<>(EVENT_COMPARATOR);
+    private final int windowSize;
+    private final AtomicReferenceArray<BlockEvent> window;
+    private final AtomicLong blockNumber;
+    private final AtomicInteger drainRequests = new AtomicInteger(0);
 
     public OrderedBlockEventSource(final BlockEventSource blockSource) {
         this(blockSource, -1);
     }
 
     public OrderedBlockEventSource(final BlockEventSource blockSource, final long startBlock) {
+        this(blockSource, startBlock, DEFAULT_WINDOW_SIZE);
+    }
+
+    public OrderedBlockEventSource(final BlockEventSource blockSource, final long startBlock, final int windowSize) {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("Window size must be at least 1: " + windowSize);
+        }
+
         this.blockSource = blockSource;
+        this.windowSize = windowSize;
+        this.window = new AtomicReferenceArray<>(windowSize);
+        this.blockNumber = new AtomicLong(startBlock);
         this.blockListener = blockSource.addBlockListener(this::receivedBlock);
-        synchronized (stateLock) {
-            blockNumber = startBlock;
-        }
     }
 
     @Override
@@ -62,53 +80,85 @@ public final class OrderedBlockEventSource implements BlockEventSource {
     }
 
     private void receivedBlock(final BlockEvent event) {
-        synchronized (stateLock) {
-            if (isOldBlockNumber(event.getBlockNumber())) {
-                return;
-            }
+        long eventBlockNumber = event.getBlockNumber();
 
-            queuedEvents.add(event);
-            notifyListeners();
+        // First block received determines the start block if none was specified
+        blockNumber.compareAndSet(-1, eventBlockNumber);
+
+        long nextBlockNumber = blockNumber.get();
+        if (eventBlockNumber < nextBlockNumber) {
+            return;
+        }
+        if (eventBlockNumber - nextBlockNumber >= windowSize) {
+            LOG.warn(String.format("Discarding block %d received more than %d blocks ahead of expected block %d",
+                    eventBlockNumber, windowSize, nextBlockNumber));
+            return;
+        }
+
+        if (publish(event)) {
+            drain();
+        }
+    }
+
+    private boolean publish(final BlockEvent event) {
+        long eventBlockNumber = event.getBlockNumber();
+        int index = indexOf(eventBlockNumber);
+
+        while (true) {
+            BlockEvent current = window.get(index);
+            // Keep an existing event for this or a later block; replace only stale, already-delivered events
+            if (current != null && current.getBlockNumber() >= eventBlockNumber) {
+                return false;
+            }
+            if (window.compareAndSet(index, current, event)) {
+                return true;
+            }
         }
     }
 
-    private boolean isOldBlockNumber(final long eventBlockNumber) {
-        return eventBlockNumber < blockNumber;
+    private void drain() {
+        if (drainRequests.getAndIncrement() != 0) {
+            return; // Another thread is draining and will see the newly published event
+        }
+
+        int missed = 1;
+        do {
+            notifyListeners();
+            missed = drainRequests.addAndGet(-missed);
+        } while (missed != 0);
     }
 
     private void notifyListeners() {
-        for (Iterator<BlockEvent> eventIter = queuedEvents.iterator(); eventIter.hasNext(); ) {
-            BlockEvent event = eventIter.next();
-            long eventBlockNumber = event.getBlockNumber();
+        while (true) {
+            long nextBlockNumber = blockNumber.get();
+            int index = indexOf(nextBlockNumber);
+            BlockEvent event = window.get(index);
 
-            if (!isNextBlockNumber(eventBlockNumber)) {
-                break;
+            if (event == null || event.getBlockNumber() != nextBlockNumber) {
+                return;
             }
 
-            eventIter.remove();
-            blockNumber = eventBlockNumber + 1;
+            window.compareAndSet(index, event, null);
+            blockNumber.set(nextBlockNumber + 1);
             listeners.forEach(listener -> listener.accept(event));
         }
     }
 
-    private boolean isNextBlockNumber(final long eventBlockNumber) {
-        return blockNumber < 0 || blockNumber == eventBlockNumber;
+    private int indexOf(final long eventBlockNumber) {
+        return (int) (eventBlockNumber % windowSize);
     }
 
     @Override
     public String toString() {
-        final long currentBlockNumber;
-        final String queuedBlocks;
-        synchronized (stateLock) {
-            currentBlockNumber = blockNumber;
-            queuedBlocks = queuedEvents.stream()
-                    .mapToLong(BlockInfo::getBlockNumber)
-                    .mapToObj(Long::toString)
-                    .collect(Collectors.joining(", ", "[", "]"));
-        }
+        String queuedBlocks = IntStream.range(0, windowSize)
+                .mapToObj(window::get)
+                .filter(event -> event != null && event.getBlockNumber() >= blockNumber.get())
+                .map(event -> Long.toString(event.getBlockNumber()))
+                .collect(Collectors.joining(", ", "[", "]"));
 
         return GatewayUtils.toString(this,
-                "blockNumber=" + currentBlockNumber,
+                "blockNumber=" + blockNumber.get(),
+                "windowSize=" + windowSize,
                 "queuedBlocks=" + queuedBlocks);
     }
 }
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.event;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.hyperledger.fabric.gateway.impl.GatewayUtils;
+import org.hyperledger.fabric.sdk.BlockEvent;
+import org.hyperledger.fabric.sdk.BlockInfo;
+import org.hyperledger.fabric.sdk.ChaincodeEvent;
+
+/**
+ * Listens to an existing block event source and decodes the transactions and chaincode events within each received
+ * block in parallel using an executor, before passing the blocks to its own listeners. Blocks are delivered to
+ * listeners in the order they were received from the underlying event source, so the thread receiving events from
+ * peers only hands off blocks and listeners see the same sequence of blocks as without this stage.
+ * <p>
+ * The number of blocks being decoded or awaiting delivery is bounded; when the limit is reached, the thread receiving
+ * events from peers is blocked until earlier blocks have been delivered.
+ * </p>
+ * <p>
+ * This implementation is thread-safe.
+ * </p>
+ */
+public final class ParallelDecodeBlockEventSource implements BlockEventSource {
+    private static final Log LOG = LogFactory.getLog(ParallelDecodeBlockEventSource.class);
+
+    /** Default maximum number of blocks that can be decoding or awaiting delivery at any time. */
+    public static final int DEFAULT_MAX_PENDING = OrderedBlockEventSource.DEFAULT_WINDOW_SIZE;
+
+    private final BlockEventSource blockSource;
+    private final Executor executor;
+    private final ListenerSet<Consumer<BlockEvent>> listeners = new ListenerSet<>();
+    private final Consumer<BlockEvent> blockListener;
+    private final Semaphore pendingPermits;
+    private final int maxPending;
+    private final Queue<CompletableFuture<BlockEvent>> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger drainRequests = new AtomicInteger(0);
+    private final AtomicLong highestDecodedBlockNumber = new AtomicLong(-1);
+
+    public ParallelDecodeBlockEventSource(final BlockEventSource blockSource, final Executor executor) {
+        this(blockSource, executor, DEFAULT_MAX_PENDING);
+    }
+
+    public ParallelDecodeBlockEventSource(final BlockEventSource blockSource, final Executor executor, final int maxPending) {
+        if (maxPending < 1) {
+            throw new IllegalArgumentException("Maximum pending blocks must be at least 1: " + maxPending);
+        }
+
+        this.blockSource = blockSource;
+        this.executor = executor;
+        this.maxPending = maxPending;
+        this.pendingPermits = new Semaphore(maxPending);
+        this.blockListener = blockSource.addBlockListener(this::receivedBlock);
+    }
+
+    @Override
+    public Consumer<BlockEvent> addBlockListener(final Consumer<BlockEvent> listener) {
+        return listeners.add(listener);
+    }
+
+    @Override
+    public void removeBlockListener(final Consumer<BlockEvent> listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public void close() {
+        listeners.clear();
+        blockSource.removeBlockListener(blockListener);
+    }
+
+    private void receivedBlock(final BlockEvent event) {
+        pendingPermits.acquireUninterruptibly();
+
+        CompletableFuture<BlockEvent> decoded = new CompletableFuture<>();
+        pending.add(decoded);
+
+        if (!isDecodeRequired(event)) {
+            // Duplicate from another peer; downstream ordering discards it so just keep arrival order
+            decoded.complete(event);
+            drain();
+            return;
+        }
+
+        Runnable task = () -> {
+            try {
+                decode(event);
+            } finally {
+                // Always complete so later blocks are not held back
+                decoded.complete(event);
+                drain();
+            }
+        };
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            LOG.warn("Decoding block " + event.getBlockNumber() + " on receiving thread", e);
+            task.run();
+        }
+    }
+
+    private boolean isDecodeRequired(final BlockEvent event) {
+        final long eventBlockNumber = event.getBlockNumber();
+        long highest = highestDecodedBlockNumber.get();
+        while (eventBlockNumber > highest) {
+            if (highestDecodedBlockNumber.compareAndSet(highest, eventBlockNumber)) {
+                return true;
+            }
+            highest = highestDecodedBlockNumber.get();
+        }
+        return false;
+    }
+
+    /**
+     * Access the transaction and chaincode event data that listeners commonly use so that it is decoded on this thread
+     * rather than on the thread delivering blocks to listeners.
+     * @param event A block event.
+     */
+    private static void decode(final BlockEvent event) {
+        try {
+            for (BlockEvent.TransactionEvent transactionEvent : event.getTransactionEvents()) {
+                transactionEvent.getTransactionID();
+                transactionEvent.getValidationCode();
+                for (BlockInfo.TransactionEnvelopeInfo.TransactionActionInfo actionInfo : transactionEvent.getTransactionActionInfos()) {
+                    ChaincodeEvent chaincodeEvent = actionInfo.getEvent();
+                    if (chaincodeEvent != null) {
+                        chaincodeEvent.getChaincodeId();
+                        chaincodeEvent.getEventName();
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            // Listeners will encounter the same failure when they access the block, so leave handling to them
+            LOG.debug("Failed to decode block " + event.getBlockNumber(), e);
+        }
+    }
+
+    private void drain() {
+        if (drainRequests.getAndIncrement() != 0) {
+            return; // Another thread is draining and will see the newly decoded block
+        }
+
+        int missed = 1;
+        do {
+            notifyListeners();
+            missed = drainRequests.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void notifyListeners() {
+        while (true) {
+            CompletableFuture<BlockEvent> head = pending.peek();
+            if (head == null || !head.isDone()) {
+                return;
+            }
+
+            pending.poll();
+            pendingPermits.release();
+            BlockEvent event = head.join();
+            listeners.forEach(listener -> listener.accept(event));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this,
+                "blockSource=" + blockSource,
+                "executor=" + executor,
+                "pending=" + (maxPending - pendingPermits.availablePermits()),
+                "maxPending=" + maxPending);
+    }
+}
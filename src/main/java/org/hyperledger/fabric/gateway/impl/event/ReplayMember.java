@@ -0,0 +1,94 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.event;
+
+import java.util.function.Consumer;
+
+import org.hyperledger.fabric.gateway.impl.GatewayUtils;
+import org.hyperledger.fabric.sdk.BlockEvent;
+
+/**
+ * A listener receiving events from a shared replay stream and from the live block source. Tracks the next block
+ * required by the listener so that blocks are delivered exactly once and in order, whichever source delivers them
+ * first. Once the live block source delivers a block to the listener, the listener has caught up with the chain
+ * head and no longer needs the replay stream.
+ */
+final class ReplayMember {
+    private final Consumer<BlockEvent> listener;
+    private final Consumer<ReplayMember> caughtUpHandler;
+    private final Consumer<BlockEvent> liveListener = this::acceptLive;
+
+    // Updated only while synchronized on this; volatile so it can be read without locking
+    private volatile long nextBlockNumber;
+    private boolean caughtUp = false;
+
+    /**
+     * Constructor.
+     * @param listener Listener to which events are delivered.
+     * @param startBlock The number of the first block to deliver.
+     * @param caughtUpHandler Invoked once, when the first block is delivered from the live block source.
+     */
+    ReplayMember(final Consumer<BlockEvent> listener, final long startBlock, final Consumer<ReplayMember> caughtUpHandler) {
+        this.listener = listener;
+        this.nextBlockNumber = startBlock;
+        this.caughtUpHandler = caughtUpHandler;
+    }
+
+    /**
+     * Listener to be attached to the live block source.
+     * @return A block listener.
+     */
+    Consumer<BlockEvent> getLiveListener() {
+        return liveListener;
+    }
+
+    long getNextBlockNumber() {
+        return nextBlockNumber;
+    }
+
+    /**
+     * Deliver a block to the listener if it is the next block required.
+     * @param blockEvent A block event.
+     * @return {@code true} if the block was delivered; otherwise {@code false}.
+     */
+    synchronized boolean accept(final BlockEvent blockEvent) {
+        long blockNumber = blockEvent.getBlockNumber();
+        if (blockNumber != nextBlockNumber) {
+            return false;
+        }
+
+        nextBlockNumber = blockNumber + 1; // Advance before notifying so a listener failure does not cause redelivery
+        listener.accept(blockEvent);
+        return true;
+    }
+
+    void acceptReplay(final BlockEvent blockEvent) {
+        accept(blockEvent);
+    }
+
+    private void acceptLive(final BlockEvent blockEvent) {
+        final boolean handOff;
+        synchronized (this) {
+            handOff = accept(blockEvent) && !caughtUp;
+            if (handOff) {
+                caughtUp = true;
+            }
+        }
+
+        // Notify outside the lock to avoid lock ordering issues with the replay multiplexer
+        if (handOff) {
+            caughtUpHandler.accept(this);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this,
+                "nextBlockNumber=" + getNextBlockNumber(),
+                "listener=" + listener);
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.event;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.hyperledger.fabric.gateway.impl.GatewayUtils;
+import org.hyperledger.fabric.gateway.impl.NetworkImpl;
+import org.hyperledger.fabric.sdk.BlockEvent;
+
+/**
+ * Serves all replay listeners on a network from a single replay stream. A new listener joins the current stream if
+ * the stream has not yet passed the listener's start block. Otherwise the stream is replaced by one starting at the
+ * lowest block required by any listener, and all listeners move to the new stream.
+ * <p>
+ * Replay listeners are also attached to the network's shared live block source. When a listener receives a block
+ * from the live source it has caught up with the chain head, so it leaves the replay stream and continues to receive
+ * only live events. The replay stream, and its connections to peers, are closed once no listeners remain on it.
+ * </p>
+ * <p>
+ * This implementation is thread-safe.
+ * </p>
+ */
+public final class ReplayMultiplexer implements AutoCloseable {
+    private final NetworkImpl network;
+    private final BlockEventSource liveBlockSource;
+
+    // Non-threadsafe state synchronized by stateLock
+    private final Object stateLock = new Object();
+    private final Set<ReplayMember> members = new HashSet<>();
+    private ReplayStream stream = null;
+
+    public ReplayMultiplexer(final NetworkImpl network) {
+        this.network = network;
+        this.liveBlockSource = network.getBlockSource();
+    }
+
+    /**
+     * Add a listener to receive replayed events from a given start block.
+     * @param listener A block listener.
+     * @param startBlock The number of the block from which events should be replayed.
+     * @return A session that removes the listener when closed.
+     */
+    public ListenerSession addListener(final Consumer<BlockEvent> listener, final long startBlock) {
+        ReplayMember member = new ReplayMember(listener, startBlock, this::caughtUp);
+        final ReplayStream oldStream;
+
+        synchronized (stateLock) {
+            members.add(member);
+            if (stream != null && stream.join(member)) {
+                liveBlockSource.addBlockListener(member.getLiveListener());
+                return () -> remove(member);
+            }
+
+            try {
+                oldStream = stream;
+                stream = new ReplayStream(network, members);
+            } catch (RuntimeException e) {
+                members.remove(member);
+                throw e;
+            }
+            liveBlockSource.addBlockListener(member.getLiveListener());
+        }
+
+        // Members moved to the new stream ignore any further blocks from the old stream
+        if (oldStream != null) {
+            oldStream.close();
+        }
+
+        return () -> remove(member);
+    }
+
+    private void remove(final ReplayMember member) {
+        liveBlockSource.removeBlockListener(member.getLiveListener());
+        leaveStream(member);
+    }
+
+    private void caughtUp(final ReplayMember member) {
+        leaveStream(member);
+    }
+
+    private void leaveStream(final ReplayMember member) {
+        ReplayStream emptyStream = null;
+
+        synchronized (stateLock) {
+            if (!members.remove(member)) {
+                return;
+            }
+            if (stream.leave(member)) {
+                emptyStream = stream;
+                stream = null;
+            }
+        }
+
+        if (emptyStream != null) {
+            emptyStream.close();
+        }
+    }
+
+    /**
+     * Get the number of listeners still receiving events from the replay stream.
+     * @return Replaying listener count.
+     */
+    public int getReplayingListenerCount() {
+        synchronized (stateLock) {
+            return members.size();
+        }
+    }
+
+    @Override
+    public void close() {
+        final ReplayStream oldStream;
+        synchronized (stateLock) {
+            members.forEach(member -> liveBlockSource.removeBlockListener(member.getLiveListener()));
+            members.clear();
+            oldStream = stream;
+            stream = null;
+        }
+
+        if (oldStream != null) {
+            oldStream.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        synchronized (stateLock) {
+            return GatewayUtils.toString(this,
+                    "memberCount=" + members.size(),
+                    "stream=" + stream);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.event;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.hyperledger.fabric.gateway.impl.GatewayUtils;
+import org.hyperledger.fabric.gateway.impl.NetworkImpl;
+import org.hyperledger.fabric.sdk.BlockEvent;
+
+/**
+ * Maintains an isolated client connection for event replay from a given start block, and delivers the replayed
+ * events in order to any number of replay members.
+ */
+final class ReplayStream implements AutoCloseable {
+    private final long startBlock;
+    private final ChannelEventConnection connection;
+    private final BlockEventSource blockSource;
+
+    // Non-threadsafe state synchronized by stateLock
+    private final Object stateLock = new Object();
+    private final Set<ReplayMember> members = new HashSet<>();
+    private long lastBlockNumber;
+
+    /**
+     * Create a replay stream starting at the lowest block required by any of the initial members.
+     * @param network Network to replay.
+     * @param initialMembers Members to receive events from the start of the stream.
+     */
+    ReplayStream(final NetworkImpl network, final Collection<ReplayMember> initialMembers) {
+        this.startBlock = initialMembers.stream()
+                .mapToLong(ReplayMember::getNextBlockNumber)
+                .min()
+                .orElseThrow(() -> new IllegalArgumentException("No replay members"));
+        this.lastBlockNumber = startBlock - 1;
+        this.members.addAll(initialMembers);
+
+        connection = new ChannelEventConnection(network, network.getGateway().getListenerEventType(), startBlock);
+
+        // Attach listener before connecting to peers to ensure no replay events are missed
+        blockSource = new OrderedBlockEventSource(connection.getBlockSource(), startBlock,
+                network.getGateway().getBlockReorderWindow());
+        blockSource.addBlockListener(this::receivedBlock);
+
+        connection.connect();
+    }
+
+    private void receivedBlock(final BlockEvent blockEvent) {
+        final Collection<ReplayMember> recipients;
+        synchronized (stateLock) {
+            lastBlockNumber = blockEvent.getBlockNumber();
+            recipients = new ArrayList<>(members);
+        }
+
+        // Notify outside the lock so slow listeners do not block members joining or leaving
+        recipients.forEach(member -> member.acceptReplay(blockEvent));
+    }
+
+    /**
+     * Add a member to the stream if the stream has not yet delivered the next block required by the member.
+     * @param member A replay member.
+     * @return {@code true} if the member was added; {@code false} if the stream is too far ahead to serve the member.
+     */
+    boolean join(final ReplayMember member) {
+        synchronized (stateLock) {
+            if (lastBlockNumber >= member.getNextBlockNumber()) {
+                return false;
+            }
+            members.add(member);
+            return true;
+        }
+    }
+
+    /**
+     * Remove a member from the stream.
+     * @param member A replay member.
+     * @return {@code true} if the stream has no remaining members; otherwise {@code false}.
+     */
+    boolean leave(final ReplayMember member) {
+        synchronized (stateLock) {
+            members.remove(member);
+            return members.isEmpty();
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (stateLock) {
+            members.clear();
+        }
+        blockSource.close();
+        connection.close();
+    }
+
+    @Override
+    public String toString() {
+        final long currentBlockNumber;
+        final int memberCount;
+        synchronized (stateLock) {
+            currentBlockNumber = lastBlockNumber;
+            memberCount = members.size();
+        }
+
+        return GatewayUtils.toString(this,
+                "startBlock=" + startBlock,
+                "lastBlockNumber=" + currentBlockNumber,
+                "memberCount=" + memberCount,
+                "connection=" + connection);
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.hyperledger.fabric.gateway.ContractException;
+import org.hyperledger.fabric.gateway.PeerHealth;
+import org.hyperledger.fabric.gateway.impl.GatewayUtils;
+import org.hyperledger.fabric.gateway.spi.Query;
+import org.hyperledger.fabric.gateway.spi.QueryHandler;
+import org.hyperledger.fabric.sdk.ChaincodeResponse;
+import org.hyperledger.fabric.sdk.Peer;
+import org.hyperledger.fabric.sdk.ProposalResponse;
+
+/**
+ * Routes each query to the healthier of two randomly chosen peers. Each peer has a cost derived from exponentially
+ * weighted moving averages of its response latency and error rate, multiplied by the number of requests currently
+ * outstanding to that peer. Comparing two random peers rather than always choosing the best avoids every client
+ * switching to the same peer at once, while steering load away from slow or failing peers. If the chosen peer fails
+ * to respond, the remaining peers are tried in order of increasing cost.
+ * <p>This implementation is thread-safe.</p>
+ */
+public final class AdaptiveQueryHandler implements QueryHandler {
+    /** Default weight given to each new latency or error sample. */
+    public static final double DEFAULT_SMOOTHING_FACTOR = 0.2;
+
+    /** Minimum latency recorded for a request that received no response, so that failing fast is not rewarded. */
+    private static final long FAILURE_LATENCY_NANOS = TimeUnit.SECONDS.toNanos(1);
+    /** Cost multiplier applied to a peer that has failed every recent request. */
+    private static final double ERROR_PENALTY = 10.0;
+
+    private final List<PeerState> peers;
+    private final double smoothingFactor;
+
+    public AdaptiveQueryHandler(final Collection<Peer> peers) {
+        this(peers, DEFAULT_SMOOTHING_FACTOR);
+    }
+
+    public AdaptiveQueryHandler(final Collection<Peer> peers, final double smoothingFactor) {
+        if (peers.size() < 1) {
+            throw new IllegalArgumentException("No peers provided");
+        }
+        if (!(smoothingFactor > 0 && smoothingFactor <= 1)) {
+            throw new IllegalArgumentException("Smoothing factor must be greater than 0 and at most 1: " + smoothingFactor);
+        }
+
+        this.peers = peers.stream()
+                .map(PeerState::new)
+                .collect(Collectors.toList());
+        this.smoothingFactor = smoothingFactor;
+    }
+
+    @Override
+    public ProposalResponse evaluate(final Query query) throws ContractException {
+        Collection<ProposalResponse> failResponses = new ArrayList<>();
+
+        PeerState first = choosePeer();
+        if (!query.isCircuitOpen(first.peer)) {
+            ProposalResponse response = evaluate(query, first);
+            if (isPeerResponse(response)) {
+                return checkResponse(response);
+            }
+            failResponses.add(response);
+        }
+
+        List<PeerState> remaining = new ArrayList<>(peers);
+        remaining.remove(first);
+        remaining.sort(Comparator.comparingDouble(PeerState::getScore));
+        for (PeerState state : remaining) {
+            if (query.isCircuitOpen(state.peer)) {
+                continue;
+            }
+            ProposalResponse response = evaluate(query, state);
+            if (isPeerResponse(response)) {
+                return checkResponse(response);
+            }
+            failResponses.add(response);
+        }
+
+        if (failResponses.isEmpty()) {
+            throw new ContractException("No peers available. Circuit breakers are open for all peers");
+        }
+
+        String message = "No responses received. Errors: " + failResponses.stream()
+                .map(ProposalResponse::getMessage)
+                .collect(Collectors.joining("; "));
+        throw new ContractException(message, failResponses);
+    }
+
+    private PeerState choosePeer() {
+        int peerCount = peers.size();
+        if (peerCount == 1) {
+            return peers.get(0);
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int firstIndex = random.nextInt(peerCount);
+        int secondIndex = random.nextInt(peerCount - 1);
+        if (secondIndex >= firstIndex) {
+            secondIndex++;
+        }
+
+        PeerState first = peers.get(firstIndex);
+        PeerState second = peers.get(secondIndex);
+        return second.getScore() < first.getScore() ? second : first;
+    }
+
+    private ProposalResponse evaluate(final Query query, final PeerState state) {
+        state.outstandingRequests.incrementAndGet();
+        long startTime = System.nanoTime();
+        ProposalResponse response = null;
+        try {
+            response = query.evaluate(state.peer);
+            return response;
+        } finally {
+            state.outstandingRequests.decrementAndGet();
+            state.record(System.nanoTime() - startTime, response != null && isPeerResponse(response));
+        }
+    }
+
+    private static boolean isPeerResponse(final ProposalResponse response) {
+        return response.getStatus().equals(ChaincodeResponse.Status.SUCCESS) || response.getProposalResponse() != null;
+    }
+
+    private static ProposalResponse checkResponse(final ProposalResponse response) throws ContractException {
+        if (!response.getStatus().equals(ChaincodeResponse.Status.SUCCESS)) {
+            throw new ContractException(response.getMessage(), Collections.singletonList(response));
+        }
+        return response;
+    }
+
+    /**
+     * Get health statistics for the peers used by this handler.
+     * @return Peer health.
+     */
+    public Collection<PeerHealth> getPeerHealth() {
+        return Collections.unmodifiableList(peers);
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this,
+                "peers=" + peers,
+                "smoothingFactor=" + smoothingFactor);
+    }
+
+    private final class PeerState implements PeerHealth {
+        private final Peer peer;
+        private final AtomicInteger outstandingRequests = new AtomicInteger(0);
+        private volatile double latencyNanos = 0; // Guarded by this for writes
+        private volatile double errorRate = 0; // Guarded by this for writes
+        private boolean hasLatency = false; // Guarded by this
+
+        PeerState(final Peer peer) {
+            this.peer = peer;
+        }
+
+        synchronized void record(final long elapsedNanos, final boolean isResponse) {
+            long sample = isResponse ? elapsedNanos : Math.max(elapsedNanos, FAILURE_LATENCY_NANOS);
+            if (hasLatency) {
+                latencyNanos += smoothingFactor * (sample - latencyNanos);
+            } else {
+                latencyNanos = sample;
+                hasLatency = true;
+            }
+            errorRate += smoothingFactor * ((isResponse ? 0 : 1) - errorRate);
+        }
+
+        @Override
+        public String getPeerName() {
+            return peer.getName();
+        }
+
+        @Override
+        public long getLatency(final TimeUnit timeUnit) {
+            return timeUnit.convert(Math.round(latencyNanos), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public double getErrorRate() {
+            return errorRate;
+        }
+
+        @Override
+        public int getOutstandingRequests() {
+            return outstandingRequests.get();
+        }
+
+        @Override
+        public double getScore() {
+            // Unmeasured peers have zero latency so they are tried, with outstanding requests spreading the load
+            return (latencyNanos + 1) * (outstandingRequests.get() + 1) * (1 + ERROR_PENALTY * errorRate);
+        }
+
+        @Override
+        public String toString() {
+            return GatewayUtils.toString(this,
+                    "peer=" + peer.getName(),
+                    "latencyNanos=" + Math.round(latencyNanos),
+                    "errorRate=" + errorRate,
+                    "outstandingRequests=" + outstandingRequests.get());
+        }
+    }
+}
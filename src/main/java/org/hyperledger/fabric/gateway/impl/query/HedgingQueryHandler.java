@@ -0,0 +1,288 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.query;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.hyperledger.fabric.gateway.ContractException;
+import org.hyperledger.fabric.gateway.GatewayRuntimeException;
+import org.hyperledger.fabric.gateway.impl.GatewayUtils;
+import org.hyperledger.fabric.gateway.spi.Query;
+import org.hyperledger.fabric.gateway.spi.QueryHandler;
+import org.hyperledger.fabric.sdk.ChaincodeResponse;
+import org.hyperledger.fabric.sdk.Peer;
+import org.hyperledger.fabric.sdk.ProposalResponse;
+
+/**
+ * Sends each query to one peer and, if that peer has not responded within a delay derived from recent response
+ * times, also sends it to a second peer. The first response from a peer is used and any outstanding request is
+ * cancelled. Peers that fail to respond are failed over to in turn, as with {@link RoundRobinQueryHandler}.
+ * <p>The delay before hedging is the configured percentile of recent successful response times, so with the default
+ * 95th percentile roughly one query in twenty is hedged. Hedging starts once enough responses have been observed to
+ * estimate the percentile. The additional load is also capped by a budget: each query earns a fraction of a hedge,
+ * and a hedge is only sent if a whole one has been earned.</p>
+ * <p>This implementation is thread-safe.</p>
+ */
+public final class HedgingQueryHandler implements QueryHandler {
+    /** Default percentile of recent response times after which a query is hedged. */
+    public static final double DEFAULT_HEDGE_PERCENTILE = 0.95;
+    /** Default maximum additional requests, as a percentage of queries. */
+    public static final double DEFAULT_BUDGET_PERCENT = 10.0;
+
+    private static final ExecutorService DEFAULT_EXECUTOR =
+            Executors.newCachedThreadPool(GatewayUtils.newDaemonThreadFactory("fabric-gateway-query"));
+
+    private static final int SAMPLE_COUNT = 1000;
+    private static final int MIN_SAMPLES = 20;
+    private static final int SAMPLES_PER_UPDATE = 50;
+    private static final double MAX_BUDGET = 10.0;
+    private static final double PERCENT = 100.0;
+
+    private final List<Peer> peers;
+    private final Executor executor;
+    private final double hedgePercentile;
+    private final double budgetPercent;
+    private final double budgetPerQuery;
+    private final AtomicInteger currentPeerIndex = new AtomicInteger(0);
+
+    private final Object lock = new Object();
+    private final long[] latencySamples = new long[SAMPLE_COUNT]; // Guarded by lock
+    private long sampleTotal = 0; // Guarded by lock
+    private double budget = 0; // Guarded by lock
+    private volatile long hedgeDelayNanos = -1;
+
+    public HedgingQueryHandler(final Collection<Peer> peers) {
+        this(peers, DEFAULT_HEDGE_PERCENTILE, DEFAULT_BUDGET_PERCENT);
+    }
+
+    public HedgingQueryHandler(final Collection<Peer> peers, final double hedgePercentile, final double budgetPercent) {
+        this(peers, DEFAULT_EXECUTOR, hedgePercentile, budgetPercent);
+    }
+
+    /**
+     * Create a hedging query handler.
+     * @param peers Peers to query.
+     * @param executor Executor used to send requests to peers.
+     * @param hedgePercentile Percentile of recent response times, between 0 and 1, after which a query is hedged.
+     * @param budgetPercent Maximum additional requests as a percentage of queries.
+     */
+    public HedgingQueryHandler(final Collection<Peer> peers, final Executor executor, final double hedgePercentile,
+                               final double budgetPercent) {
+        if (peers.size() < 1) {
+            throw new IllegalArgumentException("No peers provided");
+        }
+        if (!(hedgePercentile > 0 && hedgePercentile < 1)) {
+            throw new IllegalArgumentException("Hedge percentile must be between 0 and 1: " + hedgePercentile);
+        }
+        if (!(budgetPercent >= 0 && budgetPercent <= PERCENT)) {
+            throw new IllegalArgumentException("Budget percentage must be between 0 and 100: " + budgetPercent);
+        }
+
+        this.peers = new ArrayList<>(peers);
+        this.executor = executor;
+        this.hedgePercentile = hedgePercentile;
+        this.budgetPercent = budgetPercent;
+        this.budgetPerQuery = budgetPercent / PERCENT;
+    }
+
+    @Override
+    public ProposalResponse evaluate(final Query query) throws ContractException {
+        depositBudget();
+
+        int startPeerIndex = currentPeerIndex.getAndUpdate(i -> (i + 1) % peers.size());
+        Iterator<Peer> candidates = getCandidatePeers(query, startPeerIndex);
+        if (!candidates.hasNext()) {
+            throw new ContractException("No peers available. Circuit breakers are open for all peers");
+        }
+        BlockingQueue<Future<ProposalResponse>> completed = new LinkedBlockingQueue<>();
+        List<Future<ProposalResponse>> requests = new ArrayList<>();
+        Collection<ProposalResponse> failResponses = new ArrayList<>();
+        RuntimeException failure = null;
+        boolean isHedgeAllowed = true;
+        int sent = 0;
+        int outstanding = 0;
+
+        try {
+            requests.add(send(query, candidates.next(), completed));
+            sent++;
+            outstanding++;
+
+            while (true) {
+                long delay = hedgeDelayNanos;
+                boolean isHedgePossible = isHedgeAllowed && delay >= 0 && sent < peers.size();
+                Future<ProposalResponse> result = isHedgePossible ? completed.poll(delay, TimeUnit.NANOSECONDS) : completed.take();
+
+                if (result == null) {
+                    // Hedge delay elapsed without a response
+                    isHedgeAllowed = false;
+                    if (candidates.hasNext() && withdrawBudget()) {
+                        requests.add(send(query, candidates.next(), completed));
+                        sent++;
+                        outstanding++;
+                    }
+                    continue;
+                }
+
+                outstanding--;
+                try {
+                    ProposalResponse response = result.get();
+                    if (isPeerResponse(response)) {
+                        return checkResponse(response);
+                    }
+                    failResponses.add(response);
+                } catch (ExecutionException e) {
+                    failure = toRuntimeException(e.getCause());
+                }
+
+                if (outstanding == 0) {
+                    if (!candidates.hasNext()) {
+                        break;
+                    }
+                    requests.add(send(query, candidates.next(), completed));
+                    sent++;
+                    outstanding++;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GatewayRuntimeException(e);
+        } finally {
+            requests.forEach(request -> request.cancel(true));
+        }
+
+        if (failResponses.isEmpty() && failure != null) {
+            throw failure;
+        }
+
+        String message = "No responses received. Errors: " + failResponses.stream()
+                .map(ProposalResponse::getMessage)
+                .collect(Collectors.joining("; "));
+        throw new ContractException(message, failResponses);
+    }
+
+    /**
+     * Peers in the order they should be tried, skipping those whose circuit is open. Circuits are checked lazily as
+     * each peer is requested, immediately before a query is sent to it.
+     * @param query Query being evaluated.
+     * @param startPeerIndex Index of the first peer to try.
+     * @return Candidate peers.
+     */
+    private Iterator<Peer> getCandidatePeers(final Query query, final int startPeerIndex) {
+        return IntStream.range(0, peers.size())
+                .mapToObj(i -> peers.get((startPeerIndex + i) % peers.size()))
+                .filter(peer -> !query.isCircuitOpen(peer))
+                .iterator();
+    }
+
+    private Future<ProposalResponse> send(final Query query, final Peer peer, final BlockingQueue<Future<ProposalResponse>> completed) {
+        FutureTask<ProposalResponse> task = new FutureTask<ProposalResponse>(() -> {
+            long startTime = System.nanoTime();
+            ProposalResponse response = query.evaluate(peer);
+            if (isPeerResponse(response)) {
+                recordLatency(System.nanoTime() - startTime);
+            }
+            return response;
+        }) {
+            @Override
+            protected void done() {
+                if (!isCancelled()) {
+                    completed.add(this);
+                }
+            }
+        };
+        executor.execute(task);
+        return task;
+    }
+
+    private static RuntimeException toRuntimeException(final Throwable t) {
+        if (t instanceof RuntimeException) {
+            return (RuntimeException) t;
+        }
+        return new GatewayRuntimeException(t);
+    }
+
+    private static boolean isPeerResponse(final ProposalResponse response) {
+        return response.getStatus().equals(ChaincodeResponse.Status.SUCCESS) || response.getProposalResponse() != null;
+    }
+
+    private static ProposalResponse checkResponse(final ProposalResponse response) throws ContractException {
+        if (!response.getStatus().equals(ChaincodeResponse.Status.SUCCESS)) {
+            throw new ContractException(response.getMessage(), Collections.singletonList(response));
+        }
+        return response;
+    }
+
+    private void depositBudget() {
+        synchronized (lock) {
+            budget = Math.min(budget + budgetPerQuery, MAX_BUDGET);
+        }
+    }
+
+    private boolean withdrawBudget() {
+        synchronized (lock) {
+            if (budget < 1) {
+                return false;
+            }
+            budget -= 1;
+            return true;
+        }
+    }
+
+    private void recordLatency(final long latencyNanos) {
+        synchronized (lock) {
+            latencySamples[(int) (sampleTotal % SAMPLE_COUNT)] = latencyNanos;
+            sampleTotal++;
+            if (sampleTotal >= MIN_SAMPLES && (hedgeDelayNanos < 0 || sampleTotal % SAMPLES_PER_UPDATE == 0)) {
+                hedgeDelayNanos = percentile();
+            }
+        }
+    }
+
+    private long percentile() {
+        int count = (int) Math.min(sampleTotal, SAMPLE_COUNT);
+        long[] sorted = Arrays.copyOf(latencySamples, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(hedgePercentile * count) - 1;
+        return sorted[Math.max(index, 0)];
+    }
+
+    /**
+     * Get the current delay after which a query is sent to a second peer.
+     * @param timeUnit Time unit for the result.
+     * @return Hedge delay, or -1 if too few responses have been observed for queries to be hedged.
+     */
+    public long getHedgeDelay(final TimeUnit timeUnit) {
+        long delay = hedgeDelayNanos;
+        return delay < 0 ? -1 : timeUnit.convert(delay, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this,
+                "peers=" + peers,
+                "hedgePercentile=" + hedgePercentile,
+                "budgetPercent=" + budgetPercent,
+                "hedgeDelayNanos=" + hedgeDelayNanos);
+    }
+}
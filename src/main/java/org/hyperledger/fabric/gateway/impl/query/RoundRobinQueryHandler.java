@@ -40,6 +40,9 @@ public final class RoundRobinQueryHandler implements QueryHandler {
         for (int i = 0; i < peers.size(); i++) {
             int peerIndex = (startPeerIndex + i) % peers.size();
             Peer peer = peers.get(peerIndex);
+            if (query.isCircuitOpen(peer)) {
+                continue;
+            }
             ProposalResponse response = query.evaluate(peer);
             if (response.getStatus().equals(ChaincodeResponse.Status.SUCCESS)) {
                 return response;
@@ -50,6 +53,10 @@ public final class RoundRobinQueryHandler implements QueryHandler {
             failResponses.add(response);
         }
 
+        if (failResponses.isEmpty()) {
+            throw new ContractException("No peers available. Circuit breakers are open for all peers");
+        }
+
         String message = "No responses received. Errors: " + failResponses.stream()
                 .map(ProposalResponse::getMessage)
                 .collect(Collectors.joining("; "));
@@ -40,6 +40,9 @@ public final class SingleQueryHandler implements QueryHandler {
         for (int i = 0; i < peers.size(); i++) {
             int peerIndex = (startPeerIndex + i) % peers.size();
             Peer peer = peers.get(peerIndex);
+            if (query.isCircuitOpen(peer)) {
+                continue;
+            }
             ProposalResponse response = query.evaluate(peer);
             if (response.getStatus().equals(ChaincodeResponse.Status.SUCCESS)) {
                 currentPeerIndex.set(peerIndex);
@@ -52,6 +55,10 @@ public final class SingleQueryHandler implements QueryHandler {
             failResponses.add(response);
         }
 
+        if (failResponses.isEmpty()) {
+            throw new ContractException("No peers available. Circuit breakers are open for all peers");
+        }
+
         String message = "No successful responses received. Errors: " + failResponses.stream()
                 .map(ProposalResponse::getMessage)
                 .collect(Collectors.joining("; "));
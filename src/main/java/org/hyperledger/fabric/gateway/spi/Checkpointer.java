@@ -7,6 +7,7 @@
 package org.hyperledger.fabric.gateway.spi;
 
 import java.io.IOException;
+import java.util.Collection;
 import java.util.Set;
 
 /**
@@ -53,6 +54,31 @@ public interface Checkpointer extends AutoCloseable {
      */
     void addTransactionId(String transactionId) throws IOException;
 
+    /**
+     * Check whether a transaction ID has been added for the current block. The default implementation checks the
+     * result of {@link #getTransactionIds()}; implementations should override this method if they can check for a
+     * single transaction ID more efficiently.
+     * @param transactionId A transaction ID.
+     * @return true if the transaction ID has been added for the current block; otherwise false.
+     * @throws IOException if the checkpointer fails to access persistent state.
+     */
+    default boolean containsTransactionId(String transactionId) throws IOException {
+        return getTransactionIds().contains(transactionId);
+    }
+
+    /**
+     * Add several transaction IDs for the current block. The default implementation calls
+     * {@link #addTransactionId(String)} for each transaction ID; implementations should override this method if they
+     * can persist several transaction IDs in a single operation.
+     * @param transactionIds Transaction IDs.
+     * @throws IOException if the checkpointer fails to access persistent state.
+     */
+    default void addTransactionIds(Collection<String> transactionIds) throws IOException {
+        for (String transactionId : transactionIds) {
+            addTransactionId(transactionId);
+        }
+    }
+
     @Override
     void close() throws IOException;
 }
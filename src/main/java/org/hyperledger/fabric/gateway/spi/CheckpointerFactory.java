@@ -0,0 +1,34 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.spi;
+
+import java.io.IOException;
+
+/**
+ * Provides {@link Checkpointer} instances for named listeners that share a single underlying store. This allows many
+ * checkpointed listeners to be used without each one requiring its own persistent resources.
+ * <p>Default implementations can be obtained from {@link org.hyperledger.fabric.gateway.DefaultCheckpointers}.</p>
+ * <p>Implementations must be thread-safe.</p>
+ */
+public interface CheckpointerFactory extends AutoCloseable {
+    /**
+     * Get the checkpointer for a given name. Checkpoint state for each name is independent of all other names, and
+     * persists across application invocations.
+     * @param name A checkpointer name, typically identifying a listener.
+     * @return A checkpointer.
+     * @throws IOException if the store fails to access persistent state.
+     */
+    Checkpointer getCheckpointer(String name) throws IOException;
+
+    /**
+     * Close the underlying store. Checkpointers obtained from this factory can no longer be used once the factory is
+     * closed.
+     * @throws IOException if an error occurs closing the store.
+     */
+    @Override
+    void close() throws IOException;
+}
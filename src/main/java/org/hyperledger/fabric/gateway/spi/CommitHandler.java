@@ -6,6 +6,9 @@
 
 package org.hyperledger.fabric.gateway.spi;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -37,6 +40,32 @@ public interface CommitHandler {
      */
     void waitForEvents(long timeout, TimeUnit timeUnit) throws ContractException, TimeoutException, InterruptedException;
 
+    /**
+     * Non-blocking alternative to {@link #waitForEvents(long, TimeUnit)}. The returned future completes when enough
+     * transaction commit events have been received to satisfy the event handling strategy, or completes exceptionally
+     * with a {@link ContractException} if the commit fails, or a {@link TimeoutException} if the strategy was not
+     * satisfied in time. The caller should call {@link #cancelListening()} if it stops waiting before completion.
+     * <p>The default implementation waits using {@link #waitForEvents(long, TimeUnit)} on a thread from the supplied
+     * executor. Implementations should override this method to complete the future from their own event listeners
+     * and avoid blocking a thread for each in-flight transaction.</p>
+     * @param timeout the maximum time to wait.
+     * @param timeUnit the time unit of the timeout argument.
+     * @param executor executor that may be used to run blocking work.
+     * @return A future that completes when the transaction is committed.
+     */
+    default CompletableFuture<Void> whenCommitted(final long timeout, final TimeUnit timeUnit, final Executor executor) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                waitForEvents(timeout, timeUnit);
+            } catch (ContractException | TimeoutException e) {
+                throw new CompletionException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
     /**
      * Called to interrupt the waiting state of {@link #waitForEvents(long, TimeUnit)} before completion.
      */
@@ -33,4 +33,16 @@ public interface Query {
      * queries from being sent.
      */
     Map<Peer, ProposalResponse> evaluate(Collection<Peer> peers);
+
+    /**
+     * Check whether a peer should be skipped because its circuit breaker is open, which happens when circuit breakers
+     * are enabled and the peer has recently failed to respond. Query handlers should call this immediately before
+     * evaluating the query on a peer, since it may allow a single probe request to a peer whose circuit is open.
+     * @param peer A peer.
+     * @return true if the peer should be skipped; otherwise false.
+     * @see org.hyperledger.fabric.gateway.Gateway.Builder#peerCircuitBreaker(org.hyperledger.fabric.gateway.CircuitBreakerOptions)
+     */
+    default boolean isCircuitOpen(Peer peer) {
+        return false;
+    }
 }
@@ -7,12 +7,18 @@
 package org.hyperledger.fabric.gateway.impl;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 
+import org.hyperledger.fabric.gateway.CheckpointPolicy;
 import org.hyperledger.fabric.gateway.Gateway;
 import org.hyperledger.fabric.gateway.GatewayException;
+import org.hyperledger.fabric.gateway.ListenerDelivery;
 import org.hyperledger.fabric.gateway.Network;
 import org.hyperledger.fabric.gateway.TestUtils;
+import org.hyperledger.fabric.gateway.impl.event.ReplayMultiplexer;
 import org.hyperledger.fabric.gateway.impl.event.StubBlockEventSource;
 import org.hyperledger.fabric.gateway.spi.Checkpointer;
 import org.hyperledger.fabric.sdk.BlockEvent;
@@ -160,6 +166,21 @@ public class BlockListenerTest {
         Mockito.verify(listener).accept(event);
     }
 
+    @Test
+    public void block_count_checkpoint_policy_checkpoints_after_specified_blocks() throws IOException {
+        Consumer<BlockEvent> listener = Mockito.spy(testUtils.stubBlockListener());
+        Checkpointer checkpointer = new InMemoryCheckpointer();
+
+        network.addBlockListener(checkpointer, CheckpointPolicy.everyBlocks(2), listener);
+        stubBlockEventSource.sendEvent(testUtils.newMockBlockEvent(peer1, 1));
+        long afterFirstBlock = checkpointer.getBlockNumber();
+        stubBlockEventSource.sendEvent(testUtils.newMockBlockEvent(peer1, 2));
+
+        Mockito.verify(listener, Mockito.times(2)).accept(Mockito.any(BlockEvent.class));
+        assertThat(afterFirstBlock).isEqualTo(1L);
+        assertThat(checkpointer.getBlockNumber()).isEqualTo(3L);
+    }
+
     @Test
     public void removed_checkpoint_listener_does_not_receive_events() throws IOException {
         Consumer<BlockEvent> listener = Mockito.spy(testUtils.stubBlockListener());
@@ -215,6 +236,57 @@ public class BlockListenerTest {
         Mockito.verify(replayListener, Mockito.only()).accept(event2);
     }
 
+    @Test
+    public void replay_listeners_with_different_start_blocks_receive_events_from_their_start_block() {
+        Consumer<BlockEvent> replayListener1 = Mockito.spy(testUtils.stubBlockListener());
+        Consumer<BlockEvent> replayListener2 = Mockito.spy(testUtils.stubBlockListener());
+        BlockEvent event1 = testUtils.newMockBlockEvent(peer1, 1);
+        BlockEvent event2 = testUtils.newMockBlockEvent(peer1, 2);
+        BlockEvent event3 = testUtils.newMockBlockEvent(peer1, 3);
+
+        network.addBlockListener(2, replayListener1);
+        stubBlockEventSource.sendEvent(event2);
+        network.addBlockListener(1, replayListener2); // Earlier than the current replay position
+        stubBlockEventSource.sendEvent(event1);
+        stubBlockEventSource.sendEvent(event2);
+        stubBlockEventSource.sendEvent(event3);
+
+        InOrder orderVerifier1 = Mockito.inOrder(replayListener1);
+        orderVerifier1.verify(replayListener1).accept(event2);
+        orderVerifier1.verify(replayListener1).accept(event3);
+        orderVerifier1.verifyNoMoreInteractions();
+        InOrder orderVerifier2 = Mockito.inOrder(replayListener2);
+        orderVerifier2.verify(replayListener2).accept(event1);
+        orderVerifier2.verify(replayListener2).accept(event2);
+        orderVerifier2.verify(replayListener2).accept(event3);
+        orderVerifier2.verifyNoMoreInteractions();
+    }
+
+    @Test
+    public void replay_listener_switches_to_live_events_once_caught_up() {
+        Consumer<BlockEvent> realtimeListener = event -> {};
+        Consumer<BlockEvent> replayListener = Mockito.spy(testUtils.stubBlockListener());
+        BlockEvent event1 = testUtils.newMockBlockEvent(peer1, 1);
+        BlockEvent event2 = testUtils.newMockBlockEvent(peer1, 2);
+        BlockEvent event3 = testUtils.newMockBlockEvent(peer1, 3);
+        ReplayMultiplexer replayMultiplexer = ((NetworkImpl) network).getReplayMultiplexer();
+
+        network.addBlockListener(realtimeListener);
+        stubBlockEventSource.sendEvent(event2); // Live position is now ahead of the replay start block
+        network.addBlockListener(1, replayListener);
+        stubBlockEventSource.sendEvent(event1);
+        stubBlockEventSource.sendEvent(event2);
+        assertThat(replayMultiplexer.getReplayingListenerCount()).isEqualTo(1);
+        stubBlockEventSource.sendEvent(event3);
+
+        assertThat(replayMultiplexer.getReplayingListenerCount()).isZero();
+        InOrder orderVerifier = Mockito.inOrder(replayListener);
+        orderVerifier.verify(replayListener).accept(event1);
+        orderVerifier.verify(replayListener).accept(event2);
+        orderVerifier.verify(replayListener).accept(event3);
+        orderVerifier.verifyNoMoreInteractions();
+    }
+
     @Test
     public void close_network_removes_listeners() {
         Consumer<BlockEvent> listener = Mockito.spy(testUtils.stubBlockListener());
@@ -226,4 +298,105 @@ public class BlockListenerTest {
 
         Mockito.verify(listener, Mockito.never()).accept(event);
     }
+
+    private static final class ManualExecutor implements Executor {
+        private final List<Runnable> tasks = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable task) {
+            tasks.add(task);
+        }
+
+        void runAll() {
+            while (!tasks.isEmpty()) {
+                tasks.remove(0).run();
+            }
+        }
+    }
+
+    @Test
+    public void async_listener_receives_events() {
+        Consumer<BlockEvent> listener = Mockito.spy(testUtils.stubBlockListener());
+        BlockEvent event = testUtils.newMockBlockEvent(peer1, 1);
+        ListenerDelivery delivery = ListenerDelivery.asynchronous(10, ListenerDelivery.OverflowPolicy.BLOCK)
+                .withExecutor(Runnable::run);
+
+        network.addBlockListener(delivery, listener);
+        stubBlockEventSource.sendEvent(event);
+
+        Mockito.verify(listener).accept(event);
+        assertThat(network.getBlockListenerMetrics(listener).get().getDeliveredCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void async_listener_does_not_block_event_delivery() {
+        Consumer<BlockEvent> listener = Mockito.spy(testUtils.stubBlockListener());
+        ManualExecutor executor = new ManualExecutor();
+        BlockEvent event = testUtils.newMockBlockEvent(peer1, 1);
+        ListenerDelivery delivery = ListenerDelivery.asynchronous(10, ListenerDelivery.OverflowPolicy.BLOCK)
+                .withExecutor(executor);
+
+        network.addBlockListener(delivery, listener);
+        stubBlockEventSource.sendEvent(event);
+
+        Mockito.verify(listener, Mockito.never()).accept(event);
+        assertThat(network.getBlockListenerMetrics(listener).get().getQueueSize()).isEqualTo(1);
+
+        executor.runAll();
+        Mockito.verify(listener).accept(event);
+    }
+
+    @Test
+    public void async_listener_with_drop_oldest_policy_discards_oldest_events() {
+        Consumer<BlockEvent> listener = Mockito.spy(testUtils.stubBlockListener());
+        ManualExecutor executor = new ManualExecutor();
+        BlockEvent event1 = testUtils.newMockBlockEvent(peer1, 1);
+        BlockEvent event2 = testUtils.newMockBlockEvent(peer1, 2);
+        BlockEvent event3 = testUtils.newMockBlockEvent(peer1, 3);
+        ListenerDelivery delivery = ListenerDelivery.asynchronous(1, ListenerDelivery.OverflowPolicy.DROP_OLDEST)
+                .withExecutor(executor);
+
+        network.addBlockListener(delivery, listener);
+        stubBlockEventSource.sendEvent(event1);
+        stubBlockEventSource.sendEvent(event2);
+        stubBlockEventSource.sendEvent(event3);
+        executor.runAll();
+
+        Mockito.verify(listener, Mockito.never()).accept(event1);
+        Mockito.verify(listener, Mockito.never()).accept(event2);
+        Mockito.verify(listener).accept(event3);
+        assertThat(network.getBlockListenerMetrics(listener).get().getDroppedCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void async_listener_with_disconnect_policy_reconnects_after_overflow() {
+        Consumer<BlockEvent> listener = Mockito.spy(testUtils.stubBlockListener());
+        ManualExecutor executor = new ManualExecutor();
+        BlockEvent event1 = testUtils.newMockBlockEvent(peer1, 1);
+        BlockEvent event2 = testUtils.newMockBlockEvent(peer1, 2);
+        BlockEvent event3 = testUtils.newMockBlockEvent(peer1, 3);
+        ListenerDelivery delivery = ListenerDelivery.asynchronous(1, ListenerDelivery.OverflowPolicy.DISCONNECT)
+                .withExecutor(executor);
+
+        network.addBlockListener(delivery, listener);
+        stubBlockEventSource.sendEvent(event1);
+        stubBlockEventSource.sendEvent(event2);
+        executor.runAll();
+        stubBlockEventSource.sendEvent(event3);
+        executor.runAll();
+
+        Mockito.verify(listener, Mockito.never()).accept(event1);
+        Mockito.verify(listener, Mockito.never()).accept(event2);
+        Mockito.verify(listener).accept(event3);
+        assertThat(network.getBlockListenerMetrics(listener).get().getDisconnectCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void synchronous_listener_has_no_metrics() {
+        Consumer<BlockEvent> listener = testUtils.stubBlockListener();
+
+        network.addBlockListener(ListenerDelivery.synchronous(), listener);
+
+        assertThat(network.getBlockListenerMetrics(listener)).isEmpty();
+    }
 }
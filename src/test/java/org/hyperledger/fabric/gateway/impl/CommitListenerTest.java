@@ -95,6 +95,33 @@ public class CommitListenerTest {
         verify(listener, times(1)).acceptCommit(any(BlockEvent.TransactionEvent.class));
     }
 
+    @Test
+    public void listeners_for_different_transactions_only_receive_their_own_commits() {
+        CommitListener listener1 = spy(stubCommitListener);
+        CommitListener listener2 = spy(stubCommitListener);
+
+        network.addCommitListener(listener1, peers, "txId1");
+        network.addCommitListener(listener2, peers, "txId2");
+        fireCommitEvents(peer1, "txId1");
+
+        verify(listener1, times(1)).acceptCommit(any(BlockEvent.TransactionEvent.class));
+        verify(listener2, never()).acceptCommit(any(BlockEvent.TransactionEvent.class));
+    }
+
+    @Test
+    public void removing_one_listener_does_not_affect_other_listeners_for_same_transaction() {
+        CommitListener listener1 = spy(stubCommitListener);
+        CommitListener listener2 = spy(stubCommitListener);
+
+        network.addCommitListener(listener1, peers, transactionId);
+        network.addCommitListener(listener2, peers, transactionId);
+        network.removeCommitListener(listener1);
+        fireCommitEvents(peer1, transactionId);
+
+        verify(listener1, never()).acceptCommit(any(BlockEvent.TransactionEvent.class));
+        verify(listener2, times(1)).acceptCommit(any(BlockEvent.TransactionEvent.class));
+    }
+
     @Test
     public void listener_only_receives_commits_for_correct_peers() {
         CommitListener listener = spy(stubCommitListener);
@@ -7,9 +7,12 @@
 package org.hyperledger.fabric.gateway.impl;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.security.NoSuchAlgorithmException;
 import java.security.NoSuchProviderException;
 import java.security.cert.CertificateException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -18,6 +21,7 @@ import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import org.bouncycastle.operator.OperatorCreationException;
+import org.hyperledger.fabric.gateway.CheckpointPolicy;
 import org.hyperledger.fabric.gateway.Contract;
 import org.hyperledger.fabric.gateway.ContractEvent;
 import org.hyperledger.fabric.gateway.Gateway;
@@ -36,6 +40,7 @@ import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyCollection;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
@@ -245,6 +250,51 @@ public class ContractListenerTest {
         verify(listener, times(1)).accept(any(ContractEvent.class));
     }
 
+    @Test
+    public void event_name_listener_does_not_treat_name_as_pattern() {
+        Consumer<ContractEvent> listener = spy(testUtils.stubContractListener());
+        ChaincodeEvent event = mockChaincodeEvent(chaincodeId, "eventNameX");
+
+        contract.addContractListener(listener, "eventName.*");
+        fireEvents(event);
+
+        verify(listener, never()).accept(any(ContractEvent.class));
+    }
+
+    @Test
+    public void each_event_is_delivered_only_to_matching_listeners() {
+        Consumer<ContractEvent> allListener = spy(testUtils.stubContractListener());
+        Consumer<ContractEvent> nameListener = spy(testUtils.stubContractListener());
+        Consumer<ContractEvent> patternListener = spy(testUtils.stubContractListener());
+        ChaincodeEvent namedEvent = mockChaincodeEvent(chaincodeId, eventName);
+        ChaincodeEvent patternEvent = mockChaincodeEvent(chaincodeId, eventName + "X");
+        ChaincodeEvent otherEvent = mockChaincodeEvent(chaincodeId, "other");
+
+        contract.addContractListener(allListener);
+        contract.addContractListener(nameListener, eventName);
+        contract.addContractListener(patternListener, eventNamePattern);
+        fireEvents(namedEvent, patternEvent, otherEvent);
+
+        verify(allListener, times(3)).accept(any(ContractEvent.class));
+        verify(nameListener, times(1)).accept(any(ContractEvent.class));
+        verify(patternListener, times(2)).accept(any(ContractEvent.class));
+    }
+
+    @Test
+    public void listener_exception_does_not_prevent_delivery_to_other_listeners() {
+        Consumer<ContractEvent> failListener = event -> {
+            throw new RuntimeException("Expected");
+        };
+        Consumer<ContractEvent> listener = spy(testUtils.stubContractListener());
+        ChaincodeEvent event = mockChaincodeEvent(chaincodeId, eventName);
+
+        contract.addContractListener(failListener);
+        contract.addContractListener(listener, eventName);
+        fireEvents(event);
+
+        verify(listener).accept(any(ContractEvent.class));
+    }
+
     @Test
     public void add_checkpoint_listener_returns_the_listener() throws IOException {
         Consumer<ContractEvent> listener = event -> {};
@@ -289,6 +339,49 @@ public class ContractListenerTest {
         verify(listener, times(2)).accept(any(ContractEvent.class));
     }
 
+    @Test
+    public void checkpoint_listener_does_not_read_non_matching_events() throws IOException {
+        Consumer<ContractEvent> listener = spy(testUtils.stubContractListener());
+        Checkpointer checkpointer = new InMemoryCheckpointer();
+        ChaincodeEvent otherEvent = mockChaincodeEvent("otherChaincodeId", eventName);
+        BlockEvent blockEvent = newBlockEvent(1, otherEvent);
+
+        contract.addContractListener(checkpointer, listener, eventNamePattern);
+        blockSource.sendEvent(blockEvent);
+
+        verify(listener, never()).accept(any(ContractEvent.class));
+        verify(otherEvent, never()).getEventName();
+        verify(otherEvent, never()).getPayload();
+    }
+
+    @Test
+    public void payload_buffer_is_read_only_view_of_payload() {
+        List<ContractEvent> events = new ArrayList<>();
+        ChaincodeEvent event = mockChaincodeEvent(chaincodeId, eventName);
+        when(event.getPayload()).thenReturn("payload".getBytes(StandardCharsets.UTF_8));
+
+        contract.addContractListener(events::add);
+        fireEvents(event);
+
+        ByteBuffer payload = events.get(0).getPayloadBuffer().get();
+        assertThat(payload.isReadOnly()).isTrue();
+        assertThat(StandardCharsets.UTF_8.decode(payload).toString()).isEqualTo("payload");
+        assertThat(events.get(0).getPayload()).hasValueSatisfying(bytes -> assertThat(bytes).isEqualTo("payload".getBytes(StandardCharsets.UTF_8)));
+        verify(event, times(1)).getPayload();
+    }
+
+    @Test
+    public void payload_buffer_is_empty_without_payload() {
+        List<ContractEvent> events = new ArrayList<>();
+        ChaincodeEvent event = mockChaincodeEvent(chaincodeId, eventName);
+
+        contract.addContractListener(events::add);
+        fireEvents(event);
+
+        assertThat(events.get(0).getPayloadBuffer()).isEmpty();
+        assertThat(events.get(0).getPayload()).isEmpty();
+    }
+
     @Test
     public void listener_with_saved_checkpointer_resumes_from_previous_event() throws IOException {
         Consumer<ContractEvent> realtimeListener = event -> {};
@@ -308,6 +401,113 @@ public class ContractListenerTest {
         verify(replayListener, times(1)).accept(any(ContractEvent.class));
     }
 
+    @Test
+    public void checkpointer_listener_adds_transaction_ids_once_per_block() throws IOException {
+        Consumer<ContractEvent> listener = spy(testUtils.stubContractListener());
+        Checkpointer checkpointer = spy(new InMemoryCheckpointer());
+        ChaincodeEvent chaincodeEvent1 = mockChaincodeEvent(chaincodeId, eventName + 1);
+        ChaincodeEvent chaincodeEvent2 = mockChaincodeEvent(chaincodeId, eventName + 2);
+        BlockEvent blockEvent = newBlockEvent(1, chaincodeEvent1, chaincodeEvent2);
+
+        contract.addContractListener(checkpointer, listener);
+        blockSource.sendEvent(blockEvent);
+
+        verify(listener, times(2)).accept(any(ContractEvent.class));
+        verify(checkpointer, times(1)).addTransactionIds(anyCollection());
+        verify(checkpointer, never()).addTransactionId(any());
+        assertThat(checkpointer.getBlockNumber()).isEqualTo(2L);
+    }
+
+    @Test
+    public void checkpointer_listener_failure_checkpoints_processed_transactions() throws IOException {
+        ChaincodeEvent goodEvent = mockChaincodeEvent(chaincodeId, eventName);
+        ChaincodeEvent badEvent = mockChaincodeEvent(chaincodeId, "BAD_" + eventName);
+        Consumer<ContractEvent> failingListener = event -> {
+            if (event.getName().startsWith("BAD_")) {
+                throw new RuntimeException("Listener failure");
+            }
+        };
+        Consumer<ContractEvent> retryListener = spy(testUtils.stubContractListener());
+        Checkpointer checkpointer = new InMemoryCheckpointer();
+        BlockEvent blockEvent = newBlockEvent(1, goodEvent, badEvent);
+
+        contract.addContractListener(checkpointer, failingListener);
+        blockSource.sendEvent(blockEvent);
+        contract.removeContractListener(failingListener);
+        contract.addContractListener(checkpointer, retryListener);
+        blockSource.sendEvent(blockEvent);
+
+        assertThat(checkpointer.getBlockNumber()).isEqualTo(2L);
+        verify(retryListener, times(1)).accept(any(ContractEvent.class));
+    }
+
+    @Test
+    public void block_checkpoint_policy_checkpoints_once_per_block() throws IOException {
+        Consumer<ContractEvent> listener = spy(testUtils.stubContractListener());
+        Checkpointer checkpointer = spy(new InMemoryCheckpointer());
+        ChaincodeEvent chaincodeEvent1 = mockChaincodeEvent(chaincodeId, eventName + 1);
+        ChaincodeEvent chaincodeEvent2 = mockChaincodeEvent(chaincodeId, eventName + 2);
+        BlockEvent blockEvent = newBlockEvent(1, chaincodeEvent1, chaincodeEvent2);
+
+        contract.addContractListener(checkpointer, CheckpointPolicy.perBlock(), listener);
+        blockSource.sendEvent(blockEvent);
+
+        verify(listener, times(2)).accept(any(ContractEvent.class));
+        verify(checkpointer, never()).addTransactionId(any());
+        assertThat(checkpointer.getBlockNumber()).isEqualTo(2L);
+    }
+
+    @Test
+    public void block_count_checkpoint_policy_checkpoints_after_specified_blocks() throws IOException {
+        Consumer<ContractEvent> listener = testUtils.stubContractListener();
+        Checkpointer checkpointer = new InMemoryCheckpointer();
+        ChaincodeEvent chaincodeEvent = mockChaincodeEvent(chaincodeId, eventName);
+
+        contract.addContractListener(checkpointer, CheckpointPolicy.everyBlocks(2), listener);
+        blockSource.sendEvent(newBlockEvent(1, chaincodeEvent));
+        long afterFirstBlock = checkpointer.getBlockNumber();
+        blockSource.sendEvent(newBlockEvent(2, chaincodeEvent));
+
+        assertThat(afterFirstBlock).isEqualTo(1L);
+        assertThat(checkpointer.getBlockNumber()).isEqualTo(3L);
+    }
+
+    @Test
+    public void removing_batch_checkpoint_listener_checkpoints_outstanding_position() throws IOException {
+        Consumer<ContractEvent> listener = testUtils.stubContractListener();
+        Checkpointer checkpointer = new InMemoryCheckpointer();
+        ChaincodeEvent chaincodeEvent = mockChaincodeEvent(chaincodeId, eventName);
+
+        contract.addContractListener(checkpointer, CheckpointPolicy.everyBlocks(10), listener);
+        blockSource.sendEvent(newBlockEvent(1, chaincodeEvent));
+        contract.removeContractListener(listener);
+
+        assertThat(checkpointer.getBlockNumber()).isEqualTo(2L);
+    }
+
+    @Test
+    public void batch_checkpoint_listener_failure_checkpoints_processed_transactions() throws IOException {
+        ChaincodeEvent goodEvent = mockChaincodeEvent(chaincodeId, eventName);
+        ChaincodeEvent badEvent = mockChaincodeEvent(chaincodeId, "BAD_" + eventName);
+        Consumer<ContractEvent> failingListener = event -> {
+            if (event.getName().startsWith("BAD_")) {
+                throw new RuntimeException("Listener failure");
+            }
+        };
+        Consumer<ContractEvent> retryListener = spy(testUtils.stubContractListener());
+        Checkpointer checkpointer = new InMemoryCheckpointer();
+        BlockEvent blockEvent = newBlockEvent(1, goodEvent, badEvent);
+
+        contract.addContractListener(checkpointer, CheckpointPolicy.perBlock(), failingListener);
+        blockSource.sendEvent(blockEvent);
+        contract.removeContractListener(failingListener);
+        contract.addContractListener(checkpointer, CheckpointPolicy.perBlock(), retryListener);
+        blockSource.sendEvent(blockEvent);
+
+        assertThat(checkpointer.getBlockNumber()).isEqualTo(2L);
+        verify(retryListener, times(1)).accept(any(ContractEvent.class));
+    }
+
     @Test
     public void listener_with_new_checkpointer_only_receives_events_with_specific_name() throws IOException {
         Consumer<ContractEvent> listener = spy(testUtils.stubContractListener());
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hyperledger.fabric.gateway.ContractException;
+import org.hyperledger.fabric.gateway.EvaluateCacheOptions;
+import org.hyperledger.fabric.gateway.TestUtils;
+import org.hyperledger.fabric.gateway.TransactionResponse;
+import org.hyperledger.fabric.gateway.impl.event.StubBlockEventSource;
+import org.hyperledger.fabric.sdk.BlockEvent;
+import org.hyperledger.fabric.sdk.BlockInfo;
+import org.hyperledger.fabric.sdk.Peer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class EvaluateCacheTest {
+    private static final TestUtils testUtils = TestUtils.getInstance();
+
+    private final AtomicInteger evaluationCount = new AtomicInteger(0);
+    private final Evaluation evaluation = () -> newResponse("result" + evaluationCount.incrementAndGet());
+    private StubBlockEventSource blockSource;
+    private EvaluateCache cache;
+
+    @BeforeEach
+    public void beforeEach() {
+        blockSource = new StubBlockEventSource();
+        cache = new EvaluateCache(blockSource, EvaluateCacheOptions.of(10, 1, TimeUnit.HOURS));
+    }
+
+    @AfterEach
+    public void afterEach() {
+        cache.close();
+        blockSource.close();
+    }
+
+    private static TransactionResponse newResponse(final String payload) {
+        return new TransactionResponse(UUID.randomUUID(), "txId", payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static EvaluationKey newKey(final String chaincodeId, final String... args) {
+        return EvaluationKey.of(chaincodeId, "txn", TransactionArgs.of(args), null);
+    }
+
+    private String evaluate(final EvaluationKey key) throws ContractException {
+        TransactionResponse response = cache.evaluate(key, UUID.randomUUID(), evaluation);
+        return new String(response.getPayload(), StandardCharsets.UTF_8);
+    }
+
+    private void sendBlock(final long blockNumber, final String... chaincodeIds) {
+        Peer peer = testUtils.newMockPeer("peer1");
+        BlockEvent.TransactionEvent[] transactionEvents = new BlockEvent.TransactionEvent[chaincodeIds.length];
+        for (int i = 0; i < chaincodeIds.length; i++) {
+            BlockInfo.TransactionEnvelopeInfo.TransactionActionInfo actionInfo = mock(BlockInfo.TransactionEnvelopeInfo.TransactionActionInfo.class);
+            when(actionInfo.getChaincodeIDName()).thenReturn(chaincodeIds[i]);
+            transactionEvents[i] = testUtils.newValidMockTransactionEvent(peer, "tx" + blockNumber + "_" + i);
+            when(transactionEvents[i].getTransactionActionInfos()).thenReturn(Collections.singletonList(actionInfo));
+        }
+        blockSource.sendEvent(testUtils.newMockBlockEvent(peer, blockNumber, transactionEvents));
+    }
+
+    @Test
+    public void repeated_evaluation_returns_cached_result() throws ContractException {
+        assertThat(evaluate(newKey("cc", "arg"))).isEqualTo("result1");
+        assertThat(evaluate(newKey("cc", "arg"))).isEqualTo("result1");
+
+        assertThat(evaluationCount).hasValue(1);
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void cached_response_has_caller_correlation_id() throws ContractException {
+        cache.evaluate(newKey("cc", "arg"), UUID.randomUUID(), evaluation);
+        UUID correlationId = UUID.randomUUID();
+
+        TransactionResponse response = cache.evaluate(newKey("cc", "arg"), correlationId, evaluation);
+
+        assertThat(response.getCorrelationId()).isEqualTo(correlationId);
+    }
+
+    @Test
+    public void different_arguments_are_cached_separately() throws ContractException {
+        evaluate(newKey("cc", "arg1"));
+
+        assertThat(evaluate(newKey("cc", "arg2"))).isEqualTo("result2");
+    }
+
+    @Test
+    public void different_transient_data_is_cached_separately() throws ContractException {
+        Map<String, byte[]> transientData = new HashMap<>();
+        transientData.put("key", new byte[] {1});
+        EvaluationKey key1 = EvaluationKey.of("cc", "txn", TransactionArgs.of("arg"), transientData);
+        transientData.put("key", new byte[] {2});
+        EvaluationKey key2 = EvaluationKey.of("cc", "txn", TransactionArgs.of("arg"), transientData);
+
+        evaluate(key1);
+
+        assertThat(evaluate(key2)).isEqualTo("result2");
+        assertThat(evaluate(key1)).isEqualTo("result1");
+    }
+
+    @Test
+    public void byte_arguments_are_compared_by_value() throws ContractException {
+        EvaluationKey key1 = EvaluationKey.of("cc", "txn", TransactionArgs.of(new byte[][] {{1, 2}}), null);
+        EvaluationKey key2 = EvaluationKey.of("cc", "txn", TransactionArgs.of(new byte[][] {{1, 2}}), null);
+
+        evaluate(key1);
+
+        assertThat(evaluate(key2)).isEqualTo("result1");
+    }
+
+    @Test
+    public void block_invoking_chaincode_invalidates_results() throws ContractException {
+        evaluate(newKey("cc", "arg"));
+
+        sendBlock(1, "cc");
+
+        assertThat(evaluate(newKey("cc", "arg"))).isEqualTo("result2");
+        assertThat(cache.getInvalidationCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void block_invoking_other_chaincode_does_not_invalidate_results() throws ContractException {
+        evaluate(newKey("cc", "arg"));
+
+        sendBlock(1, "other");
+
+        assertThat(evaluate(newKey("cc", "arg"))).isEqualTo("result1");
+    }
+
+    @Test
+    public void results_are_evicted_after_max_blocks() throws ContractException {
+        cache = new EvaluateCache(blockSource, EvaluateCacheOptions.of(10, 1, TimeUnit.HOURS).withMaxBlocks(2));
+        cache.evaluate(newKey("other"), UUID.randomUUID(), () -> newResponse("other")); // Attach to block source
+        sendBlock(1);
+        evaluate(newKey("cc", "arg"));
+
+        sendBlock(2, "other");
+        assertThat(evaluate(newKey("cc", "arg"))).isEqualTo("result1");
+        sendBlock(3, "other");
+
+        assertThat(evaluate(newKey("cc", "arg"))).isEqualTo("result2");
+    }
+
+    @Test
+    public void results_cached_before_first_block_are_evicted_by_first_block() throws ContractException {
+        cache = new EvaluateCache(blockSource, EvaluateCacheOptions.of(10, 1, TimeUnit.HOURS).withMaxBlocks(100));
+        evaluate(newKey("cc", "arg"));
+
+        sendBlock(0, "other");
+
+        assertThat(evaluate(newKey("cc", "arg"))).isEqualTo("result2");
+        assertThat(cache.getEvictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void expired_results_are_evicted() throws ContractException {
+        cache = new EvaluateCache(blockSource, EvaluateCacheOptions.of(10, 1, TimeUnit.NANOSECONDS));
+        evaluate(newKey("cc", "arg"));
+
+        assertThat(evaluate(newKey("cc", "arg"))).isEqualTo("result2");
+        assertThat(cache.getEvictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void least_recently_used_result_is_evicted_when_full() throws ContractException {
+        cache = new EvaluateCache(blockSource, EvaluateCacheOptions.of(2, 1, TimeUnit.HOURS));
+        evaluate(newKey("cc", "arg1"));
+        evaluate(newKey("cc", "arg2"));
+        evaluate(newKey("cc", "arg1"));
+        evaluate(newKey("cc", "arg3"));
+
+        assertThat(cache.getSize()).isEqualTo(2);
+        assertThat(cache.getEvictionCount()).isEqualTo(1);
+        assertThat(evaluate(newKey("cc", "arg1"))).isEqualTo("result1");
+        assertThat(evaluate(newKey("cc", "arg2"))).isEqualTo("result4");
+    }
+
+    @Test
+    public void result_of_evaluation_overlapping_invalidation_is_not_cached() throws ContractException {
+        cache.evaluate(newKey("cc", "arg"), UUID.randomUUID(), () -> {
+            sendBlock(1, "cc");
+            return newResponse("stale");
+        });
+
+        assertThat(evaluate(newKey("cc", "arg"))).isEqualTo("result1");
+    }
+
+    @Test
+    public void failed_evaluation_is_not_cached() throws ContractException {
+        assertThatThrownBy(() -> cache.evaluate(newKey("cc", "arg"), UUID.randomUUID(), () -> {
+            throw new ContractException("fail");
+        })).isInstanceOf(ContractException.class);
+
+        assertThat(evaluate(newKey("cc", "arg"))).isEqualTo("result1");
+    }
+
+    @Test
+    public void invalid_options_throw() {
+        assertThatThrownBy(() -> EvaluateCacheOptions.of(0, 1, TimeUnit.HOURS))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hyperledger.fabric.gateway.ContractException;
+import org.hyperledger.fabric.gateway.TransactionResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+public class EvaluateCoalescerTest {
+    private static final int FOLLOWER_COUNT = 5;
+
+    private final EvaluateCoalescer coalescer = new EvaluateCoalescer();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicInteger evaluationCount = new AtomicInteger(0);
+    private final CountDownLatch releaseLatch = new CountDownLatch(1);
+
+    @AfterEach
+    public void afterEach() {
+        releaseLatch.countDown();
+        executor.shutdownNow();
+    }
+
+    private static EvaluationKey newKey(final String... args) {
+        return EvaluationKey.of("cc", "txn", TransactionArgs.of(args), null);
+    }
+
+    private TransactionResponse blockingEvaluate() throws ContractException {
+        int count = evaluationCount.incrementAndGet();
+        try {
+            releaseLatch.await();
+        } catch (InterruptedException e) {
+            throw new ContractException("Interrupted");
+        }
+        return new TransactionResponse(UUID.randomUUID(), "txId" + count, ("result" + count).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Future<TransactionResponse> evaluateAsync(final EvaluationKey key, final UUID correlationId, final Evaluation evaluation) {
+        return executor.submit(() -> coalescer.evaluate(key, correlationId, evaluation));
+    }
+
+    private void awaitCoalescedCount(final long count) throws InterruptedException {
+        while (coalescer.getCoalescedCount() < count) {
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    public void concurrent_identical_evaluations_share_one_evaluation() throws Exception {
+        Future<TransactionResponse> leader = evaluateAsync(newKey("arg"), UUID.randomUUID(), this::blockingEvaluate);
+        while (evaluationCount.get() == 0) {
+            Thread.sleep(1);
+        }
+        List<Future<TransactionResponse>> followers = new ArrayList<>();
+        for (int i = 0; i < FOLLOWER_COUNT; i++) {
+            followers.add(evaluateAsync(newKey("arg"), UUID.randomUUID(), this::blockingEvaluate));
+        }
+        awaitCoalescedCount(FOLLOWER_COUNT);
+
+        releaseLatch.countDown();
+
+        TransactionResponse expected = leader.get(1, TimeUnit.MINUTES);
+        for (Future<TransactionResponse> follower : followers) {
+            TransactionResponse response = follower.get(1, TimeUnit.MINUTES);
+            assertThat(response.getTransactionId()).isEqualTo(expected.getTransactionId());
+            assertThat(response.getPayload()).isEqualTo(expected.getPayload());
+        }
+        assertThat(evaluationCount).hasValue(1);
+    }
+
+    @Test
+    public void waiting_caller_receives_own_correlation_id() throws Exception {
+        evaluateAsync(newKey("arg"), UUID.randomUUID(), this::blockingEvaluate);
+        while (evaluationCount.get() == 0) {
+            Thread.sleep(1);
+        }
+        UUID correlationId = UUID.randomUUID();
+        Future<TransactionResponse> follower = evaluateAsync(newKey("arg"), correlationId, this::blockingEvaluate);
+        awaitCoalescedCount(1);
+
+        releaseLatch.countDown();
+
+        assertThat(follower.get(1, TimeUnit.MINUTES).getCorrelationId()).isEqualTo(correlationId);
+    }
+
+    @Test
+    public void concurrent_evaluations_with_different_arguments_are_not_shared() throws Exception {
+        Future<TransactionResponse> first = evaluateAsync(newKey("arg1"), UUID.randomUUID(), this::blockingEvaluate);
+        Future<TransactionResponse> second = evaluateAsync(newKey("arg2"), UUID.randomUUID(), this::blockingEvaluate);
+        while (evaluationCount.get() < 2) {
+            Thread.sleep(1);
+        }
+
+        releaseLatch.countDown();
+
+        assertThat(first.get(1, TimeUnit.MINUTES).getTransactionId())
+                .isNotEqualTo(second.get(1, TimeUnit.MINUTES).getTransactionId());
+        assertThat(coalescer.getCoalescedCount()).isZero();
+    }
+
+    @Test
+    public void waiting_caller_receives_evaluation_failure() throws Exception {
+        ContractException failure = new ContractException("Epic fail");
+        Future<TransactionResponse> leader = evaluateAsync(newKey("arg"), UUID.randomUUID(), () -> {
+            blockingEvaluate();
+            throw failure;
+        });
+        while (evaluationCount.get() == 0) {
+            Thread.sleep(1);
+        }
+        Future<TransactionResponse> follower = evaluateAsync(newKey("arg"), UUID.randomUUID(), this::blockingEvaluate);
+        awaitCoalescedCount(1);
+
+        releaseLatch.countDown();
+
+        ExecutionException leaderException = catchThrowableOfType(
+                () -> leader.get(1, TimeUnit.MINUTES), ExecutionException.class);
+        ExecutionException followerException = catchThrowableOfType(
+                () -> follower.get(1, TimeUnit.MINUTES), ExecutionException.class);
+        assertThat(leaderException.getCause()).isSameAs(failure);
+        assertThat(followerException.getCause()).isSameAs(failure);
+    }
+
+    @Test
+    public void sequential_evaluations_are_not_shared() throws Exception {
+        releaseLatch.countDown();
+
+        coalescer.evaluate(newKey("arg"), UUID.randomUUID(), this::blockingEvaluate);
+        coalescer.evaluate(newKey("arg"), UUID.randomUUID(), this::blockingEvaluate);
+
+        assertThat(evaluationCount).hasValue(2);
+    }
+}
@@ -6,6 +6,7 @@
 
 package org.hyperledger.fabric.gateway.impl;
 
+import org.hyperledger.fabric.gateway.CheckpointSyncPolicy;
 import org.hyperledger.fabric.gateway.TestUtils;
 import org.hyperledger.fabric.gateway.spi.Checkpointer;
 import org.junit.jupiter.api.Test;
@@ -13,8 +14,12 @@ import org.junit.jupiter.api.Test;
 import java.io.BufferedWriter;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.channels.FileChannel;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -77,6 +82,17 @@ public class FileCheckpointerTest {
         assertThat(transactionIds).containsExactly(transactionId);
     }
 
+    @Test
+    public void contains_transaction() throws IOException {
+        Path file = testUtils.getUnusedFilePath();
+        Checkpointer checkpointer = new FileCheckpointer(file);
+
+        checkpointer.addTransactionId("tx1");
+
+        assertThat(checkpointer.containsTransactionId("tx1")).isTrue();
+        assertThat(checkpointer.containsTransactionId("tx2")).isFalse();
+    }
+
     @Test
     public void get_transactions_does_not_allow_modification_of_internal_state() throws IOException {
         Path file = testUtils.getUnusedFilePath();
@@ -181,4 +197,159 @@ public class FileCheckpointerTest {
                 .hasMessageContaining("Unsupported checkpoint data version")
                 .hasMessageContaining(file.toString());
     }
+
+    @Test
+    public void migrates_version_1_json() throws IOException {
+        Path file = testUtils.createTempFile();
+        writeToFile(file, "{ \"version\": 1, \"block\": 2, \"transactions\": [\"tx1\", \"tx2\"] }");
+
+        new FileCheckpointer(file).close();
+
+        assertThat(Files.readAllBytes(file)[0]).isNotEqualTo((byte) '{');
+        try (Checkpointer checkpointer = new FileCheckpointer(file)) {
+            assertThat(checkpointer.getBlockNumber()).isEqualTo(2L);
+            assertThat(checkpointer.getTransactionIds()).containsExactlyInAnyOrder("tx1", "tx2");
+        }
+    }
+
+    @Test
+    public void add_transactions_appends_to_file() throws IOException {
+        Path file = testUtils.getUnusedFilePath();
+
+        try (FileCheckpointer checkpointer = new FileCheckpointer(file)) {
+            checkpointer.addTransactionIds(Arrays.asList("tx1", "tx2"));
+            long sizeAfterFirstAdd = Files.size(file);
+            checkpointer.addTransactionId("tx3");
+
+            assertThat(Files.size(file)).isGreaterThan(sizeAfterFirstAdd);
+            assertThat(checkpointer.getTransactionIds()).containsExactlyInAnyOrder("tx1", "tx2", "tx3");
+        }
+    }
+
+    @Test
+    public void add_existing_transaction_does_not_write_to_file() throws IOException {
+        Path file = testUtils.getUnusedFilePath();
+
+        try (FileCheckpointer checkpointer = new FileCheckpointer(file)) {
+            checkpointer.addTransactionIds(Arrays.asList("tx1", "tx1"));
+            long expectedSize = Files.size(file);
+            checkpointer.addTransactionId("tx1");
+
+            assertThat(Files.size(file)).isEqualTo(expectedSize);
+        }
+    }
+
+    @Test
+    public void persists_transactions_for_current_block_only() throws IOException {
+        Path file = testUtils.getUnusedFilePath();
+
+        try (FileCheckpointer checkpointer = new FileCheckpointer(file)) {
+            checkpointer.setBlockNumber(1L);
+            checkpointer.addTransactionIds(Arrays.asList("tx1", "tx2"));
+            checkpointer.setBlockNumber(2L);
+            checkpointer.addTransactionId("tx3");
+        }
+
+        try (Checkpointer checkpointer = new FileCheckpointer(file)) {
+            assertThat(checkpointer.getBlockNumber()).isEqualTo(2L);
+            assertThat(checkpointer.getTransactionIds()).containsExactly("tx3");
+        }
+    }
+
+    @Test
+    public void compacts_log_on_new_block() throws IOException {
+        Path file = testUtils.getUnusedFilePath();
+
+        try (FileCheckpointer checkpointer = new FileCheckpointer(file, CheckpointSyncPolicy.none(), 1)) {
+            long initialSize = Files.size(file);
+            checkpointer.addTransactionIds(Arrays.asList("tx1", "tx2"));
+            checkpointer.setBlockNumber(1L);
+
+            assertThat(Files.size(file)).isEqualTo(initialSize);
+        }
+
+        try (Checkpointer checkpointer = new FileCheckpointer(file)) {
+            assertThat(checkpointer.getBlockNumber()).isEqualTo(1L);
+            assertThat(checkpointer.getTransactionIds()).isEmpty();
+        }
+    }
+
+    @Test
+    public void discards_partially_written_record() throws IOException {
+        Path file = testUtils.getUnusedFilePath();
+
+        try (FileCheckpointer checkpointer = new FileCheckpointer(file)) {
+            checkpointer.setBlockNumber(1L);
+            checkpointer.addTransactionId("tx1");
+            checkpointer.addTransactionId("tx2");
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 1);
+        }
+
+        try (Checkpointer checkpointer = new FileCheckpointer(file)) {
+            assertThat(checkpointer.getBlockNumber()).isEqualTo(1L);
+            assertThat(checkpointer.getTransactionIds()).containsExactly("tx1");
+        }
+    }
+
+    @Test
+    public void discards_unrecognised_record_at_end_of_log() throws IOException {
+        Path file = testUtils.getUnusedFilePath();
+
+        try (FileCheckpointer checkpointer = new FileCheckpointer(file)) {
+            checkpointer.setBlockNumber(1L);
+            checkpointer.addTransactionId("tx1");
+        }
+        long validSize = Files.size(file);
+        Files.write(file, new byte[] { 0, 0, 0 }, StandardOpenOption.APPEND);
+
+        try (Checkpointer checkpointer = new FileCheckpointer(file)) {
+            assertThat(checkpointer.getBlockNumber()).isEqualTo(1L);
+            assertThat(checkpointer.getTransactionIds()).containsExactly("tx1");
+        }
+        assertThat(Files.size(file)).isEqualTo(validSize);
+    }
+
+    @Test
+    public void ignores_file_left_by_interrupted_rewrite() throws IOException {
+        Path file = testUtils.getUnusedFilePath();
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+
+        try (FileCheckpointer checkpointer = new FileCheckpointer(file)) {
+            checkpointer.setBlockNumber(1L);
+        }
+        writeToFile(tempFile, "partial");
+
+        try (Checkpointer checkpointer = new FileCheckpointer(file, CheckpointSyncPolicy.none(), 1)) {
+            assertThat(checkpointer.getBlockNumber()).isEqualTo(1L);
+            checkpointer.setBlockNumber(2L);
+        }
+
+        assertThat(tempFile).doesNotExist();
+        try (Checkpointer checkpointer = new FileCheckpointer(file)) {
+            assertThat(checkpointer.getBlockNumber()).isEqualTo(2L);
+        }
+    }
+
+    @Test
+    public void persists_state_with_sync_policies() throws IOException {
+        CheckpointSyncPolicy[] policies = {
+                CheckpointSyncPolicy.none(),
+                CheckpointSyncPolicy.perBlock(),
+                CheckpointSyncPolicy.interval(1, TimeUnit.HOURS)
+        };
+
+        for (CheckpointSyncPolicy policy : policies) {
+            Path file = testUtils.getUnusedFilePath();
+            try (FileCheckpointer checkpointer = new FileCheckpointer(file, policy)) {
+                checkpointer.setBlockNumber(1L);
+                checkpointer.addTransactionIds(Arrays.asList("tx1", "tx2"));
+            }
+            try (Checkpointer checkpointer = new FileCheckpointer(file)) {
+                assertThat(checkpointer.getBlockNumber()).as(policy.toString()).isEqualTo(1L);
+                assertThat(checkpointer.getTransactionIds()).as(policy.toString()).containsExactlyInAnyOrder("tx1", "tx2");
+            }
+        }
+    }
 }
@@ -15,14 +15,17 @@ import java.io.InputStream;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Collection;
+import java.util.EnumSet;
 import java.util.stream.Collectors;
 
+import org.hyperledger.fabric.gateway.BlockEventType;
 import org.hyperledger.fabric.gateway.Gateway;
 import org.hyperledger.fabric.gateway.Identities;
 import org.hyperledger.fabric.gateway.Identity;
 import org.hyperledger.fabric.gateway.Wallet;
 import org.hyperledger.fabric.gateway.Wallets;
 import org.hyperledger.fabric.gateway.X509Credentials;
+import org.hyperledger.fabric.sdk.Channel;
 import org.hyperledger.fabric.sdk.HFClient;
 import org.hyperledger.fabric.sdk.Peer;
 import org.junit.jupiter.api.BeforeEach;
@@ -171,4 +174,86 @@ public class GatewayBuilderTest {
             assertThat(result).isSameAs(builder);
         }
     }
+
+    @Test
+    public void ordererQueue_with_invalid_capacity_throws() {
+        assertThatThrownBy(() -> builder.ordererQueue(0, true))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void ordererExecutor_with_null_executor_throws() {
+        assertThatThrownBy(() -> builder.ordererExecutor(null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void blockReorderWindow_with_invalid_size_throws() {
+        assertThatThrownBy(() -> builder.blockReorderWindow(0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void commitEventType_with_null_type_throws() {
+        assertThatThrownBy(() -> builder.commitEventType(null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void listenerEventType_with_null_type_throws() {
+        assertThatThrownBy(() -> builder.listenerEventType(null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void blockDecodeExecutor_with_null_executor_throws() {
+        assertThatThrownBy(() -> builder.blockDecodeExecutor(null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void event_peers_deliver_filtered_blocks_by_default() throws IOException {
+        builder.identity(testWallet, "admin")
+                .networkConfig(JSON_NETWORK_CONFIG_PATH);
+        try (Gateway gateway = builder.connect()) {
+            Channel channel = gateway.getNetwork("mychannel").getChannel();
+            Collection<Peer> eventPeers = channel.getPeers(EnumSet.of(Peer.PeerRole.EVENT_SOURCE));
+
+            assertThat(eventPeers).isNotEmpty();
+            assertThat(eventPeers).allSatisfy(peer ->
+                    assertThat(channel.getPeersOptions(peer).isRegisterEventsForFilteredBlocks()).isTrue());
+        }
+    }
+
+    @Test
+    public void event_peers_deliver_full_blocks_with_full_commit_event_type() throws IOException {
+        builder.identity(testWallet, "admin")
+                .networkConfig(JSON_NETWORK_CONFIG_PATH)
+                .commitEventType(BlockEventType.FULL);
+        try (Gateway gateway = builder.connect()) {
+            Channel channel = gateway.getNetwork("mychannel").getChannel();
+            Collection<Peer> eventPeers = channel.getPeers(EnumSet.of(Peer.PeerRole.EVENT_SOURCE));
+
+            assertThat(eventPeers).allSatisfy(peer ->
+                    assertThat(channel.getPeersOptions(peer).isRegisterEventsForFilteredBlocks()).isNotEqualTo(Boolean.TRUE));
+        }
+    }
+
+    @Test
+    public void existing_channel_peers_are_not_replaced() throws Exception {
+        builder.identity(testWallet, "admin")
+                .networkConfig(JSON_NETWORK_CONFIG_PATH)
+                .commitEventType(BlockEventType.FILTERED);
+        try (Gateway gateway = builder.connect()) {
+            HFClient client = ((GatewayImpl) gateway).getClient();
+            Channel existingChannel = client.newChannel("mychannel");
+            Peer peer = client.newPeer("peer", "grpc://localhost:7051");
+            existingChannel.addPeer(peer);
+
+            Channel channel = gateway.getNetwork("mychannel").getChannel();
+
+            assertThat(channel).isSameAs(existingChannel);
+            assertThat(channel.getPeers()).containsExactly(peer);
+        }
+    }
 }
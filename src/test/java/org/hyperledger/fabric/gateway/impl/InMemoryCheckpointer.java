@@ -6,6 +6,7 @@
 
 package org.hyperledger.fabric.gateway.impl;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -49,6 +50,16 @@ public class InMemoryCheckpointer implements Checkpointer {
         transactionIds.add(transactionId);
     }
 
+    @Override
+    public boolean containsTransactionId(String transactionId) {
+        return transactionIds.contains(transactionId);
+    }
+
+    @Override
+    public void addTransactionIds(Collection<String> transactionIds) {
+        this.transactionIds.addAll(transactionIds);
+    }
+
     @Override
     public void close() { }
 
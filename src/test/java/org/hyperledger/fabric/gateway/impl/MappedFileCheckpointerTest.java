@@ -0,0 +1,194 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import org.hyperledger.fabric.gateway.CheckpointSyncPolicy;
+import org.hyperledger.fabric.gateway.TestUtils;
+import org.hyperledger.fabric.gateway.spi.Checkpointer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class MappedFileCheckpointerTest {
+    private static final TestUtils testUtils = TestUtils.getInstance();
+
+    @Test
+    public void checkpointer_for_file_without_checkpoint_data_throws() throws IOException {
+        Path file = testUtils.createTempFile();
+        assertThatThrownBy(() -> new MappedFileCheckpointer(file))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining(file.toString());
+    }
+
+    @Test
+    public void checkpointer_for_missing_file_is_has_unset_block_number() throws IOException {
+        Path file = testUtils.getUnusedFilePath();
+        try (Checkpointer checkpointer = new MappedFileCheckpointer(file)) {
+            assertThat(checkpointer.getBlockNumber()).isEqualTo(Checkpointer.UNSET_BLOCK_NUMBER);
+            assertThat(checkpointer.getTransactionIds()).isEmpty();
+        }
+    }
+
+    @Test
+    public void add_transaction() throws IOException {
+        Path file = testUtils.getUnusedFilePath();
+        try (Checkpointer checkpointer = new MappedFileCheckpointer(file)) {
+            checkpointer.addTransactionId("tx1");
+            checkpointer.addTransactionId("tx1");
+
+            Set<String> transactionIds = checkpointer.getTransactionIds();
+            assertThat(transactionIds).containsExactly("tx1");
+            assertThat(transactionIds.contains("tx1")).isTrue();
+            assertThat(transactionIds.contains("tx2")).isFalse();
+        }
+    }
+
+    @Test
+    public void add_transactions() throws IOException {
+        Path file = testUtils.getUnusedFilePath();
+        try (Checkpointer checkpointer = new MappedFileCheckpointer(file)) {
+            checkpointer.addTransactionIds(Arrays.asList("tx1", "tx2", "tx1"));
+
+            assertThat(checkpointer.getTransactionIds()).containsExactlyInAnyOrder("tx1", "tx2");
+            assertThat(checkpointer.containsTransactionId("tx2")).isTrue();
+            assertThat(checkpointer.containsTransactionId("tx3")).isFalse();
+        }
+    }
+
+    @Test
+    public void add_transactions_with_id_too_long_adds_nothing() throws IOException {
+        Path file = testUtils.getUnusedFilePath();
+        String transactionId = String.join("", Collections.nCopies(MappedFileCheckpointer.MAX_TRANSACTION_ID_LENGTH + 1, "x"));
+
+        try (Checkpointer checkpointer = new MappedFileCheckpointer(file)) {
+            assertThatThrownBy(() -> checkpointer.addTransactionIds(Arrays.asList("tx1", transactionId)))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThat(checkpointer.getTransactionIds()).isEmpty();
+        }
+    }
+
+    @Test
+    public void get_transactions_does_not_allow_modification_of_internal_state() throws IOException {
+        Path file = testUtils.getUnusedFilePath();
+        try (Checkpointer checkpointer = new MappedFileCheckpointer(file)) {
+            assertThatThrownBy(() -> checkpointer.getTransactionIds().add("tx1"))
+                    .isInstanceOf(UnsupportedOperationException.class);
+        }
+    }
+
+    @Test
+    public void set_block_number_clears_transactions() throws IOException {
+        Path file = testUtils.getUnusedFilePath();
+        try (Checkpointer checkpointer = new MappedFileCheckpointer(file)) {
+            checkpointer.addTransactionId("tx1");
+            checkpointer.setBlockNumber(1L);
+
+            assertThat(checkpointer.getBlockNumber()).isEqualTo(1L);
+            assertThat(checkpointer.getTransactionIds()).isEmpty();
+        }
+    }
+
+    @Test
+    public void returning_to_previous_block_does_not_restore_transactions() throws IOException {
+        Path file = testUtils.getUnusedFilePath();
+        try (Checkpointer checkpointer = new MappedFileCheckpointer(file)) {
+            checkpointer.setBlockNumber(1L);
+            checkpointer.addTransactionId("tx1");
+            checkpointer.setBlockNumber(2L);
+            checkpointer.setBlockNumber(1L);
+
+            assertThat(checkpointer.getTransactionIds()).isEmpty();
+        }
+    }
+
+    @Test
+    public void grows_to_hold_many_transactions() throws IOException {
+        Path file = testUtils.getUnusedFilePath();
+        Set<String> expected = IntStream.range(0, 5000)
+                .mapToObj(i -> "tx" + i)
+                .collect(Collectors.toSet());
+
+        try (Checkpointer checkpointer = new MappedFileCheckpointer(file)) {
+            for (String transactionId : expected) {
+                checkpointer.addTransactionId(transactionId);
+            }
+        }
+
+        try (Checkpointer checkpointer = new MappedFileCheckpointer(file)) {
+            assertThat(checkpointer.getTransactionIds()).hasSize(expected.size());
+            assertThat(checkpointer.getTransactionIds()).containsExactlyInAnyOrderElementsOf(expected);
+        }
+    }
+
+    @Test
+    public void growing_keeps_block_number_and_file_lock() throws IOException {
+        Path file = testUtils.getUnusedFilePath();
+
+        try (Checkpointer checkpointer = new MappedFileCheckpointer(file)) {
+            checkpointer.setBlockNumber(1L);
+            for (int i = 0; i < 5000; i++) {
+                checkpointer.addTransactionId("tx" + i);
+            }
+
+            assertThat(checkpointer.getBlockNumber()).isEqualTo(1L);
+            assertThatThrownBy(() -> new MappedFileCheckpointer(file))
+                    .isInstanceOf(IOException.class)
+                    .hasMessageContaining("File is already locked");
+        }
+
+        try (Checkpointer checkpointer = new MappedFileCheckpointer(file)) {
+            assertThat(checkpointer.getBlockNumber()).isEqualTo(1L);
+            assertThat(checkpointer.getTransactionIds()).hasSize(5000);
+        }
+    }
+
+    @Test
+    public void throws_on_transaction_id_too_long() throws IOException {
+        Path file = testUtils.getUnusedFilePath();
+        String transactionId = String.join("", Collections.nCopies(MappedFileCheckpointer.MAX_TRANSACTION_ID_LENGTH + 1, "x"));
+
+        try (Checkpointer checkpointer = new MappedFileCheckpointer(file)) {
+            assertThatThrownBy(() -> checkpointer.addTransactionId(transactionId))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    public void checkpointer_locks_file() throws IOException {
+        Path file = testUtils.getUnusedFilePath();
+        try (Checkpointer checkpointer = new MappedFileCheckpointer(file)) {
+            assertThatThrownBy(() -> new MappedFileCheckpointer(file))
+                    .isInstanceOf(IOException.class)
+                    .hasMessageContaining("File is already locked")
+                    .hasMessageContaining(file.toString());
+        }
+    }
+
+    @Test
+    public void persists_state() throws IOException {
+        Path file = testUtils.getUnusedFilePath();
+
+        try (Checkpointer checkpointer = new MappedFileCheckpointer(file, CheckpointSyncPolicy.interval(1, TimeUnit.HOURS))) {
+            checkpointer.setBlockNumber(1L);
+            checkpointer.addTransactionId("tx1");
+        }
+
+        try (Checkpointer checkpointer = new MappedFileCheckpointer(file)) {
+            assertThat(checkpointer.getBlockNumber()).isEqualTo(1L);
+            assertThat(checkpointer.getTransactionIds()).containsExactly("tx1");
+        }
+    }
+}
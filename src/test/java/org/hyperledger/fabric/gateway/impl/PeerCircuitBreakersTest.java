@@ -0,0 +1,151 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.hyperledger.fabric.gateway.CircuitBreakerOptions;
+import org.hyperledger.fabric.gateway.TestUtils;
+import org.hyperledger.fabric.sdk.Peer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PeerCircuitBreakersTest {
+    private static final int FAILURE_THRESHOLD = 3;
+
+    private final TestUtils testUtils = TestUtils.getInstance();
+    private Peer peer1;
+    private Peer peer2;
+
+    @BeforeEach
+    public void beforeEach() {
+        peer1 = testUtils.newMockPeer("peer1");
+        peer2 = testUtils.newMockPeer("peer2");
+    }
+
+    private static PeerCircuitBreakers newCircuitBreakers(final long probeInterval, final TimeUnit timeUnit) {
+        return new PeerCircuitBreakers(CircuitBreakerOptions.of(FAILURE_THRESHOLD, probeInterval, timeUnit));
+    }
+
+    private static void recordFailures(final PeerCircuitBreakers circuitBreakers, final Peer peer, final int count) {
+        for (int i = 0; i < count; i++) {
+            circuitBreakers.recordFailure(peer);
+        }
+    }
+
+    @Test
+    public void circuit_is_closed_for_unknown_peer() {
+        PeerCircuitBreakers circuitBreakers = newCircuitBreakers(1, TimeUnit.HOURS);
+
+        assertThat(circuitBreakers.isOpen(peer1)).isFalse();
+        assertThat(circuitBreakers.getState(peer1)).isEqualTo(PeerCircuitBreakers.State.CLOSED);
+    }
+
+    @Test
+    public void circuit_stays_closed_below_failure_threshold() {
+        PeerCircuitBreakers circuitBreakers = newCircuitBreakers(1, TimeUnit.HOURS);
+
+        recordFailures(circuitBreakers, peer1, FAILURE_THRESHOLD - 1);
+
+        assertThat(circuitBreakers.isOpen(peer1)).isFalse();
+    }
+
+    @Test
+    public void circuit_opens_at_failure_threshold() {
+        PeerCircuitBreakers circuitBreakers = newCircuitBreakers(1, TimeUnit.HOURS);
+
+        recordFailures(circuitBreakers, peer1, FAILURE_THRESHOLD);
+
+        assertThat(circuitBreakers.isOpen(peer1)).isTrue();
+        assertThat(circuitBreakers.getState(peer1)).isEqualTo(PeerCircuitBreakers.State.OPEN);
+    }
+
+    @Test
+    public void success_resets_consecutive_failures() {
+        PeerCircuitBreakers circuitBreakers = newCircuitBreakers(1, TimeUnit.HOURS);
+
+        recordFailures(circuitBreakers, peer1, FAILURE_THRESHOLD - 1);
+        circuitBreakers.record(peer1, testUtils.newSuccessfulProposalResponse(new byte[0]));
+        recordFailures(circuitBreakers, peer1, FAILURE_THRESHOLD - 1);
+
+        assertThat(circuitBreakers.isOpen(peer1)).isFalse();
+    }
+
+    @Test
+    public void chaincode_error_is_not_a_failure() {
+        PeerCircuitBreakers circuitBreakers = newCircuitBreakers(1, TimeUnit.HOURS);
+
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            circuitBreakers.record(peer1, testUtils.newFailureProposalResponse("Epic fail"));
+        }
+
+        assertThat(circuitBreakers.isOpen(peer1)).isFalse();
+    }
+
+    @Test
+    public void unavailable_response_is_a_failure() {
+        PeerCircuitBreakers circuitBreakers = newCircuitBreakers(1, TimeUnit.HOURS);
+
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            circuitBreakers.record(peer1, testUtils.newUnavailableProposalResponse("No response"));
+        }
+
+        assertThat(circuitBreakers.isOpen(peer1)).isTrue();
+    }
+
+    @Test
+    public void open_circuit_does_not_affect_other_peers() {
+        PeerCircuitBreakers circuitBreakers = newCircuitBreakers(1, TimeUnit.HOURS);
+
+        recordFailures(circuitBreakers, peer1, FAILURE_THRESHOLD);
+
+        assertThat(circuitBreakers.getAvailablePeers(Arrays.asList(peer1, peer2))).containsExactly(peer2);
+    }
+
+    @Test
+    public void single_probe_allowed_after_probe_interval() {
+        PeerCircuitBreakers circuitBreakers = newCircuitBreakers(1, TimeUnit.NANOSECONDS);
+        recordFailures(circuitBreakers, peer1, FAILURE_THRESHOLD);
+
+        assertThat(circuitBreakers.isOpen(peer1)).isFalse();
+        assertThat(circuitBreakers.getState(peer1)).isEqualTo(PeerCircuitBreakers.State.HALF_OPEN);
+    }
+
+    @Test
+    public void successful_probe_closes_circuit() {
+        PeerCircuitBreakers circuitBreakers = newCircuitBreakers(1, TimeUnit.NANOSECONDS);
+        recordFailures(circuitBreakers, peer1, FAILURE_THRESHOLD);
+        circuitBreakers.isOpen(peer1);
+
+        circuitBreakers.recordSuccess(peer1);
+
+        assertThat(circuitBreakers.getState(peer1)).isEqualTo(PeerCircuitBreakers.State.CLOSED);
+    }
+
+    @Test
+    public void failed_probe_reopens_circuit() {
+        PeerCircuitBreakers circuitBreakers = newCircuitBreakers(1, TimeUnit.NANOSECONDS);
+        recordFailures(circuitBreakers, peer1, FAILURE_THRESHOLD);
+        circuitBreakers.isOpen(peer1);
+
+        circuitBreakers.recordFailure(peer1);
+
+        assertThat(circuitBreakers.getState(peer1)).isEqualTo(PeerCircuitBreakers.State.OPEN);
+    }
+
+    @Test
+    public void invalid_options_throw() {
+        assertThatThrownBy(() -> CircuitBreakerOptions.of(0, 1, TimeUnit.SECONDS))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CircuitBreakerOptions.of(1, 0, TimeUnit.SECONDS))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -9,10 +9,16 @@ package org.hyperledger.fabric.gateway.impl;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 
 import org.hyperledger.fabric.gateway.ContractException;
+import org.hyperledger.fabric.gateway.PeerHealth;
 import org.hyperledger.fabric.gateway.TestUtils;
+import org.hyperledger.fabric.gateway.impl.query.AdaptiveQueryHandler;
+import org.hyperledger.fabric.gateway.impl.query.HedgingQueryHandler;
 import org.hyperledger.fabric.gateway.impl.query.RoundRobinQueryHandler;
 import org.hyperledger.fabric.gateway.impl.query.SingleQueryHandler;
 import org.hyperledger.fabric.gateway.spi.Query;
@@ -20,6 +26,7 @@ import org.hyperledger.fabric.gateway.spi.QueryHandler;
 import org.hyperledger.fabric.sdk.Peer;
 import org.hyperledger.fabric.sdk.ProposalResponse;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 import org.mockito.ArgumentCaptor;
@@ -28,7 +35,9 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.catchThrowableOfType;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.atMost;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -39,7 +48,9 @@ public final class QueryHandlerTest {
 
     private enum HandlerType implements HandlerConstructor {
         SINGLE(peers -> new SingleQueryHandler(peers)),
-        ROUND_ROBIN(peers -> new RoundRobinQueryHandler(peers));
+        ROUND_ROBIN(peers -> new RoundRobinQueryHandler(peers)),
+        ADAPTIVE(peers -> new AdaptiveQueryHandler(peers)),
+        HEDGED(peers -> new HedgingQueryHandler(peers));
 
         private final HandlerConstructor constructor;
 
@@ -130,6 +141,34 @@ public final class QueryHandlerTest {
         verify(query, times(2)).evaluate(any(Peer.class));
     }
 
+    @ParameterizedTest
+    @EnumSource(HandlerType.class)
+    public void skips_peer_with_open_circuit(HandlerConstructor constructor) throws ContractException {
+        Query query = mock(Query.class);
+        when(query.isCircuitOpen(peer1)).thenReturn(true);
+        when(query.evaluate(peer2)).thenReturn(successfulResponse);
+
+        QueryHandler handler = constructor.apply(Arrays.asList(peer1, peer2));
+        for (int i = 0; i < 2; i++) {
+            handler.evaluate(query);
+        }
+
+        verify(query, never()).evaluate(peer1);
+    }
+
+    @ParameterizedTest
+    @EnumSource(HandlerType.class)
+    public void throws_without_querying_if_all_peer_circuits_are_open(HandlerConstructor constructor) {
+        Query query = mock(Query.class);
+        when(query.isCircuitOpen(any(Peer.class))).thenReturn(true);
+
+        QueryHandler handler = constructor.apply(Arrays.asList(peer1, peer2));
+        ContractException e = catchThrowableOfType(() -> handler.evaluate(query), ContractException.class);
+
+        assertThat(e).hasMessageContaining("Circuit breakers are open");
+        verify(query, never()).evaluate(any(Peer.class));
+    }
+
     @ParameterizedTest
     @EnumSource(value = HandlerType.class, names = { "SINGLE" })
     public void same_peer_for_two_successful_queries(HandlerConstructor constructor) throws ContractException {
@@ -163,4 +202,109 @@ public final class QueryHandlerTest {
         Peer arg2 = argument.getAllValues().get(1);
         assertThat(arg1).isNotSameAs(arg2);
     }
+
+    @Test
+    public void adaptive_handler_avoids_unavailable_peer() throws ContractException {
+        Query query = mock(Query.class);
+        when(query.evaluate(peer1)).thenReturn(unavailableResponse);
+        when(query.evaluate(peer2)).thenReturn(successfulResponse);
+
+        QueryHandler handler = new AdaptiveQueryHandler(Arrays.asList(peer1, peer2));
+        for (int i = 0; i < 10; i++) {
+            handler.evaluate(query);
+        }
+
+        verify(query, atMost(1)).evaluate(peer1);
+    }
+
+    @Test
+    public void adaptive_handler_reports_peer_health() {
+        Query query = mock(Query.class);
+        when(query.evaluate(peer1)).thenReturn(unavailableResponse);
+
+        AdaptiveQueryHandler handler = new AdaptiveQueryHandler(Collections.singletonList(peer1));
+        catchThrowableOfType(() -> handler.evaluate(query), ContractException.class);
+
+        assertThat(handler.getPeerHealth()).hasSize(1);
+        PeerHealth health = handler.getPeerHealth().iterator().next();
+        assertThat(health.getPeerName()).isEqualTo(peer1.getName());
+        assertThat(health.getErrorRate()).isGreaterThan(0);
+        assertThat(health.getLatency(TimeUnit.SECONDS)).isGreaterThanOrEqualTo(1);
+        assertThat(health.getOutstandingRequests()).isZero();
+    }
+
+    @Test
+    public void adaptive_handler_throws_on_invalid_smoothing_factor() {
+        assertThatThrownBy(() -> new AdaptiveQueryHandler(Collections.singletonList(peer1), 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void hedging_handler_sends_query_to_second_peer_when_first_is_slow() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean isStalled = new AtomicBoolean(false);
+        Query query = mock(Query.class);
+        when(query.evaluate(peer1)).thenAnswer(invocation -> {
+            if (isStalled.get()) {
+                release.await();
+            }
+            return successfulResponse;
+        });
+        when(query.evaluate(peer2)).thenReturn(successfulResponse);
+
+        HedgingQueryHandler handler = new HedgingQueryHandler(Arrays.asList(peer1, peer2), 0.5, 100);
+        for (int i = 0; i < 20; i++) {
+            handler.evaluate(query);
+        }
+        isStalled.set(true);
+
+        try {
+            ProposalResponse result = handler.evaluate(query);
+
+            assertThat(result).isEqualTo(successfulResponse);
+            verify(query, times(11)).evaluate(peer2);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void hedging_handler_does_not_hedge_without_budget() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean isStalled = new AtomicBoolean(false);
+        Query query = mock(Query.class);
+        when(query.evaluate(peer1)).thenAnswer(invocation -> {
+            if (isStalled.get()) {
+                release.await();
+            }
+            return successfulResponse;
+        });
+        when(query.evaluate(peer2)).thenReturn(successfulResponse);
+
+        HedgingQueryHandler handler = new HedgingQueryHandler(Arrays.asList(peer1, peer2), 0.5, 0);
+        for (int i = 0; i < 20; i++) {
+            handler.evaluate(query);
+        }
+        isStalled.set(true);
+
+        Thread releaser = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            release.countDown();
+        });
+        releaser.start();
+        handler.evaluate(query);
+        releaser.join();
+
+        verify(query, times(10)).evaluate(peer2);
+    }
+
+    @Test
+    public void hedging_handler_throws_on_invalid_percentile() {
+        assertThatThrownBy(() -> new HedgingQueryHandler(Collections.singletonList(peer1), 1.0, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
 }
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import org.hyperledger.fabric.gateway.CheckpointSyncPolicy;
+import org.hyperledger.fabric.gateway.TestUtils;
+import org.hyperledger.fabric.gateway.spi.Checkpointer;
+import org.hyperledger.fabric.gateway.spi.CheckpointerFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class SharedCheckpointStoreTest {
+    private static final TestUtils testUtils = TestUtils.getInstance();
+
+    @Test
+    public void new_checkpointer_has_unset_block_number() throws IOException {
+        Path directory = testUtils.createTempDirectory();
+        try (CheckpointerFactory store = new SharedCheckpointStore(directory, CheckpointSyncPolicy.none())) {
+            Checkpointer checkpointer = store.getCheckpointer("listener");
+
+            assertThat(checkpointer.getBlockNumber()).isEqualTo(Checkpointer.UNSET_BLOCK_NUMBER);
+            assertThat(checkpointer.getTransactionIds()).isEmpty();
+        }
+    }
+
+    @Test
+    public void same_name_returns_same_checkpointer() throws IOException {
+        Path directory = testUtils.createTempDirectory();
+        try (CheckpointerFactory store = new SharedCheckpointStore(directory, CheckpointSyncPolicy.none())) {
+            assertThat(store.getCheckpointer("listener")).isSameAs(store.getCheckpointer("listener"));
+        }
+    }
+
+    @Test
+    public void checkpointers_are_independent() throws IOException {
+        Path directory = testUtils.createTempDirectory();
+        try (CheckpointerFactory store = new SharedCheckpointStore(directory, CheckpointSyncPolicy.none())) {
+            Checkpointer checkpointer1 = store.getCheckpointer("listener1");
+            Checkpointer checkpointer2 = store.getCheckpointer("listener2");
+
+            checkpointer1.setBlockNumber(1L);
+            checkpointer1.addTransactionId("tx1");
+
+            assertThat(checkpointer2.getBlockNumber()).isEqualTo(Checkpointer.UNSET_BLOCK_NUMBER);
+            assertThat(checkpointer2.getTransactionIds()).isEmpty();
+        }
+    }
+
+    @Test
+    public void set_block_number_clears_transactions() throws IOException {
+        Path directory = testUtils.createTempDirectory();
+        try (CheckpointerFactory store = new SharedCheckpointStore(directory, CheckpointSyncPolicy.none())) {
+            Checkpointer checkpointer = store.getCheckpointer("listener");
+
+            checkpointer.addTransactionId("tx1");
+            checkpointer.setBlockNumber(1L);
+
+            assertThat(checkpointer.getTransactionIds()).isEmpty();
+        }
+    }
+
+    @Test
+    public void persists_state_for_each_checkpointer() throws IOException {
+        Path directory = testUtils.createTempDirectory();
+
+        try (CheckpointerFactory store = new SharedCheckpointStore(directory, CheckpointSyncPolicy.perBlock())) {
+            store.getCheckpointer("listener1").setBlockNumber(1L);
+            Checkpointer checkpointer2 = store.getCheckpointer("listener2");
+            checkpointer2.setBlockNumber(2L);
+            checkpointer2.addTransactionIds(Arrays.asList("tx1", "tx2"));
+        }
+
+        try (CheckpointerFactory store = new SharedCheckpointStore(directory, CheckpointSyncPolicy.none())) {
+            assertThat(store.getCheckpointer("listener1").getBlockNumber()).isEqualTo(1L);
+            assertThat(store.getCheckpointer("listener1").getTransactionIds()).isEmpty();
+            assertThat(store.getCheckpointer("listener2").getBlockNumber()).isEqualTo(2L);
+            assertThat(store.getCheckpointer("listener2").getTransactionIds()).containsExactlyInAnyOrder("tx1", "tx2");
+        }
+    }
+
+    @Test
+    public void discards_invalid_data_after_last_complete_record() throws IOException {
+        Path directory = testUtils.createTempDirectory();
+        Path logFile = directory.resolve("checkpoints.log");
+
+        try (CheckpointerFactory store = new SharedCheckpointStore(directory, CheckpointSyncPolicy.perBlock())) {
+            Checkpointer checkpointer = store.getCheckpointer("listener");
+            checkpointer.setBlockNumber(1L);
+            checkpointer.addTransactionId("tx1");
+        }
+        long validSize = Files.size(logFile);
+        byte[] junk = new byte[] { (byte) 0x7F, 1, 2, 3, 4, 5, 6, 7, 8, 9 };
+        Files.write(logFile, junk, StandardOpenOption.APPEND);
+        Files.write(logFile, new byte[64], StandardOpenOption.APPEND);
+
+        try (CheckpointerFactory store = new SharedCheckpointStore(directory, CheckpointSyncPolicy.perBlock())) {
+            Checkpointer checkpointer = store.getCheckpointer("listener");
+            assertThat(checkpointer.getBlockNumber()).isEqualTo(1L);
+            assertThat(checkpointer.getTransactionIds()).containsExactly("tx1");
+            assertThat(Files.size(logFile)).isEqualTo(validSize);
+
+            checkpointer.addTransactionId("tx2");
+        }
+
+        try (CheckpointerFactory store = new SharedCheckpointStore(directory, CheckpointSyncPolicy.none())) {
+            assertThat(store.getCheckpointer("listener").getTransactionIds()).containsExactlyInAnyOrder("tx1", "tx2");
+        }
+    }
+
+    @Test
+    public void persists_concurrent_updates_with_compaction() throws Exception {
+        Path directory = testUtils.createTempDirectory();
+        int listenerCount = 50;
+        int blockCount = 20;
+
+        try (CheckpointerFactory store = new SharedCheckpointStore(directory, CheckpointSyncPolicy.none(), 1024)) {
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int i = 0; i < listenerCount; i++) {
+                    Checkpointer checkpointer = store.getCheckpointer("listener" + i);
+                    futures.add(executor.submit(() -> {
+                        for (long block = 0; block < blockCount; block++) {
+                            checkpointer.setBlockNumber(block);
+                            checkpointer.addTransactionId("tx" + block);
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } finally {
+                executor.shutdown();
+            }
+        }
+
+        assertThat(Files.size(directory.resolve("checkpoints.log"))).isLessThan(listenerCount * blockCount * 20L);
+        try (CheckpointerFactory store = new SharedCheckpointStore(directory, CheckpointSyncPolicy.none())) {
+            for (int i = 0; i < listenerCount; i++) {
+                Checkpointer checkpointer = store.getCheckpointer("listener" + i);
+                assertThat(checkpointer.getBlockNumber()).isEqualTo(blockCount - 1);
+                assertThat(checkpointer.getTransactionIds()).containsExactly("tx" + (blockCount - 1));
+            }
+        }
+    }
+
+    @Test
+    public void store_locks_directory() throws IOException {
+        Path directory = testUtils.createTempDirectory();
+        try (CheckpointerFactory store = new SharedCheckpointStore(directory, CheckpointSyncPolicy.none())) {
+            assertThatThrownBy(() -> new SharedCheckpointStore(directory, CheckpointSyncPolicy.none()))
+                    .isInstanceOf(IOException.class)
+                    .hasMessageContaining(directory.toString());
+        }
+    }
+
+    @Test
+    public void closed_store_throws_on_update() throws IOException {
+        Path directory = testUtils.createTempDirectory();
+        CheckpointerFactory store = new SharedCheckpointStore(directory, CheckpointSyncPolicy.none());
+        Checkpointer checkpointer = store.getCheckpointer("listener");
+        store.close();
+
+        assertThatThrownBy(() -> checkpointer.setBlockNumber(1L))
+                .isInstanceOf(IOException.class);
+    }
+}
@@ -6,26 +6,45 @@
 
 package org.hyperledger.fabric.gateway.impl;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+import org.hyperledger.fabric.gateway.CircuitBreakerOptions;
 import org.hyperledger.fabric.gateway.Contract;
 import org.hyperledger.fabric.gateway.ContractException;
+import org.hyperledger.fabric.gateway.EndorsedTransaction;
+import org.hyperledger.fabric.gateway.EvaluateCacheMetrics;
+import org.hyperledger.fabric.gateway.EvaluateCacheOptions;
 import org.hyperledger.fabric.gateway.Gateway;
 import org.hyperledger.fabric.gateway.GatewayException;
+import org.hyperledger.fabric.gateway.Network;
+import org.hyperledger.fabric.gateway.OrdererQueueFullException;
+import org.hyperledger.fabric.gateway.PreparedTransaction;
 import org.hyperledger.fabric.gateway.TestUtils;
+import org.hyperledger.fabric.gateway.Transaction;
+import org.hyperledger.fabric.gateway.TransactionRequestSpec;
 import org.hyperledger.fabric.gateway.TransactionResponse;
+import org.hyperledger.fabric.gateway.impl.query.SingleQueryHandler;
 import org.hyperledger.fabric.gateway.spi.CommitHandler;
+import org.hyperledger.fabric.sdk.BlockEvent;
 import org.hyperledger.fabric.sdk.Channel;
 import org.hyperledger.fabric.sdk.HFClient;
 import org.hyperledger.fabric.sdk.Peer;
 import org.hyperledger.fabric.sdk.ProposalResponse;
+import org.hyperledger.fabric.sdk.QueryByChaincodeRequest;
 import org.hyperledger.fabric.sdk.TransactionProposalRequest;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -43,6 +62,8 @@ import static org.mockito.Mockito.anyCollection;
 import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -266,4 +287,399 @@ public class TransactionTest {
 
         assertThat(e.getProposalResponses()).containsExactly(response);
     }
+
+    @Test
+    public void submitAsync_returns_result() throws Exception {
+        String expected = "successful result";
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse(expected.getBytes());
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+        when(commitHandler.whenCommitted(anyLong(), any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        TransactionResponse result = contract.submitTransactionAsync(UUID.randomUUID(), "txn", "arg1").get();
+
+        assertThat(new String(result.getPayload())).isEqualTo(expected);
+    }
+
+    @Test
+    public void submitAsync_with_bad_responses_fails_with_ContractException() throws Exception {
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(failureResponse));
+
+        CompletableFuture<TransactionResponse> future = contract.submitTransactionAsync(UUID.randomUUID(), "txn", "arg1");
+
+        assertThatThrownBy(future::get)
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(ContractException.class);
+    }
+
+    @Test
+    public void submitAsync_commit_failure_fails_with_ContractException_with_proposal_responses() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse("successful result".getBytes());
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+        CompletableFuture<Void> commitFuture = new CompletableFuture<>();
+        commitFuture.completeExceptionally(new ContractException("Commit failed"));
+        when(commitHandler.whenCommitted(anyLong(), any(), any())).thenReturn(commitFuture);
+
+        ExecutionException e = catchThrowableOfType(
+                () -> contract.submitTransactionAsync(UUID.randomUUID(), "txn", "arg1").get(),
+                ExecutionException.class);
+
+        assertThat(e.getCause()).isInstanceOf(ContractException.class);
+        assertThat(((ContractException) e.getCause()).getProposalResponses()).containsExactly(response);
+    }
+
+    @Test
+    public void endorse_does_not_send_to_orderer() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse("successful result".getBytes());
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+
+        EndorsedTransaction endorsedTransaction = contract.createTransaction("txn").endorse(UUID.randomUUID(), "arg1");
+
+        assertThat(endorsedTransaction.getProposalResponses()).containsExactly(response);
+        verify(channel, never()).sendTransaction(anyCollection(), any(Channel.TransactionOptions.class));
+    }
+
+    @Test
+    public void endorse_with_bad_responses_throws_ContractException_with_responses() throws Exception {
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(failureResponse));
+
+        ContractException e = catchThrowableOfType(
+                () -> contract.createTransaction("txn").endorse(UUID.randomUUID(), "arg1"),
+                ContractException.class);
+
+        assertThat(e.getProposalResponses()).containsExactly(failureResponse);
+    }
+
+    @Test
+    public void endorsed_transaction_can_be_resubmitted_after_orderer_failure() throws Exception {
+        String expected = "successful result";
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse(expected.getBytes());
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+        CompletableFuture<BlockEvent.TransactionEvent> ordererFailure = new CompletableFuture<>();
+        ordererFailure.completeExceptionally(new Exception("Orderer unavailable"));
+        when(channel.sendTransaction(anyCollection(), any(Channel.TransactionOptions.class)))
+                .thenReturn(ordererFailure)
+                .thenReturn(CompletableFuture.completedFuture(null));
+        UUID correlationId = UUID.randomUUID();
+
+        EndorsedTransaction endorsedTransaction = contract.createTransaction("txn").endorse(correlationId, "arg1");
+        assertThatThrownBy(endorsedTransaction::submit).isInstanceOf(ContractException.class);
+        TransactionResponse result = endorsedTransaction.submit();
+
+        assertThat(new String(result.getPayload())).isEqualTo(expected);
+        assertThat(result.getCorrelationId()).isEqualTo(correlationId);
+        verify(channel, times(1)).sendTransactionProposal(any());
+    }
+
+    @Test
+    public void submitEndorsedTransactions_returns_results_in_order() throws Exception {
+        ProposalResponse response1 = testUtils.newSuccessfulProposalResponse("result1".getBytes());
+        ProposalResponse response2 = testUtils.newSuccessfulProposalResponse("result2".getBytes());
+        when(channel.sendTransactionProposal(any()))
+                .thenReturn(Collections.singletonList(response1))
+                .thenReturn(Collections.singletonList(response2));
+        when(commitHandler.whenCommitted(anyLong(), any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        List<EndorsedTransaction> endorsedTransactions = Arrays.asList(
+                contract.createTransaction("txn").endorse(UUID.randomUUID(), "arg1"),
+                contract.createTransaction("txn").endorse(UUID.randomUUID(), "arg2"));
+        List<CompletableFuture<TransactionResponse>> futures = contract.submitEndorsedTransactions(endorsedTransactions);
+
+        assertThat(futures).hasSize(2);
+        assertThat(new String(futures.get(0).get().getPayload())).isEqualTo("result1");
+        assertThat(new String(futures.get(1).get().getPayload())).isEqualTo("result2");
+    }
+
+    @Test
+    public void submitTransactions_returns_per_request_results() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse("result".getBytes());
+        when(channel.sendTransactionProposal(any()))
+                .thenReturn(Collections.singletonList(response))
+                .thenReturn(Collections.singletonList(failureResponse));
+        when(commitHandler.whenCommitted(anyLong(), any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+        UUID correlationId = UUID.randomUUID();
+        List<TransactionRequestSpec> requests = Arrays.asList(
+                new TransactionRequestSpec(correlationId, "txn", "arg1"),
+                new TransactionRequestSpec(UUID.randomUUID(), "txn", "arg2"));
+
+        List<CompletableFuture<TransactionResponse>> futures = contract.submitTransactions(requests, 1);
+
+        assertThat(futures).hasSize(2);
+        TransactionResponse result = futures.get(0).get();
+        assertThat(new String(result.getPayload())).isEqualTo("result");
+        assertThat(result.getCorrelationId()).isEqualTo(correlationId);
+        assertThatThrownBy(() -> futures.get(1).get())
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(ContractException.class);
+    }
+
+    @Test
+    public void submitTransactions_with_invalid_parallelism_throws() {
+        List<TransactionRequestSpec> requests = Collections.singletonList(new TransactionRequestSpec(UUID.randomUUID(), "txn"));
+
+        assertThatThrownBy(() -> contract.submitTransactions(requests, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void submit_with_full_fail_fast_orderer_queue_throws_OrdererQueueFullException() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse("successful result".getBytes());
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+        when(channel.sendTransaction(anyCollection(), any(Channel.TransactionOptions.class)))
+                .thenReturn(new CompletableFuture<>());
+        when(commitHandler.whenCommitted(anyLong(), any(), any())).thenReturn(new CompletableFuture<>());
+        gateway = gatewayBuilder
+                .ordererQueue(1, true)
+                .connect();
+        contract = gateway.getNetwork("network").getContract("contract");
+
+        contract.createTransaction("txn").endorse(UUID.randomUUID(), "arg1").submitAsync();
+
+        assertThatThrownBy(() -> contract.submitTransaction(UUID.randomUUID(), "txn", "arg2"))
+                .isInstanceOf(OrdererQueueFullException.class);
+        assertThat(gateway.getOrdererQueueMetrics().getRejectedCount()).isEqualTo(1);
+        verify(commitHandler, times(1)).cancelListening();
+    }
+
+    @Test
+    public void submit_with_full_orderer_queue_waits_for_space_without_blocking() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse("successful result".getBytes());
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+        CompletableFuture<BlockEvent.TransactionEvent> firstSend = new CompletableFuture<>();
+        when(channel.sendTransaction(anyCollection(), any(Channel.TransactionOptions.class)))
+                .thenReturn(firstSend)
+                .thenReturn(CompletableFuture.completedFuture(null));
+        when(commitHandler.whenCommitted(anyLong(), any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+        gateway = gatewayBuilder
+                .ordererQueue(1, false)
+                .connect();
+        contract = gateway.getNetwork("network").getContract("contract");
+
+        CompletableFuture<TransactionResponse> first = contract.createTransaction("txn").endorse(UUID.randomUUID(), "arg1").submitAsync();
+        CompletableFuture<TransactionResponse> second = contract.createTransaction("txn").endorse(UUID.randomUUID(), "arg2").submitAsync();
+
+        assertThat(second).isNotDone();
+        assertThat(gateway.getOrdererQueueMetrics().getWaitingCount()).isEqualTo(1);
+
+        firstSend.complete(null);
+
+        assertThat(first.get(1, TimeUnit.MINUTES).getPayload()).isEqualTo("successful result".getBytes());
+        assertThat(second.get(1, TimeUnit.MINUTES).getPayload()).isEqualTo("successful result".getBytes());
+        assertThat(gateway.getOrdererQueueMetrics().getWaitingCount()).isZero();
+    }
+
+    @Test
+    public void submit_with_orderer_timeout_throws_TimeoutException() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse("successful result".getBytes());
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+        when(channel.sendTransaction(anyCollection(), any(Channel.TransactionOptions.class)))
+                .thenReturn(new CompletableFuture<>());
+
+        assertThatThrownBy(() -> contract.createTransaction("txn")
+                .setOrdererTimeout(1, TimeUnit.MILLISECONDS)
+                .submit(UUID.randomUUID(), "arg1"))
+                .isInstanceOf(TimeoutException.class);
+    }
+
+    @Test
+    public void prepareTransaction_returns_same_instance_for_same_name() {
+        PreparedTransaction prepared = contract.prepareTransaction("txn");
+
+        assertThat(contract.prepareTransaction("txn")).isSameAs(prepared);
+        assertThat(prepared.getName()).isEqualTo("txn");
+    }
+
+    @Test
+    public void prepareTransaction_with_empty_name_throws() {
+        assertThatThrownBy(() -> contract.prepareTransaction(""))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void prepared_transaction_can_be_evaluated_repeatedly() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse("successful result".getBytes());
+        when(response.getPeer()).thenReturn(peer1);
+        when(channel.queryByChaincode(any(), anyCollection())).thenReturn(Collections.singletonList(response));
+        PreparedTransaction prepared = contract.prepareTransaction("txn");
+
+        TransactionResponse first = prepared.evaluate(UUID.randomUUID(), "arg1");
+        TransactionResponse second = prepared.evaluate(UUID.randomUUID(), "arg2");
+
+        assertThat(new String(first.getPayload())).isEqualTo("successful result");
+        assertThat(new String(second.getPayload())).isEqualTo("successful result");
+        verify(channel, times(2)).queryByChaincode(any(), anyCollection());
+    }
+
+    @Test
+    public void prepared_transaction_uses_endorsing_peers_captured_at_prepare() throws Exception {
+        ProposalResponse goodResponse = testUtils.newSuccessfulProposalResponse("successful result".getBytes());
+        when(channel.sendTransactionProposal(any(TransactionProposalRequest.class), anyCollection()))
+                .thenReturn(Collections.singletonList(goodResponse));
+        Transaction transaction = contract.createTransaction("txn")
+                .setEndorsingPeers(Collections.singletonList(peer2));
+
+        PreparedTransaction prepared = transaction.prepare();
+        transaction.setEndorsingPeers(Collections.singletonList(peer1));
+        prepared.submit(UUID.randomUUID(), "arg1");
+
+        verify(channel).sendTransactionProposal(any(TransactionProposalRequest.class), peerCaptor.capture());
+        assertThat(peerCaptor.getValue()).containsExactly(peer2);
+    }
+
+    @Test
+    public void prepared_transaction_binds_transient_data_per_call() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse("successful result".getBytes());
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+        ArgumentCaptor<TransactionProposalRequest> requestCaptor = ArgumentCaptor.forClass(TransactionProposalRequest.class);
+
+        contract.prepareTransaction("txn").submit(UUID.randomUUID(), transientMap, "arg1");
+
+        verify(channel).sendTransactionProposal(requestCaptor.capture());
+        assertThat(requestCaptor.getValue().getTransientMap()).containsOnlyKeys("key1", "key2");
+        assertThat(requestCaptor.getValue().getArgs()).containsExactly("arg1");
+    }
+
+    @Test
+    public void submit_with_byte_args_passes_bytes_unchanged() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse("successful result".getBytes());
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+        ArgumentCaptor<TransactionProposalRequest> requestCaptor = ArgumentCaptor.forClass(TransactionProposalRequest.class);
+        byte[] arg = new byte[] { 0, (byte) 0xff, (byte) 0x80 };
+
+        contract.submitTransaction(UUID.randomUUID(), "txn", new byte[][] { arg });
+
+        verify(channel).sendTransactionProposal(requestCaptor.capture());
+        assertThat(requestCaptor.getValue().getArgBytes()).containsExactly(arg);
+    }
+
+    @Test
+    public void evaluate_with_buffer_args_passes_remaining_bytes() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse("successful result".getBytes());
+        when(response.getPeer()).thenReturn(peer1);
+        when(channel.queryByChaincode(any(), anyCollection())).thenReturn(Collections.singletonList(response));
+        ArgumentCaptor<QueryByChaincodeRequest> requestCaptor = ArgumentCaptor.forClass(QueryByChaincodeRequest.class);
+        ByteBuffer arg = ByteBuffer.wrap(new byte[] { 1, 2, 3, 4 });
+        arg.position(1);
+
+        contract.createTransaction("txn").evaluate(UUID.randomUUID(), new ByteBuffer[] { arg });
+
+        verify(channel).queryByChaincode(requestCaptor.capture(), anyCollection());
+        assertThat(requestCaptor.getValue().getArgBytes()).containsExactly(new byte[] { 2, 3, 4 });
+        assertThat(arg.position()).isEqualTo(1);
+    }
+
+    @Test
+    public void evaluate_with_cache_enabled_queries_peers_once() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse("successful result".getBytes());
+        when(response.getPeer()).thenReturn(peer1);
+        when(channel.queryByChaincode(any(), anyCollection())).thenReturn(Collections.singletonList(response));
+        try (Gateway cachingGateway = gatewayBuilder.evaluateCache(EvaluateCacheOptions.of(10, 1, TimeUnit.HOURS)).connect()) {
+            Network network = cachingGateway.getNetwork("network");
+            Contract cachingContract = network.getContract("contract");
+
+            TransactionResponse first = cachingContract.evaluateTransaction(UUID.randomUUID(), "txn", "arg1");
+            TransactionResponse second = cachingContract.evaluateTransaction(UUID.randomUUID(), "txn", "arg1");
+
+            assertThat(second.getPayload()).isEqualTo(first.getPayload());
+            verify(channel, times(1)).queryByChaincode(any(), anyCollection());
+            EvaluateCacheMetrics metrics = network.getEvaluateCacheMetrics().get();
+            assertThat(metrics.getHitCount()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void evaluate_with_cache_enabled_after_submit_queries_peers_again() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse("successful result".getBytes());
+        when(response.getPeer()).thenReturn(peer1);
+        when(channel.queryByChaincode(any(), anyCollection())).thenReturn(Collections.singletonList(response));
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+        when(commitHandler.whenCommitted(anyLong(), any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+        try (Gateway cachingGateway = gatewayBuilder.evaluateCache(EvaluateCacheOptions.of(10, 1, TimeUnit.HOURS)).connect()) {
+            Contract cachingContract = cachingGateway.getNetwork("network").getContract("contract");
+
+            cachingContract.evaluateTransaction(UUID.randomUUID(), "txn", "arg1");
+            cachingContract.submitTransaction(UUID.randomUUID(), "txn", "arg1");
+            cachingContract.evaluateTransaction(UUID.randomUUID(), "txn", "arg1");
+            cachingContract.createTransaction("txn").endorse(UUID.randomUUID(), "arg1").submitAsync().get();
+            cachingContract.evaluateTransaction(UUID.randomUUID(), "txn", "arg1");
+
+            verify(channel, times(3)).queryByChaincode(any(), anyCollection());
+        }
+    }
+
+    @Test
+    public void evaluate_without_cache_has_no_cache_metrics() {
+        assertThat(gateway.getNetwork("network").getEvaluateCacheMetrics()).isEmpty();
+    }
+
+    @Test
+    public void evaluate_with_coalescing_enabled_shares_concurrent_identical_evaluations() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse("successful result".getBytes());
+        when(response.getPeer()).thenReturn(peer1);
+        CountDownLatch queryStarted = new CountDownLatch(1);
+        CountDownLatch releaseQuery = new CountDownLatch(1);
+        when(channel.queryByChaincode(any(), anyCollection())).thenAnswer(invocation -> {
+            queryStarted.countDown();
+            releaseQuery.await();
+            return Collections.singletonList(response);
+        });
+        try (Gateway coalescingGateway = gatewayBuilder.evaluateCoalescing(true).connect()) {
+            Contract coalescingContract = coalescingGateway.getNetwork("network").getContract("contract");
+            CompletableFuture<TransactionResponse> first = CompletableFuture.supplyAsync(() -> evaluate(coalescingContract));
+            queryStarted.await();
+            CompletableFuture<TransactionResponse> second = CompletableFuture.supplyAsync(() -> evaluate(coalescingContract));
+            EvaluateCoalescer coalescer = ((NetworkImpl) coalescingGateway.getNetwork("network")).getEvaluateCoalescer();
+            while (coalescer.getCoalescedCount() == 0) {
+                Thread.sleep(1);
+            }
+
+            releaseQuery.countDown();
+
+            assertThat(second.get().getPayload()).isEqualTo(first.get().getPayload());
+            verify(channel, times(1)).queryByChaincode(any(), anyCollection());
+        }
+    }
+
+    private static TransactionResponse evaluate(final Contract contract) {
+        try {
+            return contract.evaluateTransaction(UUID.randomUUID(), "txn", "arg1");
+        } catch (ContractException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    @Test
+    public void evaluate_with_circuit_breaker_skips_unresponsive_peer() throws Exception {
+        ProposalResponse unavailableResponse = testUtils.newUnavailableProposalResponse("No response");
+        when(unavailableResponse.getPeer()).thenReturn(peer1);
+        when(channel.queryByChaincode(any(), anyCollection())).thenReturn(Collections.singletonList(unavailableResponse));
+        gatewayBuilder.queryHandler(network -> new SingleQueryHandler(network.getChannel().getPeers(EnumSet.of(Peer.PeerRole.CHAINCODE_QUERY))))
+                .peerCircuitBreaker(CircuitBreakerOptions.of(1, 1, TimeUnit.HOURS));
+        try (Gateway breakerGateway = gatewayBuilder.connect()) {
+            Contract breakerContract = breakerGateway.getNetwork("network").getContract("contract");
+            assertThatThrownBy(() -> breakerContract.evaluateTransaction(UUID.randomUUID(), "txn", "arg1"))
+                    .isInstanceOf(ContractException.class);
+
+            assertThatThrownBy(() -> breakerContract.evaluateTransaction(UUID.randomUUID(), "txn", "arg1"))
+                    .isInstanceOf(ContractException.class)
+                    .hasMessageContaining("Circuit breakers are open");
+            verify(channel, times(1)).queryByChaincode(any(), anyCollection());
+        }
+    }
+
+    @Test
+    public void endorse_with_circuit_breaker_skips_unresponsive_peer() throws Exception {
+        ProposalResponse unavailableResponse = testUtils.newUnavailableProposalResponse("No response");
+        when(unavailableResponse.getPeer()).thenReturn(peer1);
+        when(channel.sendTransactionProposal(any(TransactionProposalRequest.class), anyCollection()))
+                .thenReturn(Collections.singletonList(unavailableResponse));
+        try (Gateway breakerGateway = gatewayBuilder.peerCircuitBreaker(CircuitBreakerOptions.of(1, 1, TimeUnit.HOURS)).connect()) {
+            Contract breakerContract = breakerGateway.getNetwork("network").getContract("contract");
+            assertThatThrownBy(() -> breakerContract.createTransaction("txn").endorse(UUID.randomUUID(), "arg1"))
+                    .isInstanceOf(ContractException.class);
+
+            assertThatThrownBy(() -> breakerContract.createTransaction("txn").endorse(UUID.randomUUID(), "arg1"))
+                    .isInstanceOf(ContractException.class);
+            verify(channel, times(1)).sendTransactionProposal(any(TransactionProposalRequest.class), anyCollection());
+        }
+    }
 }
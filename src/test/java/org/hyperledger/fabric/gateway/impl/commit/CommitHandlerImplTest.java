@@ -10,6 +10,8 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -27,6 +29,7 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.any;
@@ -230,4 +233,39 @@ public class CommitHandlerImplTest {
         assertThatCode(() -> commitHandler.waitForEvents(timeout, timeUnit))
                 .doesNotThrowAnyException();
     }
+
+    @Test
+    public void whenCommitted_completes_if_peer_commit_causes_strategy_success() {
+        when(strategy.onEvent(any())).thenReturn(CommitStrategy.Result.SUCCESS);
+
+        commitHandler.startListening();
+        CompletableFuture<Void> future = commitHandler.whenCommitted(1, TimeUnit.MINUTES, Runnable::run);
+        sendValidTransactionEvent();
+
+        assertThat(future).isCompleted();
+    }
+
+    @Test
+    public void whenCommitted_does_not_complete_before_strategy_success() {
+        when(strategy.onEvent(any())).thenReturn(CommitStrategy.Result.CONTINUE);
+
+        commitHandler.startListening();
+        CompletableFuture<Void> future = commitHandler.whenCommitted(1, TimeUnit.MINUTES, Runnable::run);
+        sendValidTransactionEvent();
+
+        assertThat(future).isNotDone();
+    }
+
+    @Test
+    public void whenCommitted_fails_if_peer_commit_fails() {
+        when(strategy.onEvent(any())).thenReturn(CommitStrategy.Result.CONTINUE);
+
+        commitHandler.startListening();
+        CompletableFuture<Void> future = commitHandler.whenCommitted(1, TimeUnit.MINUTES, Runnable::run);
+        sendInvalidTransactionEvent();
+
+        assertThatThrownBy(future::get)
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(GatewayException.class);
+    }
 }
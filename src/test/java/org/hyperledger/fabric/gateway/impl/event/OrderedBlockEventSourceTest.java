@@ -0,0 +1,109 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.hyperledger.fabric.gateway.TestUtils;
+import org.hyperledger.fabric.sdk.BlockEvent;
+import org.hyperledger.fabric.sdk.Peer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OrderedBlockEventSourceTest {
+    private static final TestUtils testUtils = TestUtils.getInstance();
+
+    private final Peer peer = testUtils.newMockPeer("peer");
+    private StubBlockEventSource stubBlockEventSource;
+    private final List<Long> receivedBlockNumbers = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    public void beforeEach() {
+        stubBlockEventSource = new StubBlockEventSource();
+    }
+
+    @AfterEach
+    public void afterEach() {
+        stubBlockEventSource.close();
+    }
+
+    private OrderedBlockEventSource newOrderedBlockEventSource(long startBlock, int windowSize) {
+        OrderedBlockEventSource blockSource = new OrderedBlockEventSource(stubBlockEventSource, startBlock, windowSize);
+        blockSource.addBlockListener(event -> receivedBlockNumbers.add(event.getBlockNumber()));
+        return blockSource;
+    }
+
+    private void sendBlocks(long... blockNumbers) {
+        LongStream.of(blockNumbers)
+                .mapToObj(blockNumber -> testUtils.newMockBlockEvent(peer, blockNumber))
+                .forEach(stubBlockEventSource::sendEvent);
+    }
+
+    @Test
+    public void out_of_order_blocks_are_delivered_in_order() {
+        newOrderedBlockEventSource(1, OrderedBlockEventSource.DEFAULT_WINDOW_SIZE);
+
+        sendBlocks(3, 2, 1);
+
+        assertThat(receivedBlockNumbers).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    public void duplicate_blocks_are_ignored() {
+        newOrderedBlockEventSource(1, OrderedBlockEventSource.DEFAULT_WINDOW_SIZE);
+
+        sendBlocks(1, 2, 1, 3, 3, 2);
+
+        assertThat(receivedBlockNumbers).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    public void first_block_sets_start_block_if_not_specified() {
+        newOrderedBlockEventSource(-1, OrderedBlockEventSource.DEFAULT_WINDOW_SIZE);
+
+        sendBlocks(5, 4, 6);
+
+        assertThat(receivedBlockNumbers).containsExactly(5L, 6L);
+    }
+
+    @Test
+    public void blocks_beyond_window_are_discarded() {
+        newOrderedBlockEventSource(1, 2);
+
+        sendBlocks(3, 2, 1);
+
+        assertThat(receivedBlockNumbers).containsExactly(1L, 2L);
+    }
+
+    @Test
+    public void blocks_received_concurrently_are_delivered_in_order() throws InterruptedException {
+        int blockCount = 1000;
+        newOrderedBlockEventSource(0, blockCount);
+        List<BlockEvent> events = LongStream.range(0, blockCount)
+                .mapToObj(blockNumber -> testUtils.newMockBlockEvent(peer, blockNumber))
+                .collect(Collectors.toList());
+        Collections.reverse(events);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        events.forEach(event -> executor.execute(() -> stubBlockEventSource.sendEvent(event)));
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+
+        List<Long> expected = LongStream.range(0, blockCount).boxed().collect(Collectors.toList());
+        assertThat(receivedBlockNumbers).containsExactlyElementsOf(expected);
+    }
+}
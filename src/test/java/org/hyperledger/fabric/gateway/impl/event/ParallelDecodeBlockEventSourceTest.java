@@ -0,0 +1,131 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.hyperledger.fabric.gateway.TestUtils;
+import org.hyperledger.fabric.sdk.BlockEvent;
+import org.hyperledger.fabric.sdk.Peer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+
+public class ParallelDecodeBlockEventSourceTest {
+    private static final TestUtils testUtils = TestUtils.getInstance();
+
+    private final Peer peer = testUtils.newMockPeer("peer");
+    private StubBlockEventSource stubBlockEventSource;
+    private ForkJoinPool pool;
+    private final List<Long> receivedBlockNumbers = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    public void beforeEach() {
+        stubBlockEventSource = new StubBlockEventSource();
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterEach
+    public void afterEach() throws InterruptedException {
+        stubBlockEventSource.close();
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private ParallelDecodeBlockEventSource newDecodeBlockEventSource(Executor executor) {
+        ParallelDecodeBlockEventSource blockSource = new ParallelDecodeBlockEventSource(stubBlockEventSource, executor, 8);
+        blockSource.addBlockListener(event -> receivedBlockNumbers.add(event.getBlockNumber()));
+        return blockSource;
+    }
+
+    private List<BlockEvent> sendBlocks(long... blockNumbers) {
+        List<BlockEvent> blocks = LongStream.of(blockNumbers)
+                .mapToObj(blockNumber -> testUtils.newMockBlockEvent(peer, blockNumber))
+                .collect(Collectors.toList());
+        blocks.forEach(stubBlockEventSource::sendEvent);
+        return blocks;
+    }
+
+    private void awaitQuiescence() {
+        pool.awaitQuiescence(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void blocks_are_delivered_in_received_order() {
+        newDecodeBlockEventSource(pool);
+
+        long[] blockNumbers = LongStream.range(0, 100).toArray();
+        sendBlocks(blockNumbers);
+        awaitQuiescence();
+
+        assertThat(receivedBlockNumbers).containsExactlyElementsOf(
+                LongStream.of(blockNumbers).boxed().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void out_of_order_blocks_are_delivered_as_received() {
+        newDecodeBlockEventSource(pool);
+
+        sendBlocks(3, 1, 2);
+        awaitQuiescence();
+
+        assertThat(receivedBlockNumbers).containsExactly(3L, 1L, 2L);
+    }
+
+    @Test
+    public void blocks_are_decoded_before_delivery() {
+        newDecodeBlockEventSource(pool);
+
+        List<BlockEvent> blocks = sendBlocks(1);
+        awaitQuiescence();
+
+        verify(blocks.get(0), atLeastOnce()).getTransactionEvents();
+    }
+
+    @Test
+    public void rejected_decode_is_performed_on_receiving_thread() {
+        newDecodeBlockEventSource(command -> {
+            throw new RejectedExecutionException("Expected");
+        });
+
+        sendBlocks(1, 2);
+
+        assertThat(receivedBlockNumbers).containsExactly(1L, 2L);
+    }
+
+    @Test
+    public void removed_listener_does_not_receive_events() {
+        ParallelDecodeBlockEventSource blockSource = new ParallelDecodeBlockEventSource(stubBlockEventSource, Runnable::run);
+        Consumer<BlockEvent> listener = event -> receivedBlockNumbers.add(event.getBlockNumber());
+        blockSource.addBlockListener(listener);
+        blockSource.removeBlockListener(listener);
+
+        sendBlocks(1);
+
+        assertThat(receivedBlockNumbers).isEmpty();
+    }
+
+    @Test
+    public void invalid_max_pending_throws() {
+        assertThatThrownBy(() -> new ParallelDecodeBlockEventSource(stubBlockEventSource, pool, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}